@@ -0,0 +1,93 @@
+package org.giste.club.web.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.controller.ClubController;
+import org.giste.club.web.service.ClubRestServiceImpl;
+import org.giste.spring.util.config.RestProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Benchmarks of create and update actions of {@link ClubController}, from the
+ * form post to the REST client, against the in-process
+ * {@link StubRestBackend}. Covers the valid path, validation errors and
+ * duplicated acronyms. Times include the overhead of MockMvc.
+ * 
+ * @author Giste
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClubControllerBenchmark {
+
+	@Param({ "valid", "invalid", "duplicated" })
+	private String club;
+
+	private MockMvc mockMvc;
+	private String name;
+	private String acronym;
+
+	@Setup
+	public void setUp() throws Exception {
+		RestProperties restProperties = StubRestBackend.restProperties();
+		RestTemplate restTemplate = new RestTemplate(new StubRestBackend(restProperties, 10));
+		ClubController controller = new ClubController(new ClubRestServiceImpl(restTemplate, restProperties),
+				new ClubWebProperties(), null, Runnable::run);
+
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+		switch (club) {
+		case "invalid":
+			name = "Cl";
+			acronym = "CBL_1";
+			break;
+		case "duplicated":
+			name = StubRestBackend.DUPLICATED;
+			acronym = "DUP";
+			break;
+		default:
+			name = "Club name";
+			acronym = "CLB";
+		}
+	}
+
+	@Benchmark
+	public MvcResult create() throws Exception {
+		return mockMvc.perform(post("/clubs")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.param("name", name)
+				.param("acronym", acronym))
+				.andReturn();
+	}
+
+	@Benchmark
+	public MvcResult update() throws Exception {
+		return mockMvc.perform(post("/clubs/{id}", 1L)
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.param("id", "1")
+				.param("name", name)
+				.param("acronym", acronym))
+				.andReturn();
+	}
+}
@@ -0,0 +1,80 @@
+package org.giste.club.web.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.ClubRestServiceImpl;
+import org.giste.spring.util.config.RestProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Benchmarks of {@link ClubRestServiceImpl} against the in-process
+ * {@link StubRestBackend}. Measures building requests, message conversion and
+ * error handling of the client.
+ * 
+ * @author Giste
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClubRestServiceBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	private int size;
+
+	private ClubRestService service;
+	private ClubDto newClub;
+	private ClubDto duplicatedClub;
+	private long id;
+
+	@Setup
+	public void setUp() throws Exception {
+		RestProperties restProperties = StubRestBackend.restProperties();
+		RestTemplate restTemplate = new RestTemplate(new StubRestBackend(restProperties, size));
+
+		service = new ClubRestServiceImpl(restTemplate, restProperties);
+		newClub = new ClubDto(0L, "New club", "NEW", true);
+		duplicatedClub = new ClubDto(0L, StubRestBackend.DUPLICATED, "DUP", true);
+		id = size / 2 + 1;
+	}
+
+	@Benchmark
+	public List<ClubDto> findAll() {
+		return service.findAll();
+	}
+
+	@Benchmark
+	public ClubDto findById() {
+		return service.findById(id);
+	}
+
+	@Benchmark
+	public ClubDto create() {
+		return service.create(newClub);
+	}
+
+	@Benchmark
+	public Object createDuplicated() {
+		try {
+			return service.create(duplicatedClub);
+		} catch (RuntimeException e) {
+			return e;
+		}
+	}
+}
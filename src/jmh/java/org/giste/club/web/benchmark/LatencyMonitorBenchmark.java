@@ -0,0 +1,73 @@
+package org.giste.club.web.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.aspect.LatencyMonitor;
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.service.CachedClubRestService;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.ClubRestServiceImpl;
+import org.giste.club.web.service.cache.EntityCache;
+import org.giste.spring.util.config.RestProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Benchmarks of the overhead of {@link LatencyMonitor} on a cheap service
+ * call (a cached club). "disabled" calls the service without aspect, as when
+ * instrumentation isn't enabled; "paused" and "recording" call it through the
+ * aspect proxy.
+ * 
+ * @author Giste
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyMonitorBenchmark {
+
+	@Param({ "disabled", "paused", "recording" })
+	private String instrumentation;
+
+	private ClubRestService service;
+
+	@Setup
+	public void setUp() throws Exception {
+		RestProperties restProperties = StubRestBackend.restProperties();
+		RestTemplate restTemplate = new RestTemplate(new StubRestBackend(restProperties, 10));
+		ClubRestService target = new CachedClubRestService(new ClubRestServiceImpl(restTemplate, restProperties),
+				new EntityCache<ClubDto>("clubs", 100, TimeUnit.HOURS.toMillis(1)));
+
+		if ("disabled".equals(instrumentation)) {
+			service = target;
+		} else {
+			ClubWebProperties webProperties = new ClubWebProperties();
+			webProperties.getInstrumentation().setRecording("recording".equals(instrumentation));
+
+			AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+			proxyFactory.addAspect(new LatencyMonitor(webProperties));
+			service = proxyFactory.getProxy();
+		}
+
+		service.findById(1L);
+	}
+
+	@Benchmark
+	public ClubDto findCached() {
+		return service.findById(1L);
+	}
+}
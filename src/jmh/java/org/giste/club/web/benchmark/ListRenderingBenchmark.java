@@ -0,0 +1,132 @@
+package org.giste.club.web.benchmark;
+
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.common.dto.Role;
+import org.giste.club.web.LocaleConfiguration;
+import org.giste.club.web.view.FragmentCache;
+import org.giste.club.web.view.FragmentCacheDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+import org.thymeleaf.spring4.context.SpringWebContext;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Benchmarks of rendering the club and user lists with the templates and
+ * messages of the application, with and without the cache of rendered
+ * fragments. Output is counted and discarded, so only the template engine is
+ * measured.
+ * 
+ * @author Giste
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListRenderingBenchmark {
+
+	private static final Locale LOCALE = Locale.ENGLISH;
+
+	@Param({ "10", "1000", "100000" })
+	private int size;
+
+	@Param({ "false", "true" })
+	private boolean fragmentCache;
+
+	private SpringTemplateEngine templateEngine;
+	private StaticApplicationContext applicationContext;
+	private MockServletContext servletContext;
+	private Map<String, Object> clubVariables = new HashMap<>();
+	private Map<String, Object> userVariables = new HashMap<>();
+
+	@Setup
+	public void setUp() {
+		MessageSource messageSource = new LocaleConfiguration().messageSource();
+
+		ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+		templateResolver.setPrefix("templates/");
+		templateResolver.setSuffix(".html");
+		templateResolver.setTemplateMode("HTML5");
+		templateResolver.setCharacterEncoding("UTF-8");
+
+		templateEngine = new SpringTemplateEngine();
+		templateEngine.setTemplateResolver(templateResolver);
+		templateEngine.setMessageSource(messageSource);
+		templateEngine.addDialect(new FragmentCacheDialect(new FragmentCache(fragmentCache, 1000)));
+
+		applicationContext = new StaticApplicationContext();
+		applicationContext.refresh();
+		servletContext = new MockServletContext();
+
+		Map<Role, String> roles = new EnumMap<>(Role.class);
+		for (Role role : Role.values()) {
+			roles.put(role, messageSource.getMessage("role." + role.toString().toLowerCase(), null, LOCALE));
+		}
+
+		clubVariables.put("entityList", StubRestBackend.clubs(size));
+		userVariables.put("entityList", StubRestBackend.users(size));
+		userVariables.put("roles", roles);
+	}
+
+	@Benchmark
+	public long clubList() {
+		return render("clubList", clubVariables);
+	}
+
+	@Benchmark
+	public long userList() {
+		return render("userList", userVariables);
+	}
+
+	private long render(String template, Map<String, Object> variables) {
+		SpringWebContext context = new SpringWebContext(new MockHttpServletRequest(servletContext),
+				new MockHttpServletResponse(), servletContext, LOCALE, variables, applicationContext);
+
+		CountingWriter writer = new CountingWriter();
+		templateEngine.process(template, context, writer);
+
+		return writer.count;
+	}
+
+	/**
+	 * Writer that discards the characters written, only counting them.
+	 */
+	private static class CountingWriter extends Writer {
+		private long count;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package org.giste.club.web.benchmark;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.common.dto.Role;
+import org.giste.club.web.LocaleConfiguration;
+import org.giste.club.web.locale.MessageTables;
+import org.giste.spring.util.locale.LocaleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+/**
+ * Benchmarks of building the role labels of the user pages, with the message
+ * source as before and with {@link MessageTables}. Run with "-prof gc" to see
+ * the allocation per request.
+ * 
+ * @author Giste
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageLookupBenchmark {
+
+	private static final Locale LOCALE = Locale.ENGLISH;
+
+	private LocaleMessage localeMessage;
+	private MessageTables messageTables;
+
+	@Setup
+	public void setUp() {
+		LocaleConfiguration localeConfiguration = new LocaleConfiguration();
+		localeMessage = localeConfiguration.localeMessage();
+		messageTables = localeConfiguration.messageTables();
+		LocaleContextHolder.setLocale(LOCALE);
+	}
+
+	@Benchmark
+	public Map<Role, String> messageSource() {
+		Map<Role, String> roleMap = new EnumMap<Role, String>(Role.class);
+		for (Role role : Role.values()) {
+			roleMap.put(role, localeMessage.getMessage("role." + role.toString().toLowerCase()));
+		}
+
+		return roleMap;
+	}
+
+	@Benchmark
+	public Map<Role, String> messageTables() {
+		return messageTables.getLabels(Role.class, LOCALE);
+	}
+}
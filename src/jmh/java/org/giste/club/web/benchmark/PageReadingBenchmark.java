@@ -0,0 +1,74 @@
+package org.giste.club.web.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.Pages;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks of reading a page from the JSON list of clubs, streaming it with
+ * {@link StreamingRestReader} or deserializing the whole array and paging it
+ * with {@link Pages}.
+ * 
+ * @author Giste
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageReadingBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int size;
+
+	@Param({ "", "name" })
+	private String sort;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private StreamingRestReader streamingReader;
+	private byte[] json;
+	private Pageable pageable;
+
+	@Setup
+	public void setUp() throws Exception {
+		streamingReader = new StreamingRestReader(new RestTemplate(), StubRestBackend.restProperties(),
+				objectMapper);
+		json = objectMapper.writeValueAsBytes(StubRestBackend.clubs(size));
+		pageable = sort.isEmpty() ? new PageRequest(2, 20) : new PageRequest(2, 20, new Sort(sort));
+	}
+
+	@Benchmark
+	public Page<ClubDto> streaming() throws Exception {
+		return streamingReader.readPage(new ByteArrayInputStream(json), ClubDto.class, pageable);
+	}
+
+	@Benchmark
+	public Page<ClubDto> wholeArray() throws Exception {
+		ClubDto[] clubs = objectMapper.readValue(new ByteArrayInputStream(json), ClubDto[].class);
+
+		return Pages.of(Arrays.asList(clubs), pageable);
+	}
+}
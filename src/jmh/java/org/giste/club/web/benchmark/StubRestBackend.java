@@ -0,0 +1,208 @@
+package org.giste.club.web.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.Role;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.spring.util.config.RestProperties;
+import org.giste.spring.util.error.dto.RestErrorDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-process stub of the REST server for benchmarks. Answers requests made
+ * with a {@link org.springframework.web.client.RestTemplate} without any
+ * network I/O, so benchmarks measure the client side only.
+ * <p>
+ * Serves "/clubs" and "/users" with a fixed number of generated entities.
+ * Responses are serialized once, when the stub is built. POST and PUT
+ * requests echo the body, unless it contains {@link #DUPLICATED}: then the
+ * stub answers 409 (Conflict) as the REST server does for duplicated
+ * entities.
+ * 
+ * @author Giste
+ */
+public class StubRestBackend implements ClientHttpRequestFactory {
+
+	/**
+	 * Text that makes a POST or PUT request fail as duplicated.
+	 */
+	public static final String DUPLICATED = "DUPLICATED";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String basePath;
+	private final Map<String, Resource> resources = new HashMap<>();
+	private final byte[] conflict;
+
+	/**
+	 * Constructs a stub with the given number of clubs and users.
+	 * 
+	 * @param restProperties Properties used by clients of the stub.
+	 * @param size Number of clubs and users.
+	 * @throws JsonProcessingException If the entities can't be serialized.
+	 */
+	public StubRestBackend(RestProperties restProperties, int size) throws JsonProcessingException {
+		this.basePath = restProperties.getPath();
+		this.conflict = objectMapper.writeValueAsBytes(
+				new RestErrorDto(HttpStatus.CONFLICT, "1", "Duplicated", "Duplicated entity"));
+
+		resources.put("clubs", new Resource(objectMapper, clubs(size)));
+		resources.put("users", new Resource(objectMapper, users(size)));
+	}
+
+	/**
+	 * Gets the properties of a REST server in localhost, for clients of the
+	 * stub.
+	 * 
+	 * @return The REST properties.
+	 */
+	public static RestProperties restProperties() {
+		ClubRestProperties restProperties = new ClubRestProperties();
+		restProperties.setScheme("http");
+		restProperties.setHost("localhost");
+		restProperties.setPort(8080);
+		restProperties.setPath("/rest");
+
+		return restProperties;
+	}
+
+	/**
+	 * Generates a list of clubs.
+	 * 
+	 * @param size Number of clubs.
+	 * @return The list of clubs, with identifiers from 1 to size.
+	 */
+	public static List<ClubDto> clubs(int size) {
+		List<ClubDto> clubs = new ArrayList<>(size);
+		for (long id = 1; id <= size; id++) {
+			clubs.add(new ClubDto(id, "Club " + id, "C" + id, id % 10 != 0));
+		}
+
+		return clubs;
+	}
+
+	/**
+	 * Generates a list of users.
+	 * 
+	 * @param size Number of users.
+	 * @return The list of users, with identifiers from 1 to size.
+	 */
+	public static List<UserDto> users(int size) {
+		final Role[] roles = Role.values();
+
+		List<UserDto> users = new ArrayList<>(size);
+		for (long id = 1; id <= size; id++) {
+			users.add(new UserDto(id, "user" + id + "@email.com", "User " + id, "123456",
+					roles[(int) (id % roles.length)]));
+		}
+
+		return users;
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		return new StubRequest(uri, httpMethod);
+	}
+
+	private ClientHttpResponse respond(URI uri, HttpMethod method, byte[] body) {
+		// Path is "/<basePath>/<resource>[/<id>[/<action>]]".
+		String[] segments = uri.getPath().substring(basePath.length()).split("/");
+		Resource resource = segments.length > 1 ? resources.get(segments[1]) : null;
+		if (resource == null) {
+			return response(new byte[0], HttpStatus.NOT_FOUND);
+		}
+
+		if (method == HttpMethod.GET) {
+			if (segments.length == 2) {
+				return response(resource.all, HttpStatus.OK);
+			}
+			byte[] entity = resource.byId.get(Long.valueOf(segments[2]));
+
+			return entity == null ? response(new byte[0], HttpStatus.NOT_FOUND) : response(entity, HttpStatus.OK);
+		}
+
+		if (new String(body, StandardCharsets.UTF_8).contains(DUPLICATED)) {
+			return response(conflict, HttpStatus.CONFLICT);
+		}
+
+		return response(body, method == HttpMethod.POST ? HttpStatus.CREATED : HttpStatus.OK);
+	}
+
+	private static ClientHttpResponse response(byte[] body, HttpStatus status) {
+		MockClientHttpResponse response = new MockClientHttpResponse(body, status);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON_UTF8);
+		response.getHeaders().setContentLength(body.length);
+
+		return response;
+	}
+
+	/**
+	 * Serialized list and entities of a resource.
+	 */
+	private static class Resource {
+		private final byte[] all;
+		private final Map<Long, byte[]> byId = new HashMap<>();
+
+		private Resource(ObjectMapper objectMapper, List<?> entities) throws JsonProcessingException {
+			this.all = objectMapper.writeValueAsBytes(entities);
+			long id = 1;
+			for (Object entity : entities) {
+				byId.put(id++, objectMapper.writeValueAsBytes(entity));
+			}
+		}
+	}
+
+	/**
+	 * Request answered by the stub when executed.
+	 */
+	private class StubRequest extends AbstractClientHttpRequest {
+		private final URI uri;
+		private final HttpMethod method;
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		private StubRequest(URI uri, HttpMethod method) {
+			this.uri = uri;
+			this.method = method;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return method;
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+
+		@Override
+		protected OutputStream getBodyInternal(HttpHeaders headers) throws IOException {
+			return body;
+		}
+
+		@Override
+		protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+			return respond(uri, method, body.toByteArray());
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package org.giste.club.web.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.Role;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.concurrent.VirtualThreads;
+import org.giste.spring.util.error.dto.RestErrorDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded fake of the REST server for load tests. Serves "/rest/clubs",
+ * "/rest/users" and "/rest/categories" from memory, with a generated data set
+ * of the given size. Every response is delayed by the configured latency and
+ * a fraction of them, given by the error rate, fails with 500 (Internal
+ * Server Error).
+ * <p>
+ * Entities are kept as JSON trees, so the fake doesn't depend on the fields
+ * of the DTOs beyond the generated data and the unique field of each resource,
+ * used for answering 409 (Conflict) to duplicated entities.
+ * 
+ * @author Giste
+ */
+public class FakeRestServer {
+
+	private static final String BASE_PATH = "/rest";
+	private static final int THREADS = 256;
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, Resource> resources = new HashMap<>();
+	private final long latency;
+	private final double errorRate;
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * Constructs a fake server.
+	 * 
+	 * @param size Number of clubs, users and categories.
+	 * @param latency Delay of every response, in milliseconds.
+	 * @param errorRate Fraction of requests failing with 500, between 0 and 1.
+	 */
+	public FakeRestServer(int size, long latency, double errorRate) {
+		this.latency = latency;
+		this.errorRate = errorRate;
+
+		Resource clubs = new Resource("acronym");
+		Resource users = new Resource("email");
+		Resource categories = new Resource("name");
+		final Role[] roles = Role.values();
+		for (long id = 1; id <= size; id++) {
+			clubs.put(objectMapper.valueToTree(new ClubDto(id, "Club " + id, "C" + id, true)));
+			users.put(objectMapper.valueToTree(new UserDto(id, "user" + id + "@email.com", "User " + id, "123456",
+					roles[(int) (id % roles.length)])));
+			categories.put(objectMapper.valueToTree(
+					new CategoryDto(id, "Category " + id, (int) (id % 60), (int) (id % 60) + 1, id % 2 == 0)));
+		}
+		resources.put("clubs", clubs);
+		resources.put("users", users);
+		resources.put("categories", categories);
+	}
+
+	/**
+	 * Starts the server in a free port of localhost.
+	 * 
+	 * @throws IOException If the server can't be started.
+	 */
+	public void start() throws IOException {
+		// With virtual threads, slow responses don't cap the concurrency of
+		// the fake.
+		executor = VirtualThreads.isSupported() ? VirtualThreads.newExecutor("fake-rest-")
+				: Executors.newFixedThreadPool(THREADS);
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), THREADS);
+		server.createContext(BASE_PATH, this::handle);
+		server.setExecutor(executor);
+		server.start();
+		LOGGER.info("Fake REST server listening on port {}", getPort());
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Gets the port the server is listening on.
+	 * 
+	 * @return The port.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if (latency > 0) {
+				Thread.sleep(latency);
+			}
+
+			if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+				sendError(exchange, HttpStatus.INTERNAL_SERVER_ERROR, "Injected error");
+			} else {
+				route(exchange);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			sendError(exchange, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+		} catch (RuntimeException e) {
+			LOGGER.error("Error handling {}", exchange.getRequestURI(), e);
+			sendError(exchange, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void route(HttpExchange exchange) throws IOException {
+		// Path is "/rest/<resource>[/<id>[/<action>]]".
+		final String[] segments = exchange.getRequestURI().getPath().substring(BASE_PATH.length()).split("/");
+		final String method = exchange.getRequestMethod();
+		final Resource resource = segments.length > 1 ? resources.get(segments[1]) : null;
+
+		if (resource == null) {
+			sendError(exchange, HttpStatus.NOT_FOUND, "Resource not found");
+		} else if (segments.length == 2 && "GET".equals(method)) {
+			send(exchange, HttpStatus.OK, resource.getAll());
+		} else if (segments.length == 2 && "POST".equals(method)) {
+			ObjectNode entity = (ObjectNode) objectMapper.readTree(exchange.getRequestBody());
+			if (resource.create(entity)) {
+				send(exchange, HttpStatus.CREATED, objectMapper.writeValueAsBytes(entity));
+			} else {
+				sendError(exchange, HttpStatus.CONFLICT, "Duplicated " + resource.uniqueField);
+			}
+		} else if (segments.length >= 3) {
+			routeEntity(exchange, resource, Long.parseLong(segments[2]), segments.length > 3 ? segments[3] : null);
+		} else {
+			sendError(exchange, HttpStatus.METHOD_NOT_ALLOWED, "Method not allowed");
+		}
+	}
+
+	private void routeEntity(HttpExchange exchange, Resource resource, long id, String action)
+			throws IOException {
+		final String method = exchange.getRequestMethod();
+		ObjectNode entity = resource.entities.get(id);
+
+		if (entity == null) {
+			sendError(exchange, HttpStatus.NOT_FOUND, "Entity not found");
+		} else if ("enable".equals(action) || "disable".equals(action)) {
+			ObjectNode changed = entity.deepCopy();
+			changed.put("enabled", "enable".equals(action));
+			resource.replace(id, changed);
+			send(exchange, HttpStatus.OK, objectMapper.writeValueAsBytes(changed));
+		} else if ("GET".equals(method)) {
+			send(exchange, HttpStatus.OK, objectMapper.writeValueAsBytes(entity));
+		} else if ("PUT".equals(method)) {
+			ObjectNode changed = (ObjectNode) objectMapper.readTree(exchange.getRequestBody());
+			changed.put("id", id);
+			if (resource.replace(id, changed)) {
+				send(exchange, HttpStatus.OK, objectMapper.writeValueAsBytes(changed));
+			} else {
+				sendError(exchange, HttpStatus.CONFLICT, "Duplicated " + resource.uniqueField);
+			}
+		} else if ("DELETE".equals(method)) {
+			resource.remove(id);
+			send(exchange, HttpStatus.OK, objectMapper.writeValueAsBytes(entity));
+		} else {
+			sendError(exchange, HttpStatus.METHOD_NOT_ALLOWED, "Method not allowed");
+		}
+	}
+
+	private void sendError(HttpExchange exchange, HttpStatus status, String message) throws IOException {
+		RestErrorDto error = new RestErrorDto(status, String.valueOf(status.value()), message, message);
+		send(exchange, status, objectMapper.writeValueAsBytes(error));
+	}
+
+	private void send(HttpExchange exchange, HttpStatus status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+		exchange.sendResponseHeaders(status.value(), body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Entities of a resource, indexed by id and by their unique field.
+	 */
+	private class Resource {
+		private final String uniqueField;
+		private final ConcurrentSkipListMap<Long, ObjectNode> entities = new ConcurrentSkipListMap<>();
+		private final ConcurrentMap<String, Long> uniqueIndex = new ConcurrentHashMap<>();
+		private final AtomicLong lastId = new AtomicLong();
+
+		// Serialized list, rebuilt after any change.
+		private volatile byte[] all;
+
+		private Resource(String uniqueField) {
+			this.uniqueField = uniqueField;
+		}
+
+		private void put(ObjectNode entity) {
+			final long id = entity.get("id").asLong();
+			lastId.accumulateAndGet(id, Math::max);
+			entities.put(id, entity);
+			uniqueIndex.put(entity.path(uniqueField).asText(), id);
+		}
+
+		private synchronized boolean create(ObjectNode entity) {
+			if (uniqueIndex.containsKey(entity.path(uniqueField).asText())) {
+				return false;
+			}
+			entity.put("id", lastId.incrementAndGet());
+			put(entity);
+			all = null;
+
+			return true;
+		}
+
+		private synchronized boolean replace(long id, ObjectNode entity) {
+			final String unique = entity.path(uniqueField).asText();
+			final Long owner = uniqueIndex.get(unique);
+			if (owner != null && owner != id) {
+				return false;
+			}
+			remove(id);
+			put(entity);
+
+			return true;
+		}
+
+		private synchronized void remove(long id) {
+			ObjectNode removed = entities.remove(id);
+			if (removed != null) {
+				uniqueIndex.remove(removed.path(uniqueField).asText());
+			}
+			all = null;
+		}
+
+		private byte[] getAll() throws IOException {
+			byte[] serialized = all;
+			if (serialized == null) {
+				// Changes are synchronized too, so the list isn't stale.
+				synchronized (this) {
+					serialized = all;
+					if (serialized == null) {
+						ArrayNode array = objectMapper.createArrayNode();
+						array.addAll(entities.values());
+						serialized = objectMapper.writeValueAsBytes(array);
+						all = serialized;
+					}
+				}
+			}
+
+			return serialized;
+		}
+	}
+}
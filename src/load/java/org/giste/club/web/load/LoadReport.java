@@ -0,0 +1,171 @@
+package org.giste.club.web.load;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.giste.club.web.aspect.LatencyHistogram;
+import org.giste.club.web.load.Workload.Operation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Results of a step of a load test: throughput, latency percentiles and
+ * error rate of each operation.
+ * 
+ * @author Giste
+ */
+public class LoadReport {
+
+	private final String mode;
+	private final int users;
+	private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+	private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+	private final LatencyHistogram totalLatency = new LatencyHistogram();
+	private final AtomicLong totalErrors = new AtomicLong();
+	private long elapsedNanos;
+
+	/**
+	 * Constructs an empty report.
+	 * 
+	 * @param mode Threads the application used, "platform" or "virtual".
+	 * @param users Number of concurrent users of the step.
+	 */
+	public LoadReport(String mode, int users) {
+		this.mode = mode;
+		this.users = users;
+		for (Operation operation : Operation.values()) {
+			latencies.put(operation, new LatencyHistogram());
+			errors.put(operation, new AtomicLong());
+		}
+	}
+
+	/**
+	 * Records the result of an operation.
+	 * 
+	 * @param operation The operation.
+	 * @param nanos Time taken by the operation, in nanoseconds.
+	 * @param failed Whether the operation failed.
+	 */
+	public void record(Operation operation, long nanos, boolean failed) {
+		latencies.get(operation).record(nanos);
+		totalLatency.record(nanos);
+		if (failed) {
+			errors.get(operation).incrementAndGet();
+			totalErrors.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets the threads the application used.
+	 * 
+	 * @return The mode, "platform" or "virtual".
+	 */
+	public String getMode() {
+		return mode;
+	}
+
+	/**
+	 * Sets the duration of the step.
+	 * 
+	 * @param elapsedNanos The duration in nanoseconds.
+	 */
+	public void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Prints the report as a table.
+	 * 
+	 * @param out Stream where the report is printed.
+	 */
+	public void print(PrintStream out) {
+		out.printf("%n%s threads, %d users, %.1f s%n", mode, users, elapsedNanos / 1e9);
+		out.printf("%-10s %10s %10s %10s %10s %10s %10s %8s%n", "operation", "count", "ops/s", "p50 ms", "p90 ms",
+				"p99 ms", "max ms", "errors");
+		for (Operation operation : Operation.values()) {
+			print(out, operation.toString().toLowerCase(), latencies.get(operation), errors.get(operation).get());
+		}
+		print(out, "total", totalLatency, totalErrors.get());
+	}
+
+	/**
+	 * Gets the report as JSON.
+	 * 
+	 * @param objectMapper ObjectMapper used to build the JSON.
+	 * @return The JSON report.
+	 */
+	public ObjectNode toJson(ObjectMapper objectMapper) {
+		ObjectNode report = objectMapper.createObjectNode();
+		report.put("mode", mode);
+		report.put("users", users);
+		report.put("seconds", elapsedNanos / 1e9);
+		ObjectNode operations = report.putObject("operations");
+		for (Operation operation : Operation.values()) {
+			operations.set(operation.toString().toLowerCase(),
+					toJson(objectMapper, latencies.get(operation), errors.get(operation).get()));
+		}
+		report.set("total", toJson(objectMapper, totalLatency, totalErrors.get()));
+
+		return report;
+	}
+
+	/**
+	 * Prints the totals of the steps of several modes side by side, ordered by
+	 * users.
+	 * 
+	 * @param out Stream where the comparison is printed.
+	 * @param reports Reports of the steps.
+	 */
+	public static void printComparison(PrintStream out, List<LoadReport> reports) {
+		out.printf("%nComparison of modes%n");
+		out.printf("%-10s %8s %10s %10s %10s %10s %8s%n", "mode", "users", "ops/s", "p50 ms", "p99 ms", "max ms",
+				"errors");
+		reports.stream()
+				.sorted(Comparator.comparingInt((LoadReport report) -> report.users).thenComparing(LoadReport::getMode))
+				.forEach(report -> {
+					final LatencyHistogram latency = report.totalLatency;
+					out.printf("%-10s %8d %10.1f %10.2f %10.2f %10.2f %7.2f%%%n", report.mode, report.users,
+							report.throughput(latency), millis(latency.getPercentile(50)),
+							millis(latency.getPercentile(99)), millis(latency.getMax()),
+							errorRate(latency, report.totalErrors.get()) * 100);
+				});
+	}
+
+	private void print(PrintStream out, String name, LatencyHistogram latency, long errorCount) {
+		out.printf("%-10s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %7.2f%%%n", name, latency.getCount(),
+				throughput(latency), millis(latency.getPercentile(50)), millis(latency.getPercentile(90)),
+				millis(latency.getPercentile(99)), millis(latency.getMax()), errorRate(latency, errorCount) * 100);
+	}
+
+	private ObjectNode toJson(ObjectMapper objectMapper, LatencyHistogram latency, long errorCount) {
+		ObjectNode node = objectMapper.createObjectNode();
+		node.put("count", latency.getCount());
+		node.put("throughput", throughput(latency));
+		node.put("p50", millis(latency.getPercentile(50)));
+		node.put("p90", millis(latency.getPercentile(90)));
+		node.put("p99", millis(latency.getPercentile(99)));
+		node.put("max", millis(latency.getMax()));
+		node.put("errors", errorCount);
+		node.put("errorRate", errorRate(latency, errorCount));
+
+		return node;
+	}
+
+	private double throughput(LatencyHistogram latency) {
+		return elapsedNanos == 0 ? 0 : latency.getCount() * 1e9 / elapsedNanos;
+	}
+
+	private static double errorRate(LatencyHistogram latency, long errorCount) {
+		return latency.getCount() == 0 ? 0 : (double) errorCount / latency.getCount();
+	}
+
+	private static double millis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
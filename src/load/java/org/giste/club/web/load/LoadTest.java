@@ -0,0 +1,173 @@
+package org.giste.club.web.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.giste.club.web.ClubWebApplication;
+import org.giste.club.web.concurrent.VirtualThreads;
+import org.giste.club.web.load.Workload.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Load test of one web node. Starts a {@link FakeRestServer}, boots
+ * {@link ClubWebApplication} against it and drives the {@link Workload} with
+ * an increasing number of concurrent users, printing a {@link LoadReport} for
+ * each step. Reports are also written in JSON.
+ * <p>
+ * Run with "mvn -P load-test test-compile exec:java
+ * -Dexec.args='--load.users=10,50,100'".
+ * <p>
+ * Options (any other argument is passed to the application):
+ * <ul>
+ * <li>--load.users: Concurrent users of each step (default "10,50,100").</li>
+ * <li>--load.duration: Seconds measured in each step (default 30).</li>
+ * <li>--load.warmup: Seconds of warm up before each step (default 5).</li>
+ * <li>--load.mix: Weights of the operations (default
+ * "browse:60,view:20,create:10,enable:10").</li>
+ * <li>--load.backend.size: Entities of each resource (default 1000).</li>
+ * <li>--load.backend.latency: Latency of the REST server in milliseconds
+ * (default 20).</li>
+ * <li>--load.backend.error-rate: Fraction of failed REST calls (default
+ * 0).</li>
+ * <li>--load.out: File for the JSON reports (default
+ * "target/load-result.json").</li>
+ * <li>--load.modes: Threads handling requests and REST calls, "platform"
+ * and/or "virtual" (default "platform"). The application is booted once for
+ * each mode and, with more than one, the steps are compared at the end.
+ * Virtual threads are skipped on JVMs older than Java 21.</li>
+ * </ul>
+ * For comparing the modes against a slow REST server, the pool of
+ * connections and the bulkheads must be raised so they don't cap both modes
+ * alike, e.g. "--load.modes=platform,virtual --load.users=100,400,800
+ * --load.backend.latency=500 --rest.pool.max-total=1000
+ * --rest.pool.max-per-route=1000 --rest.resilience.max-concurrent-calls=1000".
+ * 
+ * @author Giste
+ */
+public class LoadTest {
+
+	private static final String PLATFORM = "platform";
+	private static final String VIRTUAL = "virtual";
+
+	public static void main(String[] args) throws Exception {
+		SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+		final int size = Integer.parseInt(option(options, "load.backend.size", "1000"));
+		final long latency = Long.parseLong(option(options, "load.backend.latency", "20"));
+		final double errorRate = Double.parseDouble(option(options, "load.backend.error-rate", "0"));
+		final long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(option(options, "load.duration", "30")));
+		final long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(option(options, "load.warmup", "5")));
+
+		FakeRestServer backend = new FakeRestServer(size, latency, errorRate);
+		backend.start();
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		ArrayNode reports = objectMapper.createArrayNode();
+		List<LoadReport> allReports = new ArrayList<>();
+		try {
+			for (String modeOption : option(options, "load.modes", PLATFORM).split(",")) {
+				final String mode = modeOption.trim();
+				if (VIRTUAL.equals(mode) && !VirtualThreads.isSupported()) {
+					System.out.printf("%nSkipping %s threads, they need Java 21 or later%n", mode);
+					continue;
+				}
+
+				ConfigurableApplicationContext context = new SpringApplicationBuilder(ClubWebApplication.class)
+						.properties("server.port=0", "rest.scheme=http", "rest.host=localhost",
+								"rest.port=" + backend.getPort(), "rest.path=/rest",
+								"logging.level.org.giste.club.web=WARN",
+								"web.async.virtual-threads=" + VIRTUAL.equals(mode))
+						.run(args);
+
+				try {
+					final int port = ((EmbeddedWebApplicationContext) context).getEmbeddedServletContainer()
+							.getPort();
+					Workload workload = new Workload("http://localhost:" + port, size,
+							option(options, "load.mix", "browse:60,view:20,create:10,enable:10"));
+
+					for (String users : option(options, "load.users", "10,50,100").split(",")) {
+						final int userCount = Integer.parseInt(users.trim());
+						run(workload, mode, userCount, warmup);
+						LoadReport report = run(workload, mode, userCount, duration);
+						report.print(System.out);
+						reports.add(report.toJson(objectMapper));
+						allReports.add(report);
+					}
+				} finally {
+					context.close();
+				}
+			}
+
+			if (allReports.stream().map(LoadReport::getMode).distinct().count() > 1) {
+				LoadReport.printComparison(System.out, allReports);
+			}
+
+			File out = new File(option(options, "load.out", "target/load-result.json"));
+			if (out.getParentFile() != null) {
+				out.getParentFile().mkdirs();
+			}
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, reports);
+			System.out.printf("%nReports written to %s%n", out.getAbsolutePath());
+		} finally {
+			backend.stop();
+		}
+	}
+
+	private static LoadReport run(Workload workload, String mode, int users, long duration)
+			throws InterruptedException {
+		LoadReport report = new LoadReport(mode, users);
+
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(users);
+		connectionManager.setDefaultMaxPerRoute(users);
+		ExecutorService executor = Executors.newFixedThreadPool(users);
+
+		try (CloseableHttpClient client = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.disableRedirectHandling()
+				.disableCookieManagement()
+				.build()) {
+			final long start = System.nanoTime();
+			final long end = start + duration;
+			for (int i = 0; i < users; i++) {
+				executor.execute(() -> {
+					while (System.nanoTime() < end) {
+						final Operation operation = workload.next();
+						final long operationStart = System.nanoTime();
+						boolean failed;
+						try {
+							failed = workload.execute(operation, client) >= 400;
+						} catch (Exception e) {
+							failed = true;
+						}
+						report.record(operation, System.nanoTime() - operationStart, failed);
+					}
+				});
+			}
+			executor.shutdown();
+			executor.awaitTermination(duration + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+			report.setElapsedNanos(System.nanoTime() - start);
+		} catch (IOException e) {
+			throw new IllegalStateException("Error closing HTTP client", e);
+		}
+
+		return report;
+	}
+
+	private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+		return options.containsProperty(name) ? options.getProperty(name) : defaultValue;
+	}
+}
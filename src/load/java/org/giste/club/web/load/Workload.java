@@ -0,0 +1,159 @@
+package org.giste.club.web.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Operations made by the simulated users of a load test against the web
+ * pages, chosen at random with the weights of the mix.
+ * 
+ * @author Giste
+ */
+public class Workload {
+
+	private static final String[] LISTS = { "/clubs", "/users", "/categories" };
+	private static final int PAGE_SIZE = 20;
+
+	/**
+	 * Operations of a simulated user.
+	 */
+	public enum Operation {
+		/**
+		 * Shows a random page of the club, user or category list.
+		 */
+		BROWSE,
+		/**
+		 * Shows a random club.
+		 */
+		VIEW,
+		/**
+		 * Creates a new club.
+		 */
+		CREATE,
+		/**
+		 * Enables or disables a random club.
+		 */
+		ENABLE
+	}
+
+	private final String baseUri;
+	private final int size;
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+	private final AtomicLong created = new AtomicLong();
+
+	/**
+	 * Constructs a workload.
+	 * 
+	 * @param baseUri URI of the web application.
+	 * @param size Number of entities of each resource in the REST server.
+	 * @param mix Weights of the operations, as "operation:weight" separated by
+	 *            commas, e.g. "browse:60,view:20,create:10,enable:10".
+	 */
+	public Workload(String baseUri, int size, String mix) {
+		this.baseUri = baseUri;
+		this.size = size;
+
+		List<Operation> operationList = new ArrayList<>();
+		List<Integer> weightList = new ArrayList<>();
+		int total = 0;
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.trim().split(":");
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight > 0) {
+				total += weight;
+				operationList.add(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)));
+				weightList.add(total);
+			}
+		}
+		if (total == 0) {
+			throw new IllegalArgumentException("Mix without operations: " + mix);
+		}
+
+		this.operations = operationList.toArray(new Operation[operationList.size()]);
+		this.cumulativeWeights = weightList.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Chooses the next operation at random, following the weights of the mix.
+	 * 
+	 * @return The operation.
+	 */
+	public Operation next() {
+		final int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+
+		return operations[operations.length - 1];
+	}
+
+	/**
+	 * Executes an operation.
+	 * 
+	 * @param operation The operation.
+	 * @param client HTTP client used to call the web application.
+	 * @return The HTTP status of the response.
+	 * @throws IOException If the request fails.
+	 */
+	public int execute(Operation operation, CloseableHttpClient client) throws IOException {
+		try (CloseableHttpResponse response = client.execute(request(operation))) {
+			EntityUtils.consume(response.getEntity());
+
+			return response.getStatusLine().getStatusCode();
+		}
+	}
+
+	private HttpUriRequest request(Operation operation) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		switch (operation) {
+		case BROWSE:
+			final int pages = Math.max(1, size / PAGE_SIZE);
+			return new HttpGet(baseUri + LISTS[random.nextInt(LISTS.length)] + "?page=" + random.nextInt(pages)
+					+ "&size=" + PAGE_SIZE);
+		case VIEW:
+			return new HttpGet(baseUri + "/clubs/" + randomId(random));
+		case CREATE:
+			final long number = created.incrementAndGet();
+			// Acronyms have five characters: "L" and the number in base 36.
+			final String acronym = "L" + String.format("%4s", Long.toString(number % 1679616, 36)).replace(' ', '0')
+					.toUpperCase(Locale.ROOT);
+			return form(baseUri + "/clubs", new BasicNameValuePair("name", "Load club " + number),
+					new BasicNameValuePair("acronym", acronym));
+		case ENABLE:
+			return form(baseUri + "/clubs/" + randomId(random) + (random.nextBoolean() ? "/enable" : "/disable"));
+		default:
+			throw new IllegalArgumentException("Unknown operation " + operation);
+		}
+	}
+
+	private long randomId(ThreadLocalRandom random) {
+		return random.nextLong(1, size + 1L);
+	}
+
+	private static HttpPost form(String uri, NameValuePair... params) {
+		HttpPost post = new HttpPost(uri);
+		post.setEntity(new UrlEncodedFormEntity(Arrays.asList(params), StandardCharsets.UTF_8));
+
+		return post;
+	}
+}
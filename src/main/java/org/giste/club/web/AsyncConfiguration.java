@@ -0,0 +1,136 @@
+package org.giste.club.web;
+
+import java.util.concurrent.Callable;
+
+import org.giste.club.web.concurrent.VirtualThreads;
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.controller.RejectedTaskAdvice;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Spring configuration for the asynchronous execution of requests. When
+ * property "web.async.enabled" is true (false by default), calls to the REST
+ * server are made in a bounded thread pool and container threads are released
+ * while waiting for them. Otherwise, calls are made in the container thread.
+ * Calls rejected because the pool is full are answered by
+ * {@link RejectedTaskAdvice} with 503 Service Unavailable. When property
+ * "web.async.virtual-threads" is true too and the JVM has virtual threads, each
+ * call is made in a new virtual thread instead of the pool.
+ * <p>
+ * Streamed exports are written in their own bounded thread pool and time out
+ * after property "web.csv.export-timeout" instead of "web.async.timeout".
+ * <p>
+ * Calls of bulk actions and CSV imports are always made in their own bounded
+ * thread pool ("web.bulk.threads"), so their concurrency limits apply even
+ * when "web.async.enabled" is false.
+ * 
+ * @author Giste
+ */
+@Configuration
+@EnableConfigurationProperties(ClubWebProperties.class)
+public class AsyncConfiguration extends WebMvcConfigurerAdapter {
+
+	private final ClubWebProperties.Async asyncProperties;
+	private final ClubWebProperties.Bulk bulkProperties;
+	private final ClubWebProperties.Csv csvProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the web pages.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 */
+	public AsyncConfiguration(ClubWebProperties webProperties) {
+		this.asyncProperties = webProperties.getAsync();
+		this.bulkProperties = webProperties.getBulk();
+		this.csvProperties = webProperties.getCsv();
+	}
+
+	/**
+	 * Provides the executor for calls to the REST server.
+	 * 
+	 * @return The TaskExecutor bean.
+	 */
+	@Bean
+	public TaskExecutor restExecutor() {
+		if (!asyncProperties.isEnabled()) {
+			return new SyncTaskExecutor();
+		}
+		if (asyncProperties.isVirtualThreads() && VirtualThreads.isSupported()) {
+			// A virtual thread for each call: waiting for the REST server
+			// doesn't hold a platform thread, so there's no pool to size.
+			return new ConcurrentTaskExecutor(VirtualThreads.newExecutor("rest-"));
+		}
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("rest-");
+		executor.setCorePoolSize(asyncProperties.getCorePoolSize());
+		executor.setMaxPoolSize(asyncProperties.getMaxPoolSize());
+		executor.setQueueCapacity(asyncProperties.getQueueCapacity());
+
+		return executor;
+	}
+
+	/**
+	 * Provides the executor for the calls to the REST server of bulk actions
+	 * and CSV imports.
+	 * 
+	 * @return The TaskExecutor bean.
+	 */
+	@Bean
+	public TaskExecutor bulkExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("bulk-");
+		executor.setCorePoolSize(bulkProperties.getThreads());
+		executor.setMaxPoolSize(bulkProperties.getThreads());
+		executor.setQueueCapacity(bulkProperties.getQueueCapacity());
+
+		return executor;
+	}
+
+	/**
+	 * Provides the executor for writing streamed exports. Exports are the only
+	 * callables returned by controllers, so it's the executor of Spring MVC.
+	 * 
+	 * @return The AsyncTaskExecutor bean.
+	 */
+	@Bean
+	public AsyncTaskExecutor exportExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("export-");
+		executor.setCorePoolSize(csvProperties.getExportThreads());
+		executor.setMaxPoolSize(csvProperties.getExportThreads());
+		executor.setQueueCapacity(csvProperties.getExportQueueCapacity());
+
+		return executor;
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(asyncProperties.getTimeout());
+		configurer.setTaskExecutor(exportExecutor());
+
+		// Set before the request is started, so it replaces the default
+		// timeout, which is meant for pages.
+		configurer.registerCallableInterceptors(new CallableProcessingInterceptorAdapter() {
+
+			@Override
+			public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+				if (request instanceof AsyncWebRequest) {
+					((AsyncWebRequest) request).setTimeout(csvProperties.getExportTimeout());
+				}
+			}
+		});
+	}
+}
@@ -1,8 +1,11 @@
 package org.giste.club.web;
 
+import org.giste.club.web.service.resilience.ResilienceInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -17,8 +20,23 @@ public class ClubWebApplication {
 		SpringApplication.run(ClubWebApplication.class, args);
 	}
 
+	/**
+	 * Provides the RestTemplate used to communicate with the REST server.
+	 * 
+	 * @param restRequestFactory Pooled request factory for the REST server.
+	 * @param resilienceInterceptor Guard of the calls to each resource, if
+	 *            enabled.
+	 * @return The RestTemplate bean.
+	 */
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(ClientHttpRequestFactory restRequestFactory,
+			ObjectProvider<ResilienceInterceptor> resilienceInterceptor) {
+		RestTemplate restTemplate = new RestTemplate(restRequestFactory);
+		ResilienceInterceptor interceptor = resilienceInterceptor.getIfAvailable();
+		if (interceptor != null) {
+			restTemplate.getInterceptors().add(interceptor);
+		}
+
+		return restTemplate;
 	}
 }
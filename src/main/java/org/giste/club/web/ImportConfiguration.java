@@ -0,0 +1,57 @@
+package org.giste.club.web;
+
+import java.util.concurrent.Executor;
+
+import javax.validation.Validation;
+
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.csv.CsvImporter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Spring configuration for importing entities from CSV files. Rows are
+ * validated with bean validation, like the entity forms, and created with at
+ * most "web.csv.import-concurrency" concurrent calls to the REST server. At
+ * most "web.csv.max-concurrent-imports" imports run at the same time.
+ * 
+ * @author Giste
+ */
+@Configuration
+@EnableConfigurationProperties(ClubWebProperties.class)
+public class ImportConfiguration extends WebMvcConfigurerAdapter {
+
+	private final ClubWebProperties.Csv csvProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the web pages.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 */
+	public ImportConfiguration(ClubWebProperties webProperties) {
+		this.csvProperties = webProperties.getCsv();
+	}
+
+	/**
+	 * Provides the importer of CSV files.
+	 * 
+	 * @param messageSource Source of the error messages.
+	 * @param bulkExecutor Executor for the calls to the REST server of
+	 *            imports.
+	 * @return The CsvImporter bean.
+	 */
+	@Bean
+	public CsvImporter csvImporter(MessageSource messageSource, @Qualifier("bulkExecutor") Executor bulkExecutor) {
+		SpringValidatorAdapter validator = new SpringValidatorAdapter(
+				Validation.buildDefaultValidatorFactory().getValidator());
+
+		return new CsvImporter(validator, messageSource, bulkExecutor, csvProperties.getImportConcurrency(),
+				csvProperties.getMaxReportedRows(), csvProperties.getMaxFieldLength(),
+				csvProperties.getMaxRecordLength(), csvProperties.getMaxConcurrentImports());
+	}
+}
@@ -1,7 +1,13 @@
 package org.giste.club.web;
 
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.locale.MessageTables;
+import org.giste.club.web.locale.SignedCookieLocaleResolver;
+import org.giste.club.web.session.SessionlessFilter;
 import org.giste.spring.util.locale.LocaleMessage;
 import org.giste.spring.util.locale.LocaleMessageImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
@@ -12,14 +18,31 @@ import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
 /**
- * Spring configuration for localization. Localization is made using session
- * resolver looking for param "lang".
+ * Spring configuration for localization. Locale is changed with param "lang".
+ * In stateless mode ("web.stateless.enabled") the locale is kept in a signed
+ * cookie and HTTP sessions are disabled, otherwise it's kept in the session.
  * 
  * @author Giste
  */
 @Configuration
+@EnableConfigurationProperties(ClubWebProperties.class)
 public class LocaleConfiguration extends WebMvcConfigurerAdapter {
 
+	private static final String[] BASENAMES = { "classpath:i18n/messages", "classpath:i18n/web_messages",
+			"classpath:i18n/validation_messages" };
+	private static final String ENCODING = "UTF-8";
+
+	private final ClubWebProperties.Stateless statelessProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the web pages.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 */
+	public LocaleConfiguration(ClubWebProperties webProperties) {
+		this.statelessProperties = webProperties.getStateless();
+	}
+
 	/**
 	 * Provides the message source bean for localizing messages.
 	 * 
@@ -28,27 +51,42 @@ public class LocaleConfiguration extends WebMvcConfigurerAdapter {
 	@Bean
 	public ReloadableResourceBundleMessageSource messageSource() {
 		ReloadableResourceBundleMessageSource source = new ReloadableResourceBundleMessageSource();
-		source.setBasenames("classpath:i18n/messages");
-		source.addBasenames("classpath:i18n/web_messages");
-		source.addBasenames("classpath:i18n/validation_messages");
+		source.setBasenames(BASENAMES);
 		source.setFallbackToSystemLocale(false);
-		source.setDefaultEncoding("UTF-8");
+		source.setDefaultEncoding(ENCODING);
 
 		return source;
 	}
 
 	/**
-	 * Provides the locale resolver bean. Uses SessionLocaleResolver.
+	 * Provides the locale resolver bean. Uses SignedCookieLocaleResolver in
+	 * stateless mode and SessionLocaleResolver otherwise.
 	 * 
 	 * @return The LocaleResolver bean.
 	 */
 	@Bean
 	public LocaleResolver localeResolver() {
+		if (statelessProperties.isEnabled()) {
+			return new SignedCookieLocaleResolver(statelessProperties.getCookieName(),
+					statelessProperties.getCookieMaxAge(), statelessProperties.getCookieSecret());
+		}
+
 		SessionLocaleResolver sessionLocaleResolver = new SessionLocaleResolver();
 
 		return sessionLocaleResolver;
 	}
 
+	/**
+	 * Provides the filter disabling HTTP sessions in stateless mode.
+	 * 
+	 * @return The SessionlessFilter bean.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "web.stateless", name = "enabled", matchIfMissing = true)
+	public SessionlessFilter sessionlessFilter() {
+		return new SessionlessFilter();
+	}
+
 	/**
 	 * Provides the bean for intercept locale changes. Looks for param "lang".
 	 * 
@@ -76,4 +114,15 @@ public class LocaleConfiguration extends WebMvcConfigurerAdapter {
 	public LocaleMessage localeMessage() {
 		return new LocaleMessageImpl(this.messageSource());
 	}
+
+	/**
+	 * Gets the bean with the messages compiled in tables per locale, for
+	 * lookups in every request.
+	 * 
+	 * @return The {@link MessageTables} bean.
+	 */
+	@Bean
+	public MessageTables messageTables() {
+		return new MessageTables(ENCODING, BASENAMES);
+	}
 }
@@ -0,0 +1,84 @@
+package org.giste.club.web;
+
+import java.util.List;
+
+import org.giste.club.web.config.ClubWebProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Spring configuration for paging entity lists. Controllers receive a
+ * {@link org.springframework.data.domain.Pageable} built from params "page",
+ * "size" and "sort". Page size is limited by property "web.page.max-size" and
+ * page number by "web.page.max-page", so a request can't make the REST client
+ * read and sort an unbounded number of entities.
+ * 
+ * @author Giste
+ */
+@Configuration
+@EnableConfigurationProperties(ClubWebProperties.class)
+public class PageConfiguration extends WebMvcConfigurerAdapter {
+
+	private final ClubWebProperties.Page pageProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the web pages.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 */
+	public PageConfiguration(ClubWebProperties webProperties) {
+		this.pageProperties = webProperties.getPage();
+	}
+
+	/**
+	 * Provides the resolver of pageable params.
+	 * 
+	 * @return The PageableHandlerMethodArgumentResolver bean.
+	 */
+	@Bean
+	public PageableHandlerMethodArgumentResolver pageableResolver() {
+		PageableHandlerMethodArgumentResolver resolver = new MaxPageArgumentResolver(pageProperties.getMaxPage());
+		resolver.setMaxPageSize(pageProperties.getMaxSize());
+		resolver.setFallbackPageable(new PageRequest(0, pageProperties.getDefaultSize()));
+
+		return resolver;
+	}
+
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
+		argumentResolvers.add(pageableResolver());
+	}
+
+	/**
+	 * Pageable resolver that lowers the page number to a maximum.
+	 */
+	private static class MaxPageArgumentResolver extends PageableHandlerMethodArgumentResolver {
+
+		private final int maxPage;
+
+		MaxPageArgumentResolver(int maxPage) {
+			this.maxPage = maxPage;
+		}
+
+		@Override
+		public Pageable resolveArgument(MethodParameter methodParameter, ModelAndViewContainer mavContainer,
+				NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+			Pageable pageable = super.resolveArgument(methodParameter, mavContainer, webRequest, binderFactory);
+			if (pageable == null || pageable.getPageNumber() <= maxPage) {
+				return pageable;
+			}
+
+			return new PageRequest(maxPage, pageable.getPageSize(), pageable.getSort());
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package org.giste.club.web;
+
+import java.util.function.LongFunction;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.controller.ListPrefetchInterceptor;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.giste.club.web.service.cache.EntityCache;
+import org.giste.club.web.service.cache.Prefetcher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Spring configuration for the prefetch of the entities shown in club and user
+ * lists. When property "web.prefetch.enabled" is true, the first clubs and
+ * users of a list are read into their caches in the background, with low
+ * priority threads, before they are requested.
+ * 
+ * @author Giste
+ */
+@Configuration
+@EnableConfigurationProperties(ClubWebProperties.class)
+@ConditionalOnProperty(prefix = "web.prefetch", name = "enabled")
+public class PrefetchConfiguration extends WebMvcConfigurerAdapter {
+
+	private final ClubWebProperties.Prefetch prefetchProperties;
+	private final ClubRestService clubRestService;
+	private final UserRestService userRestService;
+	private final EntityCache<ClubDto> clubCache;
+	private final EntityCache<UserDto> userCache;
+
+	/**
+	 * Constructs the configuration with the services and caches of the
+	 * prefetched entities.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 * @param clubRestService Service used to read clubs, without cache.
+	 * @param userRestService Service used to read users, without cache.
+	 * @param clubCache Cache for clubs.
+	 * @param userCache Cache for users.
+	 */
+	public PrefetchConfiguration(ClubWebProperties webProperties,
+			@Qualifier("clubRestServiceImpl") ClubRestService clubRestService,
+			@Qualifier("userRestServiceImpl") UserRestService userRestService, EntityCache<ClubDto> clubCache,
+			EntityCache<UserDto> userCache) {
+		this.prefetchProperties = webProperties.getPrefetch();
+		this.clubRestService = clubRestService;
+		this.userRestService = userRestService;
+		this.clubCache = clubCache;
+		this.userCache = userCache;
+	}
+
+	/**
+	 * Provides the executor for prefetching entities. It has low priority
+	 * threads and a bounded queue.
+	 * 
+	 * @return The TaskExecutor bean.
+	 */
+	@Bean
+	public TaskExecutor prefetchExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("prefetch-");
+		executor.setThreadPriority(Thread.MIN_PRIORITY);
+		executor.setDaemon(true);
+		executor.setCorePoolSize(prefetchProperties.getThreads());
+		executor.setMaxPoolSize(prefetchProperties.getThreads());
+		executor.setQueueCapacity(prefetchProperties.getQueueCapacity());
+
+		return executor;
+	}
+
+	/**
+	 * Provides the prefetcher of clubs, taken by the cache of clubs.
+	 * 
+	 * @return The prefetcher of clubs.
+	 */
+	@Bean
+	public Prefetcher<ClubDto> clubPrefetcher() {
+		Prefetcher<ClubDto> prefetcher = newPrefetcher(clubCache, clubRestService::findById);
+		clubCache.setPrefetcher(prefetcher);
+
+		return prefetcher;
+	}
+
+	/**
+	 * Provides the prefetcher of users, taken by the cache of users.
+	 * 
+	 * @return The prefetcher of users.
+	 */
+	@Bean
+	public Prefetcher<UserDto> userPrefetcher() {
+		Prefetcher<UserDto> prefetcher = newPrefetcher(userCache, userRestService::findById);
+		userCache.setPrefetcher(prefetcher);
+
+		return prefetcher;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new ListPrefetchInterceptor(prefetchProperties.getDepth())
+				.register("clubList", ClubDto.class, ClubDto::getId, clubPrefetcher())
+				.register("userList", UserDto.class, UserDto::getId, userPrefetcher()));
+	}
+
+	private <DTO> Prefetcher<DTO> newPrefetcher(EntityCache<DTO> cache, LongFunction<DTO> loader) {
+		return new Prefetcher<>(cache.getName(), loader, cache::contains, prefetchExecutor(),
+				prefetchProperties.getMaxSize(), prefetchProperties.getTimeToLive());
+	}
+}
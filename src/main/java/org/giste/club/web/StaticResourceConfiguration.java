@@ -0,0 +1,53 @@
+package org.giste.club.web;
+
+import org.giste.club.web.resource.PrecompressedResourceResolver;
+import org.giste.club.web.resource.StaticResourceCacheInterceptor;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+/**
+ * Spring configuration for static resources. Bootstrap and jQuery are copied
+ * to "static/vendor" at build time, so pages don't depend on external CDNs.
+ * Resources are served with a content hash in their name, added to the links
+ * of the templates by {@link ResourceUrlEncodingFilter}, and with their
+ * Brotli or gzip versions created at build time.
+ * 
+ * @author Giste
+ */
+@Configuration
+public class StaticResourceConfiguration extends WebMvcConfigurerAdapter {
+
+	@Override
+	public void addResourceHandlers(ResourceHandlerRegistry registry) {
+		// Precompressed resolver goes before the cache, as it depends on
+		// request headers. The cache holds resolved paths and hashes.
+		registry.addResourceHandler("/**")
+				.addResourceLocations("classpath:/static/")
+				.resourceChain(false)
+				.addResolver(new PrecompressedResourceResolver())
+				.addResolver(new CachingResourceResolver(new ConcurrentMapCache("staticResources")))
+				.addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new StaticResourceCacheInterceptor());
+	}
+
+	/**
+	 * Provides the filter adding content hashes to the links of resources.
+	 * 
+	 * @return The ResourceUrlEncodingFilter bean.
+	 */
+	@Bean
+	public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+		return new ResourceUrlEncodingFilter();
+	}
+}
@@ -0,0 +1,77 @@
+package org.giste.club.web;
+
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.locale.MessageTables;
+import org.giste.club.web.view.FragmentCache;
+import org.giste.club.web.view.FragmentCacheDialect;
+import org.giste.club.web.view.ViewReloader;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.thymeleaf.TemplateEngine;
+
+/**
+ * Spring configuration for rendering views. Fragments marked with
+ * "cache:fragment" are cached per locale if property
+ * "web.fragment-cache.enabled" is true and templates are cached too, so they
+ * are rendered again when templates are reloaded on change.
+ * 
+ * @author Giste
+ */
+@Configuration
+@EnableConfigurationProperties(ClubWebProperties.class)
+public class ViewConfiguration {
+
+	private final ClubWebProperties.FragmentCache fragmentCacheProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the web pages.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 */
+	public ViewConfiguration(ClubWebProperties webProperties) {
+		this.fragmentCacheProperties = webProperties.getFragmentCache();
+	}
+
+	/**
+	 * Provides the cache of rendered fragments.
+	 * 
+	 * @param thymeleafProperties Properties of Thymeleaf.
+	 * @return The FragmentCache bean.
+	 */
+	@Bean
+	public FragmentCache fragmentCache(ThymeleafProperties thymeleafProperties) {
+		return new FragmentCache(fragmentCacheProperties.isEnabled() && thymeleafProperties.isCache(),
+				fragmentCacheProperties.getMaxSize());
+	}
+
+	/**
+	 * Provides the dialect with the "cache:fragment" attribute. It's added to
+	 * the template engine by Spring Boot.
+	 * 
+	 * @param fragmentCache Cache of rendered fragments.
+	 * @return The FragmentCacheDialect bean.
+	 */
+	@Bean
+	public FragmentCacheDialect fragmentCacheDialect(FragmentCache fragmentCache) {
+		return new FragmentCacheDialect(fragmentCache);
+	}
+
+	/**
+	 * Provides the bean for reloading templates and messages through JMX.
+	 * 
+	 * @param templateEngine The template engine.
+	 * @param messageSource The message source.
+	 * @param messageTables The compiled message tables.
+	 * @param fragmentCache Cache of rendered fragments.
+	 * @return The ViewReloader bean.
+	 */
+	@Bean
+	public ViewReloader viewReloader(TemplateEngine templateEngine,
+			ReloadableResourceBundleMessageSource messageSource, MessageTables messageTables,
+			FragmentCache fragmentCache) {
+		return new ViewReloader(templateEngine, messageSource, messageTables, fragmentCache);
+	}
+}
@@ -0,0 +1,74 @@
+package org.giste.club.web.aspect;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.eligibility.AgeCategoryIndex;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect for keeping the age index of categories up to date:
+ * <ul>
+ * <li>Lists of all the categories read from the REST server build the tree,
+ * unless a category changed while they were read.</li>
+ * <li>Creating, updating or deleting a category drops the tree, even if the
+ * change fails, because the REST server could have applied it. Cached
+ * services are advised too, so the tree is dropped again once their cache is
+ * invalidated and it's never built from a stale list.</li>
+ * </ul>
+ * 
+ * @author Giste
+ */
+@Aspect
+@Component
+public class AgeCategoryIndexUpdater {
+
+	private final AgeCategoryIndex index;
+
+	/**
+	 * Constructs the aspect.
+	 * 
+	 * @param index Age index of categories.
+	 */
+	public AgeCategoryIndexUpdater(AgeCategoryIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * Builds the tree with the list of all categories, read synchronously or
+	 * asynchronously.
+	 * 
+	 * @param joinPoint The read of the list.
+	 * @return The list or the future for it.
+	 * @throws Throwable If the list can't be read.
+	 */
+	@SuppressWarnings("unchecked")
+	@Around("target(org.giste.club.web.service.CategoryRestServiceImpl)"
+			+ " && (execution(java.util.List findAll())"
+			+ " || execution(java.util.concurrent.CompletableFuture findAllAsync(java.util.concurrent.Executor)))")
+	public Object categoriesRead(ProceedingJoinPoint joinPoint) throws Throwable {
+		final long version = index.getVersion();
+		final Object result = joinPoint.proceed();
+		if (result instanceof List) {
+			index.sync((List<CategoryDto>) result, version);
+		} else if (result instanceof CompletableFuture) {
+			((CompletableFuture<List<CategoryDto>>) result).thenAccept(all -> index.sync(all, version));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Drops the tree after a category is created, updated or deleted.
+	 */
+	@After("target(org.giste.club.web.service.CategoryRestService)"
+			+ " && (execution(* create(..)) || execution(* update(..)) || execution(void deleteById(long)))")
+	public void categoryChanged() {
+		index.invalidate();
+	}
+}
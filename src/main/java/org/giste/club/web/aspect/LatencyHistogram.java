@@ -0,0 +1,108 @@
+package org.giste.club.web.aspect;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds. Values are counted in
+ * logarithmic buckets: each power of two is split in 8 linear sub-buckets, so
+ * percentiles have a relative error below 12.5%. Recording a value doesn't
+ * allocate memory.
+ * 
+ * @author Giste
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a latency.
+	 * 
+	 * @param nanos The latency in nanoseconds.
+	 */
+	public void record(long nanos) {
+		final long value = Math.max(nanos, 0);
+		counts.incrementAndGet(bucketIndex(value));
+		count.incrementAndGet();
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Gets the number of recorded latencies.
+	 * 
+	 * @return The number of recorded latencies.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the maximum recorded latency.
+	 * 
+	 * @return The maximum latency in nanoseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets a percentile of the recorded latencies. The value returned is the
+	 * upper limit of the bucket where the percentile falls, never greater than
+	 * the maximum latency.
+	 * 
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The latency in nanoseconds, or 0 if there isn't any.
+	 */
+	public long getPercentile(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long accumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			accumulated += snapshot[i];
+			if (accumulated >= rank) {
+				return Math.min(bucketUpperLimit(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	private static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		// Highest bit gives the power of two, next bits give the linear
+		// sub-bucket.
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		final int subBucket = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+
+		return (exponent + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long bucketUpperLimit(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+
+		final int exponent = index / SUB_BUCKETS - 1;
+		final long subBucket = index % SUB_BUCKETS;
+
+		return ((SUB_BUCKETS + subBucket + 1) << exponent) - 1;
+	}
+}
@@ -0,0 +1,47 @@
+package org.giste.club.web.aspect;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.giste.club.web.service.CoalescedRestService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect for making the coalescer of a service forget the reads in flight
+ * once a write is done, even if it fails, because the REST server could have
+ * applied it. So reads started after a write don't share a call started
+ * before it. Bulk changes are advised as a whole, as the calls they make to
+ * the service itself aren't.
+ * 
+ * @author Giste
+ */
+@Aspect
+@Component
+public class RequestCoalescerUpdater {
+
+	/**
+	 * Forgets the reads in flight after an entity is created, updated,
+	 * enabled, disabled or deleted.
+	 * 
+	 * @param service The service that made the write.
+	 */
+	@After("target(service) && (execution(* create(..)) || execution(* update(..))"
+			+ " || execution(* enable(..)) || execution(* disable(..)) || execution(void deleteById(long)))")
+	public void written(CoalescedRestService service) {
+		service.getCoalescer().forgetAll();
+	}
+
+	/**
+	 * Forgets the reads in flight once a bulk change is done.
+	 * 
+	 * @param service The service that made the change.
+	 * @param results Future for the results of the change.
+	 */
+	@AfterReturning(pointcut = "target(service)"
+			+ " && execution(java.util.concurrent.CompletableFuture setEnabledAsync(..))", returning = "results")
+	public void writtenInBulk(CoalescedRestService service, CompletableFuture<?> results) {
+		results.whenComplete((done, e) -> service.getCoalescer().forgetAll());
+	}
+}
@@ -0,0 +1,144 @@
+package org.giste.club.web.aspect;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.search.SearchIndex;
+import org.giste.club.web.service.BulkResult;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect for keeping the search indexes of clubs and users up to date with
+ * the data read from and written to the REST server. Only the services
+ * calling the REST server are advised, not the cached ones, so each call is
+ * seen once:
+ * <ul>
+ * <li>Lists of all the entities synchronize the index, without undoing the
+ * changes made while they were read.</li>
+ * <li>Entities created, updated or changed in bulk are put in the index.</li>
+ * <li>Deleted users are removed from the index.</li>
+ * </ul>
+ * 
+ * @author Giste
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "web.search", name = "enabled", matchIfMissing = true)
+public class SearchIndexUpdater {
+
+	private final SearchIndex<ClubDto> clubIndex;
+	private final SearchIndex<UserDto> userIndex;
+
+	/**
+	 * Constructs the aspect.
+	 * 
+	 * @param clubIndex Search index of clubs.
+	 * @param userIndex Search index of users.
+	 */
+	public SearchIndexUpdater(SearchIndex<ClubDto> clubIndex, SearchIndex<UserDto> userIndex) {
+		this.clubIndex = clubIndex;
+		this.userIndex = userIndex;
+	}
+
+	/**
+	 * Synchronizes the index of clubs with the list of all clubs, read
+	 * synchronously or asynchronously.
+	 * 
+	 * @param joinPoint The read of the list.
+	 * @return The list or the future for it.
+	 * @throws Throwable If the list can't be read.
+	 */
+	@Around("target(org.giste.club.web.service.ClubRestServiceImpl)"
+			+ " && (execution(java.util.List findAll())"
+			+ " || execution(java.util.concurrent.CompletableFuture findAllAsync(java.util.concurrent.Executor)))")
+	public Object clubsRead(ProceedingJoinPoint joinPoint) throws Throwable {
+		return syncWith(clubIndex, joinPoint);
+	}
+
+	/**
+	 * Puts a created or changed club in the index.
+	 * 
+	 * @param club The club returned by the REST server.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.ClubRestServiceImpl)"
+			+ " && (execution(* create(..)) || execution(* update(..))"
+			+ " || execution(* enable(..)) || execution(* disable(..)))", returning = "club")
+	public void clubChanged(ClubDto club) {
+		if (club != null) {
+			clubIndex.put(club);
+		}
+	}
+
+	/**
+	 * Puts the clubs changed by a bulk change in the index once they're
+	 * changed.
+	 * 
+	 * @param results Future for the results of the bulk change.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.ClubRestServiceImpl)"
+			+ " && execution(java.util.concurrent.CompletableFuture setEnabledAsync(..))", returning = "results")
+	public void clubsChanged(CompletableFuture<List<BulkResult<ClubDto>>> results) {
+		results.thenAccept(changed -> changed.stream()
+				.filter(BulkResult::isSuccess)
+				.forEach(result -> clubChanged(result.getEntity())));
+	}
+
+	/**
+	 * Synchronizes the index of users with the list of all users, read
+	 * synchronously or asynchronously.
+	 * 
+	 * @param joinPoint The read of the list.
+	 * @return The list or the future for it.
+	 * @throws Throwable If the list can't be read.
+	 */
+	@Around("target(org.giste.club.web.service.UserRestServiceImpl)"
+			+ " && (execution(java.util.List findAll())"
+			+ " || execution(java.util.concurrent.CompletableFuture findAllAsync(java.util.concurrent.Executor)))")
+	public Object usersRead(ProceedingJoinPoint joinPoint) throws Throwable {
+		return syncWith(userIndex, joinPoint);
+	}
+
+	/**
+	 * Puts a created or changed user in the index.
+	 * 
+	 * @param user The user returned by the REST server.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.UserRestServiceImpl)"
+			+ " && (execution(* create(..)) || execution(* update(..)))", returning = "user")
+	public void userChanged(UserDto user) {
+		if (user != null) {
+			userIndex.put(user);
+		}
+	}
+
+	/**
+	 * Removes a deleted user from the index.
+	 * 
+	 * @param id Identifier of the user.
+	 */
+	@AfterReturning("target(org.giste.club.web.service.UserRestServiceImpl)"
+			+ " && execution(void deleteById(long)) && args(id)")
+	public void userDeleted(long id) {
+		userIndex.remove(id);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <DTO> Object syncWith(SearchIndex<DTO> index, ProceedingJoinPoint joinPoint) throws Throwable {
+		final long version = index.getVersion();
+		final Object result = joinPoint.proceed();
+		if (result instanceof List) {
+			index.sync((List<DTO>) result, version);
+		} else if (result instanceof CompletableFuture) {
+			((CompletableFuture<List<DTO>>) result).thenAccept(all -> index.sync(all, version));
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,299 @@
+package org.giste.club.web.aspect;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.BulkResult;
+import org.giste.club.web.service.exception.DuplicatedCategoryNameException;
+import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
+import org.giste.club.web.service.exception.DuplicatedUserMailException;
+import org.giste.club.web.unique.UniqueIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect for rejecting duplicated club acronyms, user emails and category
+ * names before calling the REST server, and for keeping the uniqueness
+ * indexes up to date with the data read from and written to it. Only the
+ * services calling the REST server are advised, not the cached ones, so each
+ * call is seen once:
+ * <ul>
+ * <li>Lists of all the entities synchronize the index, with the changes made
+ * while they were read applied again.</li>
+ * <li>Entities to be created or updated are rejected with the same exception
+ * the REST server would cause if the index is fresh and another entity has
+ * the value in its map, not only in its Bloom filter. Otherwise, the REST
+ * server decides.</li>
+ * <li>Entities created, updated or changed in bulk are put in the index.</li>
+ * <li>Deleted entities are removed from the index.</li>
+ * </ul>
+ * 
+ * @author Giste
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "web.unique", name = "enabled", matchIfMissing = true)
+public class UniqueIndexUpdater {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final UniqueIndex<ClubDto> clubIndex;
+	private final UniqueIndex<UserDto> userIndex;
+	private final UniqueIndex<CategoryDto> categoryIndex;
+
+	/**
+	 * Constructs the aspect.
+	 * 
+	 * @param clubIndex Index of club acronyms.
+	 * @param userIndex Index of user emails.
+	 * @param categoryIndex Index of category names.
+	 */
+	public UniqueIndexUpdater(UniqueIndex<ClubDto> clubIndex, UniqueIndex<UserDto> userIndex,
+			UniqueIndex<CategoryDto> categoryIndex) {
+		this.clubIndex = clubIndex;
+		this.userIndex = userIndex;
+		this.categoryIndex = categoryIndex;
+	}
+
+	/**
+	 * Rejects a new club whose acronym is in use by another club.
+	 * 
+	 * @param club The club to create.
+	 */
+	@Before("target(org.giste.club.web.service.ClubRestServiceImpl) && execution(* create(..)) && args(club)")
+	public void checkNewClub(ClubDto club) {
+		checkClub(club, null);
+	}
+
+	/**
+	 * Rejects a club whose acronym is changed to one in use by another club.
+	 * 
+	 * @param club The club to update.
+	 */
+	@Before("target(org.giste.club.web.service.ClubRestServiceImpl) && execution(* update(..)) && args(club)")
+	public void checkChangedClub(ClubDto club) {
+		checkClub(club, club.getId());
+	}
+
+	/**
+	 * Synchronizes the index of club acronyms with the list of all clubs,
+	 * read synchronously or asynchronously.
+	 * 
+	 * @param joinPoint The read of the list.
+	 * @return The list or the future for it.
+	 * @throws Throwable If the list can't be read.
+	 */
+	@Around("target(org.giste.club.web.service.ClubRestServiceImpl)"
+			+ " && (execution(java.util.List findAll())"
+			+ " || execution(java.util.concurrent.CompletableFuture findAllAsync(java.util.concurrent.Executor)))")
+	public Object clubsRead(ProceedingJoinPoint joinPoint) throws Throwable {
+		return syncWith(clubIndex, joinPoint);
+	}
+
+	/**
+	 * Puts a created or changed club in the index.
+	 * 
+	 * @param club The club returned by the REST server.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.ClubRestServiceImpl)"
+			+ " && (execution(* create(..)) || execution(* update(..))"
+			+ " || execution(* enable(..)) || execution(* disable(..)))", returning = "club")
+	public void clubChanged(ClubDto club) {
+		if (club != null) {
+			clubIndex.put(club);
+		}
+	}
+
+	/**
+	 * Puts the clubs changed by a bulk change in the index once they're
+	 * changed.
+	 * 
+	 * @param results Future for the results of the bulk change.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.ClubRestServiceImpl)"
+			+ " && execution(java.util.concurrent.CompletableFuture setEnabledAsync(..))", returning = "results")
+	public void clubsChanged(CompletableFuture<List<BulkResult<ClubDto>>> results) {
+		results.thenAccept(changed -> changed.stream()
+				.filter(BulkResult::isSuccess)
+				.forEach(result -> clubChanged(result.getEntity())));
+	}
+
+	/**
+	 * Rejects a new user whose email is in use by another user.
+	 * 
+	 * @param user The user to create.
+	 */
+	@Before("target(org.giste.club.web.service.UserRestServiceImpl) && execution(* create(..)) && args(user)")
+	public void checkNewUser(UserDto user) {
+		checkUser(user, null);
+	}
+
+	/**
+	 * Rejects a user whose email is changed to one in use by another user.
+	 * 
+	 * @param user The user to update.
+	 */
+	@Before("target(org.giste.club.web.service.UserRestServiceImpl) && execution(* update(..)) && args(user)")
+	public void checkChangedUser(UserDto user) {
+		checkUser(user, user.getId());
+	}
+
+	/**
+	 * Synchronizes the index of user emails with the list of all users, read
+	 * synchronously or asynchronously.
+	 * 
+	 * @param joinPoint The read of the list.
+	 * @return The list or the future for it.
+	 * @throws Throwable If the list can't be read.
+	 */
+	@Around("target(org.giste.club.web.service.UserRestServiceImpl)"
+			+ " && (execution(java.util.List findAll())"
+			+ " || execution(java.util.concurrent.CompletableFuture findAllAsync(java.util.concurrent.Executor)))")
+	public Object usersRead(ProceedingJoinPoint joinPoint) throws Throwable {
+		return syncWith(userIndex, joinPoint);
+	}
+
+	/**
+	 * Puts a created or changed user in the index.
+	 * 
+	 * @param user The user returned by the REST server.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.UserRestServiceImpl)"
+			+ " && (execution(* create(..)) || execution(* update(..)))", returning = "user")
+	public void userChanged(UserDto user) {
+		if (user != null) {
+			userIndex.put(user);
+		}
+	}
+
+	/**
+	 * Removes a deleted user from the index.
+	 * 
+	 * @param id Identifier of the user.
+	 */
+	@AfterReturning("target(org.giste.club.web.service.UserRestServiceImpl)"
+			+ " && execution(void deleteById(long)) && args(id)")
+	public void userDeleted(long id) {
+		userIndex.remove(id);
+	}
+
+	/**
+	 * Rejects a new category whose name is in use by another category.
+	 * 
+	 * @param category The category to create.
+	 */
+	@Before("target(org.giste.club.web.service.CategoryRestServiceImpl) && execution(* create(..))"
+			+ " && args(category)")
+	public void checkNewCategory(CategoryDto category) {
+		checkCategory(category, null);
+	}
+
+	/**
+	 * Rejects a category whose name is changed to one in use by another
+	 * category.
+	 * 
+	 * @param category The category to update.
+	 */
+	@Before("target(org.giste.club.web.service.CategoryRestServiceImpl) && execution(* update(..))"
+			+ " && args(category)")
+	public void checkChangedCategory(CategoryDto category) {
+		checkCategory(category, category.getId());
+	}
+
+	/**
+	 * Synchronizes the index of category names with the list of all
+	 * categories, read synchronously or asynchronously.
+	 * 
+	 * @param joinPoint The read of the list.
+	 * @return The list or the future for it.
+	 * @throws Throwable If the list can't be read.
+	 */
+	@Around("target(org.giste.club.web.service.CategoryRestServiceImpl)"
+			+ " && (execution(java.util.List findAll())"
+			+ " || execution(java.util.concurrent.CompletableFuture findAllAsync(java.util.concurrent.Executor)))")
+	public Object categoriesRead(ProceedingJoinPoint joinPoint) throws Throwable {
+		return syncWith(categoryIndex, joinPoint);
+	}
+
+	/**
+	 * Puts a created or changed category in the index.
+	 * 
+	 * @param category The category returned by the REST server.
+	 */
+	@AfterReturning(pointcut = "target(org.giste.club.web.service.CategoryRestServiceImpl)"
+			+ " && (execution(* create(..)) || execution(* update(..)))", returning = "category")
+	public void categoryChanged(CategoryDto category) {
+		if (category != null) {
+			categoryIndex.put(category);
+		}
+	}
+
+	/**
+	 * Removes a deleted category from the index.
+	 * 
+	 * @param id Identifier of the category.
+	 */
+	@AfterReturning("target(org.giste.club.web.service.CategoryRestServiceImpl)"
+			+ " && execution(void deleteById(long)) && args(id)")
+	public void categoryDeleted(long id) {
+		categoryIndex.remove(id);
+	}
+
+	private void checkClub(ClubDto club, Long id) {
+		if (isDuplicated(clubIndex, club, id)) {
+			throw new DuplicatedClubAcronymException("Acronym " + club.getAcronym() + " is in use by another club");
+		}
+	}
+
+	private void checkUser(UserDto user, Long id) {
+		if (isDuplicated(userIndex, user, id)) {
+			throw new DuplicatedUserMailException("Email " + user.getEmail() + " is in use by another user");
+		}
+	}
+
+	private void checkCategory(CategoryDto category, Long id) {
+		if (isDuplicated(categoryIndex, category, id)) {
+			throw new DuplicatedCategoryNameException(
+					"Name " + category.getName() + " is in use by another category");
+		}
+	}
+
+	private <DTO> boolean isDuplicated(UniqueIndex<DTO> index, DTO dto, Long id) {
+		if (dto == null || !index.isFresh()) {
+			// Nothing trustworthy to check against, let the REST server decide.
+			return false;
+		}
+
+		// A hit of the Bloom filter alone isn't a duplicate: the owner is
+		// looked up in the map of the index.
+		final boolean duplicated = index.isDuplicated(index.valueOf(dto), id);
+		if (duplicated) {
+			LOGGER.debug("Rejecting duplicated value {} without calling REST server", index.valueOf(dto));
+		}
+
+		return duplicated;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <DTO> Object syncWith(UniqueIndex<DTO> index, ProceedingJoinPoint joinPoint) throws Throwable {
+		final long version = index.getVersion();
+		final Object result = joinPoint.proceed();
+		if (result instanceof List) {
+			index.sync((List<DTO>) result, version);
+		} else if (result instanceof CompletableFuture) {
+			((CompletableFuture<List<DTO>>) result).thenAccept(all -> index.sync(all, version));
+		}
+
+		return result;
+	}
+}
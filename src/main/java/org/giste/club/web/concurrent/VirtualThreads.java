@@ -0,0 +1,111 @@
+package org.giste.club.web.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of the JVM, when it has them (Java 21 or
+ * later). The application is built for Java 8, so they are found by
+ * reflection: on older JVMs {@link #isSupported()} is false and nothing else
+ * can be used.
+ * 
+ * @author Giste
+ */
+public final class VirtualThreads {
+
+	private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+	private static final Class<?> BUILDER = findClass("java.lang.Thread$Builder");
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class,
+			"newThreadPerTaskExecutor", ThreadFactory.class);
+	private static final boolean SUPPORTED = probe();
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Tells whether the JVM has virtual threads.
+	 * 
+	 * @return true if virtual threads can be created.
+	 */
+	public static boolean isSupported() {
+		return SUPPORTED;
+	}
+
+	/**
+	 * Creates a factory of virtual threads. Threads are named with a prefix
+	 * and a counter.
+	 * 
+	 * @param namePrefix Prefix of the names of the threads.
+	 * @return The factory of virtual threads.
+	 * @throws UnsupportedOperationException If the JVM hasn't virtual threads.
+	 */
+	public static ThreadFactory newThreadFactory(String namePrefix) {
+		checkSupported();
+		try {
+			Object builder = OF_VIRTUAL.invoke(null);
+			builder = BUILDER.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+
+			return (ThreadFactory) BUILDER.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Error creating virtual thread factory", e);
+		}
+	}
+
+	/**
+	 * Creates an executor that runs each task in a new virtual thread. It has
+	 * no pool nor queue: the number of tasks waiting at the same time is only
+	 * limited by memory, so limits must be set on the resources they use.
+	 * 
+	 * @param namePrefix Prefix of the names of the threads.
+	 * @return The executor.
+	 * @throws UnsupportedOperationException If the JVM hasn't virtual threads.
+	 */
+	public static ExecutorService newExecutor(String namePrefix) {
+		final ThreadFactory threadFactory = newThreadFactory(namePrefix);
+		try {
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Error creating virtual thread executor", e);
+		}
+	}
+
+	private static void checkSupported() {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException(
+					"Virtual threads need Java 21 or later, running on " + System.getProperty("java.version"));
+		}
+	}
+
+	private static boolean probe() {
+		if (OF_VIRTUAL == null || BUILDER == null || NEW_THREAD_PER_TASK_EXECUTOR == null) {
+			return false;
+		}
+
+		// Java 19 and 20 have the methods, but fail unless preview features
+		// are enabled.
+		try {
+			OF_VIRTUAL.invoke(null);
+			return true;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static Class<?> findClass(String name) {
+		try {
+			return Class.forName(name);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package org.giste.club.web.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.giste.spring.util.config.RestPropertiesImpl;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -13,4 +16,414 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "rest")
 public class ClubRestProperties extends RestPropertiesImpl {
 
+	private final Pool pool = new Pool();
+
+	private final Cache cache = new Cache();
+
+	private final Resilience resilience = new Resilience();
+
+	/**
+	 * Gets the properties of the HTTP connection pool used to communicate with
+	 * the REST server.
+	 * 
+	 * @return The connection pool properties.
+	 */
+	public Pool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Gets the properties of the cache of entities read from the REST server.
+	 * 
+	 * @return The cache properties.
+	 */
+	public Cache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Gets the properties of the bulkheads and circuit breakers of the
+	 * resources of the REST server.
+	 * 
+	 * @return The resilience properties.
+	 */
+	public Resilience getResilience() {
+		return resilience;
+	}
+
+	/**
+	 * Properties of the HTTP connection pool ("rest.pool" prefix).
+	 */
+	public static class Pool {
+
+		/**
+		 * Maximum number of connections in the pool.
+		 */
+		private int maxTotal = 100;
+
+		/**
+		 * Maximum number of connections to the same route (host and port).
+		 */
+		private int maxPerRoute = 50;
+
+		/**
+		 * Maximum time in milliseconds a connection is kept alive when the
+		 * server doesn't send a keep-alive timeout.
+		 */
+		private long keepAlive = 30000;
+
+		/**
+		 * Time in milliseconds after which an idle connection is evicted from
+		 * the pool.
+		 */
+		private long idleEviction = 60000;
+
+		/**
+		 * Timeout in milliseconds for establishing a connection.
+		 */
+		private int connectTimeout = 2000;
+
+		/**
+		 * Timeout in milliseconds waiting for data (socket timeout).
+		 */
+		private int readTimeout = 5000;
+
+		/**
+		 * Timeout in milliseconds waiting for a connection from the pool.
+		 */
+		private int connectionRequestTimeout = 1000;
+
+		/**
+		 * Number of I/O threads of the non-blocking client ("reactive"
+		 * profile).
+		 */
+		private int ioThreads = Runtime.getRuntime().availableProcessors();
+
+		public int getMaxTotal() {
+			return maxTotal;
+		}
+
+		public void setMaxTotal(int maxTotal) {
+			this.maxTotal = maxTotal;
+		}
+
+		public int getMaxPerRoute() {
+			return maxPerRoute;
+		}
+
+		public void setMaxPerRoute(int maxPerRoute) {
+			this.maxPerRoute = maxPerRoute;
+		}
+
+		public long getKeepAlive() {
+			return keepAlive;
+		}
+
+		public void setKeepAlive(long keepAlive) {
+			this.keepAlive = keepAlive;
+		}
+
+		public long getIdleEviction() {
+			return idleEviction;
+		}
+
+		public void setIdleEviction(long idleEviction) {
+			this.idleEviction = idleEviction;
+		}
+
+		public int getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public void setConnectTimeout(int connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public int getReadTimeout() {
+			return readTimeout;
+		}
+
+		public void setReadTimeout(int readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public int getConnectionRequestTimeout() {
+			return connectionRequestTimeout;
+		}
+
+		public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+			this.connectionRequestTimeout = connectionRequestTimeout;
+		}
+
+		public int getIoThreads() {
+			return ioThreads;
+		}
+
+		public void setIoThreads(int ioThreads) {
+			this.ioThreads = ioThreads;
+		}
+	}
+
+	/**
+	 * Properties of the cache of entities read from the REST server
+	 * ("rest.cache" prefix).
+	 */
+	public static class Cache {
+
+		/**
+		 * Whether entities read from the REST server are cached.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Maximum number of entities cached for each resource.
+		 */
+		private long maxSize = 10000;
+
+		/**
+		 * Time in milliseconds an entity is kept in the cache since it was
+		 * read.
+		 */
+		private long timeToLive = 60000;
+
+		/**
+		 * Whether pages of a list not found in the cache are streamed from
+		 * the REST server instead of reading and caching the whole list.
+		 */
+		private boolean streamPages = false;
+
+		/**
+		 * Time in milliseconds between background refreshes of the list of
+		 * each resource ("clubs", "categories"...). Lists of these resources
+		 * are served from the last copy read, even when it's stale.
+		 */
+		private final Map<String, Long> refreshInterval = new HashMap<>();
+
+		/**
+		 * Fraction of the refresh interval randomly added or removed, so nodes
+		 * don't refresh at the same time.
+		 */
+		private double refreshJitter = 0.2;
+
+		/**
+		 * Number of threads used for background refreshes.
+		 */
+		private int refreshThreads = 2;
+
+		/**
+		 * Time in milliseconds a refreshed list is served since it was read,
+		 * when refreshes keep failing.
+		 */
+		private long maxStale = 600000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(long maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public long getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(long timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public boolean isStreamPages() {
+			return streamPages;
+		}
+
+		public void setStreamPages(boolean streamPages) {
+			this.streamPages = streamPages;
+		}
+
+		public Map<String, Long> getRefreshInterval() {
+			return refreshInterval;
+		}
+
+		public double getRefreshJitter() {
+			return refreshJitter;
+		}
+
+		public void setRefreshJitter(double refreshJitter) {
+			this.refreshJitter = refreshJitter;
+		}
+
+		public int getRefreshThreads() {
+			return refreshThreads;
+		}
+
+		public void setRefreshThreads(int refreshThreads) {
+			this.refreshThreads = refreshThreads;
+		}
+
+		public long getMaxStale() {
+			return maxStale;
+		}
+
+		public void setMaxStale(long maxStale) {
+			this.maxStale = maxStale;
+		}
+	}
+
+	/**
+	 * Properties of the bulkheads and circuit breakers of the resources of the
+	 * REST server ("rest.resilience" prefix).
+	 */
+	public static class Resilience {
+
+		/**
+		 * Whether calls to each resource are limited by a bulkhead and a
+		 * circuit breaker.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Maximum number of concurrent calls to a resource.
+		 */
+		private int maxConcurrentCalls = 20;
+
+		/**
+		 * Maximum number of concurrent calls to specific resources, by
+		 * resource name.
+		 */
+		private final Map<String, Integer> resourceMaxConcurrentCalls = new HashMap<>();
+
+		/**
+		 * Maximum time in milliseconds a call waits when the limit of
+		 * concurrent calls is reached.
+		 */
+		private long maxWait = 0;
+
+		/**
+		 * Number of calls kept in the sliding window of a circuit breaker.
+		 */
+		private int windowSize = 20;
+
+		/**
+		 * Minimum number of calls in the window for opening a circuit
+		 * breaker.
+		 */
+		private int minimumCalls = 10;
+
+		/**
+		 * Percentage of failed calls that opens a circuit breaker.
+		 */
+		private int failureRateThreshold = 50;
+
+		/**
+		 * Percentage of slow calls that opens a circuit breaker.
+		 */
+		private int slowCallRateThreshold = 80;
+
+		/**
+		 * Duration in milliseconds from which a call is slow.
+		 */
+		private long slowCallDuration = 2000;
+
+		/**
+		 * Time in milliseconds a circuit breaker stays open.
+		 */
+		private long openDuration = 10000;
+
+		/**
+		 * Number of trial calls let through by a half open circuit breaker.
+		 */
+		private int halfOpenCalls = 3;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxConcurrentCalls() {
+			return maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public Map<String, Integer> getResourceMaxConcurrentCalls() {
+			return resourceMaxConcurrentCalls;
+		}
+
+		public long getMaxWait() {
+			return maxWait;
+		}
+
+		public void setMaxWait(long maxWait) {
+			this.maxWait = maxWait;
+		}
+
+		public int getWindowSize() {
+			return windowSize;
+		}
+
+		public void setWindowSize(int windowSize) {
+			this.windowSize = windowSize;
+		}
+
+		public int getMinimumCalls() {
+			return minimumCalls;
+		}
+
+		public void setMinimumCalls(int minimumCalls) {
+			this.minimumCalls = minimumCalls;
+		}
+
+		public int getFailureRateThreshold() {
+			return failureRateThreshold;
+		}
+
+		public void setFailureRateThreshold(int failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+		}
+
+		public int getSlowCallRateThreshold() {
+			return slowCallRateThreshold;
+		}
+
+		public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+			this.slowCallRateThreshold = slowCallRateThreshold;
+		}
+
+		public long getSlowCallDuration() {
+			return slowCallDuration;
+		}
+
+		public void setSlowCallDuration(long slowCallDuration) {
+			this.slowCallDuration = slowCallDuration;
+		}
+
+		public long getOpenDuration() {
+			return openDuration;
+		}
+
+		public void setOpenDuration(long openDuration) {
+			this.openDuration = openDuration;
+		}
+
+		public int getHalfOpenCalls() {
+			return halfOpenCalls;
+		}
+
+		public void setHalfOpenCalls(int halfOpenCalls) {
+			this.halfOpenCalls = halfOpenCalls;
+		}
+	}
 }
@@ -0,0 +1,777 @@
+package org.giste.club.web.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Class for reading properties of the web pages.
+ * 
+ * @author Giste
+ */
+@ConfigurationProperties(prefix = "web")
+public class ClubWebProperties {
+
+	private final Page page = new Page();
+
+	private final Async async = new Async();
+
+	private final Instrumentation instrumentation = new Instrumentation();
+
+	private final FragmentCache fragmentCache = new FragmentCache();
+
+	private final Stateless stateless = new Stateless();
+
+	private final Bulk bulk = new Bulk();
+
+	private final Csv csv = new Csv();
+
+	private final Prefetch prefetch = new Prefetch();
+
+	private final Search search = new Search();
+
+	private final Unique unique = new Unique();
+
+	private final Eligibility eligibility = new Eligibility();
+
+	/**
+	 * Gets the properties of the pages of entity lists.
+	 * 
+	 * @return The page properties.
+	 */
+	public Page getPage() {
+		return page;
+	}
+
+	/**
+	 * Gets the properties of the asynchronous execution of requests.
+	 * 
+	 * @return The async properties.
+	 */
+	public Async getAsync() {
+		return async;
+	}
+
+	/**
+	 * Gets the properties of the latency instrumentation.
+	 * 
+	 * @return The instrumentation properties.
+	 */
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	/**
+	 * Gets the properties of the cache of rendered fragments.
+	 * 
+	 * @return The fragment cache properties.
+	 */
+	public FragmentCache getFragmentCache() {
+		return fragmentCache;
+	}
+
+	/**
+	 * Gets the properties of the stateless mode, without HTTP sessions.
+	 * 
+	 * @return The stateless properties.
+	 */
+	public Stateless getStateless() {
+		return stateless;
+	}
+
+	/**
+	 * Gets the properties of the bulk actions on entity lists.
+	 * 
+	 * @return The bulk properties.
+	 */
+	public Bulk getBulk() {
+		return bulk;
+	}
+
+	/**
+	 * Gets the properties of the CSV import and export of entities.
+	 * 
+	 * @return The CSV properties.
+	 */
+	public Csv getCsv() {
+		return csv;
+	}
+
+	/**
+	 * Gets the properties of the prefetch of entities shown in lists.
+	 * 
+	 * @return The prefetch properties.
+	 */
+	public Prefetch getPrefetch() {
+		return prefetch;
+	}
+
+	/**
+	 * Gets the properties of the typeahead search of entities.
+	 * 
+	 * @return The search properties.
+	 */
+	public Search getSearch() {
+		return search;
+	}
+
+	/**
+	 * Gets the properties of the local uniqueness checks of entities.
+	 * 
+	 * @return The uniqueness properties.
+	 */
+	public Unique getUnique() {
+		return unique;
+	}
+
+	/**
+	 * Gets the properties of the classification of athletes in categories.
+	 * 
+	 * @return The eligibility properties.
+	 */
+	public Eligibility getEligibility() {
+		return eligibility;
+	}
+
+	/**
+	 * Properties of the pages of entity lists ("web.page" prefix).
+	 */
+	public static class Page {
+
+		/**
+		 * Number of entities in a page when it isn't requested.
+		 */
+		private int defaultSize = 20;
+
+		/**
+		 * Maximum number of entities in a page.
+		 */
+		private int maxSize = 100;
+
+		/**
+		 * Maximum page number. Greater page numbers are lowered to it.
+		 */
+		private int maxPage = 100;
+
+		public int getDefaultSize() {
+			return defaultSize;
+		}
+
+		public void setDefaultSize(int defaultSize) {
+			this.defaultSize = defaultSize;
+		}
+
+		public int getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public int getMaxPage() {
+			return maxPage;
+		}
+
+		public void setMaxPage(int maxPage) {
+			this.maxPage = maxPage;
+		}
+	}
+
+	/**
+	 * Properties of the asynchronous execution of requests ("web.async"
+	 * prefix).
+	 */
+	public static class Async {
+
+		/**
+		 * Whether calls to the REST server are made in a dedicated thread pool,
+		 * freeing the container thread while waiting for the response.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of threads kept in the pool.
+		 */
+		private int corePoolSize = 20;
+
+		/**
+		 * Maximum number of threads in the pool.
+		 */
+		private int maxPoolSize = 50;
+
+		/**
+		 * Maximum number of calls waiting for a thread. Further calls are
+		 * rejected.
+		 */
+		private int queueCapacity = 500;
+
+		/**
+		 * Time in milliseconds before an asynchronous request times out.
+		 */
+		private long timeout = 10000;
+
+		/**
+		 * Whether requests and calls to the REST server run on virtual threads
+		 * instead of pools of platform threads. Needs Java 21 or later, it's
+		 * ignored on older JVMs.
+		 */
+		private boolean virtualThreads = false;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getCorePoolSize() {
+			return corePoolSize;
+		}
+
+		public void setCorePoolSize(int corePoolSize) {
+			this.corePoolSize = corePoolSize;
+		}
+
+		public int getMaxPoolSize() {
+			return maxPoolSize;
+		}
+
+		public void setMaxPoolSize(int maxPoolSize) {
+			this.maxPoolSize = maxPoolSize;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public long getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+
+		public boolean isVirtualThreads() {
+			return virtualThreads;
+		}
+
+		public void setVirtualThreads(boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+		}
+	}
+
+	/**
+	 * Properties of the latency instrumentation of controllers and services
+	 * ("web.instrumentation" prefix).
+	 */
+	public static class Instrumentation {
+
+		/**
+		 * Whether the latency aspect is created. When false there isn't any
+		 * proxy, so methods run without any overhead.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Whether latencies are recorded from startup. Can be changed at
+		 * runtime through JMX.
+		 */
+		private boolean recording = true;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public boolean isRecording() {
+			return recording;
+		}
+
+		public void setRecording(boolean recording) {
+			this.recording = recording;
+		}
+	}
+
+	/**
+	 * Properties of the cache of rendered fragments ("web.fragment-cache"
+	 * prefix).
+	 */
+	public static class FragmentCache {
+
+		/**
+		 * Whether fragments marked with "cache:fragment" are cached per
+		 * locale.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Maximum number of fragments kept in the cache.
+		 */
+		private long maxSize = 1000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(long maxSize) {
+			this.maxSize = maxSize;
+		}
+	}
+
+	/**
+	 * Properties of the stateless mode ("web.stateless" prefix).
+	 */
+	public static class Stateless {
+
+		/**
+		 * Whether HTTP sessions are disabled and the locale is kept in a
+		 * signed cookie instead of the session.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Name of the locale cookie.
+		 */
+		private String cookieName = "club-locale";
+
+		/**
+		 * Time in seconds the locale cookie is kept by the browser.
+		 */
+		private int cookieMaxAge = 31536000;
+
+		/**
+		 * Secret for signing the locale cookie. Must be the same in all nodes.
+		 */
+		private String cookieSecret;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getCookieName() {
+			return cookieName;
+		}
+
+		public void setCookieName(String cookieName) {
+			this.cookieName = cookieName;
+		}
+
+		public int getCookieMaxAge() {
+			return cookieMaxAge;
+		}
+
+		public void setCookieMaxAge(int cookieMaxAge) {
+			this.cookieMaxAge = cookieMaxAge;
+		}
+
+		public String getCookieSecret() {
+			return cookieSecret;
+		}
+
+		public void setCookieSecret(String cookieSecret) {
+			this.cookieSecret = cookieSecret;
+		}
+	}
+
+	/**
+	 * Properties of the bulk actions on entity lists ("web.bulk" prefix).
+	 */
+	public static class Bulk {
+
+		/**
+		 * Maximum number of concurrent calls to the REST server made by a
+		 * bulk action.
+		 */
+		private int concurrency = 8;
+
+		/**
+		 * Maximum number of entities changed by a bulk action. The rest of
+		 * the selected entities aren't changed.
+		 */
+		private int maxSize = 100;
+
+		/**
+		 * Threads calling the REST server for bulk actions and CSV imports,
+		 * shared by all of them.
+		 */
+		private int threads = 16;
+
+		/**
+		 * Maximum number of calls of bulk actions and CSV imports waiting for
+		 * a thread. Calls rejected because it's full are reported as failed.
+		 */
+		private int queueCapacity = 100;
+
+		public int getConcurrency() {
+			return concurrency;
+		}
+
+		public void setConcurrency(int concurrency) {
+			this.concurrency = concurrency;
+		}
+
+		public int getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+	}
+
+	/**
+	 * Properties of the CSV import and export of entities ("web.csv"
+	 * prefix).
+	 */
+	public static class Csv {
+
+		/**
+		 * Maximum number of concurrent calls to the REST server made by an
+		 * import.
+		 */
+		private int importConcurrency = 8;
+
+		/**
+		 * Maximum number of rows with errors shown in the report of an
+		 * import.
+		 */
+		private int maxReportedRows = 1000;
+
+		/**
+		 * Maximum number of characters of a field of an imported row.
+		 */
+		private int maxFieldLength = 1000;
+
+		/**
+		 * Maximum number of characters of an imported row.
+		 */
+		private int maxRecordLength = 10000;
+
+		/**
+		 * Maximum number of imports running at the same time. Further imports
+		 * are rejected.
+		 */
+		private int maxConcurrentImports = 2;
+
+		/**
+		 * Maximum number of exports written at the same time.
+		 */
+		private int exportThreads = 4;
+
+		/**
+		 * Maximum number of exports waiting for a thread. Further exports are
+		 * rejected.
+		 */
+		private int exportQueueCapacity = 10;
+
+		/**
+		 * Time in milliseconds before an export times out.
+		 */
+		private long exportTimeout = 600000;
+
+		public int getImportConcurrency() {
+			return importConcurrency;
+		}
+
+		public void setImportConcurrency(int importConcurrency) {
+			this.importConcurrency = importConcurrency;
+		}
+
+		public int getMaxReportedRows() {
+			return maxReportedRows;
+		}
+
+		public void setMaxReportedRows(int maxReportedRows) {
+			this.maxReportedRows = maxReportedRows;
+		}
+
+		public int getMaxFieldLength() {
+			return maxFieldLength;
+		}
+
+		public void setMaxFieldLength(int maxFieldLength) {
+			this.maxFieldLength = maxFieldLength;
+		}
+
+		public int getMaxRecordLength() {
+			return maxRecordLength;
+		}
+
+		public void setMaxRecordLength(int maxRecordLength) {
+			this.maxRecordLength = maxRecordLength;
+		}
+
+		public int getMaxConcurrentImports() {
+			return maxConcurrentImports;
+		}
+
+		public void setMaxConcurrentImports(int maxConcurrentImports) {
+			this.maxConcurrentImports = maxConcurrentImports;
+		}
+
+		public int getExportThreads() {
+			return exportThreads;
+		}
+
+		public void setExportThreads(int exportThreads) {
+			this.exportThreads = exportThreads;
+		}
+
+		public int getExportQueueCapacity() {
+			return exportQueueCapacity;
+		}
+
+		public void setExportQueueCapacity(int exportQueueCapacity) {
+			this.exportQueueCapacity = exportQueueCapacity;
+		}
+
+		public long getExportTimeout() {
+			return exportTimeout;
+		}
+
+		public void setExportTimeout(long exportTimeout) {
+			this.exportTimeout = exportTimeout;
+		}
+	}
+
+	/**
+	 * Properties of the prefetch of the entities shown in club and user lists
+	 * ("web.prefetch" prefix).
+	 */
+	public static class Prefetch {
+
+		/**
+		 * Whether the first entities of a list are read in the background
+		 * before they are requested. Needs the cache of entities.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of entities of a list that are prefetched, from the first
+		 * one.
+		 */
+		private int depth = 5;
+
+		/**
+		 * Number of threads used to prefetch entities.
+		 */
+		private int threads = 2;
+
+		/**
+		 * Maximum number of entities waiting to be prefetched. Entities above
+		 * it aren't prefetched.
+		 */
+		private int queueCapacity = 100;
+
+		/**
+		 * Maximum number of prefetched entities kept for each resource.
+		 */
+		private long maxSize = 1000;
+
+		/**
+		 * Time in milliseconds a prefetched entity is kept.
+		 */
+		private long timeToLive = 30000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		public void setDepth(int depth) {
+			this.depth = depth;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public long getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(long maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public long getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(long timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+	}
+
+	/**
+	 * Properties of the typeahead search of clubs and users ("web.search"
+	 * prefix).
+	 */
+	public static class Search {
+
+		/**
+		 * Whether clubs and users are indexed in memory for typeahead
+		 * searches.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Maximum number of results of a search.
+		 */
+		private int maxResults = 10;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxResults() {
+			return maxResults;
+		}
+
+		public void setMaxResults(int maxResults) {
+			this.maxResults = maxResults;
+		}
+	}
+
+	/**
+	 * Properties of the local uniqueness checks of club acronyms, user emails
+	 * and category names ("web.unique" prefix).
+	 */
+	public static class Unique {
+
+		/**
+		 * Whether values of unique fields are indexed in memory, for checking
+		 * them while forms are filled in.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Number of values each Bloom filter is sized for. Filters grow when
+		 * there are more values.
+		 */
+		private int expectedValues = 10000;
+
+		/**
+		 * Rate of false positives of the Bloom filters, between 0 and 1.
+		 */
+		private double falsePositiveRate = 0.01;
+
+		/**
+		 * Time in milliseconds an index is trusted since it was synchronized
+		 * with the REST server. Older indexes are synchronized before being
+		 * checked.
+		 */
+		private long maxAge = 60000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getExpectedValues() {
+			return expectedValues;
+		}
+
+		public void setExpectedValues(int expectedValues) {
+			this.expectedValues = expectedValues;
+		}
+
+		public double getFalsePositiveRate() {
+			return falsePositiveRate;
+		}
+
+		public void setFalsePositiveRate(double falsePositiveRate) {
+			this.falsePositiveRate = falsePositiveRate;
+		}
+
+		public long getMaxAge() {
+			return maxAge;
+		}
+
+		public void setMaxAge(long maxAge) {
+			this.maxAge = maxAge;
+		}
+	}
+
+	/**
+	 * Properties of the classification of athletes in categories by age
+	 * ("web.eligibility" prefix).
+	 */
+	public static class Eligibility {
+
+		/**
+		 * Maximum number of birth dates classified in one request.
+		 */
+		private int maxBatchSize = 10000;
+
+		public int getMaxBatchSize() {
+			return maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+	}
+}
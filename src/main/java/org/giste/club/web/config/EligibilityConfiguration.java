@@ -0,0 +1,24 @@
+package org.giste.club.web.config;
+
+import org.giste.club.web.eligibility.AgeCategoryIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the age index of categories.
+ * 
+ * @author Giste
+ */
+@Configuration
+public class EligibilityConfiguration {
+
+	/**
+	 * Provides the age index of categories.
+	 * 
+	 * @return The age index of categories.
+	 */
+	@Bean
+	public AgeCategoryIndex ageCategoryIndex() {
+		return new AgeCategoryIndex();
+	}
+}
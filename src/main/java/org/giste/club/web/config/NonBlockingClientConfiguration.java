@@ -0,0 +1,124 @@
+package org.giste.club.web.config;
+
+import java.io.IOException;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.giste.club.web.service.nonblocking.NonBlockingRestClient;
+import org.giste.club.web.service.resilience.ResilienceInterceptor;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Spring configuration for the non-blocking HTTP client used with the
+ * "reactive" profile. A few I/O threads handle all the concurrent calls to the
+ * REST server. Pool limits and timeouts are the ones of
+ * {@link ClubRestProperties.Pool}.
+ * 
+ * @author Giste
+ */
+@Configuration
+@Profile("reactive")
+public class NonBlockingClientConfiguration {
+
+	private final ClubRestProperties restProperties;
+	private final ClubRestProperties.Pool poolProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the REST server.
+	 * 
+	 * @param restProperties Properties of the REST server.
+	 */
+	public NonBlockingClientConfiguration(ClubRestProperties restProperties) {
+		this.restProperties = restProperties;
+		this.poolProperties = restProperties.getPool();
+	}
+
+	/**
+	 * Provides the non-blocking HTTP client.
+	 * 
+	 * @return The CloseableHttpAsyncClient bean.
+	 */
+	@Bean(destroyMethod = "close")
+	public CloseableHttpAsyncClient restAsyncHttpClient() {
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(poolProperties.getConnectTimeout())
+				.setSocketTimeout(poolProperties.getReadTimeout())
+				.setConnectionRequestTimeout(poolProperties.getConnectionRequestTimeout())
+				.build();
+		IOReactorConfig reactorConfig = IOReactorConfig.custom()
+				.setIoThreadCount(poolProperties.getIoThreads())
+				.build();
+
+		return HttpAsyncClients.custom()
+				.setMaxConnTotal(poolProperties.getMaxTotal())
+				.setMaxConnPerRoute(poolProperties.getMaxPerRoute())
+				.setDefaultRequestConfig(requestConfig)
+				.setDefaultIOReactorConfig(reactorConfig)
+				.build();
+	}
+
+	/**
+	 * Provides the AsyncRestTemplate used to communicate with the REST server
+	 * without blocking. Error responses go through the error handler of the
+	 * blocking RestTemplate, so both fail the same way, and calls are guarded
+	 * by the same resilience interceptor, if enabled.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param resilienceInterceptor Guard of the calls to each resource, if
+	 *            enabled.
+	 * @return The AsyncRestTemplate bean.
+	 */
+	@Bean
+	public AsyncRestTemplate asyncRestTemplate(RestTemplate restTemplate,
+			ObjectProvider<ResilienceInterceptor> resilienceInterceptor) {
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate(
+				new HttpComponentsAsyncClientHttpRequestFactory(restAsyncHttpClient()));
+		ResilienceInterceptor interceptor = resilienceInterceptor.getIfAvailable();
+		if (interceptor != null) {
+			asyncRestTemplate.getInterceptors().add(interceptor);
+		}
+		asyncRestTemplate.setErrorHandler(new ResponseErrorHandler() {
+			// The handler is looked up on each error, as it can be set after
+			// this bean is created.
+			@Override
+			public boolean hasError(ClientHttpResponse response) throws IOException {
+				return restTemplate.getErrorHandler().hasError(response);
+			}
+
+			@Override
+			public void handleError(ClientHttpResponse response) throws IOException {
+				restTemplate.getErrorHandler().handleError(response);
+			}
+		});
+
+		return asyncRestTemplate;
+	}
+
+	/**
+	 * Provides the client for non-blocking requests to the REST server.
+	 * 
+	 * @param asyncRestTemplate AsyncRestTemplate used to communicate with REST
+	 *            server.
+	 * @param streamingReader Reader used to read pages from the responses.
+	 * @param objectMapper ObjectMapper used to read the errors.
+	 * @return The NonBlockingRestClient bean.
+	 */
+	@Bean
+	public NonBlockingRestClient nonBlockingRestClient(AsyncRestTemplate asyncRestTemplate,
+			StreamingRestReader streamingReader, ObjectMapper objectMapper) {
+		return new NonBlockingRestClient(asyncRestTemplate, restProperties, streamingReader, objectMapper);
+	}
+}
@@ -0,0 +1,59 @@
+package org.giste.club.web.config;
+
+import org.giste.club.web.service.resilience.Bulkhead;
+import org.giste.club.web.service.resilience.CircuitBreaker;
+import org.giste.club.web.service.resilience.ResilienceInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the bulkheads and circuit breakers of the
+ * resources of the REST server. They are created if property
+ * "rest.resilience.enabled" isn't false.
+ * 
+ * @author Giste
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rest.resilience", name = "enabled", matchIfMissing = true)
+public class ResilienceConfiguration {
+
+	private final ClubRestProperties restProperties;
+	private final ClubRestProperties.Resilience resilienceProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the REST server.
+	 * 
+	 * @param restProperties Properties of the REST server.
+	 */
+	public ResilienceConfiguration(ClubRestProperties restProperties) {
+		this.restProperties = restProperties;
+		this.resilienceProperties = restProperties.getResilience();
+	}
+
+	/**
+	 * Provides the interceptor that guards the calls to each resource of the
+	 * REST server.
+	 * 
+	 * @return The ResilienceInterceptor bean.
+	 */
+	@Bean
+	public ResilienceInterceptor resilienceInterceptor() {
+		return new ResilienceInterceptor(restProperties.getPath(), this::newBulkhead, this::newCircuitBreaker);
+	}
+
+	private Bulkhead newBulkhead(String resource) {
+		Integer maxConcurrentCalls = resilienceProperties.getResourceMaxConcurrentCalls().get(resource);
+
+		return new Bulkhead(
+				maxConcurrentCalls != null ? maxConcurrentCalls : resilienceProperties.getMaxConcurrentCalls(),
+				resilienceProperties.getMaxWait());
+	}
+
+	private CircuitBreaker newCircuitBreaker(String resource) {
+		return new CircuitBreaker(resource, resilienceProperties.getWindowSize(),
+				resilienceProperties.getMinimumCalls(), resilienceProperties.getFailureRateThreshold(),
+				resilienceProperties.getSlowCallRateThreshold(), resilienceProperties.getSlowCallDuration(),
+				resilienceProperties.getOpenDuration(), resilienceProperties.getHalfOpenCalls(), System::nanoTime);
+	}
+}
@@ -0,0 +1,138 @@
+package org.giste.club.web.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.giste.club.web.service.cache.ConditionalRestReader;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Spring configuration for the HTTP client used to communicate with the REST
+ * server. Connections are pooled and kept alive using the properties in
+ * {@link ClubRestProperties.Pool}.
+ * 
+ * @author Giste
+ */
+@Configuration
+public class RestClientConfiguration {
+
+	private final ClubRestProperties restProperties;
+	private final ClubRestProperties.Pool poolProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the REST server.
+	 * 
+	 * @param restProperties Properties of the REST server.
+	 */
+	public RestClientConfiguration(ClubRestProperties restProperties) {
+		this.restProperties = restProperties;
+		this.poolProperties = restProperties.getPool();
+	}
+
+	/**
+	 * Provides the pool of HTTP connections to the REST server.
+	 * 
+	 * @return The PoolingHttpClientConnectionManager bean.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public PoolingHttpClientConnectionManager restConnectionManager() {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(poolProperties.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(poolProperties.getMaxPerRoute());
+
+		return connectionManager;
+	}
+
+	/**
+	 * Provides the HTTP client. Keep-alive time is the one sent by the server,
+	 * limited to the configured one. Idle and expired connections are evicted
+	 * by a background thread of the client.
+	 * 
+	 * @return The CloseableHttpClient bean.
+	 */
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient restHttpClient() {
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(poolProperties.getConnectTimeout())
+				.setSocketTimeout(poolProperties.getReadTimeout())
+				.setConnectionRequestTimeout(poolProperties.getConnectionRequestTimeout())
+				.build();
+
+		return HttpClientBuilder.create()
+				.setConnectionManager(restConnectionManager())
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(keepAliveStrategy())
+				.evictExpiredConnections()
+				.evictIdleConnections(poolProperties.getIdleEviction(), TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * Provides the request factory used by the RestTemplate.
+	 * 
+	 * @return The ClientHttpRequestFactory bean.
+	 */
+	@Bean
+	public ClientHttpRequestFactory restRequestFactory() {
+		return new HttpComponentsClientHttpRequestFactory(restHttpClient());
+	}
+
+	/**
+	 * Provides the gauges of the connection pool for the metrics endpoint.
+	 * 
+	 * @return The RestClientPoolMetrics bean.
+	 */
+	@Bean
+	public RestClientPoolMetrics restClientPoolMetrics() {
+		return new RestClientPoolMetrics(restConnectionManager());
+	}
+
+	/**
+	 * Provides the reader for conditional GET requests to the REST server.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @return The ConditionalRestReader bean.
+	 */
+	@Bean
+	public ConditionalRestReader conditionalRestReader(RestTemplate restTemplate) {
+		return new ConditionalRestReader(restTemplate, restProperties);
+	}
+
+	/**
+	 * Provides the reader for streaming pages of lists from the REST server.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param objectMapper ObjectMapper used to read the list elements.
+	 * @return The StreamingRestReader bean.
+	 */
+	@Bean
+	public StreamingRestReader streamingRestReader(RestTemplate restTemplate, ObjectMapper objectMapper) {
+		return new StreamingRestReader(restTemplate, restProperties, objectMapper);
+	}
+
+	private ConnectionKeepAliveStrategy keepAliveStrategy() {
+		final long maxKeepAlive = poolProperties.getKeepAlive();
+
+		return (response, context) -> {
+			long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			if (keepAlive < 0 || keepAlive > maxKeepAlive) {
+				// Server didn't send a timeout or it's greater than ours.
+				keepAlive = maxKeepAlive;
+			}
+
+			return keepAlive;
+		};
+	}
+}
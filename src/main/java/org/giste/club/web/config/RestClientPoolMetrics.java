@@ -0,0 +1,44 @@
+package org.giste.club.web.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Exposes the state of the HTTP connection pool to the REST server as gauges
+ * in the metrics endpoint.
+ * 
+ * @author Giste
+ */
+public class RestClientPoolMetrics implements PublicMetrics {
+
+	private static final String PREFIX = "rest.pool.";
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	/**
+	 * Constructs the metrics for a connection pool.
+	 * 
+	 * @param connectionManager The connection pool.
+	 */
+	public RestClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+		this.connectionManager = connectionManager;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		PoolStats stats = connectionManager.getTotalStats();
+
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>(PREFIX + "leased", stats.getLeased()));
+		metrics.add(new Metric<>(PREFIX + "pending", stats.getPending()));
+		metrics.add(new Metric<>(PREFIX + "available", stats.getAvailable()));
+		metrics.add(new Metric<>(PREFIX + "max", stats.getMax()));
+
+		return metrics;
+	}
+}
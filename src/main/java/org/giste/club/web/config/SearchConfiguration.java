@@ -0,0 +1,43 @@
+package org.giste.club.web.config;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.search.SearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the typeahead search indexes of clubs and users.
+ * Indexes are created if property "web.search.enabled" isn't false.
+ * 
+ * @author Giste
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "web.search", name = "enabled", matchIfMissing = true)
+public class SearchConfiguration {
+
+	/**
+	 * Provides the search index of clubs, by name and acronym.
+	 * 
+	 * @return The search index of clubs.
+	 */
+	@Bean
+	public SearchIndex<ClubDto> clubSearchIndex() {
+		return new SearchIndex<ClubDto>("clubs", ClubDto::getId)
+				.field(ClubDto::getName)
+				.field(ClubDto::getAcronym);
+	}
+
+	/**
+	 * Provides the search index of users, by name and email.
+	 * 
+	 * @return The search index of users.
+	 */
+	@Bean
+	public SearchIndex<UserDto> userSearchIndex() {
+		return new SearchIndex<UserDto>("users", UserDto::getId)
+				.field(UserDto::getName)
+				.field(UserDto::getEmail);
+	}
+}
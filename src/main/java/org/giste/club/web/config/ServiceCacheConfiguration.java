@@ -0,0 +1,105 @@
+package org.giste.club.web.config;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.CategoryRestService;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.giste.club.web.service.cache.EntityCache;
+import org.giste.club.web.service.cache.ListRefresher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the caches of entities read from the REST server.
+ * Caches are created if property "rest.cache.enabled" isn't false. Lists of
+ * the resources with a refresh interval are refreshed in the background.
+ * 
+ * @author Giste
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rest.cache", name = "enabled", matchIfMissing = true)
+public class ServiceCacheConfiguration {
+
+	private final ClubRestProperties.Cache cacheProperties;
+
+	/**
+	 * Constructs the configuration with the properties of the REST server.
+	 * 
+	 * @param restProperties Properties of the REST server.
+	 */
+	public ServiceCacheConfiguration(ClubRestProperties restProperties) {
+		this.cacheProperties = restProperties.getCache();
+	}
+
+	/**
+	 * Provides the cache for clubs.
+	 * 
+	 * @return The cache for clubs.
+	 */
+	@Bean
+	public EntityCache<ClubDto> clubCache() {
+		return newCache("clubs");
+	}
+
+	/**
+	 * Provides the cache for users.
+	 * 
+	 * @return The cache for users.
+	 */
+	@Bean
+	public EntityCache<UserDto> userCache() {
+		return newCache("users");
+	}
+
+	/**
+	 * Provides the cache for categories.
+	 * 
+	 * @return The cache for categories.
+	 */
+	@Bean
+	public EntityCache<CategoryDto> categoryCache() {
+		return newCache("categories");
+	}
+
+	/**
+	 * Provides the refresher of the lists of the caches, reading them from
+	 * the services that aren't cached.
+	 * 
+	 * @param clubRestService Service used to read clubs.
+	 * @param userRestService Service used to read users.
+	 * @param categoryRestService Service used to read categories.
+	 * @return The ListRefresher bean.
+	 */
+	@Bean(destroyMethod = "close")
+	public ListRefresher listRefresher(@Qualifier("clubRestServiceImpl") ClubRestService clubRestService,
+			@Qualifier("userRestServiceImpl") UserRestService userRestService,
+			@Qualifier("categoryRestServiceImpl") CategoryRestService categoryRestService) {
+		ListRefresher refresher = new ListRefresher(cacheProperties.getRefreshThreads(),
+				cacheProperties.getRefreshJitter());
+		schedule(refresher, clubCache(), clubRestService::findAll);
+		schedule(refresher, userCache(), userRestService::findAll);
+		schedule(refresher, categoryCache(), categoryRestService::findAll);
+
+		return refresher;
+	}
+
+	private <DTO> EntityCache<DTO> newCache(String name) {
+		return new EntityCache<>(name, cacheProperties.getMaxSize(), cacheProperties.getTimeToLive(),
+				cacheProperties.isStreamPages(), cacheProperties.getRefreshInterval().containsKey(name),
+				cacheProperties.getMaxStale());
+	}
+
+	private <DTO> void schedule(ListRefresher refresher, EntityCache<DTO> cache, Supplier<List<DTO>> loader) {
+		Long interval = cacheProperties.getRefreshInterval().get(cache.getName());
+		if (interval != null) {
+			refresher.schedule(cache, loader, interval);
+		}
+	}
+}
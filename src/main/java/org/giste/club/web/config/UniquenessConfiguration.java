@@ -0,0 +1,71 @@
+package org.giste.club.web.config;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.unique.UniqueIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the local uniqueness indexes of club acronyms, user
+ * emails and category names. Indexes are created if property
+ * "web.unique.enabled" isn't false.
+ * 
+ * @author Giste
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "web.unique", name = "enabled", matchIfMissing = true)
+public class UniquenessConfiguration {
+
+	private final ClubWebProperties.Unique uniqueProperties;
+
+	/**
+	 * Constructs the configuration.
+	 * 
+	 * @param webProperties Properties of the web pages.
+	 */
+	public UniquenessConfiguration(ClubWebProperties webProperties) {
+		this.uniqueProperties = webProperties.getUnique();
+	}
+
+	/**
+	 * Provides the uniqueness index of club acronyms.
+	 * 
+	 * @return The index of club acronyms.
+	 */
+	@Bean
+	public UniqueIndex<ClubDto> clubAcronymIndex() {
+		return newIndex("clubs.acronym", ClubDto::getId, ClubDto::getAcronym);
+	}
+
+	/**
+	 * Provides the uniqueness index of user emails.
+	 * 
+	 * @return The index of user emails.
+	 */
+	@Bean
+	public UniqueIndex<UserDto> userEmailIndex() {
+		return newIndex("users.email", UserDto::getId, UserDto::getEmail);
+	}
+
+	/**
+	 * Provides the uniqueness index of category names.
+	 * 
+	 * @return The index of category names.
+	 */
+	@Bean
+	public UniqueIndex<CategoryDto> categoryNameIndex() {
+		return newIndex("categories.name", CategoryDto::getId, CategoryDto::getName);
+	}
+
+	private <DTO> UniqueIndex<DTO> newIndex(String name, ToLongFunction<DTO> id,
+			Function<DTO, String> field) {
+		return new UniqueIndex<>(name, id, field, uniqueProperties.getExpectedValues(),
+				uniqueProperties.getFalsePositiveRate(), uniqueProperties.getMaxAge());
+	}
+}
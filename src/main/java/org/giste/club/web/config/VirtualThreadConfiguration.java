@@ -0,0 +1,59 @@
+package org.giste.club.web.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.giste.club.web.concurrent.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for handling requests on virtual threads. Created if
+ * property "web.async.virtual-threads" is true. When the JVM has virtual
+ * threads, each request to Tomcat is handled in a new virtual thread instead
+ * of the pool of the connector, so "server.tomcat.max-threads" no longer
+ * limits the requests waiting for the REST server. The connection pool of the
+ * REST client and the bulkheads of its resources still do. On older JVMs the
+ * pool of the connector is kept.
+ * 
+ * @author Giste
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "web.async", name = "virtual-threads")
+public class VirtualThreadConfiguration {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * Provides the customizer that sets the executor of the Tomcat connectors.
+	 * 
+	 * @return The EmbeddedServletContainerCustomizer bean.
+	 */
+	@Bean
+	public EmbeddedServletContainerCustomizer virtualThreadContainerCustomizer() {
+		return container -> {
+			if (!VirtualThreads.isSupported()) {
+				LOGGER.warn("Virtual threads need Java 21 or later, running on {}: using platform threads",
+						System.getProperty("java.version"));
+				return;
+			}
+			if (!(container instanceof TomcatEmbeddedServletContainerFactory)) {
+				LOGGER.warn("Virtual threads are only set in Tomcat, using platform threads in {}",
+						container.getClass().getSimpleName());
+				return;
+			}
+
+			LOGGER.info("Handling requests on virtual threads");
+			((TomcatEmbeddedServletContainerFactory) container).addConnectorCustomizers(connector -> {
+				ProtocolHandler handler = connector.getProtocolHandler();
+				if (handler instanceof AbstractProtocol) {
+					((AbstractProtocol<?>) handler).setExecutor(VirtualThreads.newExecutor("http-"));
+				}
+			});
+		};
+	}
+}
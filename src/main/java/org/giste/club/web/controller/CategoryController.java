@@ -1,17 +1,36 @@
 package org.giste.club.web.controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.validation.Valid;
 
 import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.csv.CsvImporter;
+import org.giste.club.web.csv.ImportReport;
+import org.giste.club.web.export.EntityExporter;
+import org.giste.club.web.service.CategoryRestService;
 import org.giste.club.web.service.exception.DuplicatedCategoryNameException;
 import org.giste.spring.util.controller.CrudController;
-import org.giste.spring.util.service.BaseRestService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for managing categories.
@@ -22,13 +41,31 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @RequestMapping("/categories")
 public class CategoryController extends CrudController<CategoryDto> {
 
+	private static final EntityExporter<CategoryDto> EXPORTER = new EntityExporter<CategoryDto>()
+			.column("id", CategoryDto::getId)
+			.column("name", CategoryDto::getName)
+			.column("minAge", CategoryDto::getMinAge)
+			.column("maxAge", CategoryDto::getMaxAge)
+			.column("mixed", CategoryDto::isMixed);
+
+	private final CategoryRestService categoryRestService;
+	private final Executor restExecutor;
+	private final CsvImporter csvImporter;
+
 	/**
 	 * Constructs a new controller for managing categories.
 	 * 
-	 * @param restService RestService for communicating with REST server.
+	 * @param categoryRestService RestService for communicating with REST
+	 *            server.
+	 * @param csvImporter Importer of CSV files.
+	 * @param restExecutor Executor for calls to the REST server.
 	 */
-	public CategoryController(BaseRestService<CategoryDto> restService) {
-		super(restService);
+	public CategoryController(CategoryRestService categoryRestService, CsvImporter csvImporter,
+			@Qualifier("restExecutor") Executor restExecutor) {
+		super(categoryRestService);
+		this.categoryRestService = categoryRestService;
+		this.csvImporter = csvImporter;
+		this.restExecutor = restExecutor;
 	}
 
 	@Override
@@ -46,6 +83,32 @@ public class CategoryController extends CrudController<CategoryDto> {
 		return "/categories";
 	}
 
+	/**
+	 * Shows a page of the category list. Page is selected with params "page",
+	 * "size" and "sort". The REST server is called with the REST executor, so
+	 * the container thread is released while waiting for it in async mode.
+	 * 
+	 * @param pageable The requested page.
+	 * @return Future for the view of the category list.
+	 */
+	@GetMapping(params = "page")
+	public CompletableFuture<ModelAndView> findPage(Pageable pageable) {
+		return categoryRestService.findAllAsync(pageable, restExecutor)
+				.thenApply(page -> ListViews.ofPage("categoryList", page, pageable));
+	}
+
+	/**
+	 * Shows the first page of the category list when no page is requested, so the
+	 * list is always paged. Params "size" and "sort" are still used.
+	 * 
+	 * @param pageable The requested page, with page number 0.
+	 * @return Future for the view of the category list.
+	 */
+	@GetMapping(params = "!page")
+	public CompletableFuture<ModelAndView> findFirstPage(Pageable pageable) {
+		return findPage(pageable);
+	}
+
 	@Override
 	@PostMapping
 	public String create(@Valid @ModelAttribute("entity") final CategoryDto category, BindingResult result) {
@@ -74,4 +137,36 @@ public class CategoryController extends CrudController<CategoryDto> {
 
 		return "category";
 	}
+
+	/**
+	 * Creates the categories of a CSV file. The first row has the names of the
+	 * properties. The view shows the rows that couldn't be created.
+	 * 
+	 * @param file The uploaded CSV file, in UTF-8.
+	 * @param locale Locale of the error messages.
+	 * @return The view of the import report.
+	 * @throws IOException If the file can't be read.
+	 */
+	@PostMapping("/import")
+	public ModelAndView importCsv(@RequestParam("file") MultipartFile file, Locale locale) throws IOException {
+		try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+			ImportReport report = csvImporter.importCsv(reader, CategoryDto::new, categoryRestService::create,
+					DuplicatedCategoryNameException.class, locale);
+
+			return ListViews.ofImport("/categories", report);
+		}
+	}
+
+	/**
+	 * Exports all categories. Rows are written to the response while they
+	 * are read from the REST server.
+	 * 
+	 * @param format Format of the export, "csv" or "json".
+	 * @return The response with the export.
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(name = "format", defaultValue = "csv") String format) {
+		return Exports.of("categories", format, EXPORTER, categoryRestService::forEach);
+	}
 }
@@ -1,17 +1,41 @@
 package org.giste.club.web.controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.validation.Valid;
 
 import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.csv.CsvImporter;
+import org.giste.club.web.csv.ImportReport;
+import org.giste.club.web.export.EntityExporter;
+import org.giste.club.web.service.BulkResult;
 import org.giste.club.web.service.ClubRestService;
 import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
 import org.giste.spring.util.controller.CrudeController;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for club actions.
@@ -22,14 +46,38 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @RequestMapping("/clubs")
 public class ClubController extends CrudeController<ClubDto> {
 
+	private static final EntityExporter<ClubDto> EXPORTER = new EntityExporter<ClubDto>()
+			.column("id", ClubDto::getId)
+			.column("name", ClubDto::getName)
+			.column("acronym", ClubDto::getAcronym)
+			.column("enabled", ClubDto::isEnabled);
+
+	private final ClubRestService clubRestService;
+	private final ClubWebProperties.Bulk bulkProperties;
+	private final CsvImporter csvImporter;
+	private final Executor restExecutor;
+	private final Executor bulkExecutor;
+
 	/**
 	 * Construct the controller with a service used to perform actions on a REST
 	 * server.
 	 * 
 	 * @param clubRestService Service used to communicate with REST server.
+	 * @param webProperties Properties of the web pages.
+	 * @param csvImporter Importer of CSV files.
+	 * @param restExecutor Executor for calls to the REST server.
+	 * @param bulkExecutor Executor for the calls to the REST server of bulk
+	 *            actions.
 	 */
-	public ClubController(ClubRestService clubRestService) {
+	public ClubController(ClubRestService clubRestService, ClubWebProperties webProperties,
+			CsvImporter csvImporter, @Qualifier("restExecutor") Executor restExecutor,
+			@Qualifier("bulkExecutor") Executor bulkExecutor) {
 		super(clubRestService);
+		this.clubRestService = clubRestService;
+		this.bulkProperties = webProperties.getBulk();
+		this.csvImporter = csvImporter;
+		this.restExecutor = restExecutor;
+		this.bulkExecutor = bulkExecutor;
 	}
 
 	private String treatDuplicatedAcronym(ClubDto club, BindingResult result) {
@@ -76,4 +124,94 @@ public class ClubController extends CrudeController<ClubDto> {
 		return "/clubs";
 	}
 
+	/**
+	 * Shows a page of the club list. Page is selected with params "page",
+	 * "size" and "sort". The REST server is called with the REST executor, so
+	 * the container thread is released while waiting for it in async mode.
+	 * 
+	 * @param pageable The requested page.
+	 * @return Future for the view of the club list.
+	 */
+	@GetMapping(params = "page")
+	public CompletableFuture<ModelAndView> findPage(Pageable pageable) {
+		return clubRestService.findAllAsync(pageable, restExecutor)
+				.thenApply(page -> ListViews.ofPage("clubList", page, pageable));
+	}
+
+	/**
+	 * Shows the first page of the club list when no page is requested, so the
+	 * list is always paged. Params "size" and "sort" are still used.
+	 * 
+	 * @param pageable The requested page, with page number 0.
+	 * @return Future for the view of the club list.
+	 */
+	@GetMapping(params = "!page")
+	public CompletableFuture<ModelAndView> findFirstPage(Pageable pageable) {
+		return findPage(pageable);
+	}
+
+	/**
+	 * Enables or disables the selected clubs. Clubs are changed concurrently,
+	 * at most "web.bulk.max-size" of them: the rest are reported as not
+	 * changed. Once all of them are done, the view shows the result of every
+	 * club. It's rendered directly instead of redirecting with flash
+	 * attributes, so no HTTP session is needed.
+	 * 
+	 * @param ids Identifiers of the selected clubs.
+	 * @param enabled Whether the clubs are enabled or disabled.
+	 * @return Future for the view of the bulk report.
+	 */
+	@PostMapping("/bulk")
+	public CompletableFuture<ModelAndView> setEnabled(
+			@RequestParam(name = "ids", required = false) List<Long> ids,
+			@RequestParam("enabled") boolean enabled) {
+		final List<Long> selected = ids == null ? Collections.emptyList() : ids;
+		final int maxSize = bulkProperties.getMaxSize();
+		final List<Long> changed = selected.size() > maxSize ? selected.subList(0, maxSize) : selected;
+
+		CompletableFuture<List<BulkResult<ClubDto>>> results = changed.isEmpty()
+				? CompletableFuture.completedFuture(Collections.emptyList())
+				: clubRestService.setEnabledAsync(changed, enabled, bulkProperties.getConcurrency(), bulkExecutor);
+
+		return results.thenApply(bulkResults -> {
+			List<BulkResult<ClubDto>> allResults = new ArrayList<>(bulkResults);
+			for (Long id : selected.subList(changed.size(), selected.size())) {
+				allResults.add(BulkResult.failure(id, "Not changed, more than " + maxSize + " clubs selected"));
+			}
+
+			return ListViews.ofBulk("clubBulk", "/clubs", allResults);
+		});
+	}
+
+	/**
+	 * Creates the clubs of a CSV file. The first row has the names of the
+	 * properties. The view shows the rows that couldn't be created.
+	 * 
+	 * @param file The uploaded CSV file, in UTF-8.
+	 * @param locale Locale of the error messages.
+	 * @return The view of the import report.
+	 * @throws IOException If the file can't be read.
+	 */
+	@PostMapping("/import")
+	public ModelAndView importCsv(@RequestParam("file") MultipartFile file, Locale locale) throws IOException {
+		try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+			ImportReport report = csvImporter.importCsv(reader, ClubDto::new, clubRestService::create,
+					DuplicatedClubAcronymException.class, locale);
+
+			return ListViews.ofImport("/clubs", report);
+		}
+	}
+
+	/**
+	 * Exports all clubs. Rows are written to the response while they are read
+	 * from the REST server.
+	 * 
+	 * @param format Format of the export, "csv" or "json".
+	 * @return The response with the export.
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(name = "format", defaultValue = "csv") String format) {
+		return Exports.of("clubs", format, EXPORTER, clubRestService::forEach);
+	}
 }
@@ -0,0 +1,98 @@
+package org.giste.club.web.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.eligibility.AgeCategoryIndex;
+import org.giste.club.web.eligibility.AgeClassification;
+import org.giste.club.web.eligibility.TooManyBirthDatesException;
+import org.giste.club.web.service.CategoryRestService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for finding the categories athletes can join by age. Results are
+ * JSON and come from the in-memory age index of categories, which is only
+ * built from the list of all categories after they change.
+ * 
+ * @author Giste
+ */
+@RestController
+@RequestMapping("/categories")
+public class EligibilityController {
+
+	private final CategoryRestService categoryRestService;
+	private final AgeCategoryIndex index;
+	private final int maxBatchSize;
+
+	/**
+	 * Constructs the controller with the index and the service used to build
+	 * it.
+	 * 
+	 * @param categoryRestService Service used to read all categories.
+	 * @param index Age index of categories.
+	 * @param webProperties Properties of the web pages.
+	 */
+	public EligibilityController(CategoryRestService categoryRestService, AgeCategoryIndex index,
+			ClubWebProperties webProperties) {
+		this.categoryRestService = categoryRestService;
+		this.index = index;
+		this.maxBatchSize = webProperties.getEligibility().getMaxBatchSize();
+	}
+
+	/**
+	 * Finds the categories an athlete of an age can join.
+	 * 
+	 * @param age The age of the athlete.
+	 * @return The categories, ordered by minimum age.
+	 */
+	@GetMapping(path = "/eligible", params = "age")
+	public List<CategoryDto> findByAge(@RequestParam("age") int age) {
+		return index.findByAge(age, categoryRestService::findAll);
+	}
+
+	/**
+	 * Finds the categories an athlete born on a date can join.
+	 * 
+	 * @param birthDate Birth date of the athlete (yyyy-MM-dd).
+	 * @param on Date when the age is computed (yyyy-MM-dd), today if it's
+	 *            missing.
+	 * @return The categories, ordered by minimum age.
+	 */
+	@GetMapping(path = "/eligible", params = "birthDate")
+	public List<CategoryDto> findByBirthDate(
+			@RequestParam("birthDate") @DateTimeFormat(iso = ISO.DATE) LocalDate birthDate,
+			@RequestParam(name = "on", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate on) {
+		return index.findByBirthDate(birthDate, on == null ? LocalDate.now() : on, categoryRestService::findAll);
+	}
+
+	/**
+	 * Classifies birth dates in the categories athletes born on them can
+	 * join. Thousands of dates can be sent at once, up to the configured
+	 * maximum: they are classified in a single pass.
+	 * 
+	 * @param birthDates Birth dates of the athletes (yyyy-MM-dd).
+	 * @param on Date when the ages are computed (yyyy-MM-dd), today if it's
+	 *            missing.
+	 * @return The classification of each birth date, in the same order.
+	 * @throws TooManyBirthDatesException If more dates than the maximum are
+	 *             sent.
+	 */
+	@PostMapping("/classify")
+	public List<AgeClassification> classify(@RequestBody List<String> birthDates,
+			@RequestParam(name = "on", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate on) {
+		if (birthDates.size() > maxBatchSize) {
+			throw new TooManyBirthDatesException(maxBatchSize);
+		}
+
+		return index.classify(birthDates, on == null ? LocalDate.now() : on, categoryRestService::findAll);
+	}
+}
@@ -0,0 +1,45 @@
+package org.giste.club.web.controller;
+
+import org.giste.club.web.export.EntityExporter;
+import org.giste.club.web.export.ExportFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Utility methods for building the responses of entity list exports.
+ * 
+ * @author Giste
+ */
+final class Exports {
+
+	private Exports() {
+	}
+
+	/**
+	 * Builds the response of an export. The body is written while the
+	 * entities are read, without content length, so it's sent with chunked
+	 * transfer encoding. It's written in the export thread pool and with the
+	 * export timeout (see {@link org.giste.club.web.AsyncConfiguration}).
+	 * 
+	 * @param name Name of the exported file, without extension.
+	 * @param extension Extension of the requested format.
+	 * @param exporter Exporter of the entities.
+	 * @param source Source of the entities.
+	 * @return The response with the export, or 400 (Bad Request) if the
+	 *         format isn't supported.
+	 */
+	static <DTO> ResponseEntity<StreamingResponseBody> of(String name, String extension,
+			EntityExporter<DTO> exporter, EntityExporter.Source<DTO> source) {
+		final ExportFormat format = ExportFormat.of(extension);
+		if (format == null) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		return ResponseEntity.ok()
+				.contentType(format.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+				.body(out -> exporter.write(out, format, source));
+	}
+}
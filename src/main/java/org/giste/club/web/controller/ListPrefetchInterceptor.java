@@ -0,0 +1,75 @@
+package org.giste.club.web.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.giste.club.web.service.cache.Prefetcher;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Interceptor that prefetches the first entities shown in a list view, as
+ * they are usually the next ones requested. Works with the list views whose
+ * entities are in the "entityList" model attribute, including the ones
+ * returned asynchronously.
+ * 
+ * @author Giste
+ */
+public class ListPrefetchInterceptor extends HandlerInterceptorAdapter {
+
+	private static final String ENTITY_LIST = "entityList";
+
+	private final int depth;
+	private final Map<String, Consumer<List<?>>> prefetchers = new HashMap<>();
+
+	/**
+	 * Constructs a new interceptor.
+	 * 
+	 * @param depth Number of entities of a list that are prefetched, from the
+	 *            first one.
+	 */
+	public ListPrefetchInterceptor(int depth) {
+		this.depth = depth;
+	}
+
+	/**
+	 * Prefetches the entities shown in a list view.
+	 * 
+	 * @param viewName Name of the list view.
+	 * @param type Type of the entities of the list.
+	 * @param id Function for getting the identifier of an entity.
+	 * @param prefetcher Prefetcher of the entities.
+	 * @return This interceptor.
+	 */
+	public <DTO> ListPrefetchInterceptor register(String viewName, Class<DTO> type, ToLongFunction<DTO> id,
+			Prefetcher<DTO> prefetcher) {
+		prefetchers.put(viewName, entities -> prefetcher.prefetch(entities.stream()
+				.limit(depth)
+				.filter(type::isInstance)
+				.map(entity -> id.applyAsLong(type.cast(entity)))
+				.collect(Collectors.toList())));
+
+		return this;
+	}
+
+	@Override
+	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+			ModelAndView modelAndView) {
+		if (modelAndView == null || modelAndView.getViewName() == null) {
+			return;
+		}
+
+		Consumer<List<?>> prefetcher = prefetchers.get(modelAndView.getViewName());
+		Object entities = modelAndView.getModel().get(ENTITY_LIST);
+		if (prefetcher != null && entities instanceof List) {
+			prefetcher.accept((List<?>) entities);
+		}
+	}
+}
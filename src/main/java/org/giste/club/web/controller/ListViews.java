@@ -0,0 +1,69 @@
+package org.giste.club.web.controller;
+
+import java.util.List;
+
+import org.giste.club.web.csv.ImportReport;
+import org.giste.club.web.service.BulkResult;
+import org.giste.club.web.service.Pages;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Utility methods for building the views of entity lists.
+ * 
+ * @author Giste
+ */
+final class ListViews {
+
+	private ListViews() {
+	}
+
+	/**
+	 * Builds the view of a page of an entity list.
+	 * 
+	 * @param viewName Name of the list view.
+	 * @param page Page of entities to show.
+	 * @param pageable The requested page.
+	 * @return The view with the page in its model.
+	 */
+	static ModelAndView ofPage(String viewName, Page<?> page, Pageable pageable) {
+		ModelAndView view = new ModelAndView(viewName);
+		view.addObject("entityList", page.getContent());
+		view.addObject("page", page);
+		view.addObject("sort", Pages.sortParam(pageable.getSort()));
+
+		return view;
+	}
+
+	/**
+	 * Builds the view of the report of a CSV import.
+	 * 
+	 * @param path Path of the imported entity list.
+	 * @param report The report of the import.
+	 * @return The view with the report in its model.
+	 */
+	static ModelAndView ofImport(String path, ImportReport report) {
+		ModelAndView view = new ModelAndView("importReport");
+		view.addObject("report", report);
+		view.addObject("path", path);
+
+		return view;
+	}
+
+	/**
+	 * Builds the view of the report of a bulk action.
+	 * 
+	 * @param viewName Name of the report view.
+	 * @param path Path of the changed entity list.
+	 * @param results The result of every selected entity.
+	 * @return The view with the results in its model.
+	 */
+	static ModelAndView ofBulk(String viewName, String path, List<? extends BulkResult<?>> results) {
+		ModelAndView view = new ModelAndView(viewName);
+		view.addObject("bulkResults", results);
+		view.addObject("path", path);
+
+		return view;
+	}
+}
@@ -0,0 +1,37 @@
+package org.giste.club.web.controller;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Answers requests whose work was rejected by a full executor with 503 Service
+ * Unavailable instead of 500, as the request can be retried later.
+ * 
+ * @author Giste
+ */
+@ControllerAdvice
+public class RejectedTaskAdvice {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * Sends 503 Service Unavailable when an executor rejects a task, either
+	 * while handling the request or in the future it returned.
+	 * 
+	 * @param e The rejection.
+	 * @param response The response.
+	 * @throws IOException If the error can't be sent.
+	 */
+	@ExceptionHandler(TaskRejectedException.class)
+	public void handleTaskRejected(TaskRejectedException e, HttpServletResponse response) throws IOException {
+		LOGGER.warn("Request rejected: {}", e.getMessage());
+		response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+	}
+}
@@ -0,0 +1,102 @@
+package org.giste.club.web.controller;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.ClubWebProperties;
+import org.giste.club.web.search.SearchHit;
+import org.giste.club.web.search.SearchIndex;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for typeahead searches of clubs and users. Results are JSON and
+ * come from in-memory indexes, without calling the REST server once the
+ * indexes are filled.
+ * 
+ * @author Giste
+ */
+@RestController
+@RequestMapping("/search")
+@ConditionalOnProperty(prefix = "web.search", name = "enabled", matchIfMissing = true)
+public class SearchController {
+
+	private final ClubRestService clubRestService;
+	private final UserRestService userRestService;
+	private final SearchIndex<ClubDto> clubIndex;
+	private final SearchIndex<UserDto> userIndex;
+	private final int maxResults;
+
+	/**
+	 * Constructs the controller with the indexes and the services used to
+	 * fill them the first time.
+	 * 
+	 * @param clubRestService Service used to read all clubs.
+	 * @param userRestService Service used to read all users.
+	 * @param clubIndex Search index of clubs.
+	 * @param userIndex Search index of users.
+	 * @param webProperties Properties of the web pages.
+	 */
+	public SearchController(ClubRestService clubRestService, UserRestService userRestService,
+			SearchIndex<ClubDto> clubIndex, SearchIndex<UserDto> userIndex, ClubWebProperties webProperties) {
+		this.clubRestService = clubRestService;
+		this.userRestService = userRestService;
+		this.clubIndex = clubIndex;
+		this.userIndex = userIndex;
+		this.maxResults = webProperties.getSearch().getMaxResults();
+	}
+
+	/**
+	 * Searches clubs by name or acronym.
+	 * 
+	 * @param query Start of a word, or any part of three or more characters,
+	 *            of the name or acronym.
+	 * @param limit Maximum number of results, up to the configured maximum.
+	 * @return The clubs found, with their acronym as detail.
+	 */
+	@GetMapping("/clubs")
+	public List<SearchHit> searchClubs(@RequestParam("q") String query,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		return search(clubIndex, clubRestService::findAll, query, limit,
+				club -> new SearchHit(club.getId(), club.getName(), club.getAcronym()));
+	}
+
+	/**
+	 * Searches users by name or email.
+	 * 
+	 * @param query Start of a word, or any part of three or more characters,
+	 *            of the name or email.
+	 * @param limit Maximum number of results, up to the configured maximum.
+	 * @return The users found, with their email as detail.
+	 */
+	@GetMapping("/users")
+	public List<SearchHit> searchUsers(@RequestParam("q") String query,
+			@RequestParam(name = "limit", required = false) Integer limit) {
+		return search(userIndex, userRestService::findAll, query, limit,
+				user -> new SearchHit(user.getId(), user.getName(), user.getEmail()));
+	}
+
+	private <DTO> List<SearchHit> search(SearchIndex<DTO> index, Supplier<List<DTO>> loader, String query,
+			Integer limit, Function<DTO, SearchHit> toHit) {
+		if (!index.isSynced()) {
+			// Index is filled as lists are read, but nothing was read yet.
+			final long version = index.getVersion();
+			index.sync(loader.get(), version);
+		}
+
+		final int results = limit == null ? maxResults : Math.max(0, Math.min(limit, maxResults));
+
+		return index.search(query, results).stream()
+				.map(toHit)
+				.collect(Collectors.toList());
+	}
+}
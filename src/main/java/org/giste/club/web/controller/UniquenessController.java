@@ -0,0 +1,126 @@
+package org.giste.club.web.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.CategoryRestService;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.giste.club.web.unique.FieldCheck;
+import org.giste.club.web.unique.UniqueIndex;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for checking unique fields while a form is filled in. Results
+ * are JSON and come from the in-memory uniqueness indexes. When an index
+ * isn't fresh, the list of all entities is read with the REST executor before
+ * answering, so the container thread is released while waiting for it in
+ * async mode. The REST server still checks the values when the form is
+ * submitted.
+ * 
+ * @author Giste
+ */
+@RestController
+@RequestMapping("/check")
+@ConditionalOnProperty(prefix = "web.unique", name = "enabled", matchIfMissing = true)
+public class UniquenessController {
+
+	private final ClubRestService clubRestService;
+	private final UserRestService userRestService;
+	private final CategoryRestService categoryRestService;
+	private final UniqueIndex<ClubDto> clubIndex;
+	private final UniqueIndex<UserDto> userIndex;
+	private final UniqueIndex<CategoryDto> categoryIndex;
+	private final Executor restExecutor;
+
+	/**
+	 * Constructs the controller with the indexes and the services used to
+	 * synchronize them.
+	 * 
+	 * @param clubRestService Service used to read all clubs.
+	 * @param userRestService Service used to read all users.
+	 * @param categoryRestService Service used to read all categories.
+	 * @param clubIndex Index of club acronyms.
+	 * @param userIndex Index of user emails.
+	 * @param categoryIndex Index of category names.
+	 * @param restExecutor Executor for calls to the REST server.
+	 */
+	public UniquenessController(ClubRestService clubRestService, UserRestService userRestService,
+			CategoryRestService categoryRestService, UniqueIndex<ClubDto> clubIndex, UniqueIndex<UserDto> userIndex,
+			UniqueIndex<CategoryDto> categoryIndex, @Qualifier("restExecutor") Executor restExecutor) {
+		this.clubRestService = clubRestService;
+		this.userRestService = userRestService;
+		this.categoryRestService = categoryRestService;
+		this.clubIndex = clubIndex;
+		this.userIndex = userIndex;
+		this.categoryIndex = categoryIndex;
+		this.restExecutor = restExecutor;
+	}
+
+	/**
+	 * Checks whether an acronym is in use by another club.
+	 * 
+	 * @param value The acronym.
+	 * @param id Identifier of the club being edited, if it already exists.
+	 * @return Future for the result of the check.
+	 */
+	@GetMapping("/clubs/acronym")
+	public CompletableFuture<FieldCheck> checkClubAcronym(@RequestParam("value") String value,
+			@RequestParam(name = "id", required = false) Long id) {
+		return check(clubIndex, () -> clubRestService.findAllAsync(restExecutor), value, id);
+	}
+
+	/**
+	 * Checks whether an email is in use by another user.
+	 * 
+	 * @param value The email.
+	 * @param id Identifier of the user being edited, if it already exists.
+	 * @return Future for the result of the check.
+	 */
+	@GetMapping("/users/email")
+	public CompletableFuture<FieldCheck> checkUserEmail(@RequestParam("value") String value,
+			@RequestParam(name = "id", required = false) Long id) {
+		return check(userIndex, () -> userRestService.findAllAsync(restExecutor), value, id);
+	}
+
+	/**
+	 * Checks whether a name is in use by another category.
+	 * 
+	 * @param value The name.
+	 * @param id Identifier of the category being edited, if it already
+	 *            exists.
+	 * @return Future for the result of the check.
+	 */
+	@GetMapping("/categories/name")
+	public CompletableFuture<FieldCheck> checkCategoryName(@RequestParam("value") String value,
+			@RequestParam(name = "id", required = false) Long id) {
+		return check(categoryIndex, () -> categoryRestService.findAllAsync(restExecutor), value, id);
+	}
+
+	private <DTO> CompletableFuture<FieldCheck> check(UniqueIndex<DTO> index,
+			Supplier<CompletableFuture<List<DTO>>> loader, String value, Long id) {
+		// New entities are sent with identifier 0.
+		final Long entityId = id == null || id == 0 ? null : id;
+		if (index.isFresh()) {
+			return CompletableFuture.completedFuture(new FieldCheck(value, !index.isDuplicated(value, entityId)));
+		}
+
+		final long version = index.getVersion();
+
+		return loader.get().thenApply(all -> {
+			index.sync(all, version);
+
+			return new FieldCheck(value, !index.isDuplicated(value, entityId));
+		});
+	}
+}
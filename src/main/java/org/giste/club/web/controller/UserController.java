@@ -1,23 +1,40 @@
 package org.giste.club.web.controller;
 
-import java.util.EnumMap;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import javax.validation.Valid;
 
 import org.giste.club.common.dto.Role;
 import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.csv.CsvImporter;
+import org.giste.club.web.csv.ImportReport;
+import org.giste.club.web.export.EntityExporter;
+import org.giste.club.web.locale.MessageTables;
+import org.giste.club.web.service.UserRestService;
 import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
 import org.giste.club.web.service.exception.DuplicatedUserMailException;
 import org.giste.spring.util.controller.CrudController;
-import org.giste.spring.util.locale.LocaleMessage;
-import org.giste.spring.util.service.BaseRestService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for user actions.
@@ -28,11 +45,25 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @RequestMapping("/users")
 public class UserController extends CrudController<UserDto> {
 
-	private LocaleMessage localeMessage;
+	// Password hashes are never exported.
+	private static final EntityExporter<UserDto> EXPORTER = new EntityExporter<UserDto>()
+			.column("id", UserDto::getId)
+			.column("email", UserDto::getEmail)
+			.column("name", UserDto::getName)
+			.column("role", UserDto::getRole);
 
-	public UserController(BaseRestService<UserDto> restService, LocaleMessage localeMessage) {
-		super(restService);
-		this.localeMessage = localeMessage;
+	private final UserRestService userRestService;
+	private final Executor restExecutor;
+	private final MessageTables messageTables;
+	private final CsvImporter csvImporter;
+
+	public UserController(UserRestService userRestService, MessageTables messageTables,
+			CsvImporter csvImporter, @Qualifier("restExecutor") Executor restExecutor) {
+		super(userRestService);
+		this.userRestService = userRestService;
+		this.restExecutor = restExecutor;
+		this.messageTables = messageTables;
+		this.csvImporter = csvImporter;
 	}
 
 	@Override
@@ -50,6 +81,32 @@ public class UserController extends CrudController<UserDto> {
 		return "/users";
 	}
 
+	/**
+	 * Shows a page of the user list. Page is selected with params "page",
+	 * "size" and "sort". The REST server is called with the REST executor, so
+	 * the container thread is released while waiting for it in async mode.
+	 * 
+	 * @param pageable The requested page.
+	 * @return Future for the view of the user list.
+	 */
+	@GetMapping(params = "page")
+	public CompletableFuture<ModelAndView> findPage(Pageable pageable) {
+		return userRestService.findAllAsync(pageable, restExecutor)
+				.thenApply(page -> ListViews.ofPage("userList", page, pageable));
+	}
+
+	/**
+	 * Shows the first page of the user list when no page is requested, so the
+	 * list is always paged. Params "size" and "sort" are still used.
+	 * 
+	 * @param pageable The requested page, with page number 0.
+	 * @return Future for the view of the user list.
+	 */
+	@GetMapping(params = "!page")
+	public CompletableFuture<ModelAndView> findFirstPage(Pageable pageable) {
+		return findPage(pageable);
+	}
+
 	@Override
 	@PostMapping
 	public String create(@Valid @ModelAttribute("entity") final UserDto user, BindingResult result) {
@@ -79,13 +136,47 @@ public class UserController extends CrudController<UserDto> {
 		return "user";
 	}
 
+	/**
+	 * Gets the labels of the roles in the locale of the request. The map is
+	 * shared between requests and can't be modified.
+	 * 
+	 * @param locale Locale of the request.
+	 * @return The labels of the roles.
+	 */
 	@ModelAttribute("roles")
-	public Map<Role, String> getRoles() {
-		Map<Role, String> roleMap = new EnumMap<Role, String>(Role.class);
-		for (Role role : Role.values()) {
-			roleMap.put(role, localeMessage.getMessage("role." + role.toString().toLowerCase()));
+	public Map<Role, String> getRoles(Locale locale) {
+		return messageTables.getLabels(Role.class, locale);
+	}
+
+	/**
+	 * Creates the users of a CSV file. The first row has the names of the
+	 * properties. The view shows the rows that couldn't be created.
+	 * 
+	 * @param file The uploaded CSV file, in UTF-8.
+	 * @param locale Locale of the error messages.
+	 * @return The view of the import report.
+	 * @throws IOException If the file can't be read.
+	 */
+	@PostMapping("/import")
+	public ModelAndView importCsv(@RequestParam("file") MultipartFile file, Locale locale) throws IOException {
+		try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+			ImportReport report = csvImporter.importCsv(reader, UserDto::new, userRestService::create,
+					DuplicatedUserMailException.class, locale);
+
+			return ListViews.ofImport("/users", report);
 		}
+	}
 
-		return roleMap;
+	/**
+	 * Exports all users. Rows are written to the response while they are read
+	 * from the REST server. Passwords aren't exported.
+	 * 
+	 * @param format Format of the export, "csv" or "json".
+	 * @return The response with the export.
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(name = "format", defaultValue = "csv") String format) {
+		return Exports.of("users", format, EXPORTER, userRestService::forEach);
 	}
 }
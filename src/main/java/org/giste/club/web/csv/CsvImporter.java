@@ -0,0 +1,216 @@
+package org.giste.club.web.csv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.giste.club.web.csv.ImportReport.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.context.MessageSource;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.Validator;
+
+/**
+ * Imports entities from a CSV file. The first record has the names of the
+ * properties and every other record is an entity. Column "id" is ignored, so
+ * exported files can be imported. Records are read one by one, bound and
+ * validated like the entity forms, and created in the REST server with
+ * bounded parallelism: reading stops while the maximum number of creations
+ * are running, so memory use doesn't depend on the size of the file. Rows
+ * longer than the limits are reported without being read, and the number of
+ * imports running at the same time is limited too.
+ * 
+ * @author Giste
+ */
+public class CsvImporter {
+
+	private static final String OBJECT_NAME = "entity";
+	private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final Validator validator;
+	private final MessageSource messageSource;
+	private final Executor executor;
+	private final int concurrency;
+	private final int maxReportedRows;
+	private final int maxFieldLength;
+	private final int maxRecordLength;
+	private final int maxImports;
+	private final Semaphore imports;
+
+	/**
+	 * Constructs a new importer.
+	 * 
+	 * @param validator Validator of the entities.
+	 * @param messageSource Source of the error messages.
+	 * @param executor Executor used to call the REST server.
+	 * @param concurrency Maximum number of concurrent calls to the REST server.
+	 * @param maxReportedRows Maximum number of rows with errors kept in the
+	 *            report.
+	 * @param maxFieldLength Maximum number of characters of a field.
+	 * @param maxRecordLength Maximum number of characters of a row.
+	 * @param maxImports Maximum number of imports running at the same time.
+	 */
+	public CsvImporter(Validator validator, MessageSource messageSource, Executor executor, int concurrency,
+			int maxReportedRows, int maxFieldLength, int maxRecordLength, int maxImports) {
+		this.validator = validator;
+		this.messageSource = messageSource;
+		this.executor = executor;
+		this.concurrency = concurrency;
+		this.maxReportedRows = maxReportedRows;
+		this.maxFieldLength = maxFieldLength;
+		this.maxRecordLength = maxRecordLength;
+		this.maxImports = maxImports;
+		this.imports = new Semaphore(maxImports);
+	}
+
+	/**
+	 * Imports the entities of a CSV file. Rows that can't be created are
+	 * reported without stopping the import.
+	 * 
+	 * @param reader The CSV file.
+	 * @param factory Function for creating an empty entity.
+	 * @param creator Function for creating an entity in the REST server.
+	 * @param duplicatedType Type of the exception thrown when an entity is
+	 *            duplicated.
+	 * @param locale Locale of the error messages.
+	 * @return The report of the import.
+	 * @throws TooManyImportsException If the maximum number of imports are
+	 *             already running.
+	 * @throws IOException If the file can't be read.
+	 */
+	public <DTO> ImportReport importCsv(Reader reader, Supplier<DTO> factory, Function<DTO, DTO> creator,
+			Class<? extends RuntimeException> duplicatedType, Locale locale) throws IOException {
+		if (!imports.tryAcquire()) {
+			throw new TooManyImportsException(maxImports);
+		}
+		try {
+			return doImportCsv(reader, factory, creator, duplicatedType, locale);
+		} finally {
+			imports.release();
+		}
+	}
+
+	private <DTO> ImportReport doImportCsv(Reader reader, Supplier<DTO> factory, Function<DTO, DTO> creator,
+			Class<? extends RuntimeException> duplicatedType, Locale locale) throws IOException {
+		final ImportReport report = new ImportReport(maxReportedRows);
+		final CsvReader csv = new CsvReader(reader, maxFieldLength, maxRecordLength);
+		final List<String> header = csv.readRecord();
+		if (header == null) {
+			return report;
+		}
+		for (int i = 0; i < header.size(); i++) {
+			// Property names without spaces nor the byte order mark of some
+			// spreadsheets.
+			header.set(i, header.get(i).replace(BYTE_ORDER_MARK, "").trim());
+		}
+
+		final Semaphore permits = new Semaphore(concurrency);
+		try {
+			List<String> record;
+			while ((record = nextRecord(csv, report, locale)) != null) {
+				final long row = csv.getRecordNumber();
+				if (record.size() != header.size()) {
+					report.error(row, Status.REJECTED, Collections.singletonList(messageSource.getMessage(
+							"import.columns", new Object[] { header.size(), record.size() }, locale)));
+					continue;
+				}
+
+				final DTO dto = factory.get();
+				BindingResult result = bind(dto, header, record);
+				if (result.hasErrors()) {
+					report.error(row, Status.REJECTED, messages(result, locale));
+					continue;
+				}
+
+				permits.acquire();
+				try {
+					executor.execute(() -> {
+						try {
+							create(row, dto, creator, duplicatedType, report);
+						} finally {
+							permits.release();
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					permits.release();
+					report.error(row, Status.FAILED, Collections.singletonList(e.getMessage()));
+				}
+			}
+
+			// Wait for the running creations.
+			permits.acquire(concurrency);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Import interrupted at row " + csv.getRecordNumber());
+		}
+
+		LOGGER.debug("Imported {} rows, {} rejected, {} duplicated, {} failed", report.getCreated(),
+				report.getRejected(), report.getDuplicated(), report.getFailed());
+
+		return report;
+	}
+
+	private List<String> nextRecord(CsvReader csv, ImportReport report, Locale locale) throws IOException {
+		while (true) {
+			try {
+				return csv.readRecord();
+			} catch (RecordTooLongException e) {
+				report.error(e.getRecordNumber(), Status.REJECTED, Collections.singletonList(messageSource
+						.getMessage("import.length", new Object[] { maxRecordLength, maxFieldLength }, locale)));
+			}
+		}
+	}
+
+	private <DTO> BindingResult bind(DTO dto, List<String> header, List<String> record) {
+		MutablePropertyValues values = new MutablePropertyValues();
+		for (int i = 0; i < header.size(); i++) {
+			values.add(header.get(i), record.get(i));
+		}
+
+		DataBinder binder = new DataBinder(dto, OBJECT_NAME);
+		// Identifiers of exported files are ignored, entities are always new.
+		binder.setDisallowedFields("id");
+		binder.setValidator(validator);
+		binder.bind(values);
+		binder.validate();
+
+		return binder.getBindingResult();
+	}
+
+	private <DTO> void create(long row, DTO dto, Function<DTO, DTO> creator,
+			Class<? extends RuntimeException> duplicatedType, ImportReport report) {
+		try {
+			creator.apply(dto);
+			report.created();
+		} catch (RuntimeException e) {
+			Status status = duplicatedType.isInstance(e) ? Status.DUPLICATED : Status.FAILED;
+			report.error(row, status, Collections.singletonList(e.getMessage()));
+		}
+	}
+
+	private List<String> messages(BindingResult result, Locale locale) {
+		List<String> messages = new ArrayList<>(result.getErrorCount());
+		for (ObjectError error : result.getAllErrors()) {
+			String message = messageSource.getMessage(error, locale);
+			messages.add(error instanceof FieldError ? ((FieldError) error).getField() + ": " + message : message);
+		}
+
+		return messages;
+	}
+}
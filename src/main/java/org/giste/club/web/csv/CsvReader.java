@@ -0,0 +1,174 @@
+package org.giste.club.web.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental reader of CSV (RFC 4180) records. Only the record being read is
+ * kept in memory, so files of any size can be read. Fields are separated by
+ * commas and may be enclosed in double quotes, with quotes escaped by
+ * doubling them. Quoted fields may contain commas and line breaks.
+ * <p>
+ * Fields and records are limited in length, so a file without line breaks or
+ * with a quote never closed can't fill the memory. The rest of a record
+ * exceeding the limits is skipped, and reading can go on with the next one.
+ * 
+ * @author Giste
+ */
+public class CsvReader {
+
+	private static final char SEPARATOR = ',';
+	private static final char QUOTE = '"';
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private final int maxFieldLength;
+	private final int maxRecordLength;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private long recordNumber;
+
+	/**
+	 * Constructs a reader of the CSV records of a character stream.
+	 * 
+	 * @param reader The character stream.
+	 * @param maxFieldLength Maximum number of characters of a field.
+	 * @param maxRecordLength Maximum number of characters of a record,
+	 *            including separators and quotes but not line breaks.
+	 */
+	public CsvReader(Reader reader, int maxFieldLength, int maxRecordLength) {
+		this.reader = reader;
+		this.maxFieldLength = maxFieldLength;
+		this.maxRecordLength = maxRecordLength;
+	}
+
+	/**
+	 * Reads the next record. Empty lines are skipped.
+	 * 
+	 * @return The fields of the record, or null at the end of the stream.
+	 * @throws RecordTooLongException If a field or the record exceeds its
+	 *             maximum length. The record is skipped, so the next one can
+	 *             be read.
+	 * @throws IOException If the stream can't be read or a quoted field isn't
+	 *             closed.
+	 */
+	public List<String> readRecord() throws IOException {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		boolean empty = true;
+		boolean tooLong = false;
+		int length = 0;
+
+		int c;
+		while ((c = read()) != -1) {
+			if (!tooLong && c != '\r' && c != '\n' && ++length > maxRecordLength) {
+				// Rest of the record is read, but not kept.
+				tooLong = true;
+				fields.clear();
+				field.setLength(0);
+			}
+
+			if (quoted) {
+				if (c == QUOTE) {
+					if (peek() == QUOTE) {
+						read();
+						tooLong = append(field, QUOTE, tooLong);
+					} else {
+						quoted = false;
+					}
+				} else {
+					tooLong = append(field, c, tooLong);
+				}
+			} else if (c == QUOTE) {
+				quoted = true;
+				empty = false;
+			} else if (c == SEPARATOR) {
+				if (!tooLong) {
+					fields.add(field.toString());
+				}
+				field.setLength(0);
+				empty = false;
+			} else if (c == '\r' || c == '\n') {
+				if (c == '\r' && peek() == '\n') {
+					read();
+				}
+				if (!empty || field.length() > 0 || tooLong) {
+					break;
+				}
+				// Empty line, not part of the record.
+				length = 0;
+			} else {
+				tooLong = append(field, c, tooLong);
+				empty = false;
+			}
+		}
+
+		if (quoted) {
+			throw new IOException("Quoted field not closed in record " + (recordNumber + 1));
+		}
+		if (c == -1 && empty && field.length() == 0 && !tooLong) {
+			return null;
+		}
+
+		recordNumber++;
+		if (tooLong) {
+			throw new RecordTooLongException(recordNumber, maxFieldLength, maxRecordLength);
+		}
+		fields.add(field.toString());
+
+		return fields;
+	}
+
+	/**
+	 * Gets the number of the last record read, starting at 1.
+	 * 
+	 * @return The record number, or 0 if none has been read.
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	private boolean append(StringBuilder field, int c, boolean tooLong) {
+		if (tooLong) {
+			return true;
+		}
+		if (field.length() == maxFieldLength) {
+			field.setLength(0);
+			return true;
+		}
+
+		field.append((char) c);
+		return false;
+	}
+
+	private int read() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+
+		return buffer[position++];
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		limit = reader.read(buffer, 0, BUFFER_SIZE);
+		position = 0;
+		if (limit <= 0) {
+			limit = 0;
+			return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,81 @@
+package org.giste.club.web.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writer of CSV (RFC 4180) records. Fields with commas, quotes or line breaks
+ * are enclosed in double quotes, with quotes escaped by doubling them.
+ * Records end with CRLF.
+ * 
+ * @author Giste
+ */
+public class CsvWriter {
+
+	private static final char SEPARATOR = ',';
+	private static final char QUOTE = '"';
+	private static final String LINE_BREAK = "\r\n";
+
+	private final Writer writer;
+
+	/**
+	 * Constructs a writer of CSV records to a character stream.
+	 * 
+	 * @param writer The character stream.
+	 */
+	public CsvWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Writes a record.
+	 * 
+	 * @param fields The fields of the record.
+	 * @throws IOException If the stream can't be written.
+	 */
+	public void writeRecord(List<String> fields) throws IOException {
+		for (int i = 0; i < fields.size(); i++) {
+			if (i > 0) {
+				writer.write(SEPARATOR);
+			}
+			writeField(fields.get(i));
+		}
+		writer.write(LINE_BREAK);
+	}
+
+	/**
+	 * Flushes the stream.
+	 * 
+	 * @throws IOException If the stream can't be flushed.
+	 */
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	private void writeField(String field) throws IOException {
+		if (field == null) {
+			return;
+		}
+
+		boolean quoted = false;
+		for (int i = 0; i < field.length() && !quoted; i++) {
+			char c = field.charAt(i);
+			quoted = c == SEPARATOR || c == QUOTE || c == '\r' || c == '\n';
+		}
+		if (!quoted) {
+			writer.write(field);
+			return;
+		}
+
+		writer.write(QUOTE);
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c == QUOTE) {
+				writer.write(QUOTE);
+			}
+			writer.write(c);
+		}
+		writer.write(QUOTE);
+	}
+}
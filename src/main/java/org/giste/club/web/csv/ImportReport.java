@@ -0,0 +1,146 @@
+package org.giste.club.web.csv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of a CSV import. Counts the created, rejected, duplicated and failed
+ * rows and keeps the details of the first rows that weren't created, up to a
+ * limit, so the report doesn't grow with the size of the file. Rows are
+ * reported concurrently, so methods are synchronized.
+ * 
+ * @author Giste
+ */
+public class ImportReport {
+
+	/**
+	 * Outcome of a row that wasn't created.
+	 */
+	public enum Status {
+		/**
+		 * Row has invalid values.
+		 */
+		REJECTED,
+		/**
+		 * Row duplicates an existing entity.
+		 */
+		DUPLICATED,
+		/**
+		 * REST server failed creating the row.
+		 */
+		FAILED
+	}
+
+	private final int maxReportedRows;
+	private final List<RowError> errors = new ArrayList<>();
+	private long created;
+	private long rejected;
+	private long duplicated;
+	private long failed;
+
+	/**
+	 * Constructs an empty report.
+	 * 
+	 * @param maxReportedRows Maximum number of rows with errors kept in the
+	 *            report.
+	 */
+	public ImportReport(int maxReportedRows) {
+		this.maxReportedRows = maxReportedRows;
+	}
+
+	/**
+	 * Counts a created row.
+	 */
+	public synchronized void created() {
+		created++;
+	}
+
+	/**
+	 * Reports a row that wasn't created.
+	 * 
+	 * @param row Number of the row in the file.
+	 * @param status Outcome of the row.
+	 * @param messages Description of the errors of the row.
+	 */
+	public synchronized void error(long row, Status status, List<String> messages) {
+		switch (status) {
+		case REJECTED:
+			rejected++;
+			break;
+		case DUPLICATED:
+			duplicated++;
+			break;
+		default:
+			failed++;
+		}
+
+		if (errors.size() < maxReportedRows) {
+			errors.add(new RowError(row, status, messages));
+		}
+	}
+
+	public synchronized long getCreated() {
+		return created;
+	}
+
+	public synchronized long getRejected() {
+		return rejected;
+	}
+
+	public synchronized long getDuplicated() {
+		return duplicated;
+	}
+
+	public synchronized long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Gets the rows with errors kept in the report, sorted by row number.
+	 * 
+	 * @return The rows with errors.
+	 */
+	public synchronized List<RowError> getErrors() {
+		List<RowError> sorted = new ArrayList<>(errors);
+		sorted.sort((first, second) -> Long.compare(first.getRow(), second.getRow()));
+
+		return Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * Gets the number of rows with errors not kept in the report.
+	 * 
+	 * @return The number of rows not reported.
+	 */
+	public synchronized long getUnreported() {
+		return rejected + duplicated + failed - errors.size();
+	}
+
+	/**
+	 * Errors of a row that wasn't created.
+	 */
+	public static class RowError {
+		private final long row;
+		private final Status status;
+		private final List<String> messages;
+
+		private RowError(long row, Status status, List<String> messages) {
+			this.row = row;
+			this.status = status;
+			this.messages = messages;
+		}
+
+		public long getRow() {
+			return row;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		public List<String> getMessages() {
+			return messages;
+		}
+	}
+}
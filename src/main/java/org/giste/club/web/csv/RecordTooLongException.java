@@ -0,0 +1,38 @@
+package org.giste.club.web.csv;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a field or a record of a CSV file exceeds its maximum
+ * length. The record is skipped, so the file can still be read.
+ * 
+ * @author Giste
+ */
+public class RecordTooLongException extends IOException {
+
+	private static final long serialVersionUID = -6502419035812734210L;
+
+	private final long recordNumber;
+
+	/**
+	 * Creates the exception for a record.
+	 * 
+	 * @param recordNumber Number of the record, starting at 1.
+	 * @param maxFieldLength Maximum number of characters of a field.
+	 * @param maxRecordLength Maximum number of characters of a record.
+	 */
+	public RecordTooLongException(long recordNumber, int maxFieldLength, int maxRecordLength) {
+		super("Record " + recordNumber + " has more than " + maxRecordLength
+				+ " characters or a field with more than " + maxFieldLength);
+		this.recordNumber = recordNumber;
+	}
+
+	/**
+	 * Gets the number of the record.
+	 * 
+	 * @return The number of the record, starting at 1.
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+}
@@ -0,0 +1,25 @@
+package org.giste.club.web.csv;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an import is rejected because the maximum number of
+ * imports are already running.
+ * 
+ * @author Giste
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TooManyImportsException extends RuntimeException {
+
+	private static final long serialVersionUID = 4129937108254417622L;
+
+	/**
+	 * Creates the exception with the maximum number of imports.
+	 * 
+	 * @param maxImports Maximum number of imports running at the same time.
+	 */
+	public TooManyImportsException(int maxImports) {
+		super("There are already " + maxImports + " imports running");
+	}
+}
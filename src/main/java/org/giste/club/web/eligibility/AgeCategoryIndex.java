@@ -0,0 +1,313 @@
+package org.giste.club.web.eligibility;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * In-memory index of the age ranges of the categories, for finding the
+ * categories an athlete can join by age. Ranges are kept in an interval tree:
+ * categories sorted by minimum age, laid out as a balanced binary tree where
+ * each node knows the highest maximum age below it, so subtrees that can't
+ * contain an age are skipped.
+ * <p>
+ * The tree is immutable. It's built from a list of all categories and
+ * replaced at once, so lookups never see a half built tree. Any change to a
+ * category drops it, and the next lookup builds it again. Lookups arriving
+ * while it's being built wait for the same build, so it's built once per
+ * version. A list read before a change is never kept as the tree.
+ * 
+ * @author Giste
+ */
+public class AgeCategoryIndex implements PublicMetrics {
+
+	private static final int MAX_MEMOIZED_AGE = 150;
+
+	// The tree of the current version, or its build in progress.
+	private final AtomicReference<CompletableFuture<IntervalTree>> tree = new AtomicReference<>();
+
+	// Incremented on every change, so lists read before a change aren't
+	// used.
+	private final AtomicLong version = new AtomicLong();
+
+	private final AtomicLong builds = new AtomicLong();
+	private final AtomicLong lookups = new AtomicLong();
+	private final AtomicLong classified = new AtomicLong();
+
+	/**
+	 * Finds the categories whose age range contains an age.
+	 * 
+	 * @param age The age.
+	 * @param loader Function for reading all the categories if the tree has
+	 *            to be built.
+	 * @return The categories, ordered by minimum age.
+	 */
+	public List<CategoryDto> findByAge(int age, Supplier<List<CategoryDto>> loader) {
+		lookups.incrementAndGet();
+
+		return getTree(loader).find(age);
+	}
+
+	/**
+	 * Finds the categories an athlete born on a date can join, by the age on
+	 * another date.
+	 * 
+	 * @param birthDate The birth date.
+	 * @param on Date when the age is computed.
+	 * @param loader Function for reading all the categories if the tree has
+	 *            to be built.
+	 * @return The categories, ordered by minimum age.
+	 */
+	public List<CategoryDto> findByBirthDate(LocalDate birthDate, LocalDate on,
+			Supplier<List<CategoryDto>> loader) {
+		final int age = age(birthDate, on);
+
+		return age < 0 ? Collections.emptyList() : findByAge(age, loader);
+	}
+
+	/**
+	 * Classifies birth dates in the categories an athlete born on each of them
+	 * can join, by the age on a given date. All the dates are classified in a
+	 * single pass with the same tree, and each distinct age is only looked up
+	 * once.
+	 * 
+	 * @param birthDates Birth dates in ISO format (yyyy-MM-dd).
+	 * @param on Date when the ages are computed.
+	 * @param loader Function for reading all the categories if the tree has
+	 *            to be built.
+	 * @return The classification of each birth date, in the same order.
+	 *         Invalid dates have age -1 and no categories.
+	 */
+	public List<AgeClassification> classify(List<String> birthDates, LocalDate on,
+			Supplier<List<CategoryDto>> loader) {
+		final IntervalTree current = getTree(loader);
+		final long[][] idsByAge = new long[Math.min(current.highestAge, MAX_MEMOIZED_AGE) + 1][];
+
+		List<AgeClassification> classifications = new ArrayList<>(birthDates.size());
+		for (String birthDate : birthDates) {
+			final int age = age(parse(birthDate), on);
+			long[] ids;
+			if (age < 0 || age > current.highestAge) {
+				ids = new long[0];
+			} else if (age < idsByAge.length) {
+				ids = idsByAge[age];
+				if (ids == null) {
+					ids = current.findIds(age);
+					idsByAge[age] = ids;
+				}
+			} else {
+				ids = current.findIds(age);
+			}
+			classifications.add(new AgeClassification(birthDate, age, ids));
+		}
+		classified.addAndGet(birthDates.size());
+
+		return classifications;
+	}
+
+	/**
+	 * Gets the version of the index, which changes every time a category
+	 * changes. It must be taken before reading the list given to
+	 * {@link #sync(Collection, long)}.
+	 * 
+	 * @return The version of the index.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Builds the tree with a list of all categories read from the REST server.
+	 * The list is ignored if a category has changed since it was read.
+	 * 
+	 * @param all All the categories.
+	 * @param readVersion Version of the index when the list started to be
+	 *            read.
+	 * @return true if the tree was built, false if the list was ignored.
+	 */
+	public boolean sync(Collection<CategoryDto> all, long readVersion) {
+		final IntervalTree built = new IntervalTree(all);
+		synchronized (version) {
+			if (version.get() != readVersion) {
+				return false;
+			}
+			tree.set(CompletableFuture.completedFuture(built));
+		}
+		builds.incrementAndGet();
+
+		return true;
+	}
+
+	/**
+	 * Drops the tree because a category has changed. The next lookup builds
+	 * it again.
+	 */
+	public void invalidate() {
+		synchronized (version) {
+			version.incrementAndGet();
+			tree.set(null);
+		}
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		final CompletableFuture<IntervalTree> built = tree.get();
+		final IntervalTree current = built == null || !built.isDone() || built.isCompletedExceptionally() ? null
+				: built.join();
+
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>("eligibility.categories", current == null ? 0 : current.minAges.length));
+		metrics.add(new Metric<>("eligibility.build", builds.get()));
+		metrics.add(new Metric<>("eligibility.lookup", lookups.get()));
+		metrics.add(new Metric<>("eligibility.classified", classified.get()));
+
+		return metrics;
+	}
+
+	private IntervalTree getTree(Supplier<List<CategoryDto>> loader) {
+		CompletableFuture<IntervalTree> current = tree.get();
+		if (current == null) {
+			final CompletableFuture<IntervalTree> building = new CompletableFuture<>();
+			synchronized (version) {
+				current = tree.get();
+				if (current == null) {
+					tree.set(building);
+				}
+			}
+			if (current == null) {
+				return build(building, loader);
+			}
+		}
+
+		try {
+			return current.join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	private IntervalTree build(CompletableFuture<IntervalTree> building, Supplier<List<CategoryDto>> loader) {
+		try {
+			final IntervalTree built = new IntervalTree(loader.get());
+			builds.incrementAndGet();
+			building.complete(built);
+
+			return built;
+		} catch (RuntimeException e) {
+			// Next lookup tries again.
+			tree.compareAndSet(building, null);
+			building.completeExceptionally(e);
+
+			throw e;
+		}
+	}
+
+	private static LocalDate parse(String birthDate) {
+		try {
+			return birthDate == null ? null : LocalDate.parse(birthDate.trim());
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static int age(LocalDate born, LocalDate on) {
+		if (born == null) {
+			return -1;
+		}
+
+		// Years completed on the date, without building a Period.
+		int age = on.getYear() - born.getYear();
+		if (on.getMonthValue() < born.getMonthValue()
+				|| (on.getMonthValue() == born.getMonthValue() && on.getDayOfMonth() < born.getDayOfMonth())) {
+			age--;
+		}
+
+		return age;
+	}
+
+	/**
+	 * Interval tree over sorted arrays. The node of a range of positions is
+	 * the middle one, and the nodes of the halves are its children.
+	 */
+	private static final class IntervalTree {
+		private final CategoryDto[] categories;
+		private final int[] minAges;
+		private final int[] maxAges;
+		// Highest maximum age of the subtree of each node.
+		private final int[] subtreeMaxAges;
+		private final int highestAge;
+
+		private IntervalTree(Collection<CategoryDto> all) {
+			categories = all.stream()
+					.filter(category -> category.getMinAge() <= category.getMaxAge())
+					.sorted(Comparator.comparingInt(CategoryDto::getMinAge))
+					.toArray(CategoryDto[]::new);
+			minAges = Arrays.stream(categories).mapToInt(CategoryDto::getMinAge).toArray();
+			maxAges = Arrays.stream(categories).mapToInt(CategoryDto::getMaxAge).toArray();
+			subtreeMaxAges = new int[categories.length];
+			highestAge = Math.max(0, build(0, categories.length - 1));
+		}
+
+		private int build(int low, int high) {
+			if (low > high) {
+				return Integer.MIN_VALUE;
+			}
+
+			final int middle = (low + high) >>> 1;
+			subtreeMaxAges[middle] = Math.max(maxAges[middle],
+					Math.max(build(low, middle - 1), build(middle + 1, high)));
+
+			return subtreeMaxAges[middle];
+		}
+
+		private List<CategoryDto> find(int age) {
+			if (categories.length == 0) {
+				return Collections.emptyList();
+			}
+
+			List<CategoryDto> found = new ArrayList<>();
+			find(0, categories.length - 1, age, found);
+
+			return found;
+		}
+
+		private long[] findIds(int age) {
+			return find(age).stream().mapToLong(CategoryDto::getId).toArray();
+		}
+
+		private void find(int low, int high, int age, List<CategoryDto> found) {
+			if (low > high) {
+				return;
+			}
+
+			final int middle = (low + high) >>> 1;
+			if (subtreeMaxAges[middle] < age) {
+				// No range in this subtree reaches the age.
+				return;
+			}
+			find(low, middle - 1, age, found);
+			if (minAges[middle] <= age) {
+				if (age <= maxAges[middle]) {
+					found.add(categories[middle]);
+				}
+				// Ranges on the right start later, only look at them if this
+				// one doesn't start after the age.
+				find(middle + 1, high, age, found);
+			}
+		}
+	}
+}
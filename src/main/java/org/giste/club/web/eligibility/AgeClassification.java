@@ -0,0 +1,38 @@
+package org.giste.club.web.eligibility;
+
+/**
+ * Categories an athlete born on a date can join.
+ * 
+ * @author Giste
+ */
+public class AgeClassification {
+
+	private final String birthDate;
+	private final int age;
+	private final long[] categoryIds;
+
+	/**
+	 * Constructs a new classification.
+	 * 
+	 * @param birthDate The birth date, as it was given.
+	 * @param age Age of the athlete, or -1 if the birth date isn't valid.
+	 * @param categoryIds Identifiers of the categories the athlete can join.
+	 */
+	public AgeClassification(String birthDate, int age, long[] categoryIds) {
+		this.birthDate = birthDate;
+		this.age = age;
+		this.categoryIds = categoryIds;
+	}
+
+	public String getBirthDate() {
+		return birthDate;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public long[] getCategoryIds() {
+		return categoryIds;
+	}
+}
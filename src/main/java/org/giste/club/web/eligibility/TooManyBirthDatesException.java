@@ -0,0 +1,25 @@
+package org.giste.club.web.eligibility;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when more birth dates than allowed are sent to be
+ * classified at once.
+ * 
+ * @author Giste
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class TooManyBirthDatesException extends RuntimeException {
+
+	private static final long serialVersionUID = 7503184266921350947L;
+
+	/**
+	 * Creates the exception with the maximum number of birth dates.
+	 * 
+	 * @param maxBatchSize Maximum number of birth dates classified at once.
+	 */
+	public TooManyBirthDatesException(int maxBatchSize) {
+		super("No more than " + maxBatchSize + " birth dates can be classified at once");
+	}
+}
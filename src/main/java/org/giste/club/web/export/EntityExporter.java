@@ -0,0 +1,122 @@
+package org.giste.club.web.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.giste.club.web.csv.CsvWriter;
+import org.giste.club.web.service.stream.ElementHandler;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes lists of entities as CSV or JSON. Only the columns added to the
+ * exporter are written, in the order they were added. Entities are written
+ * as the source passes them, so the list is never kept in memory.
+ * 
+ * @author Giste
+ * 
+ * @param <DTO> Type of the exported entities.
+ */
+public class EntityExporter<DTO> {
+
+	/**
+	 * Source of the entities of an export.
+	 * 
+	 * @param <DTO> Type of the entities.
+	 */
+	@FunctionalInterface
+	public interface Source<DTO> {
+
+		/**
+		 * Passes all the entities to the handler one by one.
+		 * 
+		 * @param handler Handler of the entities.
+		 * @throws IOException If the handler fails.
+		 */
+		void forEach(ElementHandler<DTO> handler) throws IOException;
+	}
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+			.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+	private final List<String> names = new ArrayList<>();
+	private final List<Function<DTO, Object>> getters = new ArrayList<>();
+
+	/**
+	 * Adds a column to the export.
+	 * 
+	 * @param name Name of the column.
+	 * @param getter Function for getting the value of the column.
+	 * @return This exporter.
+	 */
+	public EntityExporter<DTO> column(String name, Function<DTO, Object> getter) {
+		names.add(name);
+		getters.add(getter);
+
+		return this;
+	}
+
+	/**
+	 * Gets the names of the columns.
+	 * 
+	 * @return The names of the columns.
+	 */
+	public List<String> getNames() {
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Writes the entities of the source to a stream.
+	 * 
+	 * @param out The stream. It isn't closed.
+	 * @param format Format of the export.
+	 * @param source Source of the entities.
+	 * @throws IOException If the stream can't be written.
+	 */
+	public void write(OutputStream out, ExportFormat format, Source<DTO> source) throws IOException {
+		if (format == ExportFormat.JSON) {
+			writeJson(out, source);
+		} else {
+			writeCsv(out, source);
+		}
+	}
+
+	private void writeCsv(OutputStream out, Source<DTO> source) throws IOException {
+		CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+		csv.writeRecord(names);
+
+		final List<String> values = new ArrayList<>(getters.size());
+		source.forEach(dto -> {
+			values.clear();
+			for (Function<DTO, Object> getter : getters) {
+				Object value = getter.apply(dto);
+				values.add(value == null ? null : value.toString());
+			}
+			csv.writeRecord(values);
+		});
+		csv.flush();
+	}
+
+	private void writeJson(OutputStream out, Source<DTO> source) throws IOException {
+		try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+			generator.writeStartArray();
+			source.forEach(dto -> {
+				generator.writeStartObject();
+				for (int i = 0; i < getters.size(); i++) {
+					generator.writeObjectField(names.get(i), getters.get(i).apply(dto));
+				}
+				generator.writeEndObject();
+			});
+			generator.writeEndArray();
+		}
+	}
+}
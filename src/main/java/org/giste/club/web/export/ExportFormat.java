@@ -0,0 +1,55 @@
+package org.giste.club.web.export;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of the exported entity lists.
+ * 
+ * @author Giste
+ */
+public enum ExportFormat {
+
+	/**
+	 * CSV with a header record with the names of the columns.
+	 */
+	CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+
+	/**
+	 * JSON array with an object per entity.
+	 */
+	JSON("json", new MediaType("application", "json", StandardCharsets.UTF_8));
+
+	private final String extension;
+	private final MediaType mediaType;
+
+	private ExportFormat(String extension, MediaType mediaType) {
+		this.extension = extension;
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * Gets the format for a file extension.
+	 * 
+	 * @param extension The extension, without dot and in any case.
+	 * @return The format, or null if there isn't any for the extension.
+	 */
+	public static ExportFormat of(String extension) {
+		for (ExportFormat format : values()) {
+			if (format.extension.equalsIgnoreCase(extension)) {
+				return format;
+			}
+		}
+
+		return null;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+}
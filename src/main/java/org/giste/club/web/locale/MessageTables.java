@@ -0,0 +1,226 @@
+package org.giste.club.web.locale;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.StringUtils;
+
+/**
+ * Immutable tables with the messages of each locale, compiled from the same
+ * properties files used by the message source. Messages are resolved like
+ * {@link org.springframework.context.support.ReloadableResourceBundleMessageSource}
+ * does without fallback to system locale: basenames in order and, for each
+ * one, from the most specific file to the default one.
+ * <p>
+ * Tables are only compiled for the locales with properties files, when the
+ * tables are built. Any other locale uses the table of the most specific of
+ * them that matches it (language and country, language or the default one),
+ * which has the same messages, so the locales sent by clients can't add
+ * tables. Lookups in the compiled locales don't allocate memory, and maps of
+ * labels for enum constants are built once per locale and shared between
+ * requests.
+ * 
+ * @author Giste
+ */
+public class MessageTables {
+
+	private static final String SUFFIX = ".properties";
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final ResourcePatternResolver resourceResolver;
+	private final String encoding;
+	private final String[] basenames;
+
+	private volatile Map<Locale, LocaleTable> tables;
+
+	/**
+	 * Constructs the tables, compiling the messages of every locale with
+	 * properties files.
+	 * 
+	 * @param encoding Encoding of the properties files.
+	 * @param basenames Basenames of the properties files, as in the message
+	 *            source, e.g. "classpath:i18n/messages".
+	 */
+	public MessageTables(String encoding, String... basenames) {
+		this.resourceResolver = new PathMatchingResourcePatternResolver();
+		this.encoding = encoding;
+		this.basenames = basenames.clone();
+		this.tables = compile();
+	}
+
+	/**
+	 * Gets a message.
+	 * 
+	 * @param code Code of the message.
+	 * @param locale Locale of the message.
+	 * @return The message, or null if there isn't any message with the code.
+	 */
+	public String getMessage(String code, Locale locale) {
+		return getTable(locale).messages.get(code);
+	}
+
+	/**
+	 * Gets the labels for the constants of an enum. The label of each
+	 * constant is the message with code "&lt;enum&gt;.&lt;constant&gt;" in lower
+	 * case, e.g. "role.admin", or the constant name if there isn't such
+	 * message. The same map is returned for every call with the same locale.
+	 * 
+	 * @param enumType Type of the enum.
+	 * @param locale Locale of the labels.
+	 * @return Unmodifiable map of labels by constant.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends Enum<E>> Map<E, String> getLabels(Class<E> enumType, Locale locale) {
+		final LocaleTable table = getTable(locale);
+		Map<?, String> labels = table.labels.get(enumType);
+		if (labels == null) {
+			labels = table.labels.computeIfAbsent(enumType, type -> table.buildLabels(enumType));
+		}
+
+		return (Map<E, String>) labels;
+	}
+
+	/**
+	 * Compiles the tables again from the properties files.
+	 */
+	public void reload() {
+		tables = compile();
+	}
+
+	private LocaleTable getTable(Locale locale) {
+		final Map<Locale, LocaleTable> current = tables;
+		if (locale == null) {
+			return current.get(Locale.ROOT);
+		}
+
+		LocaleTable table = current.get(locale);
+		if (table == null && !locale.getCountry().isEmpty()) {
+			table = current.get(new Locale(locale.getLanguage(), locale.getCountry()));
+		}
+		if (table == null) {
+			table = current.get(new Locale(locale.getLanguage()));
+		}
+		if (table == null) {
+			table = current.get(Locale.ROOT);
+		}
+
+		return table;
+	}
+
+	private Map<Locale, LocaleTable> compile() {
+		Map<Locale, LocaleTable> compiled = new HashMap<>();
+		compiled.put(Locale.ROOT, buildTable(Locale.ROOT));
+
+		for (String basename : basenames) {
+			final String filename = StringUtils.getFilename(basename);
+			try {
+				for (Resource resource : resourceResolver.getResources(basename + "_*" + SUFFIX)) {
+					final String name = resource.getFilename();
+					final String localeName = name.substring(filename.length() + 1, name.length() - SUFFIX.length());
+					final Locale locale = StringUtils.parseLocaleString(localeName);
+					if (locale != null) {
+						compiled.computeIfAbsent(locale, this::buildTable);
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Error looking for locales of {}", basename, e);
+			}
+		}
+		LOGGER.debug("Compiled messages for locales {}", compiled.keySet());
+
+		return Collections.unmodifiableMap(compiled);
+	}
+
+	private LocaleTable buildTable(Locale locale) {
+		Map<String, String> messages = new HashMap<>();
+
+		// Loaded from least to most preferred, so preferred messages override.
+		for (int i = basenames.length - 1; i >= 0; i--) {
+			List<String> filenames = getFilenames(basenames[i], locale);
+			for (int j = filenames.size() - 1; j >= 0; j--) {
+				Properties properties = load(filenames.get(j));
+				for (String code : properties.stringPropertyNames()) {
+					messages.put(code, properties.getProperty(code));
+				}
+			}
+		}
+
+		return new LocaleTable(Collections.unmodifiableMap(messages));
+	}
+
+	private static List<String> getFilenames(String basename, Locale locale) {
+		// From most specific to default, as the message source does.
+		List<String> filenames = new ArrayList<>(4);
+		final String language = locale.getLanguage();
+		final String country = locale.getCountry();
+		final String variant = locale.getVariant();
+
+		if (!variant.isEmpty()) {
+			filenames.add(basename + "_" + language + "_" + country + "_" + variant);
+		}
+		if (!country.isEmpty()) {
+			filenames.add(basename + "_" + language + "_" + country);
+		}
+		if (!language.isEmpty()) {
+			filenames.add(basename + "_" + language);
+		}
+		filenames.add(basename);
+
+		return filenames;
+	}
+
+	private Properties load(String filename) {
+		Properties properties = new Properties();
+		Resource resource = resourceResolver.getResource(filename + SUFFIX);
+		if (resource.exists()) {
+			try {
+				PropertiesLoaderUtils.fillProperties(properties, new EncodedResource(resource, encoding));
+			} catch (IOException e) {
+				LOGGER.warn("Error reading messages from {}", resource, e);
+			}
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Messages and label maps of a locale.
+	 */
+	private static class LocaleTable {
+		private final Map<String, String> messages;
+		private final ConcurrentMap<Class<?>, Map<?, String>> labels = new ConcurrentHashMap<>();
+
+		private LocaleTable(Map<String, String> messages) {
+			this.messages = messages;
+		}
+
+		private <E extends Enum<E>> Map<E, String> buildLabels(Class<E> enumType) {
+			final String prefix = enumType.getSimpleName().toLowerCase(Locale.ROOT) + ".";
+
+			Map<E, String> enumLabels = new EnumMap<>(enumType);
+			for (E constant : enumType.getEnumConstants()) {
+				final String label = messages.get(prefix + constant.toString().toLowerCase(Locale.ROOT));
+				enumLabels.put(constant, label == null ? constant.toString() : label);
+			}
+
+			return Collections.unmodifiableMap(enumLabels);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package org.giste.club.web.locale;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Stateless locale resolver. The locale chosen by the user is kept in a cookie
+ * signed with HMAC-SHA256, so no HTTP session is needed and any node can read
+ * it. Without a valid cookie, the locale of the "Accept-Language" header is
+ * used.
+ * <p>
+ * All nodes must share the secret for reading the cookies of each other. If
+ * there isn't any secret, a random one is generated, so cookies are only
+ * valid in this node until it's restarted.
+ * 
+ * @author Giste
+ */
+public class SignedCookieLocaleResolver implements LocaleResolver {
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final char SEPARATOR = '.';
+	private static final String LOCALE_ATTRIBUTE = SignedCookieLocaleResolver.class.getName() + ".LOCALE";
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final String cookieName;
+	private final int cookieMaxAge;
+	private final ThreadLocal<Mac> macs;
+
+	/**
+	 * Constructs the resolver.
+	 * 
+	 * @param cookieName Name of the locale cookie.
+	 * @param cookieMaxAge Time in seconds the cookie is kept by the browser.
+	 * @param secret Secret used for signing the cookies. If it's empty, a
+	 *            random one is used.
+	 */
+	public SignedCookieLocaleResolver(String cookieName, int cookieMaxAge, String secret) {
+		this.cookieName = cookieName;
+		this.cookieMaxAge = cookieMaxAge;
+
+		final byte[] key;
+		if (StringUtils.hasText(secret)) {
+			key = secret.getBytes(StandardCharsets.UTF_8);
+		} else {
+			LOGGER.warn("No secret for locale cookies, they will only be valid in this node until it's restarted");
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+		}
+		this.macs = ThreadLocal.withInitial(() -> newMac(key));
+	}
+
+	@Override
+	public Locale resolveLocale(HttpServletRequest request) {
+		Locale locale = (Locale) request.getAttribute(LOCALE_ATTRIBUTE);
+		if (locale == null) {
+			Cookie cookie = WebUtils.getCookie(request, cookieName);
+			locale = cookie == null ? null : parse(cookie.getValue());
+			if (locale == null) {
+				locale = request.getLocale();
+			}
+			request.setAttribute(LOCALE_ATTRIBUTE, locale);
+		}
+
+		return locale;
+	}
+
+	@Override
+	public void setLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+		Cookie cookie;
+		if (locale == null) {
+			cookie = new Cookie(cookieName, "");
+			cookie.setMaxAge(0);
+			request.removeAttribute(LOCALE_ATTRIBUTE);
+		} else {
+			cookie = new Cookie(cookieName, locale.toString() + SEPARATOR + sign(locale.toString()));
+			cookie.setMaxAge(cookieMaxAge);
+			request.setAttribute(LOCALE_ATTRIBUTE, locale);
+		}
+		cookie.setPath("/");
+		cookie.setHttpOnly(true);
+
+		if (response != null) {
+			response.addCookie(cookie);
+		}
+	}
+
+	private Locale parse(String value) {
+		final int separator = value.lastIndexOf(SEPARATOR);
+		if (separator <= 0) {
+			return null;
+		}
+
+		final String localeValue = value.substring(0, separator);
+		final byte[] signature = value.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+		if (!MessageDigest.isEqual(signature, sign(localeValue).getBytes(StandardCharsets.US_ASCII))) {
+			LOGGER.debug("Ignoring locale cookie with invalid signature: {}", value);
+			return null;
+		}
+
+		return StringUtils.parseLocaleString(localeValue);
+	}
+
+	private String sign(String value) {
+		byte[] signature = macs.get().doFinal(value.getBytes(StandardCharsets.UTF_8));
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+	}
+
+	private static Mac newMac(byte[] key) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(new SecretKeySpec(key, ALGORITHM));
+
+			return mac;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Can't create " + ALGORITHM + " for locale cookies", e);
+		}
+	}
+}
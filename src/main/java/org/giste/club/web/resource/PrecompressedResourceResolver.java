@@ -0,0 +1,192 @@
+package org.giste.club.web.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Resolver for static resources compressed at build time. If the client
+ * accepts it, a resource is replaced by its Brotli (".br") or gzip (".gz")
+ * version found next to it, preferring Brotli. Like
+ * {@link org.springframework.web.servlet.resource.GzipResourceResolver}, but
+ * also for Brotli, which isn't supported by Spring 4.
+ * <p>
+ * Must be the first resolver of the chain, before any caching resolver, as
+ * the resolved resource depends on the "Accept-Encoding" header.
+ * 
+ * @author Giste
+ */
+public class PrecompressedResourceResolver extends AbstractResourceResolver {
+
+	private static final Encoding[] ENCODINGS = { new Encoding("br", ".br"), new Encoding("gzip", ".gz") };
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	@Override
+	protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+		Resource resource = chain.resolveResource(request, requestPath, locations);
+		if (resource == null || request == null) {
+			return resource;
+		}
+
+		final String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return resource;
+		}
+
+		for (Encoding encoding : ENCODINGS) {
+			if (accepts(acceptEncoding, encoding.name)) {
+				try {
+					Resource encoded = resource.createRelative(resource.getFilename() + encoding.extension);
+					if (encoded.exists()) {
+						return new PrecompressedResource(resource, encoded, encoding.name);
+					}
+				} catch (IOException e) {
+					LOGGER.trace("No {} version of {}", encoding.name, resource, e);
+				}
+			}
+		}
+
+		return resource;
+	}
+
+	@Override
+	protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+			ResourceResolverChain chain) {
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+	private static boolean accepts(String acceptEncoding, String encoding) {
+		for (String token : acceptEncoding.split(",")) {
+			String[] parts = token.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase(encoding)) {
+				// Encodings with "q=0" aren't accepted.
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Content encoding and extension of its files.
+	 */
+	private static class Encoding {
+		private final String name;
+		private final String extension;
+
+		private Encoding(String name, String extension) {
+			this.name = name;
+			this.extension = extension;
+		}
+	}
+
+	/**
+	 * Resource with the content of its compressed version. Name, and so media
+	 * type, is the one of the original resource.
+	 */
+	static final class PrecompressedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+		private final Resource encoded;
+		private final String encoding;
+
+		private PrecompressedResource(Resource original, Resource encoded, String encoding) {
+			this.original = original;
+			this.encoded = encoded;
+			this.encoding = encoding;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return encoded.getInputStream();
+		}
+
+		@Override
+		public boolean exists() {
+			return encoded.exists();
+		}
+
+		@Override
+		public boolean isReadable() {
+			return encoded.isReadable();
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return encoded.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return encoded.getURI();
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			return encoded.getFile();
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			return encoded.contentLength();
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return original.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return original.createRelative(relativePath);
+		}
+
+		@Override
+		public String getFilename() {
+			return original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return "Precompressed (" + encoding + ") " + original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			if (original instanceof HttpResource) {
+				headers.putAll(((HttpResource) original).getResponseHeaders());
+				// The ETag of the original content doesn't identify this one.
+				headers.remove(HttpHeaders.ETAG);
+			}
+			headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+
+			return headers;
+		}
+
+		/**
+		 * Gets the content encoding of this resource.
+		 * 
+		 * @return The content encoding.
+		 */
+		public String getEncoding() {
+			return encoding;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package org.giste.club.web.resource;
+
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * Sets the cache headers of static resources. Resources requested with a
+ * content hash in their name can't change, so they are cached for a year
+ * without revalidation. Any other resource has to be revalidated with its
+ * Last-Modified date, so it's downloaded again only if it has changed.
+ * 
+ * @author Giste
+ */
+public class StaticResourceCacheInterceptor extends HandlerInterceptorAdapter {
+
+	private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+	private static final String REVALIDATE = "no-cache";
+
+	// Name of a resource versioned with the content strategy, e.g.
+	// "club-e36d2e353c2e4aa7a4c4fc8e1d1d5fc5.css".
+	private static final Pattern VERSIONED = Pattern.compile(".*-[0-9a-f]{32}\\.[^/]*$");
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof ResourceHttpRequestHandler) {
+			final boolean versioned = VERSIONED.matcher(request.getRequestURI()).matches();
+			response.setHeader(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : REVALIDATE);
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,39 @@
+package org.giste.club.web.search;
+
+/**
+ * Result of a typeahead search: the identifier of the entity, its name and a
+ * detail for telling apart entities with the same name.
+ * 
+ * @author Giste
+ */
+public class SearchHit {
+
+	private final long id;
+	private final String name;
+	private final String detail;
+
+	/**
+	 * Constructs a new result.
+	 * 
+	 * @param id Identifier of the entity.
+	 * @param name Name of the entity.
+	 * @param detail Detail of the entity, like its acronym or email.
+	 */
+	public SearchHit(long id, String name, String detail) {
+		this.id = id;
+		this.name = name;
+		this.detail = detail;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+}
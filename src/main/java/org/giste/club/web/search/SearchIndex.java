@@ -0,0 +1,549 @@
+package org.giste.club.web.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * In-memory index for typeahead searches over some text fields of the
+ * entities of one resource. Field values are normalized (lower case, without
+ * accents) and indexed by n-grams:
+ * <ul>
+ * <li>The first one and two characters of each word, for queries shorter
+ * than three characters, which match the start of a word.</li>
+ * <li>Every trigram of each value, for longer queries, which match anywhere
+ * in a value.</li>
+ * </ul>
+ * Entities are added, replaced and removed one by one, so the index is kept
+ * up to date without rebuilding it. Lists of all the entities synchronize it,
+ * but an entity changed while a list was read keeps its indexed version
+ * instead of the one in the list. Results starting with the query are
+ * ranked first, then results with a word starting with it, and then the rest,
+ * each group ordered by its first field.
+ * 
+ * @author Giste
+ * 
+ * @param <DTO> Type of the indexed entities.
+ */
+public class SearchIndex<DTO> implements PublicMetrics {
+
+	private static final int GRAM = 3;
+	private static final String WORD_START = "^";
+	private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+	private static final Pattern SPACES = Pattern.compile("\\s+");
+	private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	// Estimated sizes in bytes, with compressed references, of the objects
+	// kept for each gram, each entity in a posting set and each entity.
+	private static final int GRAM_BYTES = 136;
+	private static final int POSTING_BYTES = 56;
+	private static final int ENTITY_BYTES = 88;
+	private static final int VALUE_BYTES = 44;
+
+	private final String name;
+	private final ToLongFunction<DTO> id;
+	private final List<Function<DTO, String>> fields = new ArrayList<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Entry<DTO>> entries = new HashMap<>();
+	private final Map<String, Set<Long>> postings = new HashMap<>();
+	private long postingCount;
+	private long gramChars;
+	private long valueChars;
+	private volatile boolean synced;
+
+	// Incremented on every change. The version of the last change of each
+	// entity is kept, so lists read before it don't undo it. Versions up to
+	// the oldest one still accepted are forgotten.
+	private final AtomicLong version = new AtomicLong();
+	private final Map<Long, Long> changedAt = new HashMap<>();
+	private long oldestReadVersion;
+
+	private final AtomicLong queries = new AtomicLong();
+	private final AtomicLong queryNanos = new AtomicLong();
+
+	/**
+	 * Constructs an empty index without fields.
+	 * 
+	 * @param name Name of the indexed resource, used for metrics.
+	 * @param id Function for getting the identifier of an entity.
+	 */
+	public SearchIndex(String name, ToLongFunction<DTO> id) {
+		this.name = name;
+		this.id = id;
+	}
+
+	/**
+	 * Adds a searchable field. The first field orders the results. Fields
+	 * must be added before indexing any entity.
+	 * 
+	 * @param getter Function for getting the value of the field.
+	 * @return This index.
+	 */
+	public SearchIndex<DTO> field(Function<DTO, String> getter) {
+		fields.add(getter);
+
+		return this;
+	}
+
+	/**
+	 * Adds an entity, or replaces it if it's already indexed. Grams are only
+	 * updated if a field value has changed.
+	 * 
+	 * @param dto The entity.
+	 */
+	public void put(DTO dto) {
+		final Entry<DTO> entry = new Entry<>(dto, values(dto));
+		final long entityId = id.applyAsLong(dto);
+
+		lock.writeLock().lock();
+		try {
+			changedAt.put(entityId, version.incrementAndGet());
+			putEntry(entityId, entry);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an entity.
+	 * 
+	 * @param entityId Identifier of the entity.
+	 */
+	public void remove(long entityId) {
+		lock.writeLock().lock();
+		try {
+			changedAt.put(entityId, version.incrementAndGet());
+			removeEntry(entityId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the version of the index, which changes every time an entity is
+	 * added, replaced or removed. It must be taken before reading the list
+	 * given to {@link #sync(Collection, long)}.
+	 * 
+	 * @return The version of the index.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Makes the index hold the entities of a list read from the REST server.
+	 * Changed entities are replaced and missing ones are removed, except the
+	 * ones changed in the index since the list started to be read, which
+	 * keep their indexed version. Searches aren't blocked while the index is
+	 * synchronized. The list is ignored if a newer list has already been
+	 * synchronized.
+	 * 
+	 * @param all All the entities of the resource.
+	 * @param readVersion Version of the index when the list started to be
+	 *            read.
+	 * @return true if the index was synchronized, false if the list was
+	 *         ignored.
+	 */
+	public boolean sync(Collection<DTO> all, long readVersion) {
+		Set<Long> ids = new HashSet<>(all.size() * 2);
+		for (DTO dto : all) {
+			final long entityId = id.applyAsLong(dto);
+			final Entry<DTO> entry = new Entry<>(dto, values(dto));
+			ids.add(entityId);
+
+			lock.writeLock().lock();
+			try {
+				if (readVersion < oldestReadVersion) {
+					return false;
+				}
+				if (!changedSince(entityId, readVersion)) {
+					putEntry(entityId, entry);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		List<Long> removed;
+		lock.readLock().lock();
+		try {
+			removed = new ArrayList<>();
+			for (Long entityId : entries.keySet()) {
+				if (!ids.contains(entityId)) {
+					removed.add(entityId);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		lock.writeLock().lock();
+		try {
+			if (readVersion < oldestReadVersion) {
+				return false;
+			}
+			for (Long entityId : removed) {
+				if (!changedSince(entityId, readVersion)) {
+					removeEntry(entityId);
+				}
+			}
+			// Changes older than this list are in it, only newer lists are
+			// accepted from now on.
+			oldestReadVersion = readVersion;
+			changedAt.values().removeIf(changed -> changed <= readVersion);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		synced = true;
+
+		return true;
+	}
+
+	/**
+	 * Tells whether the index has been synchronized with a list of all the
+	 * entities.
+	 * 
+	 * @return true if the index has been synchronized.
+	 */
+	public boolean isSynced() {
+		return synced;
+	}
+
+	/**
+	 * Searches the entities with a field matching a query. Queries shorter
+	 * than three characters match the start of the words of the fields.
+	 * Longer ones match anywhere in the fields.
+	 * 
+	 * @param query The query.
+	 * @param limit Maximum number of results.
+	 * @return The best ranked entities.
+	 */
+	public List<DTO> search(String query, int limit) {
+		final long start = System.nanoTime();
+		final String normalized = normalize(query);
+		if (normalized.isEmpty() || limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		List<DTO> results;
+		lock.readLock().lock();
+		try {
+			results = rank(candidates(normalized), normalized, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		queries.incrementAndGet();
+		queryNanos.addAndGet(System.nanoTime() - start);
+
+		return results;
+	}
+
+	/**
+	 * Gets the number of indexed entities.
+	 * 
+	 * @return The number of entities.
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets an estimation of the memory used by the index.
+	 * 
+	 * @return The estimated size in bytes.
+	 */
+	public long getEstimatedBytes() {
+		lock.readLock().lock();
+		try {
+			return postings.size() * (long) GRAM_BYTES + 2 * gramChars + postingCount * POSTING_BYTES
+					+ entries.size() * (ENTITY_BYTES + (long) VALUE_BYTES * fields.size()) + 2 * valueChars;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		final String prefix = "search." + name + ".";
+		final int entities;
+		final int grams;
+		final long postingsCount;
+		lock.readLock().lock();
+		try {
+			entities = entries.size();
+			grams = postings.size();
+			postingsCount = postingCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+		final long estimatedBytes = getEstimatedBytes();
+		final long queryCount = queries.get();
+
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>(prefix + "entities", entities));
+		metrics.add(new Metric<>(prefix + "grams", grams));
+		metrics.add(new Metric<>(prefix + "postings", postingsCount));
+		metrics.add(new Metric<>(prefix + "bytes", estimatedBytes));
+		metrics.add(new Metric<>(prefix + "bytesPerEntity", entities == 0 ? 0 : estimatedBytes / entities));
+		metrics.add(new Metric<>(prefix + "query", queryCount));
+		metrics.add(new Metric<>(prefix + "queryMicros",
+				queryCount == 0 ? 0.0 : queryNanos.get() / 1000.0 / queryCount));
+
+		return metrics;
+	}
+
+	private Set<Long> candidates(String query) {
+		if (query.length() < GRAM) {
+			Set<Long> ids = postings.get(WORD_START + query);
+			return ids == null ? Collections.emptySet() : ids;
+		}
+
+		// Intersection of the postings of the grams, smallest first.
+		List<Set<Long>> sets = new ArrayList<>();
+		for (String gram : grams(query)) {
+			Set<Long> ids = postings.get(gram);
+			if (ids == null) {
+				return Collections.emptySet();
+			}
+			sets.add(ids);
+		}
+		sets.sort(Comparator.comparingInt(Set::size));
+
+		Set<Long> candidates = new HashSet<>();
+		for (Long candidate : sets.get(0)) {
+			if (inAll(candidate, sets) && contains(entries.get(candidate), query)) {
+				candidates.add(candidate);
+			}
+		}
+
+		return candidates;
+	}
+
+	private List<DTO> rank(Set<Long> candidates, String query, int limit) {
+		// Keeps the best results in a heap with the worst one on top.
+		final Comparator<Ranked<DTO>> order = Comparator.<Ranked<DTO>> comparingInt(ranked -> ranked.score)
+				.thenComparing(ranked -> ranked.entry.values.length == 0 ? "" : ranked.entry.values[0])
+				.thenComparingLong(ranked -> ranked.id);
+		PriorityQueue<Ranked<DTO>> best = new PriorityQueue<>(limit + 1, order.reversed());
+		for (Long candidate : candidates) {
+			Entry<DTO> entry = entries.get(candidate);
+			best.add(new Ranked<>(candidate, entry, score(entry, query)));
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+
+		List<Ranked<DTO>> ranked = new ArrayList<>(best);
+		ranked.sort(order);
+		List<DTO> results = new ArrayList<>(ranked.size());
+		for (Ranked<DTO> result : ranked) {
+			results.add(result.entry.dto);
+		}
+
+		return results;
+	}
+
+	private static int score(Entry<?> entry, String query) {
+		int score = 2;
+		for (String value : entry.values) {
+			if (value.startsWith(query)) {
+				return 0;
+			}
+			if (wordStartsWith(value, query)) {
+				score = 1;
+			}
+		}
+
+		return score;
+	}
+
+	private static boolean wordStartsWith(String value, String query) {
+		for (String word : WORD_SEPARATORS.split(value)) {
+			if (word.startsWith(query)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean contains(Entry<?> entry, String query) {
+		for (String value : entry.values) {
+			if (value.contains(query)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean inAll(Long candidate, List<Set<Long>> sets) {
+		for (int i = 1; i < sets.size(); i++) {
+			if (!sets.get(i).contains(candidate)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean changedSince(long entityId, long readVersion) {
+		final Long changed = changedAt.get(entityId);
+
+		return changed != null && changed > readVersion;
+	}
+
+	private void putEntry(long entityId, Entry<DTO> entry) {
+		Entry<DTO> old = entries.put(entityId, entry);
+		if (old != null && Arrays.equals(old.values, entry.values)) {
+			return;
+		}
+		if (old != null) {
+			unindex(entityId, old);
+		}
+		index(entityId, entry);
+	}
+
+	private void removeEntry(long entityId) {
+		Entry<DTO> old = entries.remove(entityId);
+		if (old != null) {
+			unindex(entityId, old);
+		}
+	}
+
+	private void index(long entityId, Entry<DTO> entry) {
+		for (String gram : grams(entry)) {
+			Set<Long> ids = postings.get(gram);
+			if (ids == null) {
+				ids = new HashSet<>(4);
+				postings.put(gram, ids);
+				gramChars += gram.length();
+			}
+			if (ids.add(entityId)) {
+				postingCount++;
+			}
+		}
+		for (String value : entry.values) {
+			valueChars += value.length();
+		}
+	}
+
+	private void unindex(long entityId, Entry<DTO> entry) {
+		for (String gram : grams(entry)) {
+			Set<Long> ids = postings.get(gram);
+			if (ids != null && ids.remove(entityId)) {
+				postingCount--;
+				if (ids.isEmpty()) {
+					postings.remove(gram);
+					gramChars -= gram.length();
+				}
+			}
+		}
+		for (String value : entry.values) {
+			valueChars -= value.length();
+		}
+	}
+
+	private static Set<String> grams(Entry<?> entry) {
+		Set<String> grams = new HashSet<>();
+		for (String value : entry.values) {
+			for (String word : WORD_SEPARATORS.split(value)) {
+				for (int length = 1; length < GRAM && length <= word.length(); length++) {
+					grams.add(WORD_START + word.substring(0, length));
+				}
+			}
+			grams.addAll(grams(value));
+		}
+
+		return grams;
+	}
+
+	private static Set<String> grams(String value) {
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; i + GRAM <= value.length(); i++) {
+			grams.add(value.substring(i, i + GRAM));
+		}
+
+		return grams;
+	}
+
+	private String[] values(DTO dto) {
+		String[] values = new String[fields.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = normalize(fields.get(i).apply(dto));
+		}
+
+		return values;
+	}
+
+	/**
+	 * Normalizes a text for indexing or searching it: lower case, without
+	 * accents and with single spaces.
+	 * 
+	 * @param text The text.
+	 * @return The normalized text, empty if it's null.
+	 */
+	static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+
+		String withoutAccents = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+
+		return SPACES.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Indexed entity with its normalized field values.
+	 */
+	private static class Entry<DTO> {
+		private final DTO dto;
+		private final String[] values;
+
+		private Entry(DTO dto, String[] values) {
+			this.dto = dto;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Candidate result with its score.
+	 */
+	private static class Ranked<DTO> {
+		private final long id;
+		private final Entry<DTO> entry;
+		private final int score;
+
+		private Ranked(long id, Entry<DTO> entry, int score) {
+			this.id = id;
+			this.entry = entry;
+			this.score = score;
+		}
+	}
+}
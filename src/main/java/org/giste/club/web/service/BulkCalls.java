@@ -0,0 +1,121 @@
+package org.giste.club.web.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongFunction;
+
+/**
+ * Utility methods for calling the REST server once per entity of a bulk
+ * operation.
+ * 
+ * @author Giste
+ */
+public final class BulkCalls {
+
+	private BulkCalls() {
+	}
+
+	/**
+	 * Applies an action to several entities concurrently. Identifiers are
+	 * split in as many lanes as the concurrency allows, and each lane calls
+	 * the action for its identifiers one after another, so there are never
+	 * more concurrent calls than the concurrency and no thread is blocked
+	 * waiting for a free lane. A failure, or a call rejected by the executor,
+	 * is reported in the result of its entity without stopping the other
+	 * calls.
+	 * 
+	 * @param ids Identifiers of the entities.
+	 * @param action Action to apply to each entity.
+	 * @param concurrency Maximum number of concurrent calls.
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the results, in the same order as the identifiers.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <DTO> CompletableFuture<List<BulkResult<DTO>>> run(List<Long> ids, LongFunction<DTO> action,
+			int concurrency, Executor executor) {
+		final BulkResult<DTO>[] results = new BulkResult[ids.size()];
+		final int lanes = Math.max(1, Math.min(concurrency, ids.size()));
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>(lanes);
+		for (int lane = 0; lane < lanes; lane++) {
+			CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+			for (int i = lane; i < results.length; i += lanes) {
+				final int index = i;
+				future = future.thenRunAsync(() -> results[index] = apply(ids.get(index), action), executor)
+						.exceptionally(e -> {
+							// Only happens when the executor rejects the call,
+							// as the action's exceptions are caught.
+							results[index] = BulkResult.failure(ids.get(index), describe(rootCause(e)));
+							return null;
+						});
+			}
+			futures.add(future);
+		}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[lanes]))
+				.thenApply(done -> Arrays.asList(results));
+	}
+
+	/**
+	 * Applies a non-blocking action to several entities concurrently. Lanes
+	 * are the ones of {@link #run(List, LongFunction, int, Executor)}, but
+	 * each call starts when the previous call of its lane completes, without
+	 * using any thread while it waits. A failure is reported in the result of
+	 * its entity without stopping the other calls.
+	 * 
+	 * @param ids Identifiers of the entities.
+	 * @param action Action that starts the call for an entity.
+	 * @param concurrency Maximum number of concurrent calls.
+	 * @return Future for the results, in the same order as the identifiers.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <DTO> CompletableFuture<List<BulkResult<DTO>>> runAsync(List<Long> ids,
+			LongFunction<CompletableFuture<DTO>> action, int concurrency) {
+		final BulkResult<DTO>[] results = new BulkResult[ids.size()];
+		final int lanes = Math.max(1, Math.min(concurrency, ids.size()));
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>(lanes);
+		for (int lane = 0; lane < lanes; lane++) {
+			CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+			for (int i = lane; i < results.length; i += lanes) {
+				final int index = i;
+				future = future.thenCompose(done -> start(ids.get(index), action))
+						.thenAccept(result -> results[index] = result);
+			}
+			futures.add(future);
+		}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[lanes]))
+				.thenApply(done -> Arrays.asList(results));
+	}
+
+	private static Throwable rootCause(Throwable e) {
+		return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+	}
+
+	private static String describe(Throwable e) {
+		return e.getMessage() == null ? e.toString() : e.getMessage();
+	}
+
+	private static <DTO> BulkResult<DTO> apply(long id, LongFunction<DTO> action) {
+		try {
+			return BulkResult.success(id, action.apply(id));
+		} catch (RuntimeException e) {
+			return BulkResult.failure(id, describe(e));
+		}
+	}
+
+	private static <DTO> CompletableFuture<BulkResult<DTO>> start(long id,
+			LongFunction<CompletableFuture<DTO>> action) {
+		try {
+			return action.apply(id).handle((entity, e) -> e == null ? BulkResult.success(id, entity)
+					: BulkResult.failure(id, describe(rootCause(e))));
+		} catch (RuntimeException e) {
+			return CompletableFuture.completedFuture(BulkResult.failure(id, describe(e)));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package org.giste.club.web.service;
+
+/**
+ * Result of an action made on one entity of a bulk operation. Holds the entity
+ * returned by the REST server or the error that made the action fail.
+ * 
+ * @author Giste
+ * 
+ * @param <DTO> Type of the entity.
+ */
+public class BulkResult<DTO> {
+
+	private final long id;
+	private final boolean success;
+	private final DTO entity;
+	private final String error;
+
+	private BulkResult(long id, boolean success, DTO entity, String error) {
+		this.id = id;
+		this.success = success;
+		this.entity = entity;
+		this.error = error;
+	}
+
+	/**
+	 * Builds the result of a successful action.
+	 * 
+	 * @param id Identifier of the entity.
+	 * @param entity The entity returned by the REST server.
+	 * @return The result.
+	 */
+	public static <DTO> BulkResult<DTO> success(long id, DTO entity) {
+		return new BulkResult<>(id, true, entity, null);
+	}
+
+	/**
+	 * Builds the result of a failed action.
+	 * 
+	 * @param id Identifier of the entity.
+	 * @param error Description of the error.
+	 * @return The result.
+	 */
+	public static <DTO> BulkResult<DTO> failure(long id, String error) {
+		return new BulkResult<>(id, false, null, error);
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public DTO getEntity() {
+		return entity;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+}
@@ -0,0 +1,112 @@
+package org.giste.club.web.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.service.cache.EntityCache;
+import org.giste.club.web.service.stream.ElementHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link CategoryRestService} that caches the categories read
+ * from another {@link CategoryRestService}. Any change to a category invalidates its
+ * cached entries, even if the change fails, because the REST server could
+ * have applied it.
+ * 
+ * @author Giste
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "rest.cache", name = "enabled", matchIfMissing = true)
+public class CachedCategoryRestService implements CategoryRestService {
+
+	private final CategoryRestService restService;
+	private final EntityCache<CategoryDto> cache;
+
+	/**
+	 * Constructs a new cached service.
+	 * 
+	 * @param restService Service used to read categories not found in the
+	 *            cache.
+	 * @param categoryCache Cache for categories.
+	 */
+	public CachedCategoryRestService(@Qualifier("categoryRestServiceImpl") CategoryRestService restService,
+			EntityCache<CategoryDto> categoryCache) {
+		this.restService = restService;
+		this.cache = categoryCache;
+	}
+
+	@Override
+	public CategoryDto create(CategoryDto dto) {
+		try {
+			return restService.create(dto);
+		} finally {
+			cache.invalidateLists();
+		}
+	}
+
+	@Override
+	public CategoryDto findById(long id) {
+		return cache.get(id, restService::findById);
+	}
+
+	@Override
+	public List<CategoryDto> findAll() {
+		return cache.getAll(restService::findAll);
+	}
+
+	@Override
+	public Page<CategoryDto> findAll(Pageable pageable) {
+		return cache.getPage(pageable, restService::findAll, restService::findAll);
+	}
+
+	@Override
+	public void forEach(ElementHandler<CategoryDto> handler) throws IOException {
+		// Cached list is reused, but a missing one isn't read into the cache.
+		List<CategoryDto> all = cache.getAllIfPresent();
+		if (all == null) {
+			restService.forEach(handler);
+		} else {
+			for (CategoryDto dto : all) {
+				handler.handle(dto);
+			}
+		}
+	}
+
+	@Override
+	public CompletableFuture<List<CategoryDto>> findAllAsync(Executor executor) {
+		return cache.getAllAsync(() -> restService.findAllAsync(executor));
+	}
+
+	@Override
+	public CompletableFuture<Page<CategoryDto>> findAllAsync(Pageable pageable, Executor executor) {
+		return cache.getPageAsync(pageable, () -> restService.findAllAsync(executor),
+				requested -> restService.findAllAsync(requested, executor));
+	}
+
+	@Override
+	public CategoryDto update(CategoryDto dto) {
+		try {
+			return restService.update(dto);
+		} finally {
+			cache.invalidate(dto.getId());
+		}
+	}
+
+	@Override
+	public void deleteById(long id) {
+		try {
+			restService.deleteById(id);
+		} finally {
+			cache.invalidate(id);
+		}
+	}
+}
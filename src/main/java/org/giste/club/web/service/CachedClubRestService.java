@@ -0,0 +1,128 @@
+package org.giste.club.web.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.cache.EntityCache;
+import org.giste.club.web.service.stream.ElementHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link ClubRestService} that caches the clubs read from
+ * another {@link ClubRestService}. Any change to a club invalidates its cached
+ * entries, even if the change fails, because the REST server could have
+ * applied it.
+ * 
+ * @author Giste
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "rest.cache", name = "enabled", matchIfMissing = true)
+public class CachedClubRestService implements ClubRestService {
+
+	private final ClubRestService restService;
+	private final EntityCache<ClubDto> cache;
+
+	/**
+	 * Constructs a new cached service.
+	 * 
+	 * @param restService Service used to read clubs not found in the cache.
+	 * @param clubCache Cache for clubs.
+	 */
+	public CachedClubRestService(@Qualifier("clubRestServiceImpl") ClubRestService restService,
+			EntityCache<ClubDto> clubCache) {
+		this.restService = restService;
+		this.cache = clubCache;
+	}
+
+	@Override
+	public ClubDto create(ClubDto dto) {
+		try {
+			return restService.create(dto);
+		} finally {
+			cache.invalidateLists();
+		}
+	}
+
+	@Override
+	public ClubDto findById(long id) {
+		return cache.get(id, restService::findById);
+	}
+
+	@Override
+	public List<ClubDto> findAll() {
+		return cache.getAll(restService::findAll);
+	}
+
+	@Override
+	public Page<ClubDto> findAll(Pageable pageable) {
+		return cache.getPage(pageable, restService::findAll, restService::findAll);
+	}
+
+	@Override
+	public void forEach(ElementHandler<ClubDto> handler) throws IOException {
+		// Cached list is reused, but a missing one isn't read into the cache.
+		List<ClubDto> all = cache.getAllIfPresent();
+		if (all == null) {
+			restService.forEach(handler);
+		} else {
+			for (ClubDto dto : all) {
+				handler.handle(dto);
+			}
+		}
+	}
+
+	@Override
+	public CompletableFuture<List<ClubDto>> findAllAsync(Executor executor) {
+		return cache.getAllAsync(() -> restService.findAllAsync(executor));
+	}
+
+	@Override
+	public CompletableFuture<Page<ClubDto>> findAllAsync(Pageable pageable, Executor executor) {
+		return cache.getPageAsync(pageable, () -> restService.findAllAsync(executor),
+				requested -> restService.findAllAsync(requested, executor));
+	}
+
+	@Override
+	public ClubDto update(ClubDto dto) {
+		try {
+			return restService.update(dto);
+		} finally {
+			cache.invalidate(dto.getId());
+		}
+	}
+
+	@Override
+	public ClubDto enable(long id) {
+		try {
+			return restService.enable(id);
+		} finally {
+			cache.invalidate(id);
+		}
+	}
+
+	@Override
+	public ClubDto disable(long id) {
+		try {
+			return restService.disable(id);
+		} finally {
+			cache.invalidate(id);
+		}
+	}
+
+	@Override
+	public CompletableFuture<List<BulkResult<ClubDto>>> setEnabledAsync(List<Long> ids, boolean enabled,
+			int concurrency, Executor executor) {
+		// Cache is invalidated once all clubs have been changed.
+		return restService.setEnabledAsync(ids, enabled, concurrency, executor)
+				.whenComplete((results, e) -> ids.forEach(cache::invalidate));
+	}
+}
@@ -0,0 +1,112 @@
+package org.giste.club.web.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.cache.EntityCache;
+import org.giste.club.web.service.stream.ElementHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link UserRestService} that caches the users read
+ * from another {@link UserRestService}. Any change to a user invalidates its
+ * cached entries, even if the change fails, because the REST server could
+ * have applied it.
+ * 
+ * @author Giste
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "rest.cache", name = "enabled", matchIfMissing = true)
+public class CachedUserRestService implements UserRestService {
+
+	private final UserRestService restService;
+	private final EntityCache<UserDto> cache;
+
+	/**
+	 * Constructs a new cached service.
+	 * 
+	 * @param restService Service used to read users not found in the
+	 *            cache.
+	 * @param userCache Cache for users.
+	 */
+	public CachedUserRestService(@Qualifier("userRestServiceImpl") UserRestService restService,
+			EntityCache<UserDto> userCache) {
+		this.restService = restService;
+		this.cache = userCache;
+	}
+
+	@Override
+	public UserDto create(UserDto dto) {
+		try {
+			return restService.create(dto);
+		} finally {
+			cache.invalidateLists();
+		}
+	}
+
+	@Override
+	public UserDto findById(long id) {
+		return cache.get(id, restService::findById);
+	}
+
+	@Override
+	public List<UserDto> findAll() {
+		return cache.getAll(restService::findAll);
+	}
+
+	@Override
+	public Page<UserDto> findAll(Pageable pageable) {
+		return cache.getPage(pageable, restService::findAll, restService::findAll);
+	}
+
+	@Override
+	public void forEach(ElementHandler<UserDto> handler) throws IOException {
+		// Cached list is reused, but a missing one isn't read into the cache.
+		List<UserDto> all = cache.getAllIfPresent();
+		if (all == null) {
+			restService.forEach(handler);
+		} else {
+			for (UserDto dto : all) {
+				handler.handle(dto);
+			}
+		}
+	}
+
+	@Override
+	public CompletableFuture<List<UserDto>> findAllAsync(Executor executor) {
+		return cache.getAllAsync(() -> restService.findAllAsync(executor));
+	}
+
+	@Override
+	public CompletableFuture<Page<UserDto>> findAllAsync(Pageable pageable, Executor executor) {
+		return cache.getPageAsync(pageable, () -> restService.findAllAsync(executor),
+				requested -> restService.findAllAsync(requested, executor));
+	}
+
+	@Override
+	public UserDto update(UserDto dto) {
+		try {
+			return restService.update(dto);
+		} finally {
+			cache.invalidate(dto.getId());
+		}
+	}
+
+	@Override
+	public void deleteById(long id) {
+		try {
+			restService.deleteById(id);
+		} finally {
+			cache.invalidate(id);
+		}
+	}
+}
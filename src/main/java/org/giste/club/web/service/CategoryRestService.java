@@ -1,7 +1,15 @@
 package org.giste.club.web.service;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.service.stream.ElementHandler;
 import org.giste.spring.util.service.CrudRestService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 /**
  * Interface for managing categories through the REST server.
@@ -10,4 +18,48 @@ import org.giste.spring.util.service.CrudRestService;
  */
 public interface CategoryRestService extends CrudRestService<CategoryDto> {
 
+	/**
+	 * Finds a page of categories. All categories are read and the page is
+	 * built from them.
+	 * 
+	 * @param pageable The requested page, with its size and sort.
+	 * @return The page of categories.
+	 */
+	default Page<CategoryDto> findAll(Pageable pageable) {
+		return Pages.of(findAll(), pageable);
+	}
+
+	/**
+	 * Finds all categories asynchronously.
+	 * 
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the list of categories.
+	 */
+	default CompletableFuture<List<CategoryDto>> findAllAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::findAll, executor);
+	}
+
+	/**
+	 * Finds a page of categories asynchronously.
+	 * 
+	 * @param pageable The requested page, with its size and sort.
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the page of categories.
+	 */
+	default CompletableFuture<Page<CategoryDto>> findAllAsync(Pageable pageable, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> findAll(pageable), executor);
+	}
+
+	/**
+	 * Passes all categories to the handler one by one. All categories are read and then
+	 * handled.
+	 * 
+	 * @param handler Handler of the categories.
+	 * @throws IOException If the handler fails.
+	 */
+	default void forEach(ElementHandler<CategoryDto> handler) throws IOException {
+		for (CategoryDto dto : findAll()) {
+			handler.handle(dto);
+		}
+	}
 }
@@ -1,20 +1,38 @@
 package org.giste.club.web.service;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.service.cache.ConditionalRestReader;
 import org.giste.club.web.service.exception.DuplicatedCategoryNameException;
+import org.giste.club.web.service.stream.ElementHandler;
+import org.giste.club.web.service.stream.StreamingRestReader;
 import org.giste.spring.util.config.RestProperties;
 import org.giste.spring.util.error.dto.RestErrorDto;
 import org.giste.spring.util.service.CrudRestServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Service
-public class CategoryRestServiceImpl extends CrudRestServiceImpl<CategoryDto> implements CategoryRestService {
+@Profile("!reactive")
+public class CategoryRestServiceImpl extends CrudRestServiceImpl<CategoryDto>
+		implements CategoryRestService, CoalescedRestService {
 
 	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
+	private final ConditionalRestReader conditionalReader;
+	private final StreamingRestReader streamingReader;
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+
 	/**
 	 * Constructs a new service for managing categories.
 	 * 
@@ -23,7 +41,45 @@ public class CategoryRestServiceImpl extends CrudRestServiceImpl<CategoryDto> im
 	 * @param restPropertiesImpl RestProperties of the REST server.
 	 */
 	public CategoryRestServiceImpl(RestTemplate restTemplate, RestProperties restPropertiesImpl) {
+		this(restTemplate, restPropertiesImpl, new ConditionalRestReader(restTemplate, restPropertiesImpl),
+				new StreamingRestReader(restTemplate, restPropertiesImpl, new ObjectMapper()));
+	}
+
+	/**
+	 * Constructs a new service for managing categories.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with the REST
+	 *            server.
+	 * @param restPropertiesImpl RestProperties of the REST server.
+	 * @param conditionalReader Reader used for conditional GET requests.
+	 * @param streamingReader Reader used for streaming pages of the list.
+	 */
+	@Autowired
+	public CategoryRestServiceImpl(RestTemplate restTemplate, RestProperties restPropertiesImpl,
+			ConditionalRestReader conditionalReader, StreamingRestReader streamingReader) {
 		super(restTemplate, restPropertiesImpl);
+		this.conditionalReader = conditionalReader;
+		this.streamingReader = streamingReader;
+	}
+
+	@Override
+	public CategoryDto findById(long id) {
+		// Concurrent reads of the same category share one call.
+		return coalescer.execute(id, () -> super.findById(id));
+	}
+
+	@Override
+	public List<CategoryDto> findAll() {
+		// Reuse the categories read before if they haven't been modified, and
+		// share one call between concurrent reads.
+		return coalescer.execute(ALL, () -> Arrays.asList(conditionalReader.get(getBasePath(), getArrayType())));
+	}
+
+	@Override
+	public Page<CategoryDto> findAll(Pageable pageable) {
+		// Only the elements in the page are deserialized.
+		return coalescer.execute(pageable,
+				() -> streamingReader.readPage(getBasePath(), getDtoType(), pageable));
 	}
 
 	@Override
@@ -31,6 +87,17 @@ public class CategoryRestServiceImpl extends CrudRestServiceImpl<CategoryDto> im
 		return CategoryDto[].class;
 	}
 
+	@Override
+	public void forEach(ElementHandler<CategoryDto> handler) {
+		// Each category is handled while the list is downloaded.
+		streamingReader.readEach(getBasePath(), getDtoType(), handler);
+	}
+
+	@Override
+	public RequestCoalescer getCoalescer() {
+		return coalescer;
+	}
+
 	@Override
 	protected Class<CategoryDto> getDtoType() {
 		return CategoryDto.class;
@@ -1,7 +1,15 @@
 package org.giste.club.web.service;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.stream.ElementHandler;
 import org.giste.spring.util.service.CrudeRestService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 /**
  * Interface for Club actions.
@@ -9,4 +17,65 @@ import org.giste.spring.util.service.CrudeRestService;
  * @author Giste
  */
 public interface ClubRestService extends CrudeRestService<ClubDto> {
+
+	/**
+	 * Finds a page of clubs. All clubs are read and the page is built from
+	 * them.
+	 * 
+	 * @param pageable The requested page, with its size and sort.
+	 * @return The page of clubs.
+	 */
+	default Page<ClubDto> findAll(Pageable pageable) {
+		return Pages.of(findAll(), pageable);
+	}
+
+	/**
+	 * Finds all clubs asynchronously.
+	 * 
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the list of clubs.
+	 */
+	default CompletableFuture<List<ClubDto>> findAllAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::findAll, executor);
+	}
+
+	/**
+	 * Finds a page of clubs asynchronously.
+	 * 
+	 * @param pageable The requested page, with its size and sort.
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the page of clubs.
+	 */
+	default CompletableFuture<Page<ClubDto>> findAllAsync(Pageable pageable, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> findAll(pageable), executor);
+	}
+
+	/**
+	 * Enables or disables several clubs concurrently. Every club is changed
+	 * even if others fail.
+	 * 
+	 * @param ids Identifiers of the clubs.
+	 * @param enabled Whether the clubs are enabled or disabled.
+	 * @param concurrency Maximum number of concurrent calls to the REST server.
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the result of each club, in the same order as the
+	 *         identifiers.
+	 */
+	default CompletableFuture<List<BulkResult<ClubDto>>> setEnabledAsync(List<Long> ids, boolean enabled,
+			int concurrency, Executor executor) {
+		return BulkCalls.run(ids, id -> enabled ? enable(id) : disable(id), concurrency, executor);
+	}
+
+	/**
+	 * Passes all clubs to the handler one by one. All clubs are read and then
+	 * handled.
+	 * 
+	 * @param handler Handler of the clubs.
+	 * @throws IOException If the handler fails.
+	 */
+	default void forEach(ElementHandler<ClubDto> handler) throws IOException {
+		for (ClubDto dto : findAll()) {
+			handler.handle(dto);
+		}
+	}
 }
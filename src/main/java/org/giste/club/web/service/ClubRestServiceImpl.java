@@ -1,25 +1,43 @@
 package org.giste.club.web.service;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.cache.ConditionalRestReader;
 import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
+import org.giste.club.web.service.stream.ElementHandler;
+import org.giste.club.web.service.stream.StreamingRestReader;
 import org.giste.spring.util.config.RestProperties;
 import org.giste.spring.util.error.dto.RestErrorDto;
 import org.giste.spring.util.service.CrudeRestServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Implementation for {@link ClubRestService} interface.
  * 
  * @author Giste
  */
 @Service
-public class ClubRestServiceImpl extends CrudeRestServiceImpl<ClubDto> implements ClubRestService {
+@Profile("!reactive")
+public class ClubRestServiceImpl extends CrudeRestServiceImpl<ClubDto>
+		implements ClubRestService, CoalescedRestService {
 
 	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
+	private final ConditionalRestReader conditionalReader;
+	private final StreamingRestReader streamingReader;
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+
 	/**
 	 * Construct a ClubRestService with a RestTemplate and a RestProperties
 	 * beans.
@@ -29,7 +47,57 @@ public class ClubRestServiceImpl extends CrudeRestServiceImpl<ClubDto> implement
 	 *            host, port, path).
 	 */
 	public ClubRestServiceImpl(RestTemplate restTemplate, RestProperties restProperties) {
+		this(restTemplate, restProperties, new ConditionalRestReader(restTemplate, restProperties),
+				new StreamingRestReader(restTemplate, restProperties, new ObjectMapper()));
+	}
+
+	/**
+	 * Construct a ClubRestService with a RestTemplate and a RestProperties
+	 * beans.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param conditionalReader Reader used for conditional GET requests.
+	 * @param streamingReader Reader used for streaming pages of the list.
+	 */
+	@Autowired
+	public ClubRestServiceImpl(RestTemplate restTemplate, RestProperties restProperties,
+			ConditionalRestReader conditionalReader, StreamingRestReader streamingReader) {
 		super(restTemplate, restProperties);
+		this.conditionalReader = conditionalReader;
+		this.streamingReader = streamingReader;
+	}
+
+	@Override
+	public ClubDto findById(long id) {
+		// Concurrent reads of the same club share one call.
+		return coalescer.execute(id, () -> super.findById(id));
+	}
+
+	@Override
+	public List<ClubDto> findAll() {
+		// Reuse the clubs read before if they haven't been modified, and
+		// share one call between concurrent reads.
+		return coalescer.execute(ALL, () -> Arrays.asList(conditionalReader.get(getBasePath(), getArrayType())));
+	}
+
+	@Override
+	public Page<ClubDto> findAll(Pageable pageable) {
+		// Only the elements in the page are deserialized.
+		return coalescer.execute(pageable,
+				() -> streamingReader.readPage(getBasePath(), getDtoType(), pageable));
+	}
+
+	@Override
+	public void forEach(ElementHandler<ClubDto> handler) {
+		// Each club is handled while the list is downloaded.
+		streamingReader.readEach(getBasePath(), getDtoType(), handler);
+	}
+
+	@Override
+	public RequestCoalescer getCoalescer() {
+		return coalescer;
 	}
 
 	@Override
@@ -0,0 +1,25 @@
+package org.giste.club.web.service;
+
+/**
+ * Service whose identical concurrent reads of the REST server are coalesced
+ * by a {@link RequestCoalescer}. Writes make the coalescer forget the reads in
+ * flight; aspect {@link org.giste.club.web.aspect.RequestCoalescerUpdater}
+ * does it for every implementation.
+ * 
+ * @author Giste
+ */
+public interface CoalescedRestService {
+
+	/**
+	 * Key of the reads of all the entities, shared by the synchronous and the
+	 * asynchronous reads.
+	 */
+	String ALL = "all";
+
+	/**
+	 * Gets the coalescer of the reads of this service.
+	 * 
+	 * @return The coalescer of reads.
+	 */
+	RequestCoalescer getCoalescer();
+}
@@ -0,0 +1,96 @@
+package org.giste.club.web.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Utility methods for building pages of entities.
+ * 
+ * @author Giste
+ */
+public final class Pages {
+
+	private Pages() {
+	}
+
+	/**
+	 * Builds a page from the list of all entities. The list is sorted as
+	 * requested by the pageable and only the entities in the page are copied.
+	 * 
+	 * @param entities List of all entities.
+	 * @param pageable Requested page.
+	 * @return The page of entities.
+	 */
+	public static <T> Page<T> of(List<T> entities, Pageable pageable) {
+		Comparator<T> comparator = comparator(pageable.getSort());
+
+		List<T> sorted = entities;
+		if (comparator != null) {
+			sorted = new ArrayList<>(entities);
+			Collections.sort(sorted, comparator);
+		}
+
+		int fromIndex = (int) Math.min(offset(pageable), sorted.size());
+		int toIndex = (int) Math.min((long) fromIndex + pageable.getPageSize(), sorted.size());
+
+		return new PageImpl<>(new ArrayList<>(sorted.subList(fromIndex, toIndex)), pageable, sorted.size());
+	}
+
+	/**
+	 * Gets the index of the first entity of a page. Unlike
+	 * {@link Pageable#getOffset()}, it doesn't overflow for deep pages.
+	 * 
+	 * @param pageable Requested page.
+	 * @return The index of the first entity of the page.
+	 */
+	public static long offset(Pageable pageable) {
+		return (long) pageable.getPageNumber() * pageable.getPageSize();
+	}
+
+	/**
+	 * Builds the comparator for a sort specification.
+	 * 
+	 * @param sort The sort specification. May be null.
+	 * @return The comparator, or null if the entities don't have to be sorted.
+	 */
+	public static <T> Comparator<T> comparator(Sort sort) {
+		if (sort == null) {
+			return null;
+		}
+
+		Comparator<T> comparator = null;
+		for (Sort.Order order : sort) {
+			Comparator<T> orderComparator = new PropertyComparator<>(order.getProperty(), order.isIgnoreCase(),
+					order.isAscending());
+			comparator = comparator == null ? orderComparator : comparator.thenComparing(orderComparator);
+		}
+
+		return comparator;
+	}
+
+	/**
+	 * Gets the value of the "sort" param for requesting the first order of a
+	 * sort specification.
+	 * 
+	 * @param sort The sort specification. May be null.
+	 * @return The value of the "sort" param ("property,direction"), or an
+	 *         empty string if there isn't any order.
+	 */
+	public static String sortParam(Sort sort) {
+		if (sort == null || !sort.iterator().hasNext()) {
+			return "";
+		}
+
+		Sort.Order order = sort.iterator().next();
+
+		return order.getProperty() + "," + order.getDirection().name().toLowerCase();
+	}
+}
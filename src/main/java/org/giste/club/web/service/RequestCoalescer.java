@@ -0,0 +1,155 @@
+package org.giste.club.web.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads of the REST server. The first caller
+ * of a key makes the call, and callers arriving while it's in flight wait for
+ * it and share its result or its exception. Once the call is done, the next
+ * caller makes a new one, so results are never kept.
+ * <p>
+ * As the result is shared, lists are returned as unmodifiable views, so no
+ * caller can change the list of another one. Pages are already read-only.
+ * <p>
+ * Only reads must be coalesced. Writes call {@link #forgetAll()} when they
+ * are done, so reads started after a write don't share a call started before
+ * it.
+ * 
+ * @author Giste
+ */
+public class RequestCoalescer {
+
+	private final ConcurrentMap<Object, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+	private final AtomicLong executed = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * Makes a call, or waits for the identical call in flight.
+	 * 
+	 * @param key Key identifying the call. Keys must implement equals and
+	 *            hashCode.
+	 * @param call Function that makes the call.
+	 * @return The result of the call.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(Object key, Supplier<T> call) {
+		final CompletableFuture<Object> flight = new CompletableFuture<>();
+		final CompletableFuture<Object> inFlight = calls.putIfAbsent(key, flight);
+		if (inFlight != null) {
+			coalesced.incrementAndGet();
+
+			return (T) join(inFlight);
+		}
+
+		executed.incrementAndGet();
+		try {
+			T result = readOnly(call.get());
+			calls.remove(key, flight);
+			flight.complete(result);
+
+			return result;
+		} catch (RuntimeException | Error e) {
+			calls.remove(key, flight);
+			flight.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Makes an asynchronous call, or shares the identical call in flight.
+	 * 
+	 * @param key Key identifying the call. Keys must implement equals and
+	 *            hashCode.
+	 * @param call Function that starts the call.
+	 * @return Future for the result of the call.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> executeAsync(Object key, Supplier<CompletableFuture<T>> call) {
+		final CompletableFuture<Object> flight = new CompletableFuture<>();
+		final CompletableFuture<Object> inFlight = calls.putIfAbsent(key, flight);
+		if (inFlight != null) {
+			coalesced.incrementAndGet();
+
+			// A dependent future, so callers can't complete the shared one.
+			return inFlight.thenApply(result -> (T) result);
+		}
+
+		executed.incrementAndGet();
+		final CompletableFuture<T> result;
+		try {
+			result = call.get();
+		} catch (RuntimeException | Error e) {
+			calls.remove(key, flight);
+			flight.completeExceptionally(e);
+			throw e;
+		}
+
+		return result.thenApply(RequestCoalescer::readOnly).whenComplete((value, e) -> {
+			calls.remove(key, flight);
+			if (e == null) {
+				flight.complete(value);
+			} else {
+				flight.completeExceptionally(e);
+			}
+		});
+	}
+
+	/**
+	 * Forgets the calls in flight. Callers already waiting for them still get
+	 * their results, but new callers make new calls.
+	 */
+	public void forgetAll() {
+		calls.clear();
+	}
+
+	/**
+	 * Gets the number of calls made.
+	 * 
+	 * @return The number of calls made.
+	 */
+	public long getExecuted() {
+		return executed.get();
+	}
+
+	/**
+	 * Gets the number of calls that waited for an identical call instead of
+	 * being made.
+	 * 
+	 * @return The number of coalesced calls.
+	 */
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T readOnly(T result) {
+		if (result instanceof List) {
+			return (T) Collections.unmodifiableList((List<?>) result);
+		}
+
+		return result;
+	}
+
+	private static Object join(CompletableFuture<Object> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			// Rethrow the exception of the call, as its caller got it.
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.giste.club.web.service;
+
+import org.giste.spring.util.config.RestProperties;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility methods for building URIs of the REST server.
+ * 
+ * @author Giste
+ */
+public final class RestUris {
+
+	private RestUris() {
+	}
+
+	/**
+	 * Gets a builder for URIs of the REST server.
+	 * 
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @return The URI builder.
+	 */
+	public static UriComponentsBuilder builder(RestProperties restProperties) {
+		return UriComponentsBuilder.newInstance()
+				.scheme(restProperties.getScheme())
+				.host(restProperties.getHost())
+				.port(restProperties.getPort())
+				.path(restProperties.getPath());
+	}
+
+	/**
+	 * Gets the URI of a resource of the REST server.
+	 * 
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param path Path of the resource, relative to the REST server path.
+	 * @return The URI of the resource.
+	 */
+	public static String uri(RestProperties restProperties, String path) {
+		return builder(restProperties).path(path).build().toUriString();
+	}
+}
@@ -1,7 +1,15 @@
 package org.giste.club.web.service;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.stream.ElementHandler;
 import org.giste.spring.util.service.CrudRestService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 /**
  * Interface for managing users against the REST server.
@@ -10,4 +18,48 @@ import org.giste.spring.util.service.CrudRestService;
  */
 public interface UserRestService extends CrudRestService<UserDto> {
 
+	/**
+	 * Finds a page of users. All users are read and the page is built from
+	 * them.
+	 * 
+	 * @param pageable The requested page, with its size and sort.
+	 * @return The page of users.
+	 */
+	default Page<UserDto> findAll(Pageable pageable) {
+		return Pages.of(findAll(), pageable);
+	}
+
+	/**
+	 * Finds all users asynchronously.
+	 * 
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the list of users.
+	 */
+	default CompletableFuture<List<UserDto>> findAllAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::findAll, executor);
+	}
+
+	/**
+	 * Finds a page of users asynchronously.
+	 * 
+	 * @param pageable The requested page, with its size and sort.
+	 * @param executor Executor used to call the REST server.
+	 * @return Future for the page of users.
+	 */
+	default CompletableFuture<Page<UserDto>> findAllAsync(Pageable pageable, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> findAll(pageable), executor);
+	}
+
+	/**
+	 * Passes all users to the handler one by one. All users are read and then
+	 * handled.
+	 * 
+	 * @param handler Handler of the users.
+	 * @throws IOException If the handler fails.
+	 */
+	default void forEach(ElementHandler<UserDto> handler) throws IOException {
+		for (UserDto dto : findAll()) {
+			handler.handle(dto);
+		}
+	}
 }
@@ -1,20 +1,38 @@
 package org.giste.club.web.service;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.cache.ConditionalRestReader;
 import org.giste.club.web.service.exception.DuplicatedUserMailException;
+import org.giste.club.web.service.stream.ElementHandler;
+import org.giste.club.web.service.stream.StreamingRestReader;
 import org.giste.spring.util.config.RestProperties;
 import org.giste.spring.util.error.dto.RestErrorDto;
 import org.giste.spring.util.service.CrudRestServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Service
-public class UserRestServiceImpl extends CrudRestServiceImpl<UserDto> implements UserRestService {
+@Profile("!reactive")
+public class UserRestServiceImpl extends CrudRestServiceImpl<UserDto>
+		implements UserRestService, CoalescedRestService {
 
 	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
+	private final ConditionalRestReader conditionalReader;
+	private final StreamingRestReader streamingReader;
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+
 	/**
 	 * Constructs a new implementation for {@link UserRestService}.
 	 * 
@@ -23,7 +41,45 @@ public class UserRestServiceImpl extends CrudRestServiceImpl<UserDto> implements
 	 *            REST server.
 	 */
 	public UserRestServiceImpl(RestTemplate restTemplate, RestProperties restPropertiesImpl) {
+		this(restTemplate, restPropertiesImpl, new ConditionalRestReader(restTemplate, restPropertiesImpl),
+				new StreamingRestReader(restTemplate, restPropertiesImpl, new ObjectMapper()));
+	}
+
+	/**
+	 * Constructs a new implementation for {@link UserRestService}.
+	 * 
+	 * @param restTemplate RestTemplate used for communicate with REST server.
+	 * @param restPropertiesImpl RestProperties with the data for accessing the
+	 *            REST server.
+	 * @param conditionalReader Reader used for conditional GET requests.
+	 * @param streamingReader Reader used for streaming pages of the list.
+	 */
+	@Autowired
+	public UserRestServiceImpl(RestTemplate restTemplate, RestProperties restPropertiesImpl,
+			ConditionalRestReader conditionalReader, StreamingRestReader streamingReader) {
 		super(restTemplate, restPropertiesImpl);
+		this.conditionalReader = conditionalReader;
+		this.streamingReader = streamingReader;
+	}
+
+	@Override
+	public UserDto findById(long id) {
+		// Concurrent reads of the same user share one call.
+		return coalescer.execute(id, () -> super.findById(id));
+	}
+
+	@Override
+	public List<UserDto> findAll() {
+		// Reuse the users read before if they haven't been modified, and
+		// share one call between concurrent reads.
+		return coalescer.execute(ALL, () -> Arrays.asList(conditionalReader.get(getBasePath(), getArrayType())));
+	}
+
+	@Override
+	public Page<UserDto> findAll(Pageable pageable) {
+		// Only the elements in the page are deserialized.
+		return coalescer.execute(pageable,
+				() -> streamingReader.readPage(getBasePath(), getDtoType(), pageable));
 	}
 
 	@Override
@@ -31,6 +87,17 @@ public class UserRestServiceImpl extends CrudRestServiceImpl<UserDto> implements
 		return UserDto[].class;
 	}
 
+	@Override
+	public void forEach(ElementHandler<UserDto> handler) {
+		// Each user is handled while the list is downloaded.
+		streamingReader.readEach(getBasePath(), getDtoType(), handler);
+	}
+
+	@Override
+	public RequestCoalescer getCoalescer() {
+		return coalescer;
+	}
+
 	@Override
 	protected Class<UserDto> getDtoType() {
 		return UserDto.class;
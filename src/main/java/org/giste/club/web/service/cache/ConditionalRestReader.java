@@ -0,0 +1,202 @@
+package org.giste.club.web.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.giste.club.web.service.RestUris;
+import org.giste.club.web.service.exception.BackendUnavailableException;
+import org.giste.spring.util.config.RestProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Reads resources from the REST server using conditional GET requests. Keeps
+ * the validators (ETag and Last-Modified) of the last response for each URI
+ * along with the deserialized body. When the server answers 304 (Not
+ * Modified), the body read before is returned without downloading nor
+ * deserializing it again. If the resource is unavailable because its circuit
+ * breaker is open or it has too many concurrent calls, the body read before is
+ * returned too.
+ * <p>
+ * Arrays read before are handed out as copies, so a caller changing its array
+ * doesn't change the one of other callers. The entities in them are shared.
+ * 
+ * @author Giste
+ */
+public class ConditionalRestReader implements PublicMetrics {
+
+	private static final int MAX_RESOURCES = 256;
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final RestTemplate restTemplate;
+	private final RestProperties restProperties;
+	private final Cache<String, ValidatedBody> bodies;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong notModified = new AtomicLong();
+	private final AtomicLong savedBytes = new AtomicLong();
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	/**
+	 * Constructs a new reader.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 */
+	public ConditionalRestReader(RestTemplate restTemplate, RestProperties restProperties) {
+		this.restTemplate = restTemplate;
+		this.restProperties = restProperties;
+		this.bodies = Caffeine.newBuilder()
+				.maximumSize(MAX_RESOURCES)
+				.build();
+	}
+
+	/**
+	 * Reads a resource of the REST server.
+	 * 
+	 * @param path Path of the resource, relative to the REST server path.
+	 * @param type Type of the body.
+	 * @return The body of the resource.
+	 */
+	public <T> T get(String path, Class<T> type) {
+		final String uri = RestUris.uri(restProperties, path);
+		final ValidatedBody cached = bodies.getIfPresent(uri);
+
+		HttpHeaders headers = new HttpHeaders();
+		if (cached != null) {
+			if (cached.eTag != null) {
+				headers.setIfNoneMatch(cached.eTag);
+			}
+			if (cached.lastModified >= 0) {
+				headers.setIfModifiedSince(cached.lastModified);
+			}
+		}
+
+		requests.incrementAndGet();
+		ResponseEntity<T> response;
+		try {
+			response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), type);
+		} catch (BackendUnavailableException e) {
+			if (cached == null) {
+				throw e;
+			}
+			// Resource is isolated, last body read is better than nothing.
+			LOGGER.warn("{} unavailable, reusing last body read: {}", uri, e.getMessage());
+			fallbacks.incrementAndGet();
+
+			return copy(type.cast(cached.body));
+		}
+
+		if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+			if (cached != null) {
+				LOGGER.debug("{} not modified, reusing body", uri);
+				notModified.incrementAndGet();
+				if (cached.contentLength > 0) {
+					savedBytes.addAndGet(cached.contentLength);
+				}
+
+				return copy(type.cast(cached.body));
+			}
+
+			// No body to reuse, read it again without validators.
+			LOGGER.debug("{} not modified but no body kept, reading it again", uri);
+			requests.incrementAndGet();
+			response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(unconditional()), type);
+			if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+				throw new RestClientException(uri + " answered 304 (Not Modified) to an unconditional request");
+			}
+		}
+
+		T body = response.getBody();
+		HttpHeaders responseHeaders = response.getHeaders();
+		if (body != null && (responseHeaders.getETag() != null || responseHeaders.getLastModified() >= 0)) {
+			bodies.put(uri, new ValidatedBody(responseHeaders.getETag(), responseHeaders.getLastModified(),
+					responseHeaders.getContentLength(), copy(body)));
+		} else {
+			bodies.invalidate(uri);
+		}
+
+		return body;
+	}
+
+	/**
+	 * Gets the number of conditional reads answered with 304 (Not Modified).
+	 * 
+	 * @return The number of reads not modified.
+	 */
+	public long getNotModifiedCount() {
+		return notModified.get();
+	}
+
+	/**
+	 * Gets the number of bytes not downloaded thanks to 304 responses. Only
+	 * counts responses with a known content length.
+	 * 
+	 * @return The number of saved bytes.
+	 */
+	public long getSavedBytes() {
+		return savedBytes.get();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>("rest.conditional.request", requests.get()));
+		metrics.add(new Metric<>("rest.conditional.notModified", notModified.get()));
+		metrics.add(new Metric<>("rest.conditional.savedBytes", savedBytes.get()));
+		metrics.add(new Metric<>("rest.conditional.fallback", fallbacks.get()));
+
+		return metrics;
+	}
+
+	private static HttpHeaders unconditional() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setCacheControl("no-cache");
+
+		return headers;
+	}
+
+	private static <T> T copy(T body) {
+		if (body instanceof Object[]) {
+			@SuppressWarnings("unchecked")
+			T copy = (T) ((Object[]) body).clone();
+
+			return copy;
+		}
+
+		return body;
+	}
+
+	/**
+	 * Body of a resource with the validators of the response that contained
+	 * it.
+	 */
+	private static class ValidatedBody {
+		private final String eTag;
+		private final long lastModified;
+		private final long contentLength;
+		private final Object body;
+
+		private ValidatedBody(String eTag, long lastModified, long contentLength, Object body) {
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.contentLength = contentLength;
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,379 @@
+package org.giste.club.web.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import org.giste.club.web.service.Pages;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Read-through cache of the entities of one resource of the REST server. Keeps
+ * the entities read by id and the list of all entities. Size is bounded and
+ * eviction follows the W-TinyLFU policy of Caffeine. Hits, misses and
+ * evictions are published in the metrics endpoint.
+ * <p>
+ * When the list is revalidated, it doesn't expire after its time to live: the
+ * last good copy is served even after it goes stale, while
+ * {@link #refreshAll(Supplier)} reads it again in the background. If refreshes
+ * keep failing, it expires after its maximum staleness. It's still removed
+ * when an entity changes, so changes made through this application are seen at
+ * once. The age of the list is published in the metrics endpoint.
+ * <p>
+ * Entities not found in the cache are taken from its {@link Prefetcher}, if
+ * it has one, before reading them.
+ * 
+ * @author Giste
+ * 
+ * @param <DTO> Type of the cached entities.
+ */
+public class EntityCache<DTO> implements PublicMetrics {
+
+	private static final String ALL = "all";
+
+	private final String name;
+	private final boolean streamPages;
+	private final boolean revalidated;
+	private final Cache<Long, DTO> entities;
+	private final Cache<String, List<DTO>> lists;
+
+	// Incremented on every invalidation, so lists read asynchronously aren't
+	// cached if they could be stale.
+	private final AtomicLong generation = new AtomicLong();
+
+	// Time in milliseconds when the cached list was read.
+	private volatile long listReadAt;
+
+	private volatile Prefetcher<DTO> prefetcher;
+
+	/**
+	 * Constructs a new cache.
+	 * 
+	 * @param name Name of the cached resource, used for metrics.
+	 * @param maxSize Maximum number of entities kept in the cache.
+	 * @param timeToLive Time in milliseconds an entry is valid since it was
+	 *            read.
+	 */
+	public EntityCache(String name, long maxSize, long timeToLive) {
+		this(name, maxSize, timeToLive, false);
+	}
+
+	/**
+	 * Constructs a new cache.
+	 * 
+	 * @param name Name of the cached resource, used for metrics.
+	 * @param maxSize Maximum number of entities kept in the cache.
+	 * @param timeToLive Time in milliseconds an entry is valid since it was
+	 *            read.
+	 * @param streamPages Whether pages not found in the cache are read
+	 *            directly instead of reading and caching the whole list.
+	 */
+	public EntityCache(String name, long maxSize, long timeToLive, boolean streamPages) {
+		this(name, maxSize, timeToLive, streamPages, false, timeToLive);
+	}
+
+	/**
+	 * Constructs a new cache.
+	 * 
+	 * @param name Name of the cached resource, used for metrics.
+	 * @param maxSize Maximum number of entities kept in the cache.
+	 * @param timeToLive Time in milliseconds an entry is valid since it was
+	 *            read.
+	 * @param streamPages Whether pages not found in the cache are read
+	 *            directly instead of reading and caching the whole list.
+	 * @param revalidated Whether the list of all entities is kept after its
+	 *            time to live, because it's refreshed in the background.
+	 * @param maxStale Time in milliseconds a revalidated list is served since
+	 *            it was read, when it isn't refreshed.
+	 */
+	public EntityCache(String name, long maxSize, long timeToLive, boolean streamPages, boolean revalidated,
+			long maxStale) {
+		this.name = name;
+		this.streamPages = streamPages;
+		this.revalidated = revalidated;
+		this.entities = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+		this.lists = Caffeine.newBuilder()
+				.maximumSize(1)
+				.expireAfterWrite(revalidated ? maxStale : timeToLive, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Gets the name of the cached resource.
+	 * 
+	 * @return The name of the resource.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Sets the prefetcher of the entities of this cache.
+	 * 
+	 * @param prefetcher The prefetcher.
+	 */
+	public void setPrefetcher(Prefetcher<DTO> prefetcher) {
+		this.prefetcher = prefetcher;
+	}
+
+	/**
+	 * Tells whether the list of all entities is refreshed in the background
+	 * instead of expiring.
+	 * 
+	 * @return true if the list is revalidated.
+	 */
+	public boolean isRevalidated() {
+		return revalidated;
+	}
+
+	/**
+	 * Gets the list of all entities, reading it with the loader if it isn't
+	 * cached. The returned list can't be modified.
+	 * 
+	 * @param loader Function for reading all the entities.
+	 * @return The list of all the entities.
+	 */
+	public List<DTO> getAll(Supplier<List<DTO>> loader) {
+		return lists.get(ALL, key -> {
+			List<DTO> read = Collections.unmodifiableList(loader.get());
+			listReadAt = System.currentTimeMillis();
+
+			return read;
+		});
+	}
+
+	/**
+	 * Gets the list of all entities if it's cached.
+	 * 
+	 * @return The list of all entities, or null if it isn't cached.
+	 */
+	public List<DTO> getAllIfPresent() {
+		return lists.getIfPresent(ALL);
+	}
+
+	/**
+	 * Gets the list of all entities, reading it asynchronously with the loader
+	 * if it isn't cached. The list read is cached unless the cache is
+	 * invalidated while reading it.
+	 * 
+	 * @param loader Function for reading all the entities asynchronously.
+	 * @return Future for the list of all the entities.
+	 */
+	public CompletableFuture<List<DTO>> getAllAsync(Supplier<CompletableFuture<List<DTO>>> loader) {
+		List<DTO> all = lists.getIfPresent(ALL);
+		if (all != null) {
+			return CompletableFuture.completedFuture(all);
+		}
+
+		final long readGeneration = generation.get();
+
+		return loader.get().thenApply(entities -> {
+			List<DTO> read = Collections.unmodifiableList(entities);
+			store(read, readGeneration);
+
+			return read;
+		});
+	}
+
+	/**
+	 * Reads the list of all entities with the loader and caches it, replacing
+	 * the cached one. The list read isn't cached if the cache is invalidated
+	 * while reading it.
+	 * 
+	 * @param loader Function for reading all the entities.
+	 */
+	public void refreshAll(Supplier<List<DTO>> loader) {
+		final long readGeneration = generation.get();
+		store(Collections.unmodifiableList(loader.get()), readGeneration);
+	}
+
+	private void store(List<DTO> read, long readGeneration) {
+		// Checked and stored atomically: invalidations increment the generation
+		// before removing the list, so a list read before one is never kept.
+		lists.asMap().compute(ALL, (key, cached) -> {
+			if (generation.get() != readGeneration) {
+				return cached;
+			}
+			listReadAt = System.currentTimeMillis();
+
+			return read;
+		});
+	}
+
+	/**
+	 * Gets the time since the cached list of all entities was read.
+	 * 
+	 * @return The age of the list in milliseconds, or -1 if it isn't cached.
+	 */
+	public long getListAge() {
+		// The map view doesn't count hits nor misses.
+		if (!lists.asMap().containsKey(ALL)) {
+			return -1;
+		}
+
+		return Math.max(0, System.currentTimeMillis() - listReadAt);
+	}
+
+	/**
+	 * Gets a page of entities. If the list of all entities is cached, the
+	 * page is built from it. If it isn't, the whole list is read and cached
+	 * with the list loader or, when this cache streams pages, only the page
+	 * is read with the page loader.
+	 * 
+	 * @param pageable The requested page.
+	 * @param loader Function for reading all the entities.
+	 * @param pageLoader Function for reading a page of entities.
+	 * @return The page of entities.
+	 */
+	public Page<DTO> getPage(Pageable pageable, Supplier<List<DTO>> loader,
+			Function<Pageable, Page<DTO>> pageLoader) {
+		if (streamPages) {
+			List<DTO> all = lists.getIfPresent(ALL);
+
+			return all == null ? pageLoader.apply(pageable) : Pages.of(all, pageable);
+		}
+
+		return Pages.of(getAll(loader), pageable);
+	}
+
+	/**
+	 * Gets a page of entities asynchronously. Works like
+	 * {@link #getPage(Pageable, Supplier, Function)} with asynchronous
+	 * loaders.
+	 * 
+	 * @param pageable The requested page.
+	 * @param loader Function for reading all the entities asynchronously.
+	 * @param pageLoader Function for reading a page of entities
+	 *            asynchronously.
+	 * @return Future for the page of entities.
+	 */
+	public CompletableFuture<Page<DTO>> getPageAsync(Pageable pageable,
+			Supplier<CompletableFuture<List<DTO>>> loader,
+			Function<Pageable, CompletableFuture<Page<DTO>>> pageLoader) {
+		if (streamPages) {
+			List<DTO> all = lists.getIfPresent(ALL);
+
+			return all == null ? pageLoader.apply(pageable)
+					: CompletableFuture.completedFuture(Pages.of(all, pageable));
+		}
+
+		return getAllAsync(loader).thenApply(all -> Pages.of(all, pageable));
+	}
+
+	/**
+	 * Gets an entity, reading it with the loader if it isn't cached.
+	 * 
+	 * @param id Identifier of the entity.
+	 * @param loader Function for reading the entity by its identifier.
+	 * @return The entity.
+	 */
+	public DTO get(long id, LongFunction<DTO> loader) {
+		final Prefetcher<DTO> prefetcher = this.prefetcher;
+
+		return entities.get(id, key -> prefetcher == null ? loader.apply(key) : prefetcher.take(key, loader));
+	}
+
+	/**
+	 * Tells whether an entity is cached, without counting a hit or a miss.
+	 * 
+	 * @param id Identifier of the entity.
+	 * @return true if the entity is cached.
+	 */
+	public boolean contains(long id) {
+		return entities.asMap().containsKey(id);
+	}
+
+	/**
+	 * Removes an entity and the lists that may contain it.
+	 * 
+	 * @param id Identifier of the entity.
+	 */
+	public void invalidate(long id) {
+		generation.incrementAndGet();
+		entities.invalidate(id);
+		lists.invalidateAll();
+		final Prefetcher<DTO> prefetcher = this.prefetcher;
+		if (prefetcher != null) {
+			prefetcher.invalidate(id);
+		}
+	}
+
+	/**
+	 * Removes the lists of entities. Used when an entity is added.
+	 */
+	public void invalidateLists() {
+		generation.incrementAndGet();
+		lists.invalidateAll();
+	}
+
+	/**
+	 * Removes all entries of this cache.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		entities.invalidateAll();
+		lists.invalidateAll();
+		final Prefetcher<DTO> prefetcher = this.prefetcher;
+		if (prefetcher != null) {
+			prefetcher.invalidateAll();
+		}
+	}
+
+	/**
+	 * Gets the statistics of the entities read by id.
+	 * 
+	 * @return The statistics.
+	 */
+	public CacheStats entityStats() {
+		return entities.stats();
+	}
+
+	/**
+	 * Gets the statistics of the lists of entities.
+	 * 
+	 * @return The statistics.
+	 */
+	public CacheStats listStats() {
+		return lists.stats();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		addMetrics(metrics, "cache." + name + ".entity.", entities);
+		addMetrics(metrics, "cache." + name + ".list.", lists);
+		final long listAge = getListAge();
+		if (listAge >= 0) {
+			metrics.add(new Metric<>("cache." + name + ".list.age", listAge));
+		}
+
+		return metrics;
+	}
+
+	private void addMetrics(Collection<Metric<?>> metrics, String prefix, Cache<?, ?> cache) {
+		CacheStats stats = cache.stats();
+		metrics.add(new Metric<>(prefix + "size", cache.estimatedSize()));
+		metrics.add(new Metric<>(prefix + "hit", stats.hitCount()));
+		metrics.add(new Metric<>(prefix + "miss", stats.missCount()));
+		metrics.add(new Metric<>(prefix + "eviction", stats.evictionCount()));
+	}
+}
@@ -0,0 +1,131 @@
+package org.giste.club.web.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Refreshes the lists of revalidated {@link EntityCache}s in the background.
+ * Each list is read again after its interval, randomly lengthened or
+ * shortened by the jitter, so the nodes of a cluster don't call the REST
+ * server at the same time. If a refresh fails, the last good copy is kept and
+ * the next refresh is scheduled as usual.
+ * 
+ * @author Giste
+ */
+public class ListRefresher implements PublicMetrics {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final ScheduledExecutorService scheduler;
+	private final double jitter;
+	private final List<Refresh<?>> refreshes = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Constructs a new refresher.
+	 * 
+	 * @param threads Number of threads used to refresh the lists.
+	 * @param jitter Fraction of the interval added to or removed from it at
+	 *            random, between 0 and 1.
+	 */
+	public ListRefresher(int threads, double jitter) {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads,
+				new CustomizableThreadFactory("list-refresh-"));
+		executor.setRemoveOnCancelPolicy(true);
+		this.scheduler = executor;
+		this.jitter = Math.max(0, Math.min(jitter, 1));
+	}
+
+	/**
+	 * Schedules the refresh of the list of a cache. The first refresh is done
+	 * after a random delay below the interval, so the list is warmed up
+	 * without every node reading it at once.
+	 * 
+	 * @param cache The cache of the list.
+	 * @param loader Function for reading all the entities.
+	 * @param interval Time in milliseconds between refreshes.
+	 */
+	public <DTO> void schedule(EntityCache<DTO> cache, Supplier<List<DTO>> loader, long interval) {
+		Refresh<DTO> refresh = new Refresh<>(cache, loader, interval);
+		refreshes.add(refresh);
+		scheduler.schedule(refresh, ThreadLocalRandom.current().nextLong(interval + 1), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops refreshing the lists.
+	 */
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Gets the delay until the next refresh, applying the jitter to the
+	 * interval.
+	 * 
+	 * @param interval Time in milliseconds between refreshes.
+	 * @return The delay in milliseconds.
+	 */
+	long nextDelay(long interval) {
+		final double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+
+		return Math.max(1, Math.round(interval * factor));
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		for (Refresh<?> refresh : refreshes) {
+			final String prefix = "cache." + refresh.cache.getName() + ".refresh.";
+			metrics.add(new Metric<>(prefix + "count", refresh.count.get()));
+			metrics.add(new Metric<>(prefix + "failure", refresh.failures.get()));
+		}
+
+		return metrics;
+	}
+
+	/**
+	 * Refresh of the list of one cache, that schedules the next one when it's
+	 * done.
+	 */
+	private class Refresh<DTO> implements Runnable {
+		private final EntityCache<DTO> cache;
+		private final Supplier<List<DTO>> loader;
+		private final long interval;
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+
+		private Refresh(EntityCache<DTO> cache, Supplier<List<DTO>> loader, long interval) {
+			this.cache = cache;
+			this.loader = loader;
+			this.interval = interval;
+		}
+
+		@Override
+		public void run() {
+			try {
+				cache.refreshAll(loader);
+				count.incrementAndGet();
+			} catch (RuntimeException e) {
+				failures.incrementAndGet();
+				LOGGER.warn("Refresh of {} failed, keeping last list read: {}", cache.getName(), e.getMessage());
+			}
+
+			if (!scheduler.isShutdown()) {
+				scheduler.schedule(this, nextDelay(interval), TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package org.giste.club.web.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Reads entities in the background before they are requested, and keeps them
+ * for a short time. An {@link EntityCache} takes a prefetched entity instead
+ * of reading it when it's requested. Hits, misses and entities that expired
+ * without being requested are published in the metrics endpoint, so the number
+ * of entities prefetched can be tuned.
+ * 
+ * @author Giste
+ * 
+ * @param <DTO> Type of the prefetched entities.
+ */
+public class Prefetcher<DTO> implements PublicMetrics {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final String name;
+	private final LongFunction<DTO> loader;
+	private final LongPredicate cached;
+	private final Executor executor;
+	private final Cache<Long, DTO> prefetched;
+	private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+	// Incremented on every invalidation, so entities read while they change
+	// aren't kept.
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong unused = new AtomicLong();
+
+	/**
+	 * Constructs a new prefetcher.
+	 * 
+	 * @param name Name of the prefetched resource, used for metrics.
+	 * @param loader Function for reading an entity by its identifier.
+	 * @param cached Tells whether an entity is already cached, so it isn't
+	 *            prefetched.
+	 * @param executor Executor used to read the entities.
+	 * @param maxSize Maximum number of prefetched entities kept.
+	 * @param timeToLive Time in milliseconds a prefetched entity is kept.
+	 */
+	public Prefetcher(String name, LongFunction<DTO> loader, LongPredicate cached, Executor executor, long maxSize,
+			long timeToLive) {
+		this.name = name;
+		this.loader = loader;
+		this.cached = cached;
+		this.executor = executor;
+		this.prefetched = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+				.executor(Runnable::run)
+				.<Long, DTO>removalListener((id, dto, cause) -> {
+					if (cause.wasEvicted()) {
+						unused.incrementAndGet();
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * Reads entities in the background. Entities already cached, prefetched
+	 * or being prefetched are skipped. If the executor is full, the remaining
+	 * entities aren't read.
+	 * 
+	 * @param ids Identifiers of the entities.
+	 */
+	public void prefetch(Collection<Long> ids) {
+		for (Long id : ids) {
+			if (cached.test(id) || prefetched.asMap().containsKey(id) || !inFlight.add(id)) {
+				continue;
+			}
+
+			final long readGeneration = generation.get();
+			try {
+				executor.execute(() -> load(id, readGeneration));
+				requested.incrementAndGet();
+			} catch (RejectedExecutionException e) {
+				inFlight.remove(id);
+				rejected.incrementAndGet();
+				LOGGER.debug("Prefetch executor is full, {} {} and next ones skipped", name, id);
+
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Takes a prefetched entity, or reads it with the loader if it hasn't
+	 * been prefetched.
+	 * 
+	 * @param id Identifier of the entity.
+	 * @param loader Function for reading the entity by its identifier.
+	 * @return The entity.
+	 */
+	public DTO take(long id, LongFunction<DTO> loader) {
+		DTO dto = prefetched.asMap().remove(id);
+		if (dto != null) {
+			hits.incrementAndGet();
+
+			return dto;
+		}
+
+		misses.incrementAndGet();
+
+		return loader.apply(id);
+	}
+
+	/**
+	 * Removes a prefetched entity. Used when the entity changes.
+	 * 
+	 * @param id Identifier of the entity.
+	 */
+	public void invalidate(long id) {
+		generation.incrementAndGet();
+		prefetched.invalidate(id);
+	}
+
+	/**
+	 * Removes all prefetched entities.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		prefetched.invalidateAll();
+	}
+
+	/**
+	 * Gets the number of requested entities that had been prefetched.
+	 * 
+	 * @return The number of hits.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of requested entities that hadn't been prefetched.
+	 * 
+	 * @return The number of misses.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Gets the number of prefetched entities removed without being requested.
+	 * 
+	 * @return The number of unused entities.
+	 */
+	public long getUnusedCount() {
+		return unused.get();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		final String prefix = "prefetch." + name + ".";
+		final long hitCount = hits.get();
+		final long requests = hitCount + misses.get();
+
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>(prefix + "requested", requested.get()));
+		metrics.add(new Metric<>(prefix + "rejected", rejected.get()));
+		metrics.add(new Metric<>(prefix + "failure", failures.get()));
+		metrics.add(new Metric<>(prefix + "hit", hitCount));
+		metrics.add(new Metric<>(prefix + "miss", misses.get()));
+		metrics.add(new Metric<>(prefix + "unused", unused.get()));
+		metrics.add(new Metric<>(prefix + "hitRate", requests == 0 ? 0.0 : (double) hitCount / requests));
+
+		return metrics;
+	}
+
+	private void load(long id, long readGeneration) {
+		try {
+			DTO dto = loader.apply(id);
+			if (dto != null) {
+				// Checked and stored atomically: invalidations increment the
+				// generation before removing the entity.
+				prefetched.asMap().compute(id, (key, kept) -> generation.get() == readGeneration ? dto : kept);
+			}
+		} catch (RuntimeException e) {
+			failures.incrementAndGet();
+			LOGGER.debug("Prefetch of {} {} failed: {}", name, id, e.getMessage());
+		} finally {
+			inFlight.remove(id);
+		}
+	}
+}
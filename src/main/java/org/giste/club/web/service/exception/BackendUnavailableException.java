@@ -0,0 +1,27 @@
+package org.giste.club.web.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Exception thrown when a call to the REST server is rejected without being
+ * made, because the circuit breaker of the resource is open or there are too
+ * many concurrent calls to it.
+ * 
+ * @author Giste
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BackendUnavailableException extends RestClientException {
+
+	private static final long serialVersionUID = 2781904466817353950L;
+
+	/**
+	 * Creates the exception with the message.
+	 * 
+	 * @param message Message for this exception.
+	 */
+	public BackendUnavailableException(String message) {
+		super(message);
+	}
+}
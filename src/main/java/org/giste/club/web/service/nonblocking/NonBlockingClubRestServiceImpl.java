@@ -0,0 +1,97 @@
+package org.giste.club.web.service.nonblocking;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.BulkCalls;
+import org.giste.club.web.service.BulkResult;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.ClubRestServiceImpl;
+import org.giste.club.web.service.cache.ConditionalRestReader;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.giste.spring.util.config.RestProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Implementation of {@link ClubRestService} for the "reactive" profile.
+ * Asynchronous reads and bulk changes don't block any thread while waiting for
+ * the REST server, so the executor passed to them isn't used. Synchronous
+ * methods are the ones of {@link ClubRestServiceImpl}, as their callers wait
+ * for the result anyway. Conflicts fail with the same exception in both.
+ * 
+ * @author Giste
+ */
+@Service("clubRestServiceImpl")
+@Profile("reactive")
+public class NonBlockingClubRestServiceImpl extends ClubRestServiceImpl {
+
+	private final NonBlockingRestClient nonBlockingClient;
+
+	/**
+	 * Constructs a new non-blocking service.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param nonBlockingClient Client used for non-blocking requests.
+	 */
+	public NonBlockingClubRestServiceImpl(RestTemplate restTemplate, RestProperties restProperties,
+			NonBlockingRestClient nonBlockingClient) {
+		super(restTemplate, restProperties);
+		this.nonBlockingClient = nonBlockingClient;
+	}
+
+	/**
+	 * Constructs a new non-blocking service.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param conditionalReader Reader used for conditional GET requests.
+	 * @param streamingReader Reader used for streaming pages of the list.
+	 * @param nonBlockingClient Client used for non-blocking requests.
+	 */
+	@Autowired
+	public NonBlockingClubRestServiceImpl(RestTemplate restTemplate, RestProperties restProperties,
+			ConditionalRestReader conditionalReader, StreamingRestReader streamingReader,
+			NonBlockingRestClient nonBlockingClient) {
+		super(restTemplate, restProperties, conditionalReader, streamingReader);
+		this.nonBlockingClient = nonBlockingClient;
+	}
+
+	@Override
+	public CompletableFuture<List<ClubDto>> findAllAsync(Executor executor) {
+		// Same key as the blocking read of all the entities, so both share
+		// the call in flight.
+		return getCoalescer().executeAsync(ALL,
+				() -> nonBlockingClient.get(getBasePath(), getArrayType()).thenApply(Arrays::asList));
+	}
+
+	@Override
+	public CompletableFuture<Page<ClubDto>> findAllAsync(Pageable pageable, Executor executor) {
+		// Same key as the blocking read of the page. Only the elements in the
+		// page are deserialized.
+		return getCoalescer().executeAsync(pageable,
+				() -> nonBlockingClient.getPage(getBasePath(), getDtoType(), pageable));
+	}
+
+	@Override
+	public CompletableFuture<List<BulkResult<ClubDto>>> setEnabledAsync(List<Long> ids, boolean enabled,
+			int concurrency, Executor executor) {
+		final String action = enabled ? "/enable" : "/disable";
+
+		return BulkCalls.<ClubDto> runAsync(ids,
+				id -> nonBlockingClient.exchange(HttpMethod.PUT, getBasePath() + "/" + id + action, null,
+						getDtoType(), this::handleHttpStatusConflict),
+				concurrency);
+	}
+}
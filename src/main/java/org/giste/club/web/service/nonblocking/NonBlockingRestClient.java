@@ -0,0 +1,136 @@
+package org.giste.club.web.service.nonblocking;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.giste.club.web.service.RestUris;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.giste.spring.util.config.RestProperties;
+import org.giste.spring.util.error.dto.RestErrorDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls the REST server without blocking the calling thread. The response is
+ * handled in the I/O threads of the HTTP client.
+ * <p>
+ * Error responses go through the error handler of the AsyncRestTemplate. A
+ * conflict is also passed to the handler of conflicts of the caller, so it
+ * fails with the same exception as the blocking call.
+ * 
+ * @author Giste
+ */
+public class NonBlockingRestClient {
+
+	private final AsyncRestTemplate asyncRestTemplate;
+	private final RestProperties restProperties;
+	private final StreamingRestReader streamingReader;
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Constructs a new client.
+	 * 
+	 * @param asyncRestTemplate AsyncRestTemplate used to communicate with REST
+	 *            server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param streamingReader Reader used to read pages from the responses.
+	 * @param objectMapper ObjectMapper used to read the errors.
+	 */
+	public NonBlockingRestClient(AsyncRestTemplate asyncRestTemplate, RestProperties restProperties,
+			StreamingRestReader streamingReader, ObjectMapper objectMapper) {
+		this.asyncRestTemplate = asyncRestTemplate;
+		this.restProperties = restProperties;
+		this.streamingReader = streamingReader;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Reads a resource of the REST server.
+	 * 
+	 * @param path Path of the resource, relative to the REST server path.
+	 * @param type Type of the body.
+	 * @return Future for the body of the resource.
+	 */
+	public <T> CompletableFuture<T> get(String path, Class<T> type) {
+		return exchange(HttpMethod.GET, path, null, type, null);
+	}
+
+	/**
+	 * Reads a page of a list resource of the REST server. Only the elements in
+	 * the page are deserialized, as in
+	 * {@link StreamingRestReader#readPage(String, Class, Pageable)}.
+	 * 
+	 * @param path Path of the list resource, relative to the REST server path.
+	 * @param type Type of the elements of the list.
+	 * @param pageable The requested page.
+	 * @return Future for the page of elements.
+	 */
+	public <T> CompletableFuture<Page<T>> getPage(String path, Class<T> type, Pageable pageable) {
+		return toCompletable(asyncRestTemplate.execute(RestUris.uri(restProperties, path), HttpMethod.GET,
+				request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+				response -> streamingReader.readPage(response.getBody(), type, pageable)), null);
+	}
+
+	/**
+	 * Sends a request to a resource of the REST server.
+	 * 
+	 * @param method Method of the request.
+	 * @param path Path of the resource, relative to the REST server path.
+	 * @param body Body of the request, or null if it has no body.
+	 * @param type Type of the body of the response.
+	 * @param conflictHandler Handler of the error of a conflict response. It
+	 *            throws the exception the future fails with. Null if
+	 *            conflicts aren't expected.
+	 * @return Future for the body of the response.
+	 */
+	public <T> CompletableFuture<T> exchange(HttpMethod method, String path, Object body, Class<T> type,
+			Consumer<RestErrorDto> conflictHandler) {
+		final ListenableFuture<ResponseEntity<T>> response = asyncRestTemplate.exchange(
+				RestUris.uri(restProperties, path), method, body == null ? null : new HttpEntity<>(body), type);
+
+		return toCompletable(response, conflictHandler).thenApply(ResponseEntity::getBody);
+	}
+
+	private <T> CompletableFuture<T> toCompletable(ListenableFuture<T> call, Consumer<RestErrorDto> conflictHandler) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		call.addCallback(future::complete, e -> future.completeExceptionally(translate(e, conflictHandler)));
+
+		return future;
+	}
+
+	private Throwable translate(Throwable e, Consumer<RestErrorDto> conflictHandler) {
+		if (conflictHandler == null || !(e instanceof HttpStatusCodeException)
+				|| ((HttpStatusCodeException) e).getStatusCode() != HttpStatus.CONFLICT) {
+			return e;
+		}
+
+		final RestErrorDto error;
+		try {
+			error = objectMapper.readValue(((HttpStatusCodeException) e).getResponseBodyAsByteArray(),
+					RestErrorDto.class);
+		} catch (IOException notAnError) {
+			return e;
+		}
+
+		try {
+			conflictHandler.accept(error);
+		} catch (RuntimeException conflict) {
+			return conflict;
+		}
+
+		return e;
+	}
+}
@@ -0,0 +1,83 @@
+package org.giste.club.web.service.nonblocking;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.UserRestService;
+import org.giste.club.web.service.UserRestServiceImpl;
+import org.giste.club.web.service.cache.ConditionalRestReader;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.giste.spring.util.config.RestProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Implementation of {@link UserRestService} for the "reactive" profile.
+ * Asynchronous reads don't block any thread while waiting for the REST server,
+ * so the executor passed to them isn't used. Synchronous methods are the ones
+ * of {@link UserRestServiceImpl}, as their callers wait for the result
+ * anyway.
+ * 
+ * @author Giste
+ */
+@Service("userRestServiceImpl")
+@Profile("reactive")
+public class NonBlockingUserRestServiceImpl extends UserRestServiceImpl {
+
+	private final NonBlockingRestClient nonBlockingClient;
+
+	/**
+	 * Constructs a new non-blocking service.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param nonBlockingClient Client used for non-blocking requests.
+	 */
+	public NonBlockingUserRestServiceImpl(RestTemplate restTemplate, RestProperties restProperties,
+			NonBlockingRestClient nonBlockingClient) {
+		super(restTemplate, restProperties);
+		this.nonBlockingClient = nonBlockingClient;
+	}
+
+	/**
+	 * Constructs a new non-blocking service.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param conditionalReader Reader used for conditional GET requests.
+	 * @param streamingReader Reader used for streaming pages of the list.
+	 * @param nonBlockingClient Client used for non-blocking requests.
+	 */
+	@Autowired
+	public NonBlockingUserRestServiceImpl(RestTemplate restTemplate, RestProperties restProperties,
+			ConditionalRestReader conditionalReader, StreamingRestReader streamingReader,
+			NonBlockingRestClient nonBlockingClient) {
+		super(restTemplate, restProperties, conditionalReader, streamingReader);
+		this.nonBlockingClient = nonBlockingClient;
+	}
+
+	@Override
+	public CompletableFuture<List<UserDto>> findAllAsync(Executor executor) {
+		// Same key as the blocking read of all the entities, so both share
+		// the call in flight.
+		return getCoalescer().executeAsync(ALL,
+				() -> nonBlockingClient.get(getBasePath(), getArrayType()).thenApply(Arrays::asList));
+	}
+
+	@Override
+	public CompletableFuture<Page<UserDto>> findAllAsync(Pageable pageable, Executor executor) {
+		// Same key as the blocking read of the page. Only the elements in the
+		// page are deserialized.
+		return getCoalescer().executeAsync(pageable,
+				() -> nonBlockingClient.getPage(getBasePath(), getDtoType(), pageable));
+	}
+}
@@ -0,0 +1,76 @@
+package org.giste.club.web.service.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of concurrent calls to a resource of the REST server, so
+ * a slow resource can't take all the threads of the application.
+ * 
+ * @author Giste
+ */
+public class Bulkhead {
+
+	private final int maxConcurrentCalls;
+	private final long maxWaitMillis;
+	private final Semaphore permits;
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * Constructs a new bulkhead.
+	 * 
+	 * @param maxConcurrentCalls Maximum number of concurrent calls.
+	 * @param maxWaitMillis Maximum time in milliseconds a call waits for a
+	 *            free permit.
+	 */
+	public Bulkhead(int maxConcurrentCalls, long maxWaitMillis) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitMillis = maxWaitMillis;
+		this.permits = new Semaphore(maxConcurrentCalls, true);
+	}
+
+	/**
+	 * Asks for permission to make a call, waiting for a free permit up to the
+	 * maximum wait. Every permitted call must be followed by a call to
+	 * {@link #release()}.
+	 * 
+	 * @return True if the call is permitted, false if there isn't any free
+	 *         permit.
+	 */
+	public boolean tryAcquire() {
+		boolean acquired;
+		try {
+			acquired = maxWaitMillis > 0 ? permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)
+					: permits.tryAcquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			rejected.incrementAndGet();
+		}
+
+		return acquired;
+	}
+
+	/**
+	 * Releases the permit of a finished call.
+	 */
+	public void release() {
+		permits.release();
+	}
+
+	/**
+	 * Gets the number of calls running.
+	 * 
+	 * @return The number of active calls.
+	 */
+	public int getActive() {
+		return maxConcurrentCalls - permits.availablePermits();
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+}
@@ -0,0 +1,239 @@
+package org.giste.club.web.service.resilience;
+
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker for the calls to a resource of the REST server. Outcomes of
+ * the last calls are kept in a sliding window. When the window has enough
+ * calls and the rate of failed or slow calls reaches its threshold, the
+ * breaker opens and calls are rejected without reaching the server. After a
+ * wait, the breaker is half open and lets a few trial calls through: if all
+ * of them succeed, it closes, otherwise it opens again.
+ * 
+ * @author Giste
+ */
+public class CircuitBreaker {
+
+	/**
+	 * State of a circuit breaker. The code is the value published in metrics.
+	 */
+	public enum State {
+		CLOSED(0), OPEN(1), HALF_OPEN(2);
+
+		private final int code;
+
+		private State(int code) {
+			this.code = code;
+		}
+
+		public int getCode() {
+			return code;
+		}
+	}
+
+	private static final byte FAILED = 1;
+	private static final byte SLOW = 2;
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final String name;
+	private final int minimumCalls;
+	private final int failureRateThreshold;
+	private final int slowCallRateThreshold;
+	private final long slowCallNanos;
+	private final long openNanos;
+	private final int halfOpenCalls;
+	private final LongSupplier clock;
+
+	private final byte[] window;
+	private int windowIndex;
+	private int windowCalls;
+	private int failedCalls;
+	private int slowCalls;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	private long opened;
+	private long halfOpened;
+	private long closed;
+	private long rejected;
+
+	/**
+	 * Constructs a closed circuit breaker.
+	 * 
+	 * @param name Name of the breaker, used in logs.
+	 * @param windowSize Number of calls kept in the sliding window.
+	 * @param minimumCalls Minimum number of calls in the window for opening
+	 *            the breaker.
+	 * @param failureRateThreshold Percentage of failed calls that opens the
+	 *            breaker.
+	 * @param slowCallRateThreshold Percentage of slow calls that opens the
+	 *            breaker.
+	 * @param slowCallMillis Duration in milliseconds from which a call is
+	 *            slow.
+	 * @param openMillis Time in milliseconds the breaker stays open.
+	 * @param halfOpenCalls Number of trial calls let through when half open.
+	 * @param clock Source of the current time in nanoseconds.
+	 */
+	public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+			int slowCallRateThreshold, long slowCallMillis, long openMillis, int halfOpenCalls, LongSupplier clock) {
+		this.name = name;
+		this.window = new byte[windowSize];
+		this.minimumCalls = Math.min(minimumCalls, windowSize);
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallNanos = slowCallMillis * 1000000;
+		this.openNanos = openMillis * 1000000;
+		this.halfOpenCalls = halfOpenCalls;
+		this.clock = clock;
+	}
+
+	/**
+	 * Asks for permission to make a call. Every permitted call must be
+	 * followed by a call to {@link #onSuccess(long)} or
+	 * {@link #onFailure(long)}.
+	 * 
+	 * @return True if the call is permitted, false if the breaker is open.
+	 */
+	public synchronized boolean tryAcquire() {
+		if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+			transitionTo(State.HALF_OPEN);
+		}
+
+		switch (state) {
+		case CLOSED:
+			return true;
+		case HALF_OPEN:
+			if (halfOpenPermits > 0) {
+				halfOpenPermits--;
+				return true;
+			}
+			break;
+		default:
+			break;
+		}
+		rejected++;
+
+		return false;
+	}
+
+	/**
+	 * Records a successful call. It's still counted as slow if it lasted too
+	 * much.
+	 * 
+	 * @param nanos Duration of the call in nanoseconds.
+	 */
+	public synchronized void onSuccess(long nanos) {
+		record(nanos >= slowCallNanos ? SLOW : 0);
+	}
+
+	/**
+	 * Records a failed call.
+	 * 
+	 * @param nanos Duration of the call in nanoseconds.
+	 */
+	public synchronized void onFailure(long nanos) {
+		record((byte) (FAILED | (nanos >= slowCallNanos ? SLOW : 0)));
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	public synchronized long getOpened() {
+		return opened;
+	}
+
+	public synchronized long getHalfOpened() {
+		return halfOpened;
+	}
+
+	public synchronized long getClosed() {
+		return closed;
+	}
+
+	public synchronized long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Gets the percentage of failed calls in the window.
+	 * 
+	 * @return The failure rate.
+	 */
+	public synchronized int getFailureRate() {
+		return windowCalls == 0 ? 0 : failedCalls * 100 / windowCalls;
+	}
+
+	/**
+	 * Gets the percentage of slow calls in the window.
+	 * 
+	 * @return The slow call rate.
+	 */
+	public synchronized int getSlowCallRate() {
+		return windowCalls == 0 ? 0 : slowCalls * 100 / windowCalls;
+	}
+
+	private void record(byte outcome) {
+		if (state == State.HALF_OPEN) {
+			if (outcome != 0) {
+				transitionTo(State.OPEN);
+			} else if (++halfOpenSuccesses >= halfOpenCalls) {
+				transitionTo(State.CLOSED);
+			}
+			return;
+		}
+		if (state == State.OPEN) {
+			// Call permitted before opening.
+			return;
+		}
+
+		if (windowCalls == window.length) {
+			// Oldest outcome leaves the window.
+			byte oldest = window[windowIndex];
+			failedCalls -= oldest & FAILED;
+			slowCalls -= (oldest & SLOW) >> 1;
+		} else {
+			windowCalls++;
+		}
+		window[windowIndex] = outcome;
+		windowIndex = (windowIndex + 1) % window.length;
+		failedCalls += outcome & FAILED;
+		slowCalls += (outcome & SLOW) >> 1;
+
+		if (windowCalls >= minimumCalls
+				&& (getFailureRate() >= failureRateThreshold || getSlowCallRate() >= slowCallRateThreshold)) {
+			transitionTo(State.OPEN);
+		}
+	}
+
+	private void transitionTo(State newState) {
+		LOGGER.warn("Circuit breaker {} changed from {} to {} (failure rate {}%, slow call rate {}%)", name, state,
+				newState, getFailureRate(), getSlowCallRate());
+		state = newState;
+
+		switch (newState) {
+		case OPEN:
+			opened++;
+			openedAt = clock.getAsLong();
+			break;
+		case HALF_OPEN:
+			halfOpened++;
+			halfOpenPermits = halfOpenCalls;
+			halfOpenSuccesses = 0;
+			break;
+		default:
+			closed++;
+			windowIndex = 0;
+			windowCalls = 0;
+			failedCalls = 0;
+			slowCalls = 0;
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package org.giste.club.web.service.resilience;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.giste.club.web.service.exception.BackendUnavailableException;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AsyncClientHttpRequestExecution;
+import org.springframework.http.client.AsyncClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * Interceptor of the calls to the REST server that isolates its resources
+ * from each other. Each resource ("clubs", "users"...) has its own
+ * {@link Bulkhead} and {@link CircuitBreaker}, so a slow or failing resource
+ * doesn't take the threads used for the others. Rejected calls throw
+ * {@link BackendUnavailableException}.
+ * <p>
+ * Server errors (5xx) and I/O errors are failures for the circuit breaker.
+ * Client errors (4xx) aren't, because the server is answering. The duration
+ * of a call is measured until the response headers are received, and the
+ * bulkhead permit is kept until the response is closed.
+ * <p>
+ * It intercepts the calls of both RestTemplate and AsyncRestTemplate, with
+ * the same guard for each resource, so the non-blocking client is limited
+ * like the blocking one. The failure of a non-blocking call is reported
+ * through its future.
+ * 
+ * @author Giste
+ */
+public class ResilienceInterceptor
+		implements ClientHttpRequestInterceptor, AsyncClientHttpRequestInterceptor, PublicMetrics {
+
+	private static final String PREFIX = "rest.resilience.";
+	private static final int SERVER_ERROR = 500;
+
+	private final String basePath;
+	private final Function<String, Bulkhead> bulkheadFactory;
+	private final Function<String, CircuitBreaker> circuitBreakerFactory;
+	private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new interceptor.
+	 * 
+	 * @param basePath Path of the REST server, removed before taking the
+	 *            resource from the request path.
+	 * @param bulkheadFactory Function for creating the bulkhead of a
+	 *            resource.
+	 * @param circuitBreakerFactory Function for creating the circuit breaker of
+	 *            a resource.
+	 */
+	public ResilienceInterceptor(String basePath, Function<String, Bulkhead> bulkheadFactory,
+			Function<String, CircuitBreaker> circuitBreakerFactory) {
+		this.basePath = basePath == null ? "" : basePath;
+		this.bulkheadFactory = bulkheadFactory;
+		this.circuitBreakerFactory = circuitBreakerFactory;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		final Guard guard = acquire(request);
+
+		final long start = System.nanoTime();
+		try {
+			ClientHttpResponse response = execution.execute(request, body);
+			record(guard, response, System.nanoTime() - start);
+
+			return new GuardedResponse(response, guard.bulkhead);
+		} catch (IOException | RuntimeException e) {
+			guard.circuitBreaker.onFailure(System.nanoTime() - start);
+			guard.bulkhead.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public ListenableFuture<ClientHttpResponse> intercept(HttpRequest request, byte[] body,
+			AsyncClientHttpRequestExecution execution) throws IOException {
+		final Guard guard = acquire(request);
+
+		final long start = System.nanoTime();
+		final ListenableFuture<ClientHttpResponse> future;
+		try {
+			future = execution.executeAsync(request, body);
+		} catch (IOException | RuntimeException e) {
+			guard.circuitBreaker.onFailure(System.nanoTime() - start);
+			guard.bulkhead.release();
+			throw e;
+		}
+
+		SettableListenableFuture<ClientHttpResponse> guarded = new SettableListenableFuture<>();
+		future.addCallback(response -> {
+			try {
+				record(guard, response, System.nanoTime() - start);
+			} catch (IOException e) {
+				guard.circuitBreaker.onFailure(System.nanoTime() - start);
+			}
+			guarded.set(new GuardedResponse(response, guard.bulkhead));
+		}, e -> {
+			guard.circuitBreaker.onFailure(System.nanoTime() - start);
+			guard.bulkhead.release();
+			guarded.setException(e);
+		});
+
+		return guarded;
+	}
+
+	/**
+	 * Gets the circuit breaker of a resource.
+	 * 
+	 * @param resource Name of the resource.
+	 * @return The circuit breaker.
+	 */
+	public CircuitBreaker getCircuitBreaker(String resource) {
+		return guard(resource).circuitBreaker;
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		guards.forEach((resource, guard) -> {
+			final String prefix = PREFIX + resource + ".";
+			CircuitBreaker circuitBreaker = guard.circuitBreaker;
+			metrics.add(new Metric<>(prefix + "state", circuitBreaker.getState().getCode()));
+			metrics.add(new Metric<>(prefix + "opened", circuitBreaker.getOpened()));
+			metrics.add(new Metric<>(prefix + "halfOpened", circuitBreaker.getHalfOpened()));
+			metrics.add(new Metric<>(prefix + "closed", circuitBreaker.getClosed()));
+			metrics.add(new Metric<>(prefix + "failureRate", circuitBreaker.getFailureRate()));
+			metrics.add(new Metric<>(prefix + "slowCallRate", circuitBreaker.getSlowCallRate()));
+			metrics.add(new Metric<>(prefix + "rejected.circuitBreaker", circuitBreaker.getRejected()));
+			metrics.add(new Metric<>(prefix + "rejected.bulkhead", guard.bulkhead.getRejected()));
+			metrics.add(new Metric<>(prefix + "active", guard.bulkhead.getActive()));
+		});
+
+		return metrics;
+	}
+
+	// Takes a permit of the bulkhead and of the circuit breaker of the
+	// resource of the request, or throws if any of them rejects the call.
+	private Guard acquire(HttpRequest request) {
+		final String resource = resource(request.getURI().getPath());
+		final Guard guard = guard(resource);
+
+		if (!guard.bulkhead.tryAcquire()) {
+			throw new BackendUnavailableException("Too many concurrent calls to " + resource);
+		}
+		if (!guard.circuitBreaker.tryAcquire()) {
+			guard.bulkhead.release();
+			throw new BackendUnavailableException("Circuit breaker of " + resource + " is open");
+		}
+
+		return guard;
+	}
+
+	private void record(Guard guard, ClientHttpResponse response, long nanos) throws IOException {
+		if (response.getRawStatusCode() >= SERVER_ERROR) {
+			guard.circuitBreaker.onFailure(nanos);
+		} else {
+			guard.circuitBreaker.onSuccess(nanos);
+		}
+	}
+
+	private Guard guard(String resource) {
+		Guard guard = guards.get(resource);
+
+		return guard != null ? guard
+				: guards.computeIfAbsent(resource, key -> new Guard(bulkheadFactory.apply(key),
+						circuitBreakerFactory.apply(key)));
+	}
+
+	private String resource(String path) {
+		String relative = path != null && path.startsWith(basePath) ? path.substring(basePath.length()) : path;
+		if (relative == null) {
+			return "";
+		}
+
+		int start = relative.startsWith("/") ? 1 : 0;
+		int end = relative.indexOf('/', start);
+
+		return end < 0 ? relative.substring(start) : relative.substring(start, end);
+	}
+
+	/**
+	 * Bulkhead and circuit breaker of a resource.
+	 */
+	private static class Guard {
+		private final Bulkhead bulkhead;
+		private final CircuitBreaker circuitBreaker;
+
+		private Guard(Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+			this.bulkhead = bulkhead;
+			this.circuitBreaker = circuitBreaker;
+		}
+	}
+
+	/**
+	 * Response that releases the bulkhead permit of its call when it's
+	 * closed.
+	 */
+	private static class GuardedResponse implements ClientHttpResponse {
+		private final ClientHttpResponse response;
+		private final Bulkhead bulkhead;
+		private boolean released;
+
+		private GuardedResponse(ClientHttpResponse response, Bulkhead bulkhead) {
+			this.response = response;
+			this.bulkhead = bulkhead;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return response.getBody();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return response.getHeaders();
+		}
+
+		@Override
+		public HttpStatus getStatusCode() throws IOException {
+			return response.getStatusCode();
+		}
+
+		@Override
+		public int getRawStatusCode() throws IOException {
+			return response.getRawStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return response.getStatusText();
+		}
+
+		@Override
+		public void close() {
+			try {
+				response.close();
+			} finally {
+				if (!released) {
+					released = true;
+					bulkhead.release();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package org.giste.club.web.service.stream;
+
+import java.io.IOException;
+
+/**
+ * Handler of the elements of a list read from the REST server one by one.
+ * 
+ * @author Giste
+ * 
+ * @param <T> Type of the elements.
+ */
+@FunctionalInterface
+public interface ElementHandler<T> {
+
+	/**
+	 * Handles an element of the list.
+	 * 
+	 * @param element The element.
+	 * @throws IOException If the element can't be written.
+	 */
+	void handle(T element) throws IOException;
+}
@@ -0,0 +1,182 @@
+package org.giste.club.web.service.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.giste.club.web.service.Pages;
+import org.giste.club.web.service.RestUris;
+import org.giste.spring.util.config.RestProperties;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads pages of entities from a list resource of the REST server without
+ * deserializing the whole list. The JSON array is parsed element by element
+ * while it's downloaded: elements outside the page are skipped and only the
+ * ones in the page are converted to DTOs.
+ * <p>
+ * When the page is sorted, every element has to be read, and the first
+ * (page number + 1) * page size elements in sort order are kept, so memory
+ * grows with the page number. Pages requested to the web are limited by
+ * property "web.page.max-page".
+ * 
+ * @author Giste
+ */
+public class StreamingRestReader {
+
+	private final RestTemplate restTemplate;
+	private final RestProperties restProperties;
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Constructs a new reader.
+	 * 
+	 * @param restTemplate RestTemplate used to communicate with REST server.
+	 * @param restProperties RestProperties with data about REST server (scheme,
+	 *            host, port, path).
+	 * @param objectMapper ObjectMapper used to read the elements.
+	 */
+	public StreamingRestReader(RestTemplate restTemplate, RestProperties restProperties,
+			ObjectMapper objectMapper) {
+		this.restTemplate = restTemplate;
+		this.restProperties = restProperties;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Reads a page of a list resource of the REST server.
+	 * 
+	 * @param path Path of the list resource, relative to the REST server path.
+	 * @param type Type of the elements of the list.
+	 * @param pageable The requested page.
+	 * @return The page of elements.
+	 */
+	public <T> Page<T> readPage(String path, Class<T> type, Pageable pageable) {
+		return restTemplate.execute(RestUris.uri(restProperties, path), HttpMethod.GET,
+				request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+				response -> readPage(response.getBody(), type, pageable));
+	}
+
+	/**
+	 * Reads all the elements of a list resource of the REST server, passing
+	 * each one to the handler as soon as it's deserialized. Only one element
+	 * is kept in memory at a time.
+	 * 
+	 * @param path Path of the list resource, relative to the REST server path.
+	 * @param type Type of the elements of the list.
+	 * @param handler Handler of the elements.
+	 * @return The number of elements read.
+	 */
+	public <T> long readEach(String path, Class<T> type, ElementHandler<T> handler) {
+		return restTemplate.execute(RestUris.uri(restProperties, path), HttpMethod.GET,
+				request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+				response -> readEach(response.getBody(), type, handler));
+	}
+
+	/**
+	 * Reads all the elements of a stream with a JSON array, passing each one
+	 * to the handler as soon as it's deserialized.
+	 * 
+	 * @param in The stream with the JSON array.
+	 * @param type Type of the elements of the array.
+	 * @param handler Handler of the elements.
+	 * @return The number of elements read.
+	 * @throws IOException If the stream can't be read or the handler fails.
+	 */
+	public <T> long readEach(InputStream in, Class<T> type, ElementHandler<T> handler) throws IOException {
+		try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new HttpMessageNotReadableException("Expected a JSON array");
+			}
+
+			long total = 0;
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				handler.handle(objectMapper.readValue(parser, type));
+				total++;
+			}
+
+			return total;
+		}
+	}
+
+	/**
+	 * Reads a page from a stream with a JSON array.
+	 * 
+	 * @param in The stream with the JSON array.
+	 * @param type Type of the elements of the array.
+	 * @param pageable The requested page.
+	 * @return The page of elements.
+	 * @throws IOException If the stream can't be read.
+	 */
+	public <T> Page<T> readPage(InputStream in, Class<T> type, Pageable pageable) throws IOException {
+		try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new HttpMessageNotReadableException("Expected a JSON array");
+			}
+
+			Comparator<T> comparator = Pages.comparator(pageable.getSort());
+			if (comparator == null) {
+				return readUnsortedPage(parser, type, pageable);
+			} else {
+				return readSortedPage(parser, type, pageable, comparator);
+			}
+		}
+	}
+
+	private <T> Page<T> readUnsortedPage(JsonParser parser, Class<T> type, Pageable pageable) throws IOException {
+		final long fromIndex = Pages.offset(pageable);
+		final long toIndex = fromIndex + pageable.getPageSize();
+		List<T> content = new ArrayList<>(pageable.getPageSize());
+
+		long total = 0;
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			if (total >= fromIndex && total < toIndex) {
+				content.add(objectMapper.readValue(parser, type));
+			} else {
+				parser.skipChildren();
+			}
+			total++;
+		}
+
+		return new PageImpl<>(content, pageable, total);
+	}
+
+	private <T> Page<T> readSortedPage(JsonParser parser, Class<T> type, Pageable pageable,
+			Comparator<T> comparator) throws IOException {
+		final long offset = Pages.offset(pageable);
+		final long kept = offset + pageable.getPageSize();
+
+		// Head is the greatest element kept, so it's the one removed when a
+		// lesser element arrives. It grows with the elements read, up to kept.
+		PriorityQueue<T> first = new PriorityQueue<>(comparator.reversed());
+
+		long total = 0;
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			first.add(objectMapper.readValue(parser, type));
+			if (first.size() > kept) {
+				first.poll();
+			}
+			total++;
+		}
+
+		List<T> sorted = new ArrayList<>(first);
+		Collections.sort(sorted, comparator);
+		int fromIndex = (int) Math.min(offset, sorted.size());
+
+		return new PageImpl<>(new ArrayList<>(sorted.subList(fromIndex, sorted.size())), pageable, total);
+	}
+}
@@ -0,0 +1,62 @@
+package org.giste.club.web.session;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter for running the application without HTTP sessions. Requests never
+ * have a session and creating one fails, so any code depending on sessions is
+ * found as soon as it runs instead of when nodes are scaled out.
+ * 
+ * @author Giste
+ */
+public class SessionlessFilter extends OncePerRequestFilter {
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		filterChain.doFilter(new SessionlessRequest(request), response);
+	}
+
+	/**
+	 * Request without session.
+	 */
+	private static class SessionlessRequest extends HttpServletRequestWrapper {
+
+		private SessionlessRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		@Override
+		public HttpSession getSession() {
+			return getSession(true);
+		}
+
+		@Override
+		public HttpSession getSession(boolean create) {
+			if (create) {
+				throw new IllegalStateException("HTTP sessions are disabled");
+			}
+
+			return null;
+		}
+
+		@Override
+		public String changeSessionId() {
+			throw new IllegalStateException("HTTP sessions are disabled");
+		}
+
+		@Override
+		public boolean isRequestedSessionIdValid() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package org.giste.club.web.unique;
+
+/**
+ * Bloom filter of strings. Tells whether a value is definitely not in the set
+ * or may be in it, using a fixed number of bits whatever the length of the
+ * values. Values can't be removed. Bits are set with the double hashing of a
+ * 64 bit hash of the value.
+ * <p>
+ * Not thread safe: writes must be synchronized with any other access.
+ * 
+ * @author Giste
+ */
+public class BloomFilter {
+
+	private static final double LN2 = Math.log(2);
+
+	private final long[] words;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * Constructs an empty filter sized for a number of values and a rate of
+	 * false positives.
+	 * 
+	 * @param expectedValues Number of values the filter is sized for.
+	 * @param falsePositiveRate Rate of false positives with that number of
+	 *            values, between 0 and 1.
+	 */
+	public BloomFilter(int expectedValues, double falsePositiveRate) {
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+		}
+
+		final double values = Math.max(1, expectedValues);
+		final long bits = (long) Math.ceil(-values * Math.log(falsePositiveRate) / (LN2 * LN2));
+		this.words = new long[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64))];
+		this.bitCount = words.length * 64L;
+		this.hashCount = (int) Math.max(1, Math.round(bitCount / values * LN2));
+	}
+
+	/**
+	 * Adds a value.
+	 * 
+	 * @param value The value.
+	 */
+	public void put(String value) {
+		final long hash = hash(value);
+		final int hash1 = (int) hash;
+		final int hash2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			final long bit = bitIndex(hash1, hash2, i);
+			words[(int) (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * Tells whether a value may have been added.
+	 * 
+	 * @param value The value.
+	 * @return false if the value has never been added, true if it may have
+	 *         been.
+	 */
+	public boolean mightContain(String value) {
+		final long hash = hash(value);
+		final int hash1 = (int) hash;
+		final int hash2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			final long bit = bitIndex(hash1, hash2, i);
+			if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the number of bits of the filter.
+	 * 
+	 * @return The number of bits.
+	 */
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	/**
+	 * Gets the number of bits set for each value.
+	 * 
+	 * @return The number of hashes.
+	 */
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	private long bitIndex(int hash1, int hash2, int i) {
+		int combined = hash1 + i * hash2;
+		if (combined < 0) {
+			combined = ~combined;
+		}
+
+		return combined % bitCount;
+	}
+
+	private static long hash(String value) {
+		// FNV-1a over the characters, with the final mix of MurmurHash3 so
+		// both halves of the hash are well distributed.
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+
+		return hash;
+	}
+}
@@ -0,0 +1,33 @@
+package org.giste.club.web.unique;
+
+/**
+ * Result of checking whether the value of a field is unique.
+ * 
+ * @author Giste
+ */
+public class FieldCheck {
+
+	private final String value;
+	private final boolean unique;
+
+	/**
+	 * Constructs a result.
+	 * 
+	 * @param value The checked value.
+	 * @param unique Whether no other entity has the value. If false, the
+	 *            value is maybe duplicated: the REST server decides when the
+	 *            entity is saved.
+	 */
+	public FieldCheck(String value, boolean unique) {
+		this.value = value;
+		this.unique = unique;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public boolean isUnique() {
+		return unique;
+	}
+}
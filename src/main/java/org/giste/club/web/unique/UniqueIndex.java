@@ -0,0 +1,357 @@
+package org.giste.club.web.unique;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * In-memory index of the values of a unique field of the entities of one
+ * resource, like the acronym of the clubs. Values are kept in a hash map with
+ * the identifier of the entity having each one, behind a Bloom filter: most
+ * values not in use are answered by the filter as definitely unique, and only
+ * values that may be duplicated are looked for in the map. Values are compared
+ * as they are.
+ * <p>
+ * The index is synchronized with lists of all the entities read from the REST
+ * server and kept up to date with the entities written through this
+ * application. Changes made by other clients are only seen on the next
+ * synchronization, so the index is only trusted for a while after it, and a
+ * value found in it is only maybe duplicated. The REST server is always the
+ * final authority.
+ * 
+ * @author Giste
+ * 
+ * @param <DTO> Type of the indexed entities.
+ */
+public class UniqueIndex<DTO> implements PublicMetrics {
+
+	// Changes kept for replaying them on lists read before them.
+	private static final int MAX_CHANGES = 1000;
+
+	private final String name;
+	private final ToLongFunction<DTO> id;
+	private final Function<DTO, String> field;
+	private final int expectedValues;
+	private final double falsePositiveRate;
+	private final long maxAge;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Long> owners = new HashMap<>();
+	private final Map<Long, String> values = new HashMap<>();
+	private BloomFilter filter;
+	private int filterCapacity;
+	// Values removed from the map but still set in the filter.
+	private int staleValues;
+
+	// Incremented on every change, so the changes made while a list was read
+	// are replayed on it.
+	private final AtomicLong version = new AtomicLong();
+	private final Deque<Change> changes = new ArrayDeque<>();
+	private volatile long syncedAt = -1;
+
+	private final AtomicLong checks = new AtomicLong();
+	private final AtomicLong filtered = new AtomicLong();
+	private final AtomicLong falsePositives = new AtomicLong();
+	private final AtomicLong duplicates = new AtomicLong();
+
+	/**
+	 * Constructs an empty index.
+	 * 
+	 * @param name Name of the indexed resource and field, used for metrics.
+	 * @param id Function for getting the identifier of an entity.
+	 * @param field Function for getting the unique value of an entity.
+	 * @param expectedValues Number of values the Bloom filter is sized for.
+	 * @param falsePositiveRate Rate of false positives of the Bloom filter.
+	 * @param maxAge Time in milliseconds the index is trusted since it was
+	 *            synchronized.
+	 */
+	public UniqueIndex(String name, ToLongFunction<DTO> id, Function<DTO, String> field, int expectedValues,
+			double falsePositiveRate, long maxAge) {
+		this.name = name;
+		this.id = id;
+		this.field = field;
+		this.expectedValues = Math.max(1, expectedValues);
+		this.falsePositiveRate = falsePositiveRate;
+		this.maxAge = maxAge;
+		rebuildFilter();
+	}
+
+	/**
+	 * Gets the unique value of an entity.
+	 * 
+	 * @param dto The entity.
+	 * @return The value of the unique field.
+	 */
+	public String valueOf(DTO dto) {
+		return field.apply(dto);
+	}
+
+	/**
+	 * Adds an entity, or replaces the value of an entity already indexed.
+	 * 
+	 * @param dto The entity.
+	 */
+	public void put(DTO dto) {
+		final long entityId = id.applyAsLong(dto);
+		final String value = field.apply(dto);
+
+		lock.writeLock().lock();
+		try {
+			record(entityId, value);
+			putValue(entityId, value);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an entity.
+	 * 
+	 * @param entityId Identifier of the entity.
+	 */
+	public void remove(long entityId) {
+		lock.writeLock().lock();
+		try {
+			record(entityId, null);
+			removeValue(entityId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the version of the index, which changes every time an entity is
+	 * added, replaced or removed. It must be taken before reading the list
+	 * given to {@link #sync(Collection, long)}.
+	 * 
+	 * @return The version of the index.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Makes the index hold the values of a list of all entities read from the
+	 * REST server. The changes made to the index since the list started to be
+	 * read are applied again on it, because it could miss them. The list is
+	 * only ignored if there were more changes than the index keeps.
+	 * 
+	 * @param all All the entities of the resource.
+	 * @param readVersion Version of the index when the list started to be
+	 *            read.
+	 * @return true if the index was synchronized, false if the list was
+	 *         ignored.
+	 */
+	public boolean sync(Collection<DTO> all, long readVersion) {
+		lock.writeLock().lock();
+		try {
+			if (version.get() - readVersion > changes.size()) {
+				return false;
+			}
+
+			owners.clear();
+			values.clear();
+			for (DTO dto : all) {
+				final String value = field.apply(dto);
+				if (value != null) {
+					final long entityId = id.applyAsLong(dto);
+					owners.put(value, entityId);
+					values.put(entityId, value);
+				}
+			}
+			rebuildFilter();
+			// Changes are kept newest first, they are replayed in order.
+			for (Iterator<Change> iterator = changes.descendingIterator(); iterator.hasNext();) {
+				final Change change = iterator.next();
+				if (change.version > readVersion) {
+					putValue(change.entityId, change.value);
+				}
+			}
+			syncedAt = System.currentTimeMillis();
+
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Tells whether the index was synchronized recently enough to be trusted.
+	 * 
+	 * @return true if the index has been synchronized within its maximum age.
+	 */
+	public boolean isFresh() {
+		final long synced = syncedAt;
+
+		return synced >= 0 && System.currentTimeMillis() - synced <= maxAge;
+	}
+
+	/**
+	 * Gets the identifier of the entity having a value.
+	 * 
+	 * @param value The value.
+	 * @return The identifier of the entity, or null if no indexed entity has
+	 *         the value.
+	 */
+	public Long findOwner(String value) {
+		checks.incrementAndGet();
+		if (value == null) {
+			return null;
+		}
+
+		lock.readLock().lock();
+		try {
+			if (!filter.mightContain(value)) {
+				filtered.incrementAndGet();
+				return null;
+			}
+
+			Long owner = owners.get(value);
+			if (owner == null) {
+				falsePositives.incrementAndGet();
+			}
+
+			return owner;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Tells whether an entity other than the given one has a value. The index
+	 * may be behind the REST server, so a duplicated value is only maybe
+	 * duplicated.
+	 * 
+	 * @param value The value.
+	 * @param entityId Identifier of the entity that would have the value, or
+	 *            null if it hasn't been created yet.
+	 * @return true if the value is in use by another entity in the index.
+	 */
+	public boolean isDuplicated(String value, Long entityId) {
+		final Long owner = findOwner(value);
+		final boolean duplicated = owner != null && !Objects.equals(owner, entityId);
+		if (duplicated) {
+			duplicates.incrementAndGet();
+		}
+
+		return duplicated;
+	}
+
+	/**
+	 * Gets the number of checks answered by the Bloom filter alone.
+	 * 
+	 * @return The number of filtered checks.
+	 */
+	public long getFilteredCount() {
+		return filtered.get();
+	}
+
+	/**
+	 * Gets the number of checks where the Bloom filter gave a false positive.
+	 * 
+	 * @return The number of false positives.
+	 */
+	public long getFalsePositiveCount() {
+		return falsePositives.get();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		final String prefix = "unique." + name + ".";
+		int size;
+		long bits;
+		lock.readLock().lock();
+		try {
+			size = owners.size();
+			bits = filter.getBitCount();
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>(prefix + "values", size));
+		metrics.add(new Metric<>(prefix + "filterBits", bits));
+		metrics.add(new Metric<>(prefix + "check", checks.get()));
+		metrics.add(new Metric<>(prefix + "filtered", filtered.get()));
+		metrics.add(new Metric<>(prefix + "falsePositive", falsePositives.get()));
+		metrics.add(new Metric<>(prefix + "duplicate", duplicates.get()));
+
+		return metrics;
+	}
+
+	private void record(long entityId, String value) {
+		changes.addFirst(new Change(version.incrementAndGet(), entityId, value));
+		if (changes.size() > MAX_CHANGES) {
+			changes.removeLast();
+		}
+	}
+
+	private void putValue(long entityId, String value) {
+		final String old = values.get(entityId);
+		if (Objects.equals(old, value)) {
+			return;
+		}
+
+		removeValue(entityId);
+		if (value == null) {
+			return;
+		}
+		owners.put(value, entityId);
+		values.put(entityId, value);
+		if (owners.size() > filterCapacity) {
+			rebuildFilter();
+		} else {
+			filter.put(value);
+		}
+	}
+
+	private void removeValue(long entityId) {
+		final String old = values.remove(entityId);
+		if (old == null) {
+			return;
+		}
+
+		owners.remove(old, entityId);
+		// Bloom filters can't remove values: rebuild it once stale values
+		// raise the false positives too much.
+		staleValues++;
+		if (staleValues > filterCapacity / 4) {
+			rebuildFilter();
+		}
+	}
+
+	private void rebuildFilter() {
+		filterCapacity = Math.max(expectedValues, owners.size() * 2);
+		filter = new BloomFilter(filterCapacity, falsePositiveRate);
+		owners.keySet().forEach(filter::put);
+		staleValues = 0;
+	}
+
+	/**
+	 * Value given to an entity, or null if it was removed.
+	 */
+	private static class Change {
+		private final long version;
+		private final long entityId;
+		private final String value;
+
+		private Change(long version, long entityId, String value) {
+			this.version = version;
+			this.entityId = entityId;
+			this.value = value;
+		}
+	}
+}
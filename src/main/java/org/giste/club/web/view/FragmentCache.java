@@ -0,0 +1,101 @@
+package org.giste.club.web.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache of rendered template fragments, keyed by template, fragment and
+ * locale. Used by {@link FragmentCacheDialect} for the parts of the pages that
+ * only depend on the locale, so they're copied instead of evaluated again.
+ * 
+ * @author Giste
+ */
+public class FragmentCache implements PublicMetrics {
+
+	private final boolean enabled;
+	private final Cache<String, String> fragments;
+
+	/**
+	 * Constructs a new cache.
+	 * 
+	 * @param enabled Whether fragments are cached. When false, fragments are
+	 *            rendered every time.
+	 * @param maxSize Maximum number of fragments kept in the cache.
+	 */
+	public FragmentCache(boolean enabled, long maxSize) {
+		this.enabled = enabled;
+		this.fragments = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Builds the key of a fragment.
+	 * 
+	 * @param template Name of the template containing the fragment.
+	 * @param fragment Name of the fragment in the template.
+	 * @param locale Locale of the rendered fragment.
+	 * @return The key of the fragment.
+	 */
+	public static String key(String template, String fragment, Locale locale) {
+		return template + "::" + fragment + "@" + locale;
+	}
+
+	/**
+	 * Tells whether fragments are cached.
+	 * 
+	 * @return true if fragments are cached.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Gets a rendered fragment.
+	 * 
+	 * @param key The key of the fragment.
+	 * @return The rendered fragment, or null if it isn't cached.
+	 */
+	public String get(String key) {
+		return fragments.getIfPresent(key);
+	}
+
+	/**
+	 * Stores a rendered fragment.
+	 * 
+	 * @param key The key of the fragment.
+	 * @param output The rendered fragment.
+	 */
+	public void put(String key, String output) {
+		fragments.put(key, output);
+	}
+
+	/**
+	 * Removes all the rendered fragments. Must be called when templates or
+	 * messages are reloaded.
+	 */
+	public void clear() {
+		fragments.invalidateAll();
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		CacheStats stats = fragments.stats();
+
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		metrics.add(new Metric<>("cache.fragment.size", fragments.estimatedSize()));
+		metrics.add(new Metric<>("cache.fragment.hit", stats.hitCount()));
+		metrics.add(new Metric<>("cache.fragment.miss", stats.missCount()));
+
+		return metrics;
+	}
+}
@@ -0,0 +1,207 @@
+package org.giste.club.web.view;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.thymeleaf.Arguments;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.dialect.AbstractDialect;
+import org.thymeleaf.dom.Element;
+import org.thymeleaf.dom.Macro;
+import org.thymeleaf.dom.NestableNode;
+import org.thymeleaf.dom.Node;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.processor.ProcessorResult;
+import org.thymeleaf.processor.attr.AbstractAttrProcessor;
+import org.thymeleaf.processor.element.AbstractElementProcessor;
+import org.thymeleaf.templatewriter.AbstractGeneralTemplateWriter;
+
+/**
+ * Thymeleaf dialect for caching the content of an element per locale. The
+ * content of an element with attribute "cache:fragment" is rendered once for
+ * each template and locale and copied from the {@link FragmentCache} after
+ * that:
+ * 
+ * <pre>
+ * &lt;thead cache:fragment="thead"&gt;...&lt;/thead&gt;
+ * &lt;th:block th:include="header :: head" cache:fragment="head"&gt;&lt;/th:block&gt;
+ * </pre>
+ * 
+ * The content can only depend on the locale: messages, included fragments and
+ * static text. The attributes of the element itself are still evaluated on
+ * every request.
+ * <p>
+ * Links in the content go through {@code HttpServletResponse.encodeURL}, which
+ * adds the session id when the session isn't tracked by a cookie. Such
+ * requests neither use nor fill the cache, so a session id never reaches other
+ * users.
+ * 
+ * @author Giste
+ */
+public class FragmentCacheDialect extends AbstractDialect {
+
+	private static final String PREFIX = "cache";
+	private static final String FRAGMENT = "fragment";
+	private static final String STORE = "store";
+	private static final String FLUSH = "flush";
+	private static final String KEY = "key";
+
+	// Attributes replacing the content of the element, not evaluated when it's
+	// cached.
+	private static final String[] CONTENT_ATTRIBUTES = { "th:include", "th:text", "th:utext" };
+
+	private final FragmentCache fragmentCache;
+
+	/**
+	 * Constructs the dialect.
+	 * 
+	 * @param fragmentCache Cache for the rendered content.
+	 */
+	public FragmentCacheDialect(FragmentCache fragmentCache) {
+		this.fragmentCache = fragmentCache;
+	}
+
+	@Override
+	public String getPrefix() {
+		return PREFIX;
+	}
+
+	@Override
+	public Set<IProcessor> getProcessors() {
+		Set<IProcessor> processors = new HashSet<>();
+		processors.add(new FragmentAttrProcessor());
+		processors.add(new StoreAttrProcessor());
+		processors.add(new FlushElementProcessor());
+
+		return processors;
+	}
+
+	/**
+	 * Replaces the content with the cached one, or marks it for storing when
+	 * it isn't cached. Runs before any other processor.
+	 */
+	private class FragmentAttrProcessor extends AbstractAttrProcessor {
+
+		private FragmentAttrProcessor() {
+			super(FRAGMENT);
+		}
+
+		@Override
+		public int getPrecedence() {
+			return 0;
+		}
+
+		@Override
+		protected ProcessorResult processAttribute(Arguments arguments, Element element, String attributeName) {
+			final String fragment = element.getAttributeValue(attributeName);
+			element.removeAttribute(attributeName);
+			element.setRecomputeProcessorsImmediately(true);
+
+			if (!fragmentCache.isEnabled() || rewritesUrls(arguments.getContext())) {
+				return ProcessorResult.OK;
+			}
+
+			final String key = FragmentCache.key(arguments.getTemplateName(), fragment,
+					arguments.getContext().getLocale());
+			final String output = fragmentCache.get(key);
+			if (output == null) {
+				element.setAttribute(PREFIX + ":" + STORE, key);
+			} else {
+				for (String contentAttribute : CONTENT_ATTRIBUTES) {
+					element.removeAttribute(contentAttribute);
+				}
+				element.clearChildren();
+				element.addChild(new Macro(output));
+			}
+
+			return ProcessorResult.OK;
+		}
+	}
+
+	/**
+	 * Adds a flush element at the end of the content, once it has been
+	 * included. Runs after any other processor.
+	 */
+	private class StoreAttrProcessor extends AbstractAttrProcessor {
+
+		private StoreAttrProcessor() {
+			super(STORE);
+		}
+
+		@Override
+		public int getPrecedence() {
+			return Integer.MAX_VALUE;
+		}
+
+		@Override
+		protected ProcessorResult processAttribute(Arguments arguments, Element element, String attributeName) {
+			Element flush = new Element(PREFIX + ":" + FLUSH);
+			flush.setAttribute(KEY, element.getAttributeValue(attributeName));
+			element.removeAttribute(attributeName);
+			element.addChild(flush);
+
+			return ProcessorResult.OK;
+		}
+	}
+
+	/**
+	 * Stores the content preceding it, which has already been processed
+	 * because children are processed in order, and removes itself.
+	 */
+	private class FlushElementProcessor extends AbstractElementProcessor {
+
+		private FlushElementProcessor() {
+			super(FLUSH);
+		}
+
+		@Override
+		public int getPrecedence() {
+			return 0;
+		}
+
+		@Override
+		protected ProcessorResult processElement(Arguments arguments, Element element) {
+			final NestableNode parent = element.getParent();
+			final String key = element.getAttributeValue(KEY);
+			parent.removeChild(element);
+
+			AbstractGeneralTemplateWriter templateWriter = (AbstractGeneralTemplateWriter) arguments
+					.getConfiguration()
+					.getTemplateModeHandler(arguments.getTemplateResolution().getTemplateMode())
+					.getTemplateWriter();
+
+			StringWriter writer = new StringWriter();
+			try {
+				for (Node child : parent.getChildren()) {
+					templateWriter.writeNode(arguments, writer, child);
+				}
+			} catch (IOException e) {
+				throw new TemplateProcessingException("Error rendering fragment " + key, e);
+			}
+			if (!rewritesUrls(arguments.getContext())) {
+				fragmentCache.put(key, writer.toString());
+			}
+
+			return ProcessorResult.OK;
+		}
+	}
+
+	// Links rendered for the request include the session id when there is a
+	// session and its id didn't come in a cookie: it's new or tracked in the
+	// URL.
+	private static boolean rewritesUrls(IContext context) {
+		if (!(context instanceof IWebContext)) {
+			return false;
+		}
+
+		final HttpServletRequest request = ((IWebContext) context).getHttpServletRequest();
+
+		return request.getSession(false) != null && !request.isRequestedSessionIdFromCookie();
+	}
+}
@@ -0,0 +1,55 @@
+package org.giste.club.web.view;
+
+import org.giste.club.web.locale.MessageTables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.thymeleaf.TemplateEngine;
+
+/**
+ * Reloads templates and messages at runtime through JMX, along with the
+ * fragments rendered with them.
+ * 
+ * @author Giste
+ */
+@ManagedResource(objectName = "org.giste.club.web:name=viewReloader")
+public class ViewReloader {
+
+	private final Logger LOGGER = LoggerFactory.getLogger(getClass());
+
+	private final TemplateEngine templateEngine;
+	private final ReloadableResourceBundleMessageSource messageSource;
+	private final MessageTables messageTables;
+	private final FragmentCache fragmentCache;
+
+	/**
+	 * Constructs the reloader.
+	 * 
+	 * @param templateEngine Engine whose templates are reloaded.
+	 * @param messageSource Source whose messages are reloaded.
+	 * @param messageTables Tables whose messages are reloaded.
+	 * @param fragmentCache Cache of fragments rendered with the templates and
+	 *            messages.
+	 */
+	public ViewReloader(TemplateEngine templateEngine, ReloadableResourceBundleMessageSource messageSource,
+			MessageTables messageTables, FragmentCache fragmentCache) {
+		this.templateEngine = templateEngine;
+		this.messageSource = messageSource;
+		this.messageTables = messageTables;
+		this.fragmentCache = fragmentCache;
+	}
+
+	/**
+	 * Reloads templates and messages, removing the cached fragments.
+	 */
+	@ManagedOperation(description = "Reloads templates and messages")
+	public void reload() {
+		LOGGER.info("Reloading templates and messages");
+		templateEngine.clearTemplateCache();
+		messageSource.clearCache();
+		messageTables.reload();
+		fragmentCache.clear();
+	}
+}
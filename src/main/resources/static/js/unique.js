@@ -0,0 +1,52 @@
+/*
+ * Checks unique fields while a form is filled in. Inputs with attribute
+ * "data-unique-url" are checked against that URL when they change, and a
+ * warning with "data-unique-message" ({0} replaced with the value) is shown if
+ * another entity has the value. The REST server still checks the values when
+ * the form is submitted.
+ *
+ * @author Giste
+ */
+$(function() {
+	$('input[data-unique-url]').each(function() {
+		var input = $(this);
+		var group = input.closest('.form-group');
+		var warning = $('<span class="help-block col-sm-offset-2 col-sm-10"></span>').hide();
+		var timer = null;
+		var checked = input.val();
+		group.append(warning);
+
+		function show(check) {
+			if (check.value !== input.val()) {
+				// Value changed while checking.
+				return;
+			}
+			if (check.unique) {
+				warning.hide();
+				group.removeClass('has-warning');
+			} else {
+				warning.text(input.data('unique-message').replace('{0}', check.value)).show();
+				group.addClass('has-warning');
+			}
+		}
+
+		function check() {
+			var value = input.val();
+			if (value === checked) {
+				return;
+			}
+			checked = value;
+			if (value === '') {
+				show({ value: value, unique: true });
+				return;
+			}
+			$.getJSON(input.data('unique-url'), { value: value, id: input.data('unique-id') }).done(show);
+		}
+
+		input.on('input', function() {
+			clearTimeout(timer);
+			timer = setTimeout(check, 300);
+		});
+		input.on('change blur', check);
+	});
+});
@@ -0,0 +1,59 @@
+package org.giste.club.web.aspect;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ * 
+ * @author Giste
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void emptyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertThat(histogram.getCount(), is(0L));
+		assertThat(histogram.getPercentile(50), is(0L));
+		assertThat(histogram.getMax(), is(0L));
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 7; i++) {
+			histogram.record(i);
+		}
+
+		assertThat(histogram.getPercentile(50), is(4L));
+		assertThat(histogram.getPercentile(100), is(7L));
+	}
+
+	@Test
+	public void percentilesAreWithinError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 10000; i++) {
+			histogram.record(i * 1000);
+		}
+
+		assertThat(histogram.getCount(), is(10000L));
+		assertThat(histogram.getMax(), is(10000000L));
+		assertThat(histogram.getPercentile(50), is(greaterThanOrEqualTo(5000000L)));
+		assertThat(histogram.getPercentile(50), is(lessThanOrEqualTo(5625000L)));
+		assertThat(histogram.getPercentile(99), is(greaterThanOrEqualTo(9900000L)));
+		assertThat(histogram.getPercentile(99), is(lessThanOrEqualTo(10000000L)));
+	}
+
+	@Test
+	public void negativeValuesAreZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+
+		assertThat(histogram.getPercentile(100), is(0L));
+	}
+}
@@ -0,0 +1,115 @@
+package org.giste.club.web.aspect;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.club.web.service.BulkResult;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.ClubRestServiceImpl;
+import org.giste.club.web.service.RequestCoalescer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tests for {@link RequestCoalescerUpdater}.
+ * 
+ * @author Giste
+ */
+public class RequestCoalescerUpdaterTest {
+
+	private static final String KEY = "read";
+
+	private final CompletableFuture<List<BulkResult<ClubDto>>> bulkResults = new CompletableFuture<>();
+	private final ClubRestServiceImpl target = new ClubRestServiceImpl(new RestTemplate(), new ClubRestProperties()) {
+
+		@Override
+		public ClubDto create(ClubDto dto) {
+			return dto;
+		}
+
+		@Override
+		public ClubDto update(ClubDto dto) {
+			return dto;
+		}
+
+		@Override
+		public ClubDto enable(long id) {
+			throw new IllegalStateException("Server down");
+		}
+
+		@Override
+		public ClubDto findById(long id) {
+			return new ClubDto(id, "Club 1", "CLUB1", true);
+		}
+
+		@Override
+		public CompletableFuture<List<BulkResult<ClubDto>>> setEnabledAsync(List<Long> ids, boolean enabled,
+				int concurrency, Executor executor) {
+			return bulkResults;
+		}
+	};
+
+	private ClubRestService service;
+
+	@Before
+	public void setUp() {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(new RequestCoalescerUpdater());
+		service = factory.getProxy();
+
+		// A read that stays in flight.
+		target.getCoalescer().executeAsync(KEY, CompletableFuture::new);
+	}
+
+	@Test
+	public void writeForgetsReadsInFlight() {
+		service.create(new ClubDto(1L, "Club 1", "CLUB1", true));
+
+		assertThat(readInFlightIsForgotten(), is(true));
+	}
+
+	@Test
+	public void failedWriteForgetsReadsInFlight() {
+		try {
+			service.enable(1L);
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertThat(readInFlightIsForgotten(), is(true));
+		}
+	}
+
+	@Test
+	public void readDoesntForgetReadsInFlight() {
+		service.findById(1L);
+
+		assertThat(readInFlightIsForgotten(), is(false));
+	}
+
+	@Test
+	public void bulkChangeForgetsReadsInFlightWhenDone() {
+		service.setEnabledAsync(Arrays.asList(1L, 2L), true, 2, Runnable::run);
+		assertThat(readInFlightIsForgotten(), is(false));
+
+		bulkResults.complete(Collections.emptyList());
+		assertThat(readInFlightIsForgotten(), is(true));
+	}
+
+	private boolean readInFlightIsForgotten() {
+		final RequestCoalescer coalescer = target.getCoalescer();
+		final long executed = coalescer.getExecuted();
+		coalescer.executeAsync(KEY, CompletableFuture::new);
+
+		return coalescer.getExecuted() > executed;
+	}
+}
@@ -0,0 +1,93 @@
+package org.giste.club.web.aspect;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.ClubRestServiceImpl;
+import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
+import org.giste.club.web.unique.UniqueIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tests for {@link UniqueIndexUpdater}.
+ * 
+ * @author Giste
+ */
+public class UniqueIndexUpdaterTest {
+
+	private final AtomicInteger calls = new AtomicInteger();
+	private final ClubRestServiceImpl target = new ClubRestServiceImpl(new RestTemplate(), new ClubRestProperties()) {
+
+		@Override
+		public ClubDto create(ClubDto dto) {
+			calls.incrementAndGet();
+			return dto;
+		}
+
+		@Override
+		public ClubDto update(ClubDto dto) {
+			calls.incrementAndGet();
+			return dto;
+		}
+	};
+
+	private UniqueIndex<ClubDto> clubIndex;
+	private ClubRestService service;
+
+	@Before
+	public void setUp() {
+		clubIndex = new UniqueIndex<>("clubs.acronym", ClubDto::getId, ClubDto::getAcronym, 100, 0.01, 60000);
+		UniqueIndex<UserDto> userIndex = new UniqueIndex<>("users.email", UserDto::getId, UserDto::getEmail, 100,
+				0.01, 60000);
+		UniqueIndex<CategoryDto> categoryIndex = new UniqueIndex<>("categories.name", CategoryDto::getId,
+				CategoryDto::getName, 100, 0.01, 60000);
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(new UniqueIndexUpdater(clubIndex, userIndex, categoryIndex));
+		service = factory.getProxy();
+	}
+
+	@Test
+	public void freshIndexRejectsDuplicateWithoutCallingServer() {
+		clubIndex.sync(Arrays.asList(new ClubDto(1L, "Club 1", "CLUB1", true)), clubIndex.getVersion());
+
+		try {
+			service.create(new ClubDto(2L, "Club 2", "CLUB1", true));
+			fail("DuplicatedClubAcronymException expected");
+		} catch (DuplicatedClubAcronymException e) {
+			assertThat(calls.get(), is(0));
+		}
+	}
+
+	@Test
+	public void freshIndexLetsEntityKeepItsValue() {
+		clubIndex.sync(Arrays.asList(new ClubDto(1L, "Club 1", "CLUB1", true)), clubIndex.getVersion());
+
+		service.update(new ClubDto(1L, "Club One", "CLUB1", true));
+		service.create(new ClubDto(2L, "Club 2", "CLUB2", true));
+
+		assertThat(calls.get(), is(2));
+	}
+
+	@Test
+	public void staleIndexLetsServerDecide() {
+		// Put without synchronizing: the index has never been fresh.
+		clubIndex.put(new ClubDto(1L, "Club 1", "CLUB1", true));
+
+		service.create(new ClubDto(2L, "Club 2", "CLUB1", true));
+
+		assertThat(calls.get(), is(1));
+	}
+}
@@ -0,0 +1,54 @@
+package org.giste.club.web.concurrent;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link VirtualThreads}. They check whatever the JVM running them
+ * supports.
+ * 
+ * @author Giste
+ */
+public class VirtualThreadsTest {
+
+	@Test
+	public void supportDependsOnJavaVersion() {
+		assertThat(VirtualThreads.isSupported(), is(hasVirtualThreads()));
+	}
+
+	@Test
+	public void tasksRunOnNamedVirtualThreads() throws Exception {
+		assumeTrue(VirtualThreads.isSupported());
+
+		ExecutorService executor = VirtualThreads.newExecutor("test-");
+		try {
+			Thread thread = executor.submit(Thread::currentThread).get(1, TimeUnit.SECONDS);
+
+			assertThat(thread.getName(), startsWith("test-"));
+			assertThat((Boolean) Thread.class.getMethod("isVirtual").invoke(thread), is(true));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void executorNeedsVirtualThreads() {
+		assumeFalse(VirtualThreads.isSupported());
+
+		VirtualThreads.newExecutor("test-");
+	}
+
+	private static boolean hasVirtualThreads() {
+		final String version = System.getProperty("java.specification.version");
+
+		return !version.startsWith("1.") && Integer.parseInt(version) >= 21;
+	}
+}
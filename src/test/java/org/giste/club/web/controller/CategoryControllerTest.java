@@ -5,15 +5,36 @@ import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.giste.club.common.dto.CategoryDto;
 import org.giste.club.web.service.CategoryRestService;
 import org.giste.spring.util.controller.CrudControllerTest;
+import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
@@ -24,6 +45,53 @@ public class CategoryControllerTest extends CrudControllerTest<CategoryDto> {
 	@MockBean
 	private CategoryRestService categoryRestService;
 
+	// Replaces the inherited test of the unpaged list, which isn't reachable
+	// any more: the list URL shows the first page asynchronously.
+	@Test
+	public void findAll() throws Exception {
+		CategoryDto dto = getNewDto();
+
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(new PageImpl<>(Arrays.asList(dto))));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		checkModelList(getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("categoryList"))), dto);
+
+		verify(getMockService()).findAllAsync(any(Pageable.class), any(Executor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void listWithoutPageShowsFirstPage() throws Exception {
+		Page<CategoryDto> page = new PageImpl<>(Arrays.asList(getNewDto()), new PageRequest(0, 20), 30);
+
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(page));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("categoryList")))
+				.andExpect(model().attribute("page", hasProperty("totalPages", is(2))));
+
+		verify(getMockService()).findAllAsync(argThat(new ArgumentMatcher<Pageable>() {
+			@Override
+			public boolean matches(Object argument) {
+				Pageable requested = (Pageable) argument;
+				return requested.getPageNumber() == 0 && requested.getPageSize() == 20;
+			}
+		}), any(Executor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
 	@Override
 	protected CategoryRestService getMockService() {
 		return categoryRestService;
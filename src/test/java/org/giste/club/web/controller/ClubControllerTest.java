@@ -3,27 +3,60 @@ package org.giste.club.web.controller;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.BulkResult;
 import org.giste.club.web.service.ClubRestService;
 import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
+import org.giste.club.web.service.stream.ElementHandler;
 import org.giste.spring.util.controller.CrudeControllerTest;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
@@ -76,6 +109,259 @@ public class ClubControllerTest extends CrudeControllerTest<ClubDto> {
 		verifyNoMoreInteractions(getMockService());
 	}
 
+	@Test
+	public void findPage() throws Exception {
+		ClubDto club = getNewDto();
+		Pageable pageable = new PageRequest(1, 10);
+		Page<ClubDto> page = new PageImpl<>(Arrays.asList(club), pageable, 11);
+
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(page));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase())
+				.param("page", "1")
+				.param("size", "10"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		checkModelList(getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("clubList")))
+				.andExpect(model().attribute("page", hasProperty("totalPages", is(2)))), club);
+
+		verify(getMockService()).findAllAsync(argThat(new ArgumentMatcher<Pageable>() {
+			@Override
+			public boolean matches(Object argument) {
+				Pageable requested = (Pageable) argument;
+				return requested.getPageNumber() == 1 && requested.getPageSize() == 10;
+			}
+		}), any(Executor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void findPageSizeIsLimited() throws Exception {
+		Page<ClubDto> page = new PageImpl<>(Arrays.asList(getNewDto()));
+
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(page));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase())
+				.param("page", "0")
+				.param("size", "100000"))
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk());
+
+		verify(getMockService()).findAllAsync(argThat(new ArgumentMatcher<Pageable>() {
+			@Override
+			public boolean matches(Object argument) {
+				return ((Pageable) argument).getPageSize() == 100;
+			}
+		}), any(Executor.class));
+	}
+
+	// Replaces the inherited test of the unpaged list, which isn't reachable
+	// any more: the list URL shows the first page asynchronously.
+	@Test
+	public void findAll() throws Exception {
+		ClubDto club = getNewDto();
+
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(new PageImpl<>(Arrays.asList(club))));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		checkModelList(getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("clubList"))), club);
+
+		verify(getMockService()).findAllAsync(any(Pageable.class), any(Executor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void listWithoutPageShowsFirstPage() throws Exception {
+		Page<ClubDto> page = new PageImpl<>(Arrays.asList(getNewDto()), new PageRequest(0, 20), 30);
+
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(page));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("clubList")))
+				.andExpect(model().attribute("page", hasProperty("totalPages", is(2))));
+
+		verify(getMockService()).findAllAsync(argThat(new ArgumentMatcher<Pageable>() {
+			@Override
+			public boolean matches(Object argument) {
+				Pageable requested = (Pageable) argument;
+				return requested.getPageNumber() == 0 && requested.getPageSize() == 20;
+			}
+		}), any(Executor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void listRejectedByFullExecutorIsUnavailable() throws Exception {
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenThrow(new TaskRejectedException("Queue full"));
+
+		getMockMvc().perform(get(getPathBase()).param("page", "0"))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+	@Test
+	public void listFailedByFullExecutorIsUnavailable() throws Exception {
+		CompletableFuture<Page<ClubDto>> rejected = new CompletableFuture<>();
+		rejected.completeExceptionally(new TaskRejectedException("Queue full"));
+		when(getMockService().findAllAsync(any(Pageable.class), any(Executor.class))).thenReturn(rejected);
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase()).param("page", "0"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+	@Test
+	public void setEnabledChangesSelectedClubsAndShowsResults() throws Exception {
+		ClubDto club1 = new ClubDto(1L, "Club 1", "CLUB1", true);
+		List<BulkResult<ClubDto>> results = Arrays.asList(BulkResult.success(1L, club1),
+				BulkResult.failure(2L, "404 Not Found"));
+
+		when(getMockService().setEnabledAsync(eq(Arrays.asList(1L, 2L)), eq(true), anyInt(), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(results));
+
+		MvcResult asyncResult = getMockMvc().perform(post(getPathBase() + "/bulk")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.param("ids", "1", "2")
+				.param("enabled", "true"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("clubBulk")))
+				.andExpect(model().attribute("bulkResults", is(results)));
+
+		// Made in the bulk pool, even without asynchronous requests.
+		verify(getMockService()).setEnabledAsync(eq(Arrays.asList(1L, 2L)), eq(true), anyInt(),
+				isA(ThreadPoolTaskExecutor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void setEnabledWithoutSelectionShowsNoResults() throws Exception {
+		MvcResult asyncResult = getMockMvc().perform(post(getPathBase() + "/bulk")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.param("enabled", "false"))
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("clubBulk")))
+				.andExpect(model().attribute("bulkResults", empty()));
+
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void setEnabledChangesAtMostMaxSizeClubs() throws Exception {
+		String[] ids = new String[101];
+		List<Long> changed = new ArrayList<>();
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = String.valueOf(i + 1);
+			if (i < 100) {
+				changed.add(i + 1L);
+			}
+		}
+
+		when(getMockService().setEnabledAsync(eq(changed), eq(false), anyInt(), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+		MvcResult asyncResult = getMockMvc().perform(post(getPathBase() + "/bulk")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.param("ids", ids)
+				.param("enabled", "false"))
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(model().attribute("bulkResults", contains(allOf(
+						hasProperty("id", is(101L)), hasProperty("success", is(false))))));
+
+		verify(getMockService()).setEnabledAsync(eq(changed), eq(false), anyInt(), any(Executor.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	public void importCsvCreatesRowsAndReportsErrors() throws Exception {
+		MockMultipartFile file = new MockMultipartFile("file", "clubs.csv", "text/csv",
+				("name,acronym,enabled\n"
+						+ "Club 1,CLUB1,true\n"
+						+ "Cl,CBL_1,true\n"
+						+ "Club 3,CLUB3,false\n").getBytes(StandardCharsets.UTF_8));
+
+		when(getMockService().create(any(ClubDto.class))).thenAnswer(invocation -> {
+			ClubDto club = (ClubDto) invocation.getArguments()[0];
+			if ("CLUB3".equals(club.getAcronym())) {
+				throw new DuplicatedClubAcronymException(club.getAcronym());
+			}
+			return club;
+		});
+
+		getMockMvc().perform(fileUpload(getPathBase() + "/import").file(file))
+				.andExpect(status().isOk())
+				.andExpect(view().name(is("importReport")))
+				.andExpect(model().attribute("report", allOf(
+						hasProperty("created", is(1L)),
+						hasProperty("rejected", is(1L)),
+						hasProperty("duplicated", is(1L)))));
+
+		verify(getMockService(), times(2)).create(any(ClubDto.class));
+		verifyNoMoreInteractions(getMockService());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void exportWritesClubsAsCsv() throws Exception {
+		doAnswer(invocation -> {
+			ElementHandler<ClubDto> handler = (ElementHandler<ClubDto>) invocation.getArguments()[0];
+			handler.handle(new ClubDto(1L, "Club 1", "CLUB1", true));
+			handler.handle(new ClubDto(2L, "Club 2", "CLUB2", false));
+			return null;
+		}).when(getMockService()).forEach(any(ElementHandler.class));
+
+		MvcResult asyncResult = getMockMvc().perform(get(getPathBase() + "/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		getMockMvc().perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", is("attachment; filename=\"clubs.csv\"")))
+				.andExpect(content().contentTypeCompatibleWith("text/csv"))
+				.andExpect(content().string(is("id,name,acronym,enabled\r\n"
+						+ "1,Club 1,CLUB1,true\r\n"
+						+ "2,Club 2,CLUB2,false\r\n")));
+	}
+
+	@Test
+	public void exportWithUnknownFormatIsBadRequest() throws Exception {
+		getMockMvc().perform(get(getPathBase() + "/export").param("format", "xml"))
+				.andExpect(status().isBadRequest());
+
+		verifyNoMoreInteractions(getMockService());
+	}
+
 	@Override
 	protected Class<ClubDto> getDtoType() {
 		return ClubDto.class;
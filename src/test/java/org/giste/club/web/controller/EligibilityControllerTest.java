@@ -0,0 +1,93 @@
+package org.giste.club.web.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.config.EligibilityConfiguration;
+import org.giste.club.web.service.CategoryRestService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Tests for {@link EligibilityController}.
+ * 
+ * @author Giste
+ */
+@RunWith(SpringRunner.class)
+@WebMvcTest(EligibilityController.class)
+@Import(EligibilityConfiguration.class)
+@TestPropertySource(properties = "web.eligibility.max-batch-size=2")
+public class EligibilityControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockBean
+	private CategoryRestService categoryRestService;
+
+	@Before
+	public void setUp() {
+		when(categoryRestService.findAll()).thenReturn(Arrays.asList(
+				new CategoryDto(1L, "Senior", 18, 34, true),
+				new CategoryDto(2L, "Junior", 16, 17, false),
+				new CategoryDto(3L, "Open", 16, 99, true)));
+	}
+
+	@Test
+	public void categoriesAreFoundByAge() throws Exception {
+		mvc.perform(get("/categories/eligible").param("age", "17"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].name", is("Junior")))
+				.andExpect(jsonPath("$[1].name", is("Open")));
+	}
+
+	@Test
+	public void categoriesAreFoundByBirthDate() throws Exception {
+		mvc.perform(get("/categories/eligible").param("birthDate", "1999-06-16").param("on", "2017-06-15"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].name", is("Junior")));
+
+		mvc.perform(get("/categories/eligible").param("birthDate", "16/06/1999"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void birthDatesAreClassified() throws Exception {
+		mvc.perform(post("/categories/classify").param("on", "2017-06-15")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[\"1990-01-01\", \"2010-01-01\"]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].age", is(27)))
+				.andExpect(jsonPath("$[0].categoryIds[0]", is(3)))
+				.andExpect(jsonPath("$[0].categoryIds[1]", is(1)))
+				.andExpect(jsonPath("$[1].categoryIds", hasSize(0)));
+	}
+
+	@Test
+	public void tooManyBirthDatesAreRejected() throws Exception {
+		mvc.perform(post("/categories/classify")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[\"1990-01-01\", \"2000-01-01\", \"2010-01-01\"]"))
+				.andExpect(status().isPayloadTooLarge());
+	}
+}
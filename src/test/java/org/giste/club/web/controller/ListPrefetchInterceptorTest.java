@@ -0,0 +1,60 @@
+package org.giste.club.web.controller;
+
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.cache.Prefetcher;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Tests for {@link ListPrefetchInterceptor}.
+ * 
+ * @author Giste
+ */
+public class ListPrefetchInterceptorTest {
+
+	private Prefetcher<ClubDto> prefetcher;
+	private ListPrefetchInterceptor interceptor;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		prefetcher = mock(Prefetcher.class);
+		interceptor = new ListPrefetchInterceptor(2).register("clubList", ClubDto.class, ClubDto::getId, prefetcher);
+	}
+
+	@Test
+	public void firstEntitiesOfListArePrefetched() {
+		ModelAndView view = new ModelAndView("clubList");
+		view.addObject("entityList", Arrays.asList(new ClubDto(3L, "Club 3", "CLUB3", true),
+				new ClubDto(1L, "Club 1", "CLUB1", true), new ClubDto(2L, "Club 2", "CLUB2", true)));
+
+		postHandle(view);
+
+		verify(prefetcher).prefetch(Arrays.asList(3L, 1L));
+	}
+
+	@Test
+	public void otherViewsAreIgnored() {
+		ModelAndView view = new ModelAndView("club");
+		view.addObject("entity", new ClubDto(1L, "Club 1", "CLUB1", true));
+
+		postHandle(view);
+		postHandle(null);
+
+		verify(prefetcher, never()).prefetch(anyCollectionOf(Long.class));
+	}
+
+	private void postHandle(ModelAndView view) {
+		interceptor.postHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null, view);
+	}
+}
@@ -0,0 +1,88 @@
+package org.giste.club.web.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.Role;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.SearchConfiguration;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Tests for {@link SearchController}.
+ * 
+ * @author Giste
+ */
+@RunWith(SpringRunner.class)
+@WebMvcTest(SearchController.class)
+@Import(SearchConfiguration.class)
+public class SearchControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockBean
+	private ClubRestService clubRestService;
+
+	@MockBean
+	private UserRestService userRestService;
+
+	@Before
+	public void setUp() {
+		when(clubRestService.findAll()).thenReturn(Arrays.asList(
+				new ClubDto(1L, "Club Atlético Valencia", "CAV", true),
+				new ClubDto(2L, "Valladolid Runners", "VRU", true)));
+		when(userRestService.findAll()).thenReturn(Arrays.asList(
+				new UserDto(1L, "ana.garcia@email.com", "Ana García", "123456", Role.USER),
+				new UserDto(2L, "juan@email.com", "Juan Pérez", "654321", Role.ADMIN)));
+	}
+
+	@Test
+	public void clubsAreSearchedByNameAndAcronym() throws Exception {
+		mvc.perform(get("/search/clubs").param("q", "va"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[0].id", is(2)))
+				.andExpect(jsonPath("$[0].name", is("Valladolid Runners")))
+				.andExpect(jsonPath("$[0].detail", is("VRU")));
+
+		mvc.perform(get("/search/clubs").param("q", "cav"))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].id", is(1)));
+
+		// List is only read to fill the index.
+		verify(clubRestService, times(1)).findAll();
+	}
+
+	@Test
+	public void usersAreSearchedByNameAndEmailWithoutPassword() throws Exception {
+		mvc.perform(get("/search/users").param("q", "garc"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].name", is("Ana García")))
+				.andExpect(jsonPath("$[0].detail", is("ana.garcia@email.com")))
+				.andExpect(jsonPath("$[0].passwordHash").doesNotExist());
+
+		mvc.perform(get("/search/users").param("q", "email").param("limit", "1"))
+				.andExpect(jsonPath("$", hasSize(1)));
+	}
+}
@@ -0,0 +1,132 @@
+package org.giste.club.web.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.servlet.http.Cookie;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.Role;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.service.CategoryRestService;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest({ ClubController.class, UserController.class, CategoryController.class })
+@TestPropertySource(properties = "web.stateless.enabled=true")
+public class SessionlessReadTest {
+
+	private static final String LOCALE_COOKIE = "club-locale";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockBean
+	private ClubRestService clubRestService;
+
+	@MockBean
+	private UserRestService userRestService;
+
+	@MockBean
+	private CategoryRestService categoryRestService;
+
+	@Before
+	public void setUp() {
+		ClubDto club = new ClubDto(1L, "Club 1", "CLUB1", true);
+		when(clubRestService.findAll()).thenReturn(Arrays.asList(club));
+		when(clubRestService.findById(1L)).thenReturn(club);
+		when(clubRestService.findAllAsync(any(Pageable.class), any(Executor.class)))
+				.thenReturn(CompletableFuture.completedFuture(new PageImpl<>(Arrays.asList(club))));
+		when(userRestService.findAll())
+				.thenReturn(Arrays.asList(new UserDto(1L, "user1@email.com", "user1", "123456", Role.USER)));
+		when(categoryRestService.findAll())
+				.thenReturn(Arrays.asList(new CategoryDto(1L, "Category 1", 15, 16, false)));
+	}
+
+	@Test
+	public void listsDontCreateSession() throws Exception {
+		for (String path : Arrays.asList("/clubs", "/users", "/categories")) {
+			assertNoSession(perform(get(path)));
+		}
+	}
+
+	@Test
+	public void entityDoesntCreateSession() throws Exception {
+		assertNoSession(perform(get("/clubs/{id}", 1L)));
+	}
+
+	@Test
+	public void pageDoesntCreateSession() throws Exception {
+		MvcResult asyncResult = mvc.perform(get("/clubs").param("page", "0"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertNoSession(asyncResult);
+
+		assertNoSession(mvc.perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andReturn());
+	}
+
+	@Test
+	public void langIsKeptInCookieWithoutSession() throws Exception {
+		MvcResult result = perform(get("/clubs").param("lang", "es"));
+		assertNoSession(result);
+		assertThat(result.getResponse().getLocale(), is(new Locale("es")));
+
+		Cookie cookie = result.getResponse().getCookie(LOCALE_COOKIE);
+		assertThat(cookie, is(notNullValue()));
+
+		result = perform(get("/clubs").cookie(cookie).header("Accept-Language", "en"));
+		assertNoSession(result);
+		assertThat(result.getResponse().getLocale(), is(new Locale("es")));
+	}
+
+	@Test
+	public void tamperedCookieFallsBackToAcceptLanguage() throws Exception {
+		MvcResult result = perform(get("/clubs").param("lang", "es"));
+		String value = result.getResponse().getCookie(LOCALE_COOKIE).getValue();
+		Cookie tampered = new Cookie(LOCALE_COOKIE, "fr" + value.substring(value.indexOf('.')));
+
+		result = perform(get("/clubs").cookie(tampered).header("Accept-Language", "en"));
+		assertNoSession(result);
+		assertThat(result.getResponse().getLocale(), is(Locale.ENGLISH));
+	}
+
+	private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+		return mvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn();
+	}
+
+	private void assertNoSession(MvcResult result) {
+		assertThat(result.getRequest().getSession(false), is(nullValue()));
+	}
+}
@@ -0,0 +1,101 @@
+package org.giste.club.web.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.common.dto.Role;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.UniquenessConfiguration;
+import org.giste.club.web.service.CategoryRestService;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.UserRestService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Tests for {@link UniquenessController}.
+ * 
+ * @author Giste
+ */
+@RunWith(SpringRunner.class)
+@WebMvcTest(UniquenessController.class)
+@Import(UniquenessConfiguration.class)
+public class UniquenessControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockBean
+	private ClubRestService clubRestService;
+
+	@MockBean
+	private UserRestService userRestService;
+
+	@MockBean
+	private CategoryRestService categoryRestService;
+
+	@Before
+	public void setUp() {
+		when(clubRestService.findAllAsync(any(Executor.class))).thenReturn(CompletableFuture.completedFuture(
+				Arrays.asList(new ClubDto(1L, "Club Atlético Valencia", "CAV", true))));
+		when(userRestService.findAllAsync(any(Executor.class))).thenReturn(CompletableFuture.completedFuture(
+				Arrays.asList(new UserDto(1L, "ana@email.com", "Ana García", "123456", Role.USER))));
+		when(categoryRestService.findAllAsync(any(Executor.class))).thenReturn(CompletableFuture.completedFuture(
+				Arrays.asList(new CategoryDto(1L, "Senior", 18, 99, true))));
+	}
+
+	@Test
+	public void acronymOfOtherClubIsNotUnique() throws Exception {
+		check("/check/clubs/acronym", "CAV", "0", false);
+		check("/check/clubs/acronym", "CAV", "1", true);
+		check("/check/clubs/acronym", "VRU", "0", true);
+
+		// List is only read to synchronize the index.
+		verify(clubRestService, times(1)).findAllAsync(any(Executor.class));
+	}
+
+	@Test
+	public void emailOfOtherUserIsNotUnique() throws Exception {
+		check("/check/users/email", "ana@email.com", "2", false);
+		check("/check/users/email", "juan@email.com", "2", true);
+	}
+
+	@Test
+	public void nameOfOtherCategoryIsNotUnique() throws Exception {
+		check("/check/categories/name", "Senior", "0", false);
+		check("/check/categories/name", "Junior", "0", true);
+	}
+
+	private void check(String path, String value, String id, boolean unique) throws Exception {
+		MvcResult asyncResult = mvc.perform(get(path).param("value", value).param("id", id))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(asyncResult))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.value", is(value)))
+				.andExpect(jsonPath("$.unique", is(unique)));
+	}
+}
@@ -0,0 +1,188 @@
+package org.giste.club.web.csv;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.validation.Validation;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.csv.ImportReport.RowError;
+import org.giste.club.web.csv.ImportReport.Status;
+import org.giste.club.web.service.exception.DuplicatedClubAcronymException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/**
+ * Tests for {@link CsvImporter}.
+ * 
+ * @author Giste
+ */
+public class CsvImporterTest {
+
+	private static final String HEADER = "name,acronym,enabled\n";
+
+	private ExecutorService executor;
+	private CsvImporter importer;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(8);
+		StaticMessageSource messageSource = new StaticMessageSource();
+		messageSource.setUseCodeAsDefaultMessage(true);
+		importer = new CsvImporter(new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator()),
+				messageSource, executor, 3, 2, 20, 100, 1);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void createsValidRowsAndReportsOthers() throws IOException {
+		Reader csv = new StringReader("\uFEFF" + HEADER
+				+ "Club 1,CLUB1,true\n"
+				+ "Cl,CBL_1,true\n"
+				+ "Club 3,DUP,false\n"
+				+ "Club 4,FAIL,false\n"
+				+ "Club 5,CLUB5\n");
+
+		ImportReport report = importer.importCsv(csv, ClubDto::new, club -> {
+			if ("DUP".equals(club.getAcronym())) {
+				throw new DuplicatedClubAcronymException(club.getAcronym());
+			} else if ("FAIL".equals(club.getAcronym())) {
+				throw new IllegalStateException("Server error");
+			}
+			return club;
+		}, DuplicatedClubAcronymException.class, Locale.ENGLISH);
+
+		assertThat(report.getCreated(), is(1L));
+		assertThat(report.getRejected(), is(2L));
+		assertThat(report.getDuplicated(), is(1L));
+		assertThat(report.getFailed(), is(1L));
+
+		// Only the first errors are kept, sorted by row.
+		List<RowError> errors = report.getErrors();
+		assertThat(errors.size(), is(2));
+		assertThat(errors.get(0).getRow(), is(3L));
+		assertThat(errors.get(0).getStatus(), is(Status.REJECTED));
+		assertThat(report.getUnreported(), is(2L));
+	}
+
+	@Test
+	public void bindsRowsToEntities() throws IOException {
+		Reader csv = new StringReader(" name , acronym ,enabled\r\n\"Club, 1\",CLUB1,true\r\n");
+		ClubDto[] created = new ClubDto[1];
+
+		ImportReport report = importer.importCsv(csv, ClubDto::new, club -> created[0] = club,
+				DuplicatedClubAcronymException.class, Locale.ENGLISH);
+
+		assertThat(report.getCreated(), is(1L));
+		assertThat(created[0].getName(), is("Club, 1"));
+		assertThat(created[0].getAcronym(), is("CLUB1"));
+		assertThat(created[0].isEnabled(), is(true));
+	}
+
+	@Test
+	public void concurrencyIsBounded() throws IOException {
+		StringBuilder csv = new StringBuilder(HEADER);
+		for (int i = 0; i < 100; i++) {
+			csv.append("Club ").append(i).append(",CLB").append(i % 10).append(",true\n");
+		}
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		ImportReport report = importer.importCsv(new StringReader(csv.toString()), ClubDto::new, club -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+			}
+			return club;
+		}, DuplicatedClubAcronymException.class, Locale.ENGLISH);
+
+		assertThat(report.getCreated(), is(100L));
+		assertThat(maxRunning.get(), is(lessThanOrEqualTo(3)));
+	}
+
+	@Test
+	public void emptyFileCreatesNothing() throws IOException {
+		ImportReport report = importer.importCsv(new StringReader(""), ClubDto::new, club -> club,
+				DuplicatedClubAcronymException.class, Locale.ENGLISH);
+
+		assertThat(report.getCreated(), is(0L));
+		assertThat(report.getErrors().isEmpty(), is(true));
+	}
+
+	@Test
+	public void wrongNumberOfColumnsIsRejected() throws IOException {
+		ImportReport report = importer.importCsv(new StringReader(HEADER + "Club 1,CLUB1\n"), ClubDto::new,
+				club -> club, DuplicatedClubAcronymException.class, Locale.ENGLISH);
+
+		assertThat(report.getRejected(), is(1L));
+		assertThat(report.getErrors().get(0).getMessages(), hasItem("import.columns"));
+	}
+
+	@Test
+	public void rowTooLongIsRejected() throws IOException {
+		ImportReport report = importer.importCsv(
+				new StringReader(HEADER + "Club with a name too long,CLUB1,true\nClub 2,CLUB2,true\n"),
+				ClubDto::new, club -> club, DuplicatedClubAcronymException.class, Locale.ENGLISH);
+
+		assertThat(report.getRejected(), is(1L));
+		assertThat(report.getCreated(), is(1L));
+		assertThat(report.getErrors().get(0).getRow(), is(2L));
+		assertThat(report.getErrors().get(0).getMessages(), hasItem("import.length"));
+	}
+
+	@Test(expected = TooManyImportsException.class)
+	public void concurrentImportsAreBounded() throws Exception {
+		CountDownLatch creating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<ImportReport> running = CompletableFuture.supplyAsync(() -> {
+			try {
+				return importer.importCsv(new StringReader(HEADER + "Club 1,CLUB1,true\n"), ClubDto::new, club -> {
+					creating.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return club;
+				}, DuplicatedClubAcronymException.class, Locale.ENGLISH);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		creating.await(1, TimeUnit.SECONDS);
+
+		try {
+			importer.importCsv(new StringReader(HEADER), ClubDto::new, club -> club,
+					DuplicatedClubAcronymException.class, Locale.ENGLISH);
+		} finally {
+			release.countDown();
+			running.get(1, TimeUnit.SECONDS);
+		}
+	}
+}
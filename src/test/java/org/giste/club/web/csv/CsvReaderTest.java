@@ -0,0 +1,97 @@
+package org.giste.club.web.csv;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CsvReader}.
+ * 
+ * @author Giste
+ */
+public class CsvReaderTest {
+
+	@Test
+	public void readsRecordsWithDifferentLineBreaks() throws IOException {
+		CsvReader reader = reader("a,b\r\nc,d\ne,f");
+
+		assertThat(reader.readRecord(), is(Arrays.asList("a", "b")));
+		assertThat(reader.readRecord(), is(Arrays.asList("c", "d")));
+		assertThat(reader.readRecord(), is(Arrays.asList("e", "f")));
+		assertThat(reader.getRecordNumber(), is(3L));
+		assertThat(reader.readRecord(), is(nullValue()));
+	}
+
+	@Test
+	public void readsQuotedFields() throws IOException {
+		CsvReader reader = reader("\"a,1\",\"say \"\"hi\"\"\",\"two\nlines\"\n");
+
+		assertThat(reader.readRecord(), is(Arrays.asList("a,1", "say \"hi\"", "two\nlines")));
+		assertThat(reader.readRecord(), is(nullValue()));
+	}
+
+	@Test
+	public void keepsEmptyFieldsAndSkipsEmptyLines() throws IOException {
+		CsvReader reader = reader("a,,\n\n\"\",b\n");
+
+		assertThat(reader.readRecord(), is(Arrays.asList("a", "", "")));
+		assertThat(reader.readRecord(), is(Arrays.asList("", "b")));
+		assertThat(reader.getRecordNumber(), is(2L));
+		assertThat(reader.readRecord(), is(nullValue()));
+	}
+
+	@Test
+	public void readsRecordsLongerThanBuffer() throws IOException {
+		StringBuilder field = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			field.append('x');
+		}
+		CsvReader reader = reader(field + ",y\n");
+
+		assertThat(reader.readRecord(), is(Arrays.asList(field.toString(), "y")));
+	}
+
+	@Test(expected = IOException.class)
+	public void unclosedQuoteFails() throws IOException {
+		reader("\"a,b\n").readRecord();
+	}
+
+	@Test
+	public void skipsRecordsTooLong() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("abcd,e\nab,cd,ef\n\"a\nb\",c\n"), 3, 6);
+
+		try {
+			reader.readRecord();
+			fail("Field longer than 3 characters");
+		} catch (RecordTooLongException e) {
+			assertThat(e.getRecordNumber(), is(1L));
+		}
+		try {
+			reader.readRecord();
+			fail("Record longer than 6 characters");
+		} catch (RecordTooLongException e) {
+			assertThat(e.getRecordNumber(), is(2L));
+		}
+		assertThat(reader.readRecord(), is(Arrays.asList("a\nb", "c")));
+		assertThat(reader.getRecordNumber(), is(3L));
+		assertThat(reader.readRecord(), is(nullValue()));
+	}
+
+	@Test(expected = IOException.class)
+	public void unclosedQuoteTooLongFails() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("\"abcdefghijklmnopqrstuvwxyz"), 3, 6);
+
+		reader.readRecord();
+	}
+
+	private CsvReader reader(String csv) {
+		return new CsvReader(new StringReader(csv), 100000, 100000);
+	}
+}
@@ -0,0 +1,152 @@
+package org.giste.club.web.eligibility;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AgeCategoryIndex}.
+ * 
+ * @author Giste
+ */
+public class AgeCategoryIndexTest {
+
+	private static final LocalDate ON = LocalDate.of(2017, 6, 15);
+
+	private AgeCategoryIndex index;
+	private List<CategoryDto> categories;
+	private AtomicInteger reads;
+	private Supplier<List<CategoryDto>> loader;
+
+	@Before
+	public void setUp() {
+		index = new AgeCategoryIndex();
+		categories = new ArrayList<>(Arrays.asList(
+				new CategoryDto(1L, "Senior", 18, 34, true),
+				new CategoryDto(2L, "Junior", 16, 17, false),
+				new CategoryDto(3L, "Veteran", 35, 99, true),
+				new CategoryDto(4L, "Youth", 12, 17, true),
+				new CategoryDto(5L, "Open", 16, 99, true)));
+		reads = new AtomicInteger();
+		loader = () -> {
+			reads.incrementAndGet();
+			return categories;
+		};
+	}
+
+	@Test
+	public void overlappingRangesAreFound() {
+		assertThat(names(index.findByAge(16, loader)), contains("Youth", "Junior", "Open"));
+		assertThat(names(index.findByAge(17, loader)), contains("Youth", "Junior", "Open"));
+		assertThat(names(index.findByAge(18, loader)), contains("Open", "Senior"));
+		assertThat(names(index.findByAge(35, loader)), contains("Open", "Veteran"));
+		assertThat(index.findByAge(11, loader), is(empty()));
+		assertThat(index.findByAge(100, loader), is(empty()));
+
+		// Tree is built once.
+		assertThat(reads.get(), is(1));
+	}
+
+	@Test
+	public void ageIsCompletedYearsOnDate() {
+		assertThat(names(index.findByBirthDate(LocalDate.of(1999, 6, 15), ON, loader)), contains("Open", "Senior"));
+		assertThat(names(index.findByBirthDate(LocalDate.of(1999, 6, 16), ON, loader)),
+				contains("Youth", "Junior", "Open"));
+		assertThat(index.findByBirthDate(LocalDate.of(2018, 1, 1), ON, loader), is(empty()));
+	}
+
+	@Test
+	public void birthDatesAreClassifiedInOrder() {
+		List<AgeClassification> classifications = index.classify(
+				Arrays.asList("2005-01-01", "1980-12-31", "not a date", "2005-02-01"), ON, loader);
+
+		assertThat(classifications.get(0).getAge(), is(12));
+		assertThat(classifications.get(0).getCategoryIds(), is(new long[] { 4 }));
+		assertThat(classifications.get(1).getAge(), is(36));
+		assertThat(classifications.get(1).getCategoryIds(), is(new long[] { 5, 3 }));
+		assertThat(classifications.get(2).getAge(), is(-1));
+		assertThat(classifications.get(2).getCategoryIds(), is(new long[0]));
+		assertThat(classifications.get(3).getBirthDate(), is("2005-02-01"));
+		assertThat(classifications.get(3).getCategoryIds(), is(new long[] { 4 }));
+	}
+
+	@Test
+	public void changeDropsTree() {
+		index.findByAge(20, loader);
+		categories.add(new CategoryDto(6L, "Under 23", 18, 22, true));
+		index.invalidate();
+
+		assertThat(names(index.findByAge(20, loader)), contains("Open", "Senior", "Under 23"));
+		assertThat(reads.get(), is(2));
+	}
+
+	@Test
+	public void concurrentLookupsBuildTreeOnce() throws Exception {
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread first = new Thread(() -> index.findByAge(20, () -> {
+			loading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return loader.get();
+		}));
+		first.start();
+		loading.await();
+
+		Thread second = new Thread(() -> index.findByAge(20, loader));
+		second.start();
+		Thread.sleep(20);
+		release.countDown();
+		first.join();
+		second.join();
+
+		assertThat(reads.get(), is(1));
+	}
+
+	@Test
+	public void failedBuildIsRetried() {
+		try {
+			index.findByAge(20, () -> {
+				throw new IllegalStateException("Server down");
+			});
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertThat(names(index.findByAge(20, loader)), contains("Open", "Senior"));
+			assertThat(reads.get(), is(1));
+		}
+	}
+
+	@Test
+	public void listReadBeforeChangeIsIgnored() {
+		final long version = index.getVersion();
+		index.invalidate();
+
+		assertThat(index.sync(categories, version), is(false));
+		assertThat(index.sync(categories, index.getVersion()), is(true));
+
+		index.findByAge(20, loader);
+		assertThat(reads.get(), is(0));
+	}
+
+	private List<String> names(List<CategoryDto> found) {
+		return found.stream().map(CategoryDto::getName).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,66 @@
+package org.giste.club.web.export;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.giste.club.common.dto.ClubDto;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EntityExporter}.
+ * 
+ * @author Giste
+ */
+public class EntityExporterTest {
+
+	private final EntityExporter<ClubDto> exporter = new EntityExporter<ClubDto>()
+			.column("id", ClubDto::getId)
+			.column("name", ClubDto::getName)
+			.column("enabled", ClubDto::isEnabled);
+
+	private final List<ClubDto> clubs = Arrays.asList(new ClubDto(1L, "Club 1", "CLUB1", true),
+			new ClubDto(2L, "Club \"2\", the best", "CLUB2", false));
+
+	@Test
+	public void csvHasHeaderAndEscapedFields() throws IOException {
+		assertThat(export(ExportFormat.CSV), is("id,name,enabled\r\n"
+				+ "1,Club 1,true\r\n"
+				+ "2,\"Club \"\"2\"\", the best\",false\r\n"));
+	}
+
+	@Test
+	public void jsonHasOnlyColumns() throws IOException {
+		assertThat(export(ExportFormat.JSON), is("[{\"id\":1,\"name\":\"Club 1\",\"enabled\":true},"
+				+ "{\"id\":2,\"name\":\"Club \\\"2\\\", the best\",\"enabled\":false}]"));
+	}
+
+	@Test
+	public void emptySourceWritesHeaderOrEmptyArray() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.write(out, ExportFormat.CSV, handler -> {
+		});
+		assertThat(out.toString("UTF-8"), is("id,name,enabled\r\n"));
+
+		out.reset();
+		exporter.write(out, ExportFormat.JSON, handler -> {
+		});
+		assertThat(out.toString("UTF-8"), is("[]"));
+	}
+
+	private String export(ExportFormat format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.write(out, format, handler -> {
+			for (ClubDto club : clubs) {
+				handler.handle(club);
+			}
+		});
+
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
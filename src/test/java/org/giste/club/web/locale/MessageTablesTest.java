@@ -0,0 +1,69 @@
+package org.giste.club.web.locale;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.giste.club.common.dto.Role;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MessageTables}.
+ * 
+ * @author Giste
+ */
+public class MessageTablesTest {
+
+	private final MessageTables messageTables = new MessageTables("UTF-8", "classpath:locale/first",
+			"classpath:locale/second");
+
+	@Test
+	public void firstBasenameIsPreferred() {
+		assertThat(messageTables.getMessage("greeting", Locale.ENGLISH), is("Hello"));
+	}
+
+	@Test
+	public void localeFileIsPreferredInsideBasename() {
+		assertThat(messageTables.getMessage("greeting", new Locale("es", "ES")), is("Hola"));
+	}
+
+	@Test
+	public void defaultFileOfFirstBasenameIsPreferredToLocaleFileOfNext() {
+		// Same as ReloadableResourceBundleMessageSource.
+		assertThat(messageTables.getMessage("farewell", new Locale("es")), is("Goodbye"));
+	}
+
+	@Test
+	public void unknownCodeIsNull() {
+		assertThat(messageTables.getMessage("unknown", Locale.ENGLISH), is(nullValue()));
+	}
+
+	@Test
+	public void labelsAreShared() {
+		MessageTables applicationTables = new MessageTables("UTF-8", "classpath:i18n/messages",
+				"classpath:i18n/web_messages", "classpath:i18n/validation_messages");
+
+		Map<Role, String> labels = applicationTables.getLabels(Role.class, Locale.ENGLISH);
+
+		assertThat(labels.get(Role.ADMIN), is("Administrator"));
+		assertThat(applicationTables.getLabels(Role.class, Locale.ENGLISH), is(sameInstance(labels)));
+	}
+
+	@Test
+	public void localeWithoutFilesUsesMatchingTable() {
+		assertThat(messageTables.getMessage("greeting", new Locale("es", "MX")), is("Hola"));
+		assertThat(messageTables.getLabels(Role.class, new Locale("es", "MX", "x")),
+				is(sameInstance(messageTables.getLabels(Role.class, new Locale("es")))));
+		assertThat(messageTables.getLabels(Role.class, new Locale("zz")),
+				is(sameInstance(messageTables.getLabels(Role.class, Locale.ROOT))));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void labelsCantBeModified() {
+		messageTables.getLabels(Role.class, Locale.ENGLISH).put(Role.ADMIN, "Changed");
+	}
+}
@@ -0,0 +1,92 @@
+package org.giste.club.web.locale;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Locale;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class SignedCookieLocaleResolverTest {
+
+	private static final String COOKIE = "locale";
+
+	private final SignedCookieLocaleResolver resolver = new SignedCookieLocaleResolver(COOKIE, 3600, "secret");
+
+	@Test
+	public void setLocaleAddsSignedCookie() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		resolver.setLocale(new MockHttpServletRequest(), response, new Locale("es", "ES"));
+
+		Cookie cookie = response.getCookie(COOKIE);
+		assertThat(cookie.getValue().startsWith("es_ES."), is(true));
+		assertThat(cookie.getMaxAge(), is(3600));
+		assertThat(cookie.isHttpOnly(), is(true));
+		assertThat(cookie.getPath(), is("/"));
+	}
+
+	@Test
+	public void resolvesLocaleFromCookie() {
+		Cookie cookie = signedCookie(new Locale("es", "ES"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addPreferredLocale(Locale.ENGLISH);
+		request.setCookies(cookie);
+
+		assertThat(resolver.resolveLocale(request), is(new Locale("es", "ES")));
+	}
+
+	@Test
+	public void cookieOfOtherSecretIsIgnored() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new SignedCookieLocaleResolver(COOKIE, 3600, "other").setLocale(new MockHttpServletRequest(), response,
+				new Locale("es"));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addPreferredLocale(Locale.ENGLISH);
+		request.setCookies(response.getCookie(COOKIE));
+
+		assertThat(resolver.resolveLocale(request), is(Locale.ENGLISH));
+	}
+
+	@Test
+	public void malformedCookieIsIgnored() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addPreferredLocale(Locale.ENGLISH);
+		request.setCookies(new Cookie(COOKIE, "es"));
+
+		assertThat(resolver.resolveLocale(request), is(Locale.ENGLISH));
+	}
+
+	@Test
+	public void setLocaleIsUsedInSameRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addPreferredLocale(Locale.ENGLISH);
+		resolver.resolveLocale(request);
+
+		resolver.setLocale(request, new MockHttpServletResponse(), new Locale("es"));
+
+		assertThat(resolver.resolveLocale(request), is(new Locale("es")));
+		assertThat(request.getSession(false), is(nullValue()));
+	}
+
+	@Test
+	public void nullLocaleRemovesCookie() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		resolver.setLocale(new MockHttpServletRequest(), response, null);
+
+		assertThat(response.getCookie(COOKIE).getMaxAge(), is(0));
+	}
+
+	private Cookie signedCookie(Locale locale) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		resolver.setLocale(new MockHttpServletRequest(), response, locale);
+
+		return response.getCookie(COOKIE);
+	}
+}
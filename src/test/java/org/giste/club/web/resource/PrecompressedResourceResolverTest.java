@@ -0,0 +1,83 @@
+package org.giste.club.web.resource;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.giste.club.web.resource.PrecompressedResourceResolver.PrecompressedResource;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Tests for {@link PrecompressedResourceResolver}.
+ * 
+ * @author Giste
+ */
+public class PrecompressedResourceResolverTest {
+
+	private final PrecompressedResourceResolver resolver = new PrecompressedResourceResolver();
+	private final List<Resource> locations = Collections.<Resource>singletonList(
+			new ClassPathResource("precompressed/"));
+
+	@Test
+	public void brotliIsPreferred() throws Exception {
+		Resource resource = resolve("app.js", "gzip, deflate, br");
+
+		assertThat(resource, is(instanceOf(PrecompressedResource.class)));
+		assertThat(((PrecompressedResource) resource).getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING),
+				is("br"));
+		assertThat(resource.getFilename(), is("app.js"));
+		assertThat(StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8),
+				is("br"));
+	}
+
+	@Test
+	public void gzipIsUsedIfBrotliIsNotAccepted() throws Exception {
+		Resource resource = resolve("app.js", "gzip");
+
+		assertThat(((PrecompressedResource) resource).getEncoding(), is("gzip"));
+	}
+
+	@Test
+	public void gzipIsUsedIfThereIsNoBrotliVersion() throws Exception {
+		Resource resource = resolve("style.css", "br, gzip");
+
+		assertThat(((PrecompressedResource) resource).getEncoding(), is("gzip"));
+	}
+
+	@Test
+	public void originalIsUsedIfNoEncodingIsAccepted() throws Exception {
+		assertThat(resolve("app.js", null), is(not(instanceOf(PrecompressedResource.class))));
+		assertThat(resolve("app.js", "br;q=0, gzip;q=0"), is(not(instanceOf(PrecompressedResource.class))));
+	}
+
+	private Resource resolve(String path, String acceptEncoding) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + path);
+		if (acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+
+		ResourceResolverChain chain = mock(ResourceResolverChain.class);
+		when(chain.resolveResource(any(HttpServletRequest.class), eq(path), anyListOf(Resource.class)))
+				.thenReturn(new ClassPathResource("precompressed/" + path));
+
+		return resolver.resolveResource(request, path, locations, chain);
+	}
+}
@@ -0,0 +1,142 @@
+package org.giste.club.web.search;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.giste.club.common.dto.ClubDto;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SearchIndex}.
+ * 
+ * @author Giste
+ */
+public class SearchIndexTest {
+
+	private SearchIndex<ClubDto> index;
+
+	@Before
+	public void setUp() {
+		index = new SearchIndex<ClubDto>("clubs", ClubDto::getId)
+				.field(ClubDto::getName)
+				.field(ClubDto::getAcronym);
+		index.sync(Arrays.asList(
+				new ClubDto(1L, "Club Atlético Valencia", "CAV", true),
+				new ClubDto(2L, "Valladolid Runners", "VRU", true),
+				new ClubDto(3L, "Sporting Atlántico", "SPA", true),
+				new ClubDto(4L, "Running Club Madrid", "RCM", false)), index.getVersion());
+	}
+
+	@Test
+	public void shortQueriesMatchStartOfWords() {
+		assertThat(names(index.search("Va", 10)), contains("Valladolid Runners", "Club Atlético Valencia"));
+		assertThat(names(index.search("l", 10)), is(empty()));
+	}
+
+	@Test
+	public void longQueriesMatchAnywhereWithoutAccents() {
+		assertThat(names(index.search("ATLAN", 10)), contains("Sporting Atlántico"));
+		assertThat(names(index.search("atl", 10)), contains("Club Atlético Valencia", "Sporting Atlántico"));
+		assertThat(names(index.search("unner", 10)), contains("Valladolid Runners"));
+		assertThat(names(index.search("rcm", 10)), contains("Running Club Madrid"));
+	}
+
+	@Test
+	public void resultsStartingWithQueryComeFirstAndAreLimited() {
+		assertThat(names(index.search("club", 10)), contains("Club Atlético Valencia", "Running Club Madrid"));
+		assertThat(names(index.search("club", 1)), contains("Club Atlético Valencia"));
+		assertThat(names(index.search("runn", 10)), contains("Running Club Madrid", "Valladolid Runners"));
+	}
+
+	@Test
+	public void changesAreIndexedIncrementally() {
+		index.put(new ClubDto(2L, "Valladolid Trail", "VTR", true));
+		index.put(new ClubDto(5L, "Trail Sevilla", "TSE", true));
+		index.remove(3L);
+
+		assertThat(names(index.search("runners", 10)), is(empty()));
+		assertThat(names(index.search("trail", 10)), contains("Trail Sevilla", "Valladolid Trail"));
+		assertThat(names(index.search("spa", 10)), is(empty()));
+		assertThat(index.size(), is(4));
+	}
+
+	@Test
+	public void syncRemovesMissingEntities() {
+		index.sync(Arrays.asList(new ClubDto(1L, "Club Atlético Valencia", "CAV", true)), index.getVersion());
+
+		assertThat(index.size(), is(1));
+		assertThat(names(index.search("va", 10)), contains("Club Atlético Valencia"));
+	}
+
+	@Test
+	public void listReadBeforeChangesDoesntUndoThem() {
+		final long version = index.getVersion();
+		List<ClubDto> read = Arrays.asList(
+				new ClubDto(1L, "Club Atlético Valencia", "CAV", true),
+				new ClubDto(2L, "Valladolid Runners", "VRU", true),
+				new ClubDto(3L, "Sporting Atlántico", "SPA", true));
+
+		// Created, updated and removed while the list was read.
+		index.put(new ClubDto(5L, "Trail Sevilla", "TSE", true));
+		index.put(new ClubDto(2L, "Valladolid Trail", "VTR", true));
+		index.remove(3L);
+
+		assertThat(index.sync(read, version), is(true));
+		assertThat(names(index.search("trail", 10)), contains("Trail Sevilla", "Valladolid Trail"));
+		assertThat(names(index.search("spa", 10)), is(empty()));
+		assertThat(names(index.search("rcm", 10)), is(empty()));
+
+		// Older lists than the last one synchronized are ignored.
+		assertThat(index.sync(read, version - 1), is(false));
+	}
+
+	@Test
+	public void memoryIsReleasedWithEntities() {
+		long fourClubs = index.getEstimatedBytes();
+		assertThat(fourClubs, is(greaterThan(0L)));
+
+		index.remove(1L);
+		index.remove(2L);
+		index.remove(3L);
+
+		assertThat(index.getEstimatedBytes(), is(lessThan(fourClubs)));
+		index.remove(4L);
+		assertThat(index.getEstimatedBytes(), is(0L));
+	}
+
+	@Test
+	public void searchIsFastOnManyEntities() {
+		List<ClubDto> clubs = new ArrayList<>();
+		for (long i = 0; i < 20000; i++) {
+			clubs.add(new ClubDto(i, "Club " + i + " Deportivo", "C" + i, true));
+		}
+		index.sync(clubs, index.getVersion());
+
+		// Warm up, then measure.
+		for (int i = 0; i < 1000; i++) {
+			index.search("club 1999", 10);
+		}
+		long start = System.nanoTime();
+		List<ClubDto> results = index.search("club 1999", 10);
+		long micros = (System.nanoTime() - start) / 1000;
+
+		assertThat(names(results), contains("Club 1999 Deportivo", "Club 19990 Deportivo", "Club 19991 Deportivo",
+				"Club 19992 Deportivo", "Club 19993 Deportivo", "Club 19994 Deportivo", "Club 19995 Deportivo",
+				"Club 19996 Deportivo", "Club 19997 Deportivo", "Club 19998 Deportivo"));
+		assertThat(micros, is(lessThan(50000L)));
+	}
+
+	private static List<String> names(List<ClubDto> clubs) {
+		return clubs.stream().map(ClubDto::getName).collect(Collectors.toList());
+	}
+}
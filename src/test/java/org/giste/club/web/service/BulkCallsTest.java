@@ -0,0 +1,164 @@
+package org.giste.club.web.service;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BulkCalls}.
+ * 
+ * @author Giste
+ */
+public class BulkCallsTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void resultsKeepOrderAndReportFailures() throws Exception {
+		List<Long> ids = ids(10);
+
+		List<BulkResult<String>> results = BulkCalls.run(ids, id -> {
+			if (id % 3 == 0) {
+				throw new IllegalStateException("Failed " + id);
+			}
+			return "Club " + id;
+		}, 4, executor).get();
+
+		assertThat(results.size(), is(10));
+		for (int i = 0; i < results.size(); i++) {
+			BulkResult<String> result = results.get(i);
+			long id = ids.get(i);
+			assertThat(result.getId(), is(id));
+			if (id % 3 == 0) {
+				assertThat(result.isSuccess(), is(false));
+				assertThat(result.getEntity(), is(nullValue()));
+				assertThat(result.getError(), is("Failed " + id));
+			} else {
+				assertThat(result.isSuccess(), is(true));
+				assertThat(result.getEntity(), is("Club " + id));
+			}
+		}
+	}
+
+	@Test
+	public void exceptionsWithoutMessageAreFailures() throws Exception {
+		List<BulkResult<Long>> results = BulkCalls.run(ids(1), id -> {
+			throw new NullPointerException();
+		}, 1, executor).get();
+		List<BulkResult<Long>> asyncResults = BulkCalls.runAsync(ids(2), id -> {
+			if (id == 1) {
+				throw new NullPointerException();
+			}
+			CompletableFuture<Long> call = new CompletableFuture<>();
+			call.completeExceptionally(new NullPointerException());
+			return call;
+		}, 1).get();
+
+		for (BulkResult<Long> result : Arrays.asList(results.get(0), asyncResults.get(0), asyncResults.get(1))) {
+			assertThat(result.isSuccess(), is(false));
+			assertThat(result.getError(), is(NullPointerException.class.getName()));
+		}
+	}
+
+	@Test
+	public void concurrencyIsBounded() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		List<BulkResult<Long>> results = BulkCalls.run(ids(50), id -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+			}
+			return id;
+		}, 3, executor).get();
+
+		assertThat(results.size(), is(50));
+		assertThat(maxRunning.get(), is(lessThanOrEqualTo(3)));
+	}
+
+	@Test
+	public void rejectedCallsAreReportedAndLaneGoesOn() throws Exception {
+		AtomicInteger submitted = new AtomicInteger();
+		Executor rejectingSecond = command -> {
+			if (submitted.incrementAndGet() == 2) {
+				throw new RejectedExecutionException("Queue full");
+			}
+			command.run();
+		};
+
+		List<BulkResult<Long>> results = BulkCalls.run(ids(4), id -> id, 1, rejectingSecond).get();
+
+		assertThat(results.size(), is(4));
+		assertThat(results.get(0).isSuccess(), is(true));
+		assertThat(results.get(1).isSuccess(), is(false));
+		assertThat(results.get(1).getError(), containsString("Queue full"));
+		assertThat(results.get(2).isSuccess(), is(true));
+		assertThat(results.get(3).isSuccess(), is(true));
+	}
+
+	@Test
+	public void asyncCallsAreBoundedAndReportFailures() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+
+		List<BulkResult<Long>> results = BulkCalls.runAsync(ids(20), id -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			CompletableFuture<Long> call = new CompletableFuture<>();
+			executor.execute(() -> {
+				running.decrementAndGet();
+				if (id == 5) {
+					call.completeExceptionally(new IllegalStateException("Failed " + id));
+				} else {
+					call.complete(id);
+				}
+			});
+			return call;
+		}, 3).get();
+
+		assertThat(results.size(), is(20));
+		assertThat(maxRunning.get(), is(lessThanOrEqualTo(3)));
+		assertThat(results.get(4).isSuccess(), is(false));
+		assertThat(results.get(4).getError(), is("Failed 5"));
+		assertThat(results.get(5).getEntity(), is(6L));
+	}
+
+	@Test
+	public void emptyIdsGiveEmptyResults() throws Exception {
+		assertThat(BulkCalls.run(Collections.<Long>emptyList(), id -> id, 4, executor).get().isEmpty(), is(true));
+	}
+
+	private List<Long> ids(int count) {
+		List<Long> ids = new ArrayList<>();
+		for (long i = 1; i <= count; i++) {
+			ids.add(i);
+		}
+
+		return ids;
+	}
+}
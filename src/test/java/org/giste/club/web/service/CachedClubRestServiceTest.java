@@ -0,0 +1,107 @@
+package org.giste.club.web.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.service.cache.EntityCache;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CachedClubRestService}.
+ * 
+ * @author Giste
+ */
+public class CachedClubRestServiceTest {
+
+	private ClubRestService restService;
+	private EntityCache<ClubDto> cache;
+	private CachedClubRestService cachedService;
+
+	@Before
+	public void setUp() {
+		restService = mock(ClubRestService.class);
+		cache = new EntityCache<>("clubs", 100, 60000);
+		cachedService = new CachedClubRestService(restService, cache);
+	}
+
+	@Test
+	public void findAllIsReadOnce() {
+		final ClubDto club1 = new ClubDto(1L, "Club 1", "CLUB1", true);
+		final ClubDto club2 = new ClubDto(2L, "Club 2", "CLUB2", true);
+		when(restService.findAll()).thenReturn(Arrays.asList(club1, club2));
+
+		cachedService.findAll();
+		List<ClubDto> clubs = cachedService.findAll();
+
+		assertThat(clubs.size(), is(2));
+		verify(restService, times(1)).findAll();
+		assertThat(cache.listStats().hitCount(), is(1L));
+		assertThat(cache.listStats().missCount(), is(1L));
+	}
+
+	@Test
+	public void findByIdIsReadOnce() {
+		final ClubDto club = new ClubDto(1L, "Club 1", "CLUB1", true);
+		when(restService.findById(club.getId())).thenReturn(club);
+
+		cachedService.findById(club.getId());
+		ClubDto readClub = cachedService.findById(club.getId());
+
+		assertThat(readClub.getAcronym(), is(club.getAcronym()));
+		verify(restService, times(1)).findById(club.getId());
+	}
+
+	@Test
+	public void updateInvalidatesClubAndList() {
+		final ClubDto club = new ClubDto(1L, "Club 1", "CLUB1", true);
+		when(restService.findById(club.getId())).thenReturn(club);
+		when(restService.findAll()).thenReturn(Arrays.asList(club));
+
+		cachedService.findById(club.getId());
+		cachedService.findAll();
+		cachedService.update(club);
+		cachedService.findById(club.getId());
+		cachedService.findAll();
+
+		verify(restService, times(2)).findById(club.getId());
+		verify(restService, times(2)).findAll();
+	}
+
+	@Test
+	public void createInvalidatesListOnly() {
+		final ClubDto club = new ClubDto(1L, "Club 1", "CLUB1", true);
+		final ClubDto newClub = new ClubDto(2L, "Club 2", "CLUB2", true);
+		when(restService.findById(club.getId())).thenReturn(club);
+		when(restService.findAll()).thenReturn(Arrays.asList(club));
+
+		cachedService.findById(club.getId());
+		cachedService.findAll();
+		cachedService.create(newClub);
+		cachedService.findById(club.getId());
+		cachedService.findAll();
+
+		verify(restService, times(1)).findById(club.getId());
+		verify(restService, times(2)).findAll();
+	}
+
+	@Test
+	public void disableInvalidatesClub() {
+		final ClubDto club = new ClubDto(1L, "Club 1", "CLUB1", true);
+		when(restService.findById(club.getId())).thenReturn(club);
+
+		cachedService.findById(club.getId());
+		cachedService.disable(club.getId());
+		cachedService.findById(club.getId());
+
+		verify(restService, times(2)).findById(club.getId());
+	}
+}
@@ -0,0 +1,74 @@
+package org.giste.club.web.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.giste.club.common.dto.ClubDto;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Tests for {@link Pages}.
+ * 
+ * @author Giste
+ */
+public class PagesTest {
+
+	private List<ClubDto> clubs;
+
+	@Before
+	public void setUp() {
+		clubs = new ArrayList<>();
+		for (long i = 1; i <= 25; i++) {
+			clubs.add(new ClubDto(i, String.format("Club %02d", i), "CLB" + i, true));
+		}
+	}
+
+	@Test
+	public void firstPageIsBuilt() {
+		Page<ClubDto> page = Pages.of(clubs, new PageRequest(0, 10));
+
+		assertThat(page.getContent().size(), is(10));
+		assertThat(page.getTotalElements(), is(25L));
+		assertThat(page.getTotalPages(), is(3));
+		assertThat(page.getContent().get(0).getId(), is(1L));
+	}
+
+	@Test
+	public void lastPageIsPartial() {
+		Page<ClubDto> page = Pages.of(clubs, new PageRequest(2, 10));
+
+		assertThat(page.getContent().size(), is(5));
+		assertThat(page.isLast(), is(true));
+	}
+
+	@Test
+	public void pageBeyondLastIsEmpty() {
+		Page<ClubDto> page = Pages.of(clubs, new PageRequest(5, 10));
+
+		assertThat(page.getContent().size(), is(0));
+		assertThat(page.getTotalElements(), is(25L));
+	}
+
+	@Test
+	public void pageIsSorted() {
+		Page<ClubDto> page = Pages.of(clubs, new PageRequest(0, 10, Direction.DESC, "name"));
+
+		assertThat(page.getContent().get(0).getName(), is("Club 25"));
+		assertThat(page.getContent().get(9).getName(), is("Club 16"));
+		assertThat(clubs.get(0).getName(), is("Club 01"));
+	}
+
+	@Test
+	public void sortParamIsBuilt() {
+		assertThat(Pages.sortParam(new Sort(Direction.DESC, "name")), is("name,desc"));
+		assertThat(Pages.sortParam(null), is(""));
+	}
+}
@@ -0,0 +1,224 @@
+package org.giste.club.web.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link RequestCoalescer}.
+ * 
+ * @author Giste
+ */
+public class RequestCoalescerTest {
+
+	private static final int CALLERS = 20;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void concurrentCallsShareOneCall() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> coalescer.execute(1L, () -> {
+				calls.incrementAndGet();
+				await(release);
+				return "Club 1";
+			})));
+		}
+		waitForCoalesced(CALLERS - 1);
+		release.countDown();
+
+		String first = results.get(0).get(5, TimeUnit.SECONDS);
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS), is(sameInstance(first)));
+		}
+		assertThat(calls.get(), is(1));
+		assertThat(coalescer.getExecuted(), is(1L));
+	}
+
+	@Test
+	public void differentKeysAndSequentialCallsAreNotCoalesced() {
+		AtomicInteger calls = new AtomicInteger();
+
+		coalescer.execute(1L, calls::incrementAndGet);
+		coalescer.execute(1L, calls::incrementAndGet);
+		coalescer.execute(2L, calls::incrementAndGet);
+
+		assertThat(calls.get(), is(3));
+		assertThat(coalescer.getCoalesced(), is(0L));
+	}
+
+	@Test
+	public void exceptionIsShared() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<Object>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> coalescer.execute("all", () -> {
+				await(release);
+				throw new IllegalStateException("Server down");
+			})));
+		}
+		waitForCoalesced(CALLERS - 1);
+		release.countDown();
+
+		for (Future<Object> result : results) {
+			try {
+				result.get(5, TimeUnit.SECONDS);
+				fail("IllegalStateException expected");
+			} catch (ExecutionException e) {
+				assertThat(e.getCause().getMessage(), is("Server down"));
+			}
+		}
+		assertThat(coalescer.getExecuted(), is(1L));
+	}
+
+	@Test
+	public void forgottenCallIsNotShared() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> before = executor.submit(() -> coalescer.execute(1L, () -> {
+			await(release);
+			return "Before";
+		}));
+		while (coalescer.getExecuted() == 0) {
+			Thread.sleep(1);
+		}
+
+		// A write is done while the read is in flight.
+		coalescer.forgetAll();
+		String after = coalescer.execute(1L, () -> "After");
+		release.countDown();
+
+		assertThat(after, is("After"));
+		assertThat(before.get(5, TimeUnit.SECONDS), is("Before"));
+		assertThat(coalescer.getExecuted(), is(2L));
+	}
+
+	@Test
+	public void asyncCallsShareOneCall() throws Exception {
+		CompletableFuture<String> call = new CompletableFuture<>();
+		AtomicInteger calls = new AtomicInteger();
+
+		List<CompletableFuture<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(coalescer.executeAsync("all", () -> {
+				calls.incrementAndGet();
+				return call;
+			}));
+		}
+		call.complete("Clubs");
+
+		for (CompletableFuture<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS), is("Clubs"));
+		}
+		assertThat(calls.get(), is(1));
+		assertThat(coalescer.getCoalesced(), is((long) CALLERS - 1));
+	}
+
+	@Test
+	public void sharedListsCantBeChanged() throws Exception {
+		List<String> clubs = coalescer.execute("all", () -> Arrays.asList("Club 1", "Club 2"));
+		List<String> asyncClubs = coalescer
+				.executeAsync("all", () -> CompletableFuture.completedFuture(Arrays.asList("Club 1", "Club 2")))
+				.get(5, TimeUnit.SECONDS);
+
+		for (List<String> shared : Arrays.asList(clubs, asyncClubs)) {
+			try {
+				shared.set(0, "Changed");
+				fail("UnsupportedOperationException expected");
+			} catch (UnsupportedOperationException e) {
+				assertThat(shared.get(0), is("Club 1"));
+			}
+		}
+	}
+
+	@Test
+	public void concurrentFindByIdCallsServerOnce() throws Exception {
+		ClubRestProperties restProperties = new ClubRestProperties();
+		restProperties.setScheme("http");
+		restProperties.setHost("localhost");
+		restProperties.setPort(8080);
+		restProperties.setPath("/rest");
+
+		// Server answers once the reads have been started.
+		CountDownLatch release = new CountDownLatch(1);
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.setInterceptors(Collections.singletonList((request, body, execution) -> {
+			await(release);
+			return execution.execute(request, body);
+		}));
+		byte[] club = new ObjectMapper().writeValueAsBytes(new ClubDto(1L, "Club 1", "CLUB1", true));
+		MockRestServiceServer mockServer = MockRestServiceServer.bindTo(restTemplate).build();
+		mockServer.expect(once(), requestTo("http://localhost:8080/rest/clubs/1"))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess(club, MediaType.APPLICATION_JSON_UTF8));
+
+		ClubRestServiceImpl service = new ClubRestServiceImpl(restTemplate, restProperties);
+		List<Future<ClubDto>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> service.findById(1L)));
+		}
+		while (service.getCoalescer().getCoalesced() < CALLERS - 1) {
+			Thread.sleep(1);
+		}
+		release.countDown();
+
+		for (Future<ClubDto> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS).getAcronym(), is("CLUB1"));
+		}
+		mockServer.verify();
+		assertThat(service.getCoalescer().getExecuted(), is(1L));
+	}
+
+	private void waitForCoalesced(long expected) throws InterruptedException {
+		while (coalescer.getCoalesced() < expected) {
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
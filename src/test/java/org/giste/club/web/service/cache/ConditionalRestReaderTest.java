@@ -0,0 +1,175 @@
+package org.giste.club.web.service.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.Collections;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.club.web.service.exception.BackendUnavailableException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link ConditionalRestReader}.
+ * 
+ * @author Giste
+ */
+public class ConditionalRestReaderTest {
+
+	private static final String URI = "http://localhost:8080/rest/clubs";
+	private static final String ETAG = "\"1\"";
+
+	private MockRestServiceServer mockServer;
+	private ConditionalRestReader reader;
+	private byte[] body;
+	private boolean unavailable;
+
+	@Before
+	public void setUp() throws Exception {
+		ClubRestProperties restProperties = new ClubRestProperties();
+		restProperties.setScheme("http");
+		restProperties.setHost("localhost");
+		restProperties.setPort(8080);
+		restProperties.setPath("/rest");
+
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.setInterceptors(Collections.singletonList((request, requestBody, execution) -> {
+			if (unavailable) {
+				throw new BackendUnavailableException("Circuit breaker of clubs is open");
+			}
+			return execution.execute(request, requestBody);
+		}));
+		mockServer = MockRestServiceServer.bindTo(restTemplate).build();
+		reader = new ConditionalRestReader(restTemplate, restProperties);
+
+		ClubDto[] clubs = new ClubDto[100];
+		for (int i = 0; i < clubs.length; i++) {
+			clubs[i] = new ClubDto(i + 1L, "Club " + i, "CLB" + i, true);
+		}
+		body = new ObjectMapper().writeValueAsBytes(clubs);
+	}
+
+	@Test
+	public void notModifiedReusesBody() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+		headers.setContentLength(body.length);
+
+		mockServer.expect(requestTo(URI))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON_UTF8).headers(headers));
+		mockServer.expect(requestTo(URI))
+				.andExpect(method(HttpMethod.GET))
+				.andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		ClubDto[] firstRead = reader.get("/clubs", ClubDto[].class);
+		ClubDto[] secondRead = reader.get("/clubs", ClubDto[].class);
+
+		mockServer.verify();
+		assertThat(firstRead.length, is(100));
+		assertThat(secondRead, is(firstRead));
+		assertThat(reader.getNotModifiedCount(), is(1L));
+		assertThat(reader.getSavedBytes(), is((long) body.length));
+	}
+
+	@Test
+	public void modifiedReplacesBody() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+
+		mockServer.expect(requestTo(URI))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON_UTF8).headers(headers));
+		mockServer.expect(requestTo(URI))
+				.andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andRespond(withSuccess("[]", MediaType.APPLICATION_JSON_UTF8));
+
+		ClubDto[] firstRead = reader.get("/clubs", ClubDto[].class);
+		ClubDto[] secondRead = reader.get("/clubs", ClubDto[].class);
+
+		mockServer.verify();
+		assertThat(firstRead.length, is(100));
+		assertThat(secondRead.length, is(0));
+		assertThat(reader.getNotModifiedCount(), is(0L));
+	}
+
+	@Test
+	public void unavailableReusesLastBody() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+
+		mockServer.expect(requestTo(URI))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON_UTF8).headers(headers));
+
+		ClubDto[] firstRead = reader.get("/clubs", ClubDto[].class);
+		unavailable = true;
+		ClubDto[] secondRead = reader.get("/clubs", ClubDto[].class);
+
+		mockServer.verify();
+		assertThat(secondRead, is(firstRead));
+	}
+
+	@Test
+	public void reusedBodyIsCopied() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(ETAG);
+
+		mockServer.expect(requestTo(URI))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON_UTF8).headers(headers));
+		mockServer.expect(requestTo(URI))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+		mockServer.expect(requestTo(URI))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		ClubDto[] firstRead = reader.get("/clubs", ClubDto[].class);
+		final ClubDto firstClub = firstRead[0];
+		firstRead[0] = null;
+		ClubDto[] secondRead = reader.get("/clubs", ClubDto[].class);
+		secondRead[1] = null;
+		ClubDto[] thirdRead = reader.get("/clubs", ClubDto[].class);
+
+		mockServer.verify();
+		assertThat(secondRead, is(not(sameInstance(thirdRead))));
+		assertThat(thirdRead[0], is(sameInstance(firstClub)));
+		assertThat(thirdRead[1].getId(), is(2L));
+	}
+
+	@Test
+	public void notModifiedWithoutBodyIsReadAgain() {
+		mockServer.expect(requestTo(URI))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+		mockServer.expect(requestTo(URI))
+				.andExpect(header(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andRespond(withSuccess(body, MediaType.APPLICATION_JSON_UTF8));
+
+		ClubDto[] read = reader.get("/clubs", ClubDto[].class);
+
+		mockServer.verify();
+		assertThat(read.length, is(100));
+		assertThat(reader.getNotModifiedCount(), is(0L));
+	}
+
+	@Test(expected = BackendUnavailableException.class)
+	public void unavailableWithoutBodyFails() {
+		unavailable = true;
+
+		reader.get("/clubs", ClubDto[].class);
+	}
+}
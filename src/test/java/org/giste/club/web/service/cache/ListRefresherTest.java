@@ -0,0 +1,121 @@
+package org.giste.club.web.service.cache;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ListRefresher} and the revalidated lists of
+ * {@link EntityCache}.
+ * 
+ * @author Giste
+ */
+public class ListRefresherTest {
+
+	private final EntityCache<String> cache = new EntityCache<>("clubs", 100, 1, false, true, 60000);
+	private final ListRefresher refresher = new ListRefresher(1, 0.2);
+
+	@After
+	public void tearDown() {
+		refresher.close();
+	}
+
+	@Test
+	public void staleListIsServed() throws Exception {
+		AtomicInteger reads = new AtomicInteger();
+		List<String> first = cache.getAll(() -> Arrays.asList("Club " + reads.incrementAndGet()));
+
+		// Time to live is over, but the list is only replaced by a refresh.
+		Thread.sleep(20);
+		List<String> second = cache.getAll(() -> Arrays.asList("Club " + reads.incrementAndGet()));
+
+		assertThat(second, is(sameInstance(first)));
+		assertThat(reads.get(), is(1));
+		assertThat(cache.getListAge(), is(greaterThanOrEqualTo(20L)));
+
+		cache.refreshAll(() -> Arrays.asList("Club " + reads.incrementAndGet()));
+
+		assertThat(cache.getAll(Collections::emptyList), is(Arrays.asList("Club 2")));
+		assertThat(cache.getListAge(), is(lessThanOrEqualTo(1000L)));
+	}
+
+	@Test
+	public void changedListIsReadAgain() {
+		cache.getAll(() -> Arrays.asList("Club 1"));
+
+		cache.invalidate(1L);
+
+		assertThat(cache.getListAge(), is(-1L));
+		assertThat(cache.getAll(() -> Arrays.asList("Club 2")), is(Arrays.asList("Club 2")));
+	}
+
+	@Test
+	public void listIsNotRefreshedIfInvalidatedWhileReading() {
+		cache.getAll(() -> Arrays.asList("Club 1"));
+
+		cache.refreshAll(() -> {
+			cache.invalidate(1L);
+			return Arrays.asList("Stale club");
+		});
+
+		assertThat(cache.getAll(() -> Arrays.asList("Club 2")), is(Arrays.asList("Club 2")));
+	}
+
+	@Test
+	public void listIsReadAgainWhenTooStale() throws Exception {
+		EntityCache<String> cache = new EntityCache<>("clubs", 100, 1, false, true, 20);
+		cache.getAll(() -> Arrays.asList("Club 1"));
+
+		Thread.sleep(40);
+
+		assertThat(cache.getAll(() -> Arrays.asList("Club 2")), is(Arrays.asList("Club 2")));
+	}
+
+	@Test
+	public void listIsRefreshedInBackground() throws Exception {
+		AtomicInteger reads = new AtomicInteger();
+
+		refresher.schedule(cache, () -> {
+			if (reads.incrementAndGet() == 2) {
+				throw new IllegalStateException("Server down");
+			}
+			return Arrays.asList("Club " + reads.get());
+		}, 5);
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (reads.get() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		refresher.close();
+
+		assertThat(reads.get(), is(greaterThanOrEqualTo(3)));
+		assertThat(cache.getAll(Collections::emptyList).size(), is(1));
+		List<String> names = refresher.metrics().stream()
+				.map(metric -> metric.getName())
+				.collect(Collectors.toList());
+		assertThat(names, hasItem("cache.clubs.refresh.count"));
+		assertThat(names, hasItem("cache.clubs.refresh.failure"));
+	}
+
+	@Test
+	public void delayIsJittered() {
+		for (int i = 0; i < 1000; i++) {
+			long delay = refresher.nextDelay(1000);
+
+			assertThat(delay, is(greaterThanOrEqualTo(800L)));
+			assertThat(delay, is(lessThanOrEqualTo(1200L)));
+		}
+	}
+}
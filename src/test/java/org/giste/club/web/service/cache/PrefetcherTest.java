@@ -0,0 +1,132 @@
+package org.giste.club.web.service.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Prefetcher} and its use by {@link EntityCache}.
+ * 
+ * @author Giste
+ */
+public class PrefetcherTest {
+
+	private final AtomicInteger reads = new AtomicInteger();
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private EntityCache<String> cache;
+	private Prefetcher<String> prefetcher;
+
+	@Before
+	public void setUp() {
+		cache = new EntityCache<>("clubs", 100, 60000);
+		prefetcher = newPrefetcher(tasks::add);
+		cache.setPrefetcher(prefetcher);
+	}
+
+	@Test
+	public void prefetchedEntityIsTakenOnce() {
+		prefetcher.prefetch(Arrays.asList(1L, 2L));
+		runTasks();
+
+		assertThat(cache.get(1L, this::read), is("Club 1"));
+		assertThat(cache.get(1L, this::read), is("Club 1"));
+		assertThat(cache.get(3L, this::read), is("Club 3"));
+
+		assertThat(reads.get(), is(3));
+		assertThat(prefetcher.getHitCount(), is(1L));
+		assertThat(prefetcher.getMissCount(), is(1L));
+	}
+
+	@Test
+	public void cachedAndRepeatedEntitiesAreNotPrefetched() {
+		cache.get(1L, this::read);
+
+		prefetcher.prefetch(Arrays.asList(1L, 2L));
+		prefetcher.prefetch(Arrays.asList(2L));
+		runTasks();
+		prefetcher.prefetch(Arrays.asList(2L));
+
+		assertThat(tasks.size(), is(0));
+		assertThat(reads.get(), is(2));
+	}
+
+	@Test
+	public void changedEntityIsNotTaken() {
+		prefetcher.prefetch(Arrays.asList(1L, 2L));
+
+		// Club 2 changes while it's being prefetched.
+		cache.invalidate(2L);
+		runTasks();
+
+		assertThat(cache.get(1L, this::read), is("Club 1"));
+		assertThat(cache.get(2L, this::read), is("Club 2"));
+		assertThat(prefetcher.getHitCount(), is(0L));
+	}
+
+	@Test
+	public void entityChangedWhileReadingIsNotKept() {
+		Prefetcher<String> changing = new Prefetcher<>("clubs", id -> {
+			cache.invalidate(id);
+			return read(id);
+		}, cache::contains, Runnable::run, 100, 60000);
+		cache.setPrefetcher(changing);
+
+		changing.prefetch(Arrays.asList(1L));
+
+		assertThat(changing.take(1L, this::read), is("Club 1"));
+		assertThat(changing.getHitCount(), is(0L));
+	}
+
+	@Test
+	public void fullExecutorSkipsEntities() {
+		Prefetcher<String> rejecting = newPrefetcher(task -> {
+			throw new RejectedExecutionException("Full");
+		});
+
+		rejecting.prefetch(Arrays.asList(1L, 2L, 3L));
+
+		assertThat(reads.get(), is(0));
+		assertThat(rejecting.metrics().stream()
+				.filter(metric -> metric.getName().equals("prefetch.clubs.rejected"))
+				.findFirst().get().getValue().longValue(), is(1L));
+	}
+
+	@Test
+	public void expiredEntityIsUnused() throws Exception {
+		Prefetcher<String> shortLived = new Prefetcher<>("clubs", this::read, cache::contains, Runnable::run, 100,
+				1);
+
+		shortLived.prefetch(Arrays.asList(1L));
+		Thread.sleep(20);
+
+		assertThat(shortLived.take(1L, this::read), is("Club 1"));
+		assertThat(shortLived.getUnusedCount(), is(1L));
+		assertThat(shortLived.getMissCount(), is(1L));
+	}
+
+	private Prefetcher<String> newPrefetcher(Executor executor) {
+		return new Prefetcher<>("clubs", this::read, cache::contains, executor, 100, 60000);
+	}
+
+	private String read(long id) {
+		reads.incrementAndGet();
+
+		return "Club " + id;
+	}
+
+	private void runTasks() {
+		List<Runnable> pending = new ArrayList<>(tasks);
+		tasks.clear();
+		pending.forEach(Runnable::run);
+	}
+}
@@ -0,0 +1,113 @@
+package org.giste.club.web.service.nonblocking;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.CategoryDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.club.web.service.CategoryRestServiceTest;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.giste.spring.util.config.RestProperties;
+import org.giste.spring.util.service.BaseRestService;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link NonBlockingCategoryRestServiceImpl}. Runs all the tests of
+ * {@link CategoryRestServiceTest} against the non-blocking implementation.
+ * 
+ * @author Giste
+ */
+public class NonBlockingCategoryRestServiceImplTest extends CategoryRestServiceTest {
+
+	private static final String URI = "http://localhost:8080/rest/categories";
+
+	// Fails the test if the non-blocking implementation uses it.
+	private static final Executor FAILING_EXECUTOR = command -> {
+		throw new AssertionError("Executor must not be used");
+	};
+
+	@Test
+	public void findAllAsyncIsNonBlocking() throws Exception {
+		final CategoryDto[] categories = { new CategoryDto(1L, "Category 1", 13, 14, true),
+				new CategoryDto(2L, "Category 2", 15, 16, true) };
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(categories),
+						MediaType.APPLICATION_JSON_UTF8));
+
+		NonBlockingCategoryRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		List<CategoryDto> readCategory = service.findAllAsync(FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(readCategory.size(), is(2));
+		assertThat(readCategory.get(1).getName(), is("Category 2"));
+	}
+
+	@Test
+	public void findPageAsyncIsNonBlocking() throws Exception {
+		final CategoryDto[] categories = { new CategoryDto(1L, "Category 1", 13, 14, true),
+				new CategoryDto(2L, "Category 2", 15, 16, true) };
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(categories),
+						MediaType.APPLICATION_JSON_UTF8));
+
+		NonBlockingCategoryRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		Page<CategoryDto> page = service.findAllAsync(new PageRequest(1, 1), FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(page.getTotalElements(), is(2L));
+		assertThat(page.getContent().get(0).getName(), is("Category 2"));
+	}
+
+	@Override
+	protected BaseRestService<CategoryDto> getRestService(RestTemplate restTemplate, RestProperties restProperties) {
+		return new NonBlockingCategoryRestServiceImpl(restTemplate, restProperties,
+				getNonBlockingClient(new AsyncRestTemplate(), restProperties));
+	}
+
+	private NonBlockingCategoryRestServiceImpl getNonBlockingService(AsyncRestTemplate asyncRestTemplate) {
+		RestProperties restProperties = getClubRestProperties();
+
+		return new NonBlockingCategoryRestServiceImpl(new RestTemplate(), restProperties,
+				getNonBlockingClient(asyncRestTemplate, restProperties));
+	}
+
+	private NonBlockingRestClient getNonBlockingClient(AsyncRestTemplate asyncRestTemplate,
+			RestProperties restProperties) {
+		return new NonBlockingRestClient(asyncRestTemplate, restProperties,
+				new StreamingRestReader(new RestTemplate(), restProperties, new ObjectMapper()), new ObjectMapper());
+	}
+
+	private RestProperties getClubRestProperties() {
+		ClubRestProperties restProperties = new ClubRestProperties();
+		restProperties.setScheme("http");
+		restProperties.setHost("localhost");
+		restProperties.setPort(8080);
+		restProperties.setPath("/rest");
+
+		return restProperties;
+	}
+}
@@ -0,0 +1,143 @@
+package org.giste.club.web.service.nonblocking;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.ClubDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.club.web.service.BulkResult;
+import org.giste.club.web.service.ClubRestService;
+import org.giste.club.web.service.ClubRestServiceTest;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.giste.spring.util.config.RestProperties;
+import org.giste.spring.util.error.dto.RestErrorDto;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link NonBlockingClubRestServiceImpl}. Runs all the tests of
+ * {@link ClubRestServiceTest} against the non-blocking implementation.
+ * 
+ * @author Giste
+ */
+public class NonBlockingClubRestServiceImplTest extends ClubRestServiceTest {
+
+	private static final String URI = "http://localhost:8080/rest/clubs";
+
+	// Fails the test if the non-blocking implementation uses it.
+	private static final Executor FAILING_EXECUTOR = command -> {
+		throw new AssertionError("Executor must not be used");
+	};
+
+	@Test
+	public void findAllAsyncIsNonBlocking() throws Exception {
+		final ClubDto[] clubs = { new ClubDto(1L, "Club 1", "CLUB1", true), new ClubDto(2L, "Club 2", "CLUB2", true) };
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(clubs), MediaType.APPLICATION_JSON_UTF8));
+
+		NonBlockingClubRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		List<ClubDto> readClubs = service.findAllAsync(FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(readClubs.size(), is(2));
+		assertThat(readClubs.get(1).getAcronym(), is("CLUB2"));
+	}
+
+	@Test
+	public void findPageAsyncIsNonBlocking() throws Exception {
+		final ClubDto[] clubs = { new ClubDto(1L, "Club 1", "CLUB1", true), new ClubDto(2L, "Club 2", "CLUB2", true) };
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(clubs), MediaType.APPLICATION_JSON_UTF8));
+
+		NonBlockingClubRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		Page<ClubDto> page = service.findAllAsync(new PageRequest(1, 1), FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(page.getTotalElements(), is(2L));
+		assertThat(page.getContent().get(0).getAcronym(), is("CLUB2"));
+	}
+
+	@Test
+	public void setEnabledAsyncIsNonBlocking() throws Exception {
+		final ClubDto club = new ClubDto(1L, "Club 1", "CLUB1", false);
+		final RestErrorDto error = new RestErrorDto(HttpStatus.CONFLICT, "1", "Duplicated", "Developer info");
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI + "/1/disable"))
+				.andExpect(method(HttpMethod.PUT))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(club), MediaType.APPLICATION_JSON_UTF8));
+		asyncMockServer.expect(requestTo(URI + "/2/disable"))
+				.andExpect(method(HttpMethod.PUT))
+				.andRespond(withStatus(HttpStatus.CONFLICT)
+						.contentType(MediaType.APPLICATION_JSON_UTF8)
+						.body(new ObjectMapper().writeValueAsBytes(error)));
+
+		NonBlockingClubRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		List<BulkResult<ClubDto>> results = service.setEnabledAsync(Arrays.asList(1L, 2L), false, 1,
+				FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(results.get(0).isSuccess(), is(true));
+		assertThat(results.get(0).getEntity().isEnabled(), is(false));
+		// Conflict goes through the same handler as the blocking calls.
+		assertThat(results.get(1).isSuccess(), is(false));
+		assertThat(results.get(1).getError(), is(error.getMessage()));
+	}
+
+	@Override
+	protected ClubRestService getRestService(RestTemplate restTemplate, RestProperties restProperties) {
+		return new NonBlockingClubRestServiceImpl(restTemplate, restProperties,
+				getNonBlockingClient(new AsyncRestTemplate(), restProperties));
+	}
+
+	private NonBlockingClubRestServiceImpl getNonBlockingService(AsyncRestTemplate asyncRestTemplate) {
+		RestProperties restProperties = getClubRestProperties();
+
+		return new NonBlockingClubRestServiceImpl(new RestTemplate(), restProperties,
+				getNonBlockingClient(asyncRestTemplate, restProperties));
+	}
+
+	private NonBlockingRestClient getNonBlockingClient(AsyncRestTemplate asyncRestTemplate,
+			RestProperties restProperties) {
+		return new NonBlockingRestClient(asyncRestTemplate, restProperties,
+				new StreamingRestReader(new RestTemplate(), restProperties, new ObjectMapper()), new ObjectMapper());
+	}
+
+	private RestProperties getClubRestProperties() {
+		ClubRestProperties restProperties = new ClubRestProperties();
+		restProperties.setScheme("http");
+		restProperties.setHost("localhost");
+		restProperties.setPort(8080);
+		restProperties.setPath("/rest");
+
+		return restProperties;
+	}
+}
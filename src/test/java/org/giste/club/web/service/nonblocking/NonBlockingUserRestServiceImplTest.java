@@ -0,0 +1,112 @@
+package org.giste.club.web.service.nonblocking;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.giste.club.common.dto.Role;
+import org.giste.club.common.dto.UserDto;
+import org.giste.club.web.config.ClubRestProperties;
+import org.giste.club.web.service.UserRestService;
+import org.giste.club.web.service.UserRestServiceTest;
+import org.giste.club.web.service.stream.StreamingRestReader;
+import org.giste.spring.util.config.RestProperties;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link NonBlockingUserRestServiceImpl}. Runs all the tests of
+ * {@link UserRestServiceTest} against the non-blocking implementation.
+ * 
+ * @author Giste
+ */
+public class NonBlockingUserRestServiceImplTest extends UserRestServiceTest {
+
+	private static final String URI = "http://localhost:8080/rest/users";
+
+	// Fails the test if the non-blocking implementation uses it.
+	private static final Executor FAILING_EXECUTOR = command -> {
+		throw new AssertionError("Executor must not be used");
+	};
+
+	@Test
+	public void findAllAsyncIsNonBlocking() throws Exception {
+		final UserDto[] users = { new UserDto(1L, "user1@mail.com", "user1", "123456", Role.ADMIN),
+				new UserDto(2L, "user2@mail.com", "user2", "123456", Role.USER) };
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(users), MediaType.APPLICATION_JSON_UTF8));
+
+		NonBlockingUserRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		List<UserDto> readUser = service.findAllAsync(FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(readUser.size(), is(2));
+		assertThat(readUser.get(1).getEmail(), is("user2@mail.com"));
+	}
+
+	@Test
+	public void findPageAsyncIsNonBlocking() throws Exception {
+		final UserDto[] users = { new UserDto(1L, "user1@mail.com", "user1", "123456", Role.ADMIN),
+				new UserDto(2L, "user2@mail.com", "user2", "123456", Role.USER) };
+
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		MockRestServiceServer asyncMockServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncMockServer.expect(requestTo(URI))
+				.andRespond(withSuccess(new ObjectMapper().writeValueAsBytes(users), MediaType.APPLICATION_JSON_UTF8));
+
+		NonBlockingUserRestServiceImpl service = getNonBlockingService(asyncRestTemplate);
+
+		Page<UserDto> page = service.findAllAsync(new PageRequest(1, 1), FAILING_EXECUTOR).get();
+		asyncMockServer.verify();
+
+		assertThat(page.getTotalElements(), is(2L));
+		assertThat(page.getContent().get(0).getEmail(), is("user2@mail.com"));
+	}
+
+	@Override
+	protected UserRestService getRestService(RestTemplate restTemplate, RestProperties restProperties) {
+		return new NonBlockingUserRestServiceImpl(restTemplate, restProperties,
+				getNonBlockingClient(new AsyncRestTemplate(), restProperties));
+	}
+
+	private NonBlockingUserRestServiceImpl getNonBlockingService(AsyncRestTemplate asyncRestTemplate) {
+		RestProperties restProperties = getClubRestProperties();
+
+		return new NonBlockingUserRestServiceImpl(new RestTemplate(), restProperties,
+				getNonBlockingClient(asyncRestTemplate, restProperties));
+	}
+
+	private NonBlockingRestClient getNonBlockingClient(AsyncRestTemplate asyncRestTemplate,
+			RestProperties restProperties) {
+		return new NonBlockingRestClient(asyncRestTemplate, restProperties,
+				new StreamingRestReader(new RestTemplate(), restProperties, new ObjectMapper()), new ObjectMapper());
+	}
+
+	private RestProperties getClubRestProperties() {
+		ClubRestProperties restProperties = new ClubRestProperties();
+		restProperties.setScheme("http");
+		restProperties.setHost("localhost");
+		restProperties.setPort(8080);
+		restProperties.setPath("/rest");
+
+		return restProperties;
+	}
+}
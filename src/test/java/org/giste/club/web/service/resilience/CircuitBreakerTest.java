@@ -0,0 +1,117 @@
+package org.giste.club.web.service.resilience;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.giste.club.web.service.resilience.CircuitBreaker.State;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CircuitBreaker}.
+ * 
+ * @author Giste
+ */
+public class CircuitBreakerTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+	private long now;
+	private CircuitBreaker circuitBreaker;
+
+	@Before
+	public void setUp() {
+		now = 0;
+		circuitBreaker = new CircuitBreaker("clubs", 10, 4, 50, 75, 100, 1000, 2, () -> now);
+	}
+
+	@Test
+	public void opensOnFailureRate() {
+		call(true, FAST);
+		call(false, FAST);
+		call(true, FAST);
+		assertThat(circuitBreaker.getState(), is(State.CLOSED));
+
+		call(false, FAST);
+
+		assertThat(circuitBreaker.getState(), is(State.OPEN));
+		assertThat(circuitBreaker.tryAcquire(), is(false));
+		assertThat(circuitBreaker.getOpened(), is(1L));
+		assertThat(circuitBreaker.getRejected(), is(1L));
+	}
+
+	@Test
+	public void opensOnSlowCallRate() {
+		call(true, SLOW);
+		call(true, SLOW);
+		call(true, SLOW);
+		assertThat(circuitBreaker.getState(), is(State.CLOSED));
+
+		call(true, FAST);
+		assertThat(circuitBreaker.getState(), is(State.OPEN));
+	}
+
+	@Test
+	public void oldCallsLeaveTheWindow() {
+		call(false, FAST);
+		for (int i = 0; i < 9; i++) {
+			call(true, FAST);
+		}
+		assertThat(circuitBreaker.getFailureRate(), is(10));
+
+		call(true, FAST);
+		assertThat(circuitBreaker.getFailureRate(), is(0));
+		assertThat(circuitBreaker.getState(), is(State.CLOSED));
+	}
+
+	@Test
+	public void halfOpenClosesAfterSuccessfulTrials() {
+		open();
+		now += TimeUnit.MILLISECONDS.toNanos(1000);
+
+		assertThat(circuitBreaker.tryAcquire(), is(true));
+		assertThat(circuitBreaker.getState(), is(State.HALF_OPEN));
+		assertThat(circuitBreaker.tryAcquire(), is(true));
+		// Only two trial calls.
+		assertThat(circuitBreaker.tryAcquire(), is(false));
+
+		circuitBreaker.onSuccess(FAST);
+		circuitBreaker.onSuccess(FAST);
+
+		assertThat(circuitBreaker.getState(), is(State.CLOSED));
+		assertThat(circuitBreaker.getClosed(), is(1L));
+		assertThat(circuitBreaker.getFailureRate(), is(0));
+	}
+
+	@Test
+	public void halfOpenReopensOnFailedTrial() {
+		open();
+		now += TimeUnit.MILLISECONDS.toNanos(1000);
+
+		assertThat(circuitBreaker.tryAcquire(), is(true));
+		circuitBreaker.onFailure(FAST);
+
+		assertThat(circuitBreaker.getState(), is(State.OPEN));
+		assertThat(circuitBreaker.getOpened(), is(2L));
+		assertThat(circuitBreaker.tryAcquire(), is(false));
+	}
+
+	private void open() {
+		for (int i = 0; i < 4; i++) {
+			call(false, FAST);
+		}
+		assertThat(circuitBreaker.getState(), is(State.OPEN));
+	}
+
+	private void call(boolean success, long nanos) {
+		assertThat(circuitBreaker.tryAcquire(), is(true));
+		if (success) {
+			circuitBreaker.onSuccess(nanos);
+		} else {
+			circuitBreaker.onFailure(nanos);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package org.giste.club.web.service.resilience;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import org.giste.club.web.service.exception.BackendUnavailableException;
+import org.giste.club.web.service.resilience.CircuitBreaker.State;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tests for {@link ResilienceInterceptor}.
+ * 
+ * @author Giste
+ */
+public class ResilienceInterceptorTest {
+
+	private static final String BASE_URI = "http://localhost:8080/rest";
+	private static final byte[] EMPTY = new byte[0];
+
+	private ResilienceInterceptor interceptor;
+	private RestTemplate restTemplate;
+	private MockRestServiceServer mockServer;
+
+	@Before
+	public void setUp() {
+		interceptor = new ResilienceInterceptor("/rest", resource -> new Bulkhead(1, 0),
+				resource -> new CircuitBreaker(resource, 4, 2, 50, 100, 60000, 60000, 1, System::nanoTime));
+
+		restTemplate = new RestTemplate();
+		restTemplate.setInterceptors(Collections.singletonList(interceptor));
+		mockServer = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@Test
+	public void failingResourceDoesNotOpenOthers() {
+		mockServer.expect(requestTo(BASE_URI + "/users")).andRespond(withServerError());
+		mockServer.expect(requestTo(BASE_URI + "/users/1")).andRespond(withServerError());
+		mockServer.expect(requestTo(BASE_URI + "/clubs"))
+				.andRespond(withSuccess("[]", MediaType.APPLICATION_JSON_UTF8));
+
+		serverError(BASE_URI + "/users");
+		serverError(BASE_URI + "/users/1");
+		String clubs = restTemplate.getForObject(BASE_URI + "/clubs", String.class);
+
+		mockServer.verify();
+		assertThat(clubs, is("[]"));
+		assertThat(interceptor.getCircuitBreaker("users").getState(), is(State.OPEN));
+		assertThat(interceptor.getCircuitBreaker("clubs").getState(), is(State.CLOSED));
+	}
+
+	@Test
+	public void openCircuitFailsFast() {
+		mockServer.expect(requestTo(BASE_URI + "/users")).andRespond(withServerError());
+		mockServer.expect(requestTo(BASE_URI + "/users")).andRespond(withServerError());
+
+		serverError(BASE_URI + "/users");
+		serverError(BASE_URI + "/users");
+		try {
+			restTemplate.getForObject(BASE_URI + "/users", String.class);
+			fail("BackendUnavailableException expected");
+		} catch (BackendUnavailableException e) {
+			// Server isn't called.
+		}
+
+		mockServer.verify();
+		assertThat(interceptor.getCircuitBreaker("users").getRejected(), is(1L));
+	}
+
+	@Test
+	public void nonBlockingCallsAreGuarded() throws Exception {
+		AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate();
+		asyncRestTemplate.setInterceptors(Collections.singletonList(interceptor));
+		MockRestServiceServer asyncServer = MockRestServiceServer.bindTo(asyncRestTemplate).build();
+		asyncServer.expect(requestTo(BASE_URI + "/users")).andRespond(withServerError());
+		asyncServer.expect(requestTo(BASE_URI + "/users")).andRespond(withServerError());
+
+		// The bulkhead has a single permit, so the second call is only made if
+		// the first one released it.
+		asyncServerError(asyncRestTemplate, BASE_URI + "/users");
+		asyncServerError(asyncRestTemplate, BASE_URI + "/users");
+		try {
+			asyncRestTemplate.getForEntity(BASE_URI + "/users", String.class);
+			fail("BackendUnavailableException expected");
+		} catch (BackendUnavailableException e) {
+			// Server isn't called.
+		}
+
+		asyncServer.verify();
+		assertThat(interceptor.getCircuitBreaker("users").getState(), is(State.OPEN));
+		assertThat(interceptor.getCircuitBreaker("users").getRejected(), is(1L));
+	}
+
+	@Test
+	public void bulkheadRejectsCallsUntilResponseIsClosed() throws Exception {
+		ClientHttpResponse response = mock(ClientHttpResponse.class);
+		when(response.getRawStatusCode()).thenReturn(200);
+		ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+		HttpRequest request = request(BASE_URI + "/clubs/1");
+		when(execution.execute(request, EMPTY)).thenReturn(response);
+
+		ClientHttpResponse first = interceptor.intercept(request, EMPTY, execution);
+
+		ClientHttpRequestExecution rejectedExecution = mock(ClientHttpRequestExecution.class);
+		try {
+			interceptor.intercept(request, EMPTY, rejectedExecution);
+			fail("BackendUnavailableException expected");
+		} catch (BackendUnavailableException e) {
+			verify(rejectedExecution, never()).execute(request, EMPTY);
+		}
+
+		first.close();
+		interceptor.intercept(request, EMPTY, execution).close();
+
+		verify(response, times(2)).close();
+	}
+
+	@Test
+	public void metricsArePublishedByResource() {
+		mockServer.expect(requestTo(BASE_URI + "/categories"))
+				.andRespond(withSuccess("[]", MediaType.APPLICATION_JSON_UTF8));
+
+		restTemplate.getForObject(BASE_URI + "/categories", String.class);
+
+		List<String> names = interceptor.metrics().stream()
+				.map(metric -> metric.getName())
+				.collect(Collectors.toList());
+		assertThat(names, hasItem("rest.resilience.categories.state"));
+		assertThat(names, hasItem("rest.resilience.categories.rejected.bulkhead"));
+		assertThat(names, hasItem("rest.resilience.categories.active"));
+	}
+
+	private void serverError(String uri) {
+		try {
+			restTemplate.getForObject(uri, String.class);
+			fail("HttpServerErrorException expected");
+		} catch (HttpServerErrorException e) {
+			// Expected.
+		}
+	}
+
+	private void asyncServerError(AsyncRestTemplate asyncRestTemplate, String uri) throws InterruptedException {
+		try {
+			asyncRestTemplate.getForEntity(uri, String.class).get();
+			fail("HttpServerErrorException expected");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(HttpServerErrorException.class));
+		}
+	}
+
+	private HttpRequest request(String uri) {
+		HttpRequest request = mock(HttpRequest.class);
+		when(request.getURI()).thenReturn(URI.create(uri));
+
+		return request;
+	}
+}
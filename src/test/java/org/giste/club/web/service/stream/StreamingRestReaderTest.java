@@ -0,0 +1,98 @@
+package org.giste.club.web.service.stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.giste.club.common.dto.ClubDto;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for {@link StreamingRestReader}.
+ * 
+ * @author Giste
+ */
+public class StreamingRestReaderTest {
+
+	private StreamingRestReader reader;
+	private byte[] body;
+
+	@Before
+	public void setUp() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		reader = new StreamingRestReader(new RestTemplate(), null, objectMapper);
+
+		ClubDto[] clubs = new ClubDto[25];
+		for (int i = 0; i < clubs.length; i++) {
+			clubs[i] = new ClubDto(i + 1L, String.format("Club %02d", i + 1), "CLB" + i, true);
+		}
+		body = objectMapper.writeValueAsBytes(clubs);
+	}
+
+	@Test
+	public void unsortedPageIsRead() throws Exception {
+		Page<ClubDto> page = reader.readPage(new ByteArrayInputStream(body), ClubDto.class, new PageRequest(1, 10));
+
+		assertThat(page.getTotalElements(), is(25L));
+		assertThat(page.getContent().size(), is(10));
+		assertThat(page.getContent().get(0).getId(), is(11L));
+		assertThat(page.getContent().get(9).getId(), is(20L));
+	}
+
+	@Test
+	public void sortedPageIsRead() throws Exception {
+		Page<ClubDto> page = reader.readPage(new ByteArrayInputStream(body), ClubDto.class,
+				new PageRequest(2, 10, Direction.DESC, "name"));
+
+		assertThat(page.getTotalElements(), is(25L));
+		assertThat(page.getContent().size(), is(5));
+		assertThat(page.getContent().get(0).getName(), is("Club 05"));
+		assertThat(page.getContent().get(4).getName(), is("Club 01"));
+	}
+
+	@Test
+	public void deepPageIsEmpty() throws Exception {
+		Page<ClubDto> page = reader.readPage(new ByteArrayInputStream(body), ClubDto.class,
+				new PageRequest(Integer.MAX_VALUE / 10, 100, Direction.ASC, "name"));
+
+		assertThat(page.getTotalElements(), is(25L));
+		assertThat(page.getContent().size(), is(0));
+	}
+
+	@Test
+	public void emptyArrayIsRead() throws Exception {
+		Page<ClubDto> page = reader.readPage(new ByteArrayInputStream("[]".getBytes()), ClubDto.class,
+				new PageRequest(0, 10));
+
+		assertThat(page.getTotalElements(), is(0L));
+		assertThat(page.getContent().size(), is(0));
+	}
+
+	@Test
+	public void eachElementIsHandled() throws Exception {
+		List<Long> ids = new ArrayList<>();
+
+		long total = reader.readEach(new ByteArrayInputStream(body), ClubDto.class, club -> ids.add(club.getId()));
+
+		assertThat(total, is(25L));
+		assertThat(ids.size(), is(25));
+		assertThat(ids.get(0), is(1L));
+		assertThat(ids.get(24), is(25L));
+	}
+
+	@Test(expected = HttpMessageNotReadableException.class)
+	public void objectIsRejected() throws Exception {
+		reader.readPage(new ByteArrayInputStream("{}".getBytes()), ClubDto.class, new PageRequest(0, 10));
+	}
+}
@@ -0,0 +1,132 @@
+package org.giste.club.web.unique;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.giste.club.common.dto.ClubDto;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link UniqueIndex} and {@link BloomFilter}.
+ * 
+ * @author Giste
+ */
+public class UniqueIndexTest {
+
+	private UniqueIndex<ClubDto> index;
+
+	@Before
+	public void setUp() {
+		index = new UniqueIndex<>("clubs.acronym", ClubDto::getId, ClubDto::getAcronym, 100, 0.01, 60000);
+		index.sync(Arrays.asList(
+				new ClubDto(1L, "Club Atlético Valencia", "CAV", true),
+				new ClubDto(2L, "Valladolid Runners", "VRU", true)), index.getVersion());
+	}
+
+	@Test
+	public void valuesOfOtherEntitiesAreDuplicated() {
+		assertThat(index.isFresh(), is(true));
+		assertThat(index.findOwner("CAV"), is(1L));
+		assertThat(index.isDuplicated("CAV", null), is(true));
+		assertThat(index.isDuplicated("CAV", 2L), is(true));
+		assertThat(index.isDuplicated("CAV", 1L), is(false));
+		assertThat(index.isDuplicated("XYZ", null), is(false));
+		// Values are compared as they are.
+		assertThat(index.isDuplicated("cav", null), is(false));
+	}
+
+	@Test
+	public void changedValuesAreReleased() {
+		index.put(new ClubDto(1L, "Club Atlético Valencia", "CAVA", true));
+
+		assertThat(index.findOwner("CAV"), is(nullValue()));
+		assertThat(index.findOwner("CAVA"), is(1L));
+
+		index.remove(2L);
+
+		assertThat(index.findOwner("VRU"), is(nullValue()));
+	}
+
+	@Test
+	public void changesWhileListIsReadAreReplayed() {
+		final long version = index.getVersion();
+		index.put(new ClubDto(3L, "Sporting Atlántico", "SPA", true));
+		index.remove(1L);
+
+		boolean synced = index.sync(Arrays.asList(
+				new ClubDto(1L, "Club Atlético Valencia", "CAV", true),
+				new ClubDto(4L, "Other client", "OTH", true)), version);
+
+		assertThat(synced, is(true));
+		assertThat(index.findOwner("SPA"), is(3L));
+		assertThat(index.findOwner("CAV"), is(nullValue()));
+		assertThat(index.findOwner("OTH"), is(4L));
+		assertThat(index.findOwner("VRU"), is(nullValue()));
+	}
+
+	@Test
+	public void listIsIgnoredAfterTooManyChanges() {
+		final long version = index.getVersion();
+		for (long i = 0; i < 2000; i++) {
+			index.put(new ClubDto(i + 10, "Club " + i, "C" + i, true));
+		}
+
+		assertThat(index.sync(Arrays.asList(new ClubDto(1L, "Club Atlético Valencia", "CAV", true)), version),
+				is(false));
+		assertThat(index.findOwner("C0"), is(10L));
+	}
+
+	@Test
+	public void indexIsNotFreshUntilSynced() {
+		UniqueIndex<ClubDto> empty = new UniqueIndex<>("clubs.acronym", ClubDto::getId, ClubDto::getAcronym, 100,
+				0.01, 60000);
+		empty.put(new ClubDto(1L, "Club Atlético Valencia", "CAV", true));
+
+		assertThat(empty.isFresh(), is(false));
+	}
+
+	@Test
+	public void filterAnswersMostUniqueValues() {
+		List<ClubDto> clubs = new ArrayList<>();
+		for (long i = 0; i < 1000; i++) {
+			clubs.add(new ClubDto(i, "Club " + i, "C" + i, true));
+		}
+		index.sync(clubs, index.getVersion());
+
+		for (int i = 0; i < 10000; i++) {
+			assertThat(index.isDuplicated("N" + i, null), is(false));
+		}
+
+		// Index grew past the expected values, so the filter was rebuilt
+		// bigger and keeps its false positive rate.
+		assertThat(index.getFilteredCount(), greaterThan(9800L));
+		assertThat(index.getFalsePositiveCount(), lessThan(200L));
+	}
+
+	@Test
+	public void bloomFilterHasNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			filter.put("value" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 1000; i++) {
+			assertThat(filter.mightContain("value" + i), is(true));
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(filter.getHashCount(), is(7));
+		assertThat(falsePositives, lessThan(30));
+	}
+}
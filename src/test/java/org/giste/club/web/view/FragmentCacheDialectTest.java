@@ -0,0 +1,120 @@
+package org.giste.club.web.view;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Locale;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Tests for {@link FragmentCacheDialect}.
+ * 
+ * @author Giste
+ */
+public class FragmentCacheDialectTest {
+
+	@Test
+	public void fragmentIsCachedPerLocale() {
+		FragmentCache fragmentCache = new FragmentCache(true, 100);
+		TemplateEngine templateEngine = getTemplateEngine(fragmentCache);
+
+		assertThat(render(templateEngine, "First", Locale.ENGLISH), containsString("<span>First</span>"));
+
+		String cached = render(templateEngine, "Second", Locale.ENGLISH);
+		assertThat(cached, containsString("<span>First</span>"));
+		assertThat(cached, containsString("<p>Second</p>"));
+		assertThat(cached, not(containsString("cache:")));
+
+		assertThat(render(templateEngine, "Second", Locale.FRENCH), containsString("<span>Second</span>"));
+	}
+
+	@Test
+	public void clearRemovesFragments() {
+		FragmentCache fragmentCache = new FragmentCache(true, 100);
+		TemplateEngine templateEngine = getTemplateEngine(fragmentCache);
+
+		render(templateEngine, "First", Locale.ENGLISH);
+		fragmentCache.clear();
+
+		assertThat(render(templateEngine, "Second", Locale.ENGLISH), containsString("<span>Second</span>"));
+	}
+
+	@Test
+	public void disabledCacheRendersFragments() {
+		TemplateEngine templateEngine = getTemplateEngine(new FragmentCache(false, 100));
+
+		render(templateEngine, "First", Locale.ENGLISH);
+		String rendered = render(templateEngine, "Second", Locale.ENGLISH);
+
+		assertThat(rendered, containsString("<span>Second</span>"));
+		assertThat(rendered, not(containsString("cache:")));
+	}
+
+	@Test
+	public void sessionIdIsNotCached() {
+		FragmentCache fragmentCache = new FragmentCache(true, 100);
+		TemplateEngine templateEngine = getTemplateEngine(fragmentCache);
+		final String key = FragmentCache.key("cachedLink", "link", Locale.ENGLISH);
+
+		// First request of a new session, links carry its id.
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.getSession(true);
+		assertThat(renderLink(templateEngine, request), containsString(";jsessionid="));
+		assertThat(fragmentCache.get(key), is(nullValue()));
+
+		// Sessionless request fills the cache without the id.
+		assertThat(renderLink(templateEngine, new MockHttpServletRequest()), not(containsString(";jsessionid=")));
+		assertThat(fragmentCache.get(key), not(containsString(";jsessionid=")));
+
+		// New session is rendered again instead of copying the cached links.
+		MockHttpServletRequest newSession = new MockHttpServletRequest();
+		newSession.getSession(true);
+		assertThat(renderLink(templateEngine, newSession), containsString(";jsessionid="));
+	}
+
+	private TemplateEngine getTemplateEngine(FragmentCache fragmentCache) {
+		ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+		templateResolver.setPrefix("view/");
+		templateResolver.setSuffix(".html");
+		templateResolver.setTemplateMode("HTML5");
+
+		TemplateEngine templateEngine = new TemplateEngine();
+		templateEngine.setTemplateResolver(templateResolver);
+		templateEngine.addDialect(new FragmentCacheDialect(fragmentCache));
+
+		return templateEngine;
+	}
+
+	private String render(TemplateEngine templateEngine, String name, Locale locale) {
+		Context context = new Context(locale);
+		context.setVariable("name", name);
+
+		return templateEngine.process("cached", context);
+	}
+
+	private String renderLink(TemplateEngine templateEngine, MockHttpServletRequest request) {
+		// Encodes URLs like a servlet container tracking sessions in URLs.
+		MockHttpServletResponse response = new MockHttpServletResponse() {
+
+			@Override
+			public String encodeURL(String url) {
+				return request.getSession(false) == null || request.isRequestedSessionIdFromCookie() ? url
+						: url + ";jsessionid=" + request.getSession(false).getId();
+			}
+		};
+
+		return templateEngine.process("cachedLink",
+				new WebContext(request, response, new MockServletContext(), Locale.ENGLISH));
+	}
+}